@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks converting elements to and from Accumulo keys and values with the byte entity and classic
+ * {@link AccumuloElementConverter}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccumuloElementConverterBenchmark {
+    private static final int NUM_ELEMENTS = 10000;
+
+    @Param({"byteEntity", "classic"})
+    private String keyPackage;
+
+    private AccumuloElementConverter converter;
+    private List<Element> elements;
+    private List<Key> keys;
+    private List<Value> values;
+
+    @Setup
+    public void setup() throws AccumuloElementConversionException {
+        final Schema schema = BenchmarkData.getOptimisedSchema(true);
+        converter = "classic".equals(keyPackage)
+                ? new ClassicAccumuloElementConverter(schema)
+                : new ByteEntityAccumuloElementConverter(schema);
+        elements = BenchmarkData.generateElements(100, NUM_ELEMENTS).subList(0, NUM_ELEMENTS);
+        keys = new ArrayList<>(elements.size());
+        values = new ArrayList<>(elements.size());
+        for (final Element element : elements) {
+            keys.add(converter.getKeysFromElement(element).getFirst());
+            values.add(converter.getValueFromElement(element));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public void getKeysFromElement(final Blackhole blackhole) throws AccumuloElementConversionException {
+        for (final Element element : elements) {
+            blackhole.consume(converter.getKeysFromElement(element));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public void getValueFromElement(final Blackhole blackhole) throws AccumuloElementConversionException {
+        for (final Element element : elements) {
+            blackhole.consume(converter.getValueFromElement(element));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public void getFullElement(final Blackhole blackhole) throws AccumuloElementConversionException {
+        for (int i = 0; i < keys.size(); i++) {
+            blackhole.consume(converter.getFullElement(keys.get(i), values.get(i)));
+        }
+    }
+}
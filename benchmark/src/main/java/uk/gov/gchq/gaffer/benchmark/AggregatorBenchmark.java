@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
+import uk.gov.gchq.gaffer.example.films.data.schema.Group;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ElementAggregator#aggregate(Element)}, which delegates to
+ * {@link uk.gov.gchq.gaffer.function.processor.Aggregator#aggregate(uk.gov.gchq.gaffer.function.Tuple)}, using the
+ * schema aggregators for review entities and viewing edges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AggregatorBenchmark {
+    private static final int NUM_ELEMENTS = 10000;
+
+    private List<Element> reviews;
+    private List<Element> viewings;
+    private ElementAggregator reviewAggregator;
+    private ElementAggregator viewingAggregator;
+
+    @Setup
+    public void setup() {
+        final Schema schema = BenchmarkData.getSchema();
+        reviews = new ArrayList<>(NUM_ELEMENTS);
+        viewings = new ArrayList<>(NUM_ELEMENTS);
+        for (final Element element : BenchmarkData.generateElements(100, NUM_ELEMENTS)) {
+            if (Group.REVIEW.equals(element.getGroup()) && reviews.size() < NUM_ELEMENTS) {
+                reviews.add(element);
+            } else if (Group.VIEWING.equals(element.getGroup()) && viewings.size() < NUM_ELEMENTS) {
+                viewings.add(element);
+            }
+        }
+        reviewAggregator = schema.getEntity(Group.REVIEW).getAggregator();
+        viewingAggregator = schema.getEdge(Group.VIEWING).getAggregator();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public Properties reviews() {
+        return aggregate(reviewAggregator, reviews);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public Properties viewings() {
+        return aggregate(viewingAggregator, viewings);
+    }
+
+    private Properties aggregate(final ElementAggregator aggregator, final List<Element> elements) {
+        aggregator.initFunctions();
+        for (final Element element : elements) {
+            aggregator.aggregate(element);
+        }
+        final Properties result = new Properties();
+        aggregator.state(result);
+        return result;
+    }
+}
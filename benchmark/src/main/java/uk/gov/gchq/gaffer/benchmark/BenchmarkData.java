@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.example.films.data.Certificate;
+import uk.gov.gchq.gaffer.example.films.data.Film;
+import uk.gov.gchq.gaffer.example.films.data.Person;
+import uk.gov.gchq.gaffer.example.films.data.Review;
+import uk.gov.gchq.gaffer.example.films.data.Viewing;
+import uk.gov.gchq.gaffer.example.films.generator.DataGenerator;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the data used by the benchmarks. The data is based on the films example graph, with a configurable
+ * number of films and people, and is generated from a fixed seed so each run uses the same elements.
+ */
+public final class BenchmarkData {
+    public static final String FILMS_SCHEMA_PATH = "/example/films/schema";
+    public static final String MOCK_ACCUMULO_STORE_PROPERTIES_PATH = "/example/films/mockaccumulostore.properties";
+    public static final User USER = new User.Builder()
+            .userId("user01")
+            .dataAuth(Certificate.U.name())
+            .dataAuth(Certificate.PG.name())
+            .dataAuth(Certificate._12A.name())
+            .dataAuth(Certificate._15.name())
+            .dataAuth(Certificate._18.name())
+            .build();
+
+    private static final long SEED = 42L;
+    private static final int VIEWINGS_PER_PERSON = 10;
+    private static final int MAX_AGE = 100;
+    private static final int MAX_RATING = 100;
+    private static final long START_TIME = 1400000000000L;
+    private static final int MAX_START_TIME_OFFSET = 100000000;
+
+    private BenchmarkData() {
+        // private to prevent this class being instantiated.
+        // All methods are static and should be called directly.
+    }
+
+    /**
+     * @return the films schema, loaded from the example-graph jar
+     */
+    public static Schema getSchema() {
+        return Schema.fromJson(StreamUtil.openStreams(DataGenerator.class, FILMS_SCHEMA_PATH, true));
+    }
+
+    /**
+     * @param isStoreOrdered true if the schema will be used by an ordered store
+     * @return the films schema with the default serialisers added
+     */
+    public static Schema getOptimisedSchema(final boolean isStoreOrdered) {
+        return new SchemaOptimiser().optimise(getSchema(), isStoreOrdered);
+    }
+
+    /**
+     * Generates a film entity for each film, a person entity for each person and, for each person, viewing edges
+     * and review entities for randomly chosen films.
+     *
+     * @param numFilms  the number of films
+     * @param numPeople the number of people
+     * @return the generated elements
+     */
+    public static List<Element> generateElements(final int numFilms, final int numPeople) {
+        final Random random = new Random(SEED);
+        final Certificate[] certificates = Certificate.values();
+        final List<Object> data = new ArrayList<>();
+        for (int i = 0; i < numFilms; i++) {
+            data.add(new Film(getFilmId(i), "Film " + i, certificates[random.nextInt(certificates.length)]));
+        }
+        for (int i = 0; i < numPeople; i++) {
+            final String userId = getUserId(i);
+            data.add(new Person(userId, "User " + i, random.nextInt(MAX_AGE)));
+            for (int j = 0; j < VIEWINGS_PER_PERSON; j++) {
+                final String filmId = getFilmId(random.nextInt(numFilms));
+                data.add(new Viewing(filmId, userId, START_TIME + random.nextInt(MAX_START_TIME_OFFSET)));
+                data.add(new Review(filmId, userId, random.nextInt(MAX_RATING)));
+            }
+        }
+
+        final List<Element> elements = new ArrayList<>(data.size());
+        for (final Element element : new DataGenerator().getElements(data)) {
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    public static String getFilmId(final int i) {
+        return "film" + i;
+    }
+
+    public static String getUserId(final int i) {
+        return "user" + i;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawSerialisationUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the variable length long encoding in {@link CompactRawSerialisationUtils}.
+ * The magnitude of the values determines how many bytes they are encoded in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompactRawSerialisationBenchmark {
+    private static final int NUM_VALUES = 10000;
+
+    @Param({"127", "2147483647", "9223372036854775807"})
+    private long maxValue;
+
+    private long[] values;
+    private byte[][] serialisedValues;
+    private byte[] serialisedStream;
+
+    @Setup
+    public void setup() throws SerialisationException {
+        final Random random = new Random(42L);
+        values = new long[NUM_VALUES];
+        serialisedValues = new byte[NUM_VALUES][];
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < NUM_VALUES; i++) {
+            values[i] = (random.nextLong() & Long.MAX_VALUE) % maxValue * (random.nextBoolean() ? 1 : -1);
+            serialisedValues[i] = CompactRawSerialisationUtils.writeLong(values[i]);
+            CompactRawSerialisationUtils.write(values[i], stream);
+        }
+        serialisedStream = stream.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public void writeLong(final Blackhole blackhole) {
+        for (final long value : values) {
+            blackhole.consume(CompactRawSerialisationUtils.writeLong(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public void readLong(final Blackhole blackhole) throws SerialisationException {
+        for (final byte[] serialisedValue : serialisedValues) {
+            blackhole.consume(CompactRawSerialisationUtils.readLong(serialisedValue));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public byte[] writeToStream() throws SerialisationException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream(serialisedStream.length);
+        for (final long value : values) {
+            CompactRawSerialisationUtils.write(value, stream);
+        }
+        return stream.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_VALUES)
+    public void readFromStream(final Blackhole blackhole) throws SerialisationException {
+        final ByteArrayInputStream stream = new ByteArrayInputStream(serialisedStream);
+        for (int i = 0; i < NUM_VALUES; i++) {
+            blackhole.consume(CompactRawSerialisationUtils.read(stream));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.example.films.data.schema.Group;
+import uk.gov.gchq.gaffer.example.films.data.schema.Property;
+import uk.gov.gchq.gaffer.function.filter.IsMoreThan;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ElementFilter#filter(Element)}, which delegates to
+ * {@link uk.gov.gchq.gaffer.function.processor.Filter#filter(uk.gov.gchq.gaffer.function.Tuple)}, using the schema
+ * validator and a view style filter on review entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FilterBenchmark {
+    private static final int NUM_ELEMENTS = 10000;
+
+    private List<Element> reviews;
+    private ElementFilter validator;
+    private ElementFilter viewFilter;
+
+    @Setup
+    public void setup() {
+        final Schema schema = BenchmarkData.getSchema();
+        reviews = new ArrayList<>(NUM_ELEMENTS);
+        for (final Element element : BenchmarkData.generateElements(100, NUM_ELEMENTS)) {
+            if (Group.REVIEW.equals(element.getGroup()) && reviews.size() < NUM_ELEMENTS) {
+                reviews.add(element);
+            }
+        }
+        validator = schema.getEntity(Group.REVIEW).getValidator();
+        viewFilter = new ElementFilter.Builder()
+                .select(Property.RATING)
+                .execute(new IsMoreThan(50L))
+                .select(Property.COUNT)
+                .execute(new IsMoreThan(0))
+                .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public void schemaValidator(final Blackhole blackhole) {
+        for (final Element review : reviews) {
+            blackhole.consume(validator.filter(review));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public void viewFilter(final Blackhole blackhole) {
+        for (final Element review : reviews) {
+            blackhole.consume(viewFilter.filter(review));
+        }
+    }
+}
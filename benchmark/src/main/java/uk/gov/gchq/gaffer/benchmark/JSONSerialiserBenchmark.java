@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link JSONSerialiser} serialising and deserialising individual elements and an
+ * {@link AddElements} operation containing all the elements, as sent to the REST API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JSONSerialiserBenchmark {
+    private static final int NUM_ELEMENTS = 1000;
+
+    private final JSONSerialiser serialiser = new JSONSerialiser();
+    private List<Element> elements;
+    private byte[][] serialisedElements;
+    private AddElements addElements;
+    private byte[] serialisedAddElements;
+
+    @Setup
+    public void setup() throws SerialisationException {
+        elements = BenchmarkData.generateElements(100, NUM_ELEMENTS).subList(0, NUM_ELEMENTS);
+        serialisedElements = new byte[NUM_ELEMENTS][];
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            serialisedElements[i] = serialiser.serialise(elements.get(i));
+        }
+        addElements = new AddElements.Builder()
+                .elements(elements)
+                .build();
+        serialisedAddElements = serialiser.serialise(addElements);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public void serialiseElement(final Blackhole blackhole) throws SerialisationException {
+        for (final Element element : elements) {
+            blackhole.consume(serialiser.serialise(element));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public void deserialiseElement(final Blackhole blackhole) throws SerialisationException {
+        for (final byte[] serialisedElement : serialisedElements) {
+            blackhole.consume(serialiser.deserialise(serialisedElement, Element.class));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialiseAddElements() throws SerialisationException {
+        return serialiser.serialise(addElements);
+    }
+
+    @Benchmark
+    public AddElements deserialiseAddElements() throws SerialisationException {
+        return serialiser.deserialise(serialisedAddElements, AddElements.class);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.spark.serialisation.kryo.Registrator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks writing and reading elements with the Kryo {@link Registrator} used for Spark RDDs,
+ * with and without the schema. The number of bytes written for the elements, which is the amount
+ * of data Spark would shuffle, is logged during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SparkKryoSerialisationBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SparkKryoSerialisationBenchmark.class);
+    private static final int NUM_ELEMENTS = 10000;
+    private static final int BUFFER_SIZE = 4096;
+
+    @Param({"false", "true"})
+    private boolean useSchema;
+
+    private Kryo kryo;
+    private List<Element> elements;
+    private byte[] serialisedElements;
+
+    @Setup
+    public void setup() {
+        kryo = new Kryo();
+        new Registrator(useSchema ? BenchmarkData.getOptimisedSchema(false) : null).registerClasses(kryo);
+        elements = BenchmarkData.generateElements(100, NUM_ELEMENTS).subList(0, NUM_ELEMENTS);
+        serialisedElements = writeElements();
+        LOGGER.info("Wrote {} elements in {} bytes with useSchema={}", NUM_ELEMENTS, serialisedElements.length, useSchema);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public byte[] write() {
+        return writeElements();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ELEMENTS)
+    public void read(final Blackhole blackhole) {
+        final Input input = new Input(serialisedElements);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            blackhole.consume(kryo.readClassAndObject(input));
+        }
+    }
+
+    private byte[] writeElements() {
+        final Output output = new Output(BUFFER_SIZE, -1);
+        for (final Element element : elements) {
+            kryo.writeClassAndObject(output, element);
+        }
+        return output.toBytes();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.example.films.data.schema.Group;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end benchmarks of {@link AddElements} and {@link GetElements} operations executed on a {@link Graph}
+ * backed by a {@link uk.gov.gchq.gaffer.mapstore.MapStore} or a
+ * {@link uk.gov.gchq.gaffer.accumulostore.MockAccumuloStore}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StoreBenchmark {
+    private static final int NUM_FILMS = 1000;
+    private static final int NUM_PEOPLE = 1000;
+    private static final int NUM_SEEDS = 100;
+
+    @Param({"mapStore", "mockAccumuloStore"})
+    private String store;
+
+    private List<Element> elements;
+    private List<EntitySeed> seeds;
+    private View view;
+    private Graph populatedGraph;
+    private Graph emptyGraph;
+
+    @Setup(Level.Trial)
+    public void setup() throws OperationException {
+        elements = BenchmarkData.generateElements(NUM_FILMS, NUM_PEOPLE);
+        final Random random = new Random(42L);
+        seeds = new ArrayList<>(NUM_SEEDS);
+        for (int i = 0; i < NUM_SEEDS; i++) {
+            seeds.add(new EntitySeed(BenchmarkData.getUserId(random.nextInt(NUM_PEOPLE))));
+        }
+        view = new View.Builder()
+                .entity(Group.PERSON)
+                .entity(Group.FILM)
+                .entity(Group.REVIEW)
+                .edge(Group.VIEWING)
+                .build();
+        populatedGraph = createGraph("populatedTable");
+        populatedGraph.execute(new AddElements.Builder()
+                .elements(elements)
+                .build(), BenchmarkData.USER);
+    }
+
+    // Each addElements call is timed against a graph that has not had any elements added to it.
+    // An add takes milliseconds, so the per invocation setup does not distort the measurement.
+    @Setup(Level.Invocation)
+    public void setupEmptyGraph() {
+        emptyGraph = createGraph("emptyTable");
+    }
+
+    @Benchmark
+    public void addElements() throws OperationException {
+        emptyGraph.execute(new AddElements.Builder()
+                .elements(elements)
+                .build(), BenchmarkData.USER);
+    }
+
+    @Benchmark
+    public void getElements(final Blackhole blackhole) throws OperationException {
+        final CloseableIterable<Element> results = populatedGraph.execute(new GetElements.Builder<EntitySeed, Element>()
+                .seeds(seeds)
+                .view(view)
+                .build(), BenchmarkData.USER);
+        try {
+            for (final Element result : results) {
+                blackhole.consume(result);
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    private Graph createGraph(final String tableName) {
+        final StoreProperties storeProperties;
+        if ("mockAccumuloStore".equals(store)) {
+            final AccumuloProperties accumuloProperties = AccumuloProperties.loadStoreProperties(
+                    StreamUtil.openStream(getClass(), BenchmarkData.MOCK_ACCUMULO_STORE_PROPERTIES_PATH, true));
+            // The mock store deletes the table when it is initialised, so each graph needs its own table
+            accumuloProperties.setTable(tableName);
+            storeProperties = accumuloProperties;
+        } else {
+            storeProperties = new MapStoreProperties();
+        }
+        return new Graph.Builder()
+                .addSchema(BenchmarkData.getSchema())
+                .storeProperties(storeProperties)
+                .build();
+    }
+}
@@ -67,10 +67,27 @@ public final class ByteArrayEscapeUtils {
      * @return the unescaped byte array
      */
     public static byte[] unEscape(final byte[] bytes) {
-        final byte[] temp = new byte[bytes.length];
+        return unEscape(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Unescapes a range of the provided byte array - this should only be called
+     * on byte ranges that have been through the <code>escape</code> method.
+     *
+     * @param bytes
+     *            the byte array containing the range to unescape
+     * @param offset
+     *            the index of the first byte to unescape
+     * @param length
+     *            the number of bytes to unescape
+     * @return the unescaped byte array
+     */
+    public static byte[] unEscape(final byte[] bytes, final int offset, final int length) {
+        final byte[] temp = new byte[length];
         int currentPosition = 0;
         boolean isEscaped = false;
-        for (final byte b : bytes) {
+        for (int i = offset; i < offset + length; i++) {
+            final byte b = bytes[i];
             if (isEscaped) {
                 if (b == REPLACEMENT_CHAR) {
                     temp[currentPosition++] = ESCAPE_CHAR;
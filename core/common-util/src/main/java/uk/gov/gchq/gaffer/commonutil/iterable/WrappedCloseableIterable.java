@@ -16,6 +16,7 @@
 
 package uk.gov.gchq.gaffer.commonutil.iterable;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import java.util.Iterator;
 
@@ -51,6 +52,11 @@ public class WrappedCloseableIterable<T> implements CloseableIterable<T> {
         return new WrappedCloseableIterator<>(iterator);
     }
 
+    @JsonIgnore
+    public Iterable<T> getIterable() {
+        return iterable;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
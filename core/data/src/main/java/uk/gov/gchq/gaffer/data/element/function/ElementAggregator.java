@@ -22,9 +22,11 @@ import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Properties;
-import uk.gov.gchq.gaffer.data.element.PropertiesTuple;
 import uk.gov.gchq.gaffer.function.AggregateFunction;
+import uk.gov.gchq.gaffer.function.context.PassThroughFunctionContext;
 import uk.gov.gchq.gaffer.function.processor.Aggregator;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Element Aggregator - for aggregating {@link uk.gov.gchq.gaffer.data.element.Element}s.
@@ -46,7 +48,8 @@ import uk.gov.gchq.gaffer.function.processor.Aggregator;
  * @see uk.gov.gchq.gaffer.function.processor.Aggregator
  */
 public class ElementAggregator extends Aggregator<String> {
-    private final PropertiesTuple propertiesTuple = new PropertiesTuple();
+    // Replaced rather than modified, so threads sharing the aggregator always see fully compiled functions
+    private volatile CompiledFunctions compiled;
 
     /**
      * Aggregates the element. Note - only the element properties are aggregated.
@@ -58,9 +61,31 @@ public class ElementAggregator extends Aggregator<String> {
         aggregate(element.getProperties());
     }
 
+    /**
+     * Aggregates the properties. The first time properties are aggregated the
+     * function selections are compiled, so no objects are allocated per call.
+     * Functions are skipped if all of their selected properties are null.
+     *
+     * @param properties the properties to be aggregated.
+     */
     public void aggregate(final Properties properties) {
-        propertiesTuple.setProperties(properties);
-        super.aggregate(propertiesTuple);
+        final List<PassThroughFunctionContext<String, AggregateFunction>> currentFunctions = functions;
+        if (null == currentFunctions) {
+            return;
+        }
+
+        if (!initialised) {
+            initFunctions();
+            initialised = true;
+        }
+
+        final CompiledFunctions compiledFunctions = compile(currentFunctions);
+        for (int i = 0; i < compiledFunctions.functions.length; i++) {
+            final Object[] selection = compiledFunctions.selections[i].select(properties);
+            if (ElementSelection.hasNonNullValues(selection)) {
+                compiledFunctions.functions[i].aggregate(selection);
+            }
+        }
     }
 
     /**
@@ -74,8 +99,36 @@ public class ElementAggregator extends Aggregator<String> {
     }
 
     public void state(final Properties properties) {
-        propertiesTuple.setProperties(properties);
-        super.state(propertiesTuple);
+        final List<PassThroughFunctionContext<String, AggregateFunction>> currentFunctions = functions;
+        if (null == currentFunctions) {
+            return;
+        }
+
+        final CompiledFunctions compiledFunctions = compile(currentFunctions);
+        for (int i = 0; i < compiledFunctions.functions.length; i++) {
+            compiledFunctions.selections[i].project(properties, compiledFunctions.functions[i].state());
+        }
+    }
+
+    @Override
+    public void addFunction(final PassThroughFunctionContext<String, AggregateFunction> functionContext) {
+        super.addFunction(functionContext);
+        compiled = null;
+    }
+
+    @Override
+    public void addFunctions(final Collection<PassThroughFunctionContext<String, AggregateFunction>> functionContexts) {
+        super.addFunctions(functionContexts);
+        compiled = null;
+    }
+
+    private CompiledFunctions compile(final List<PassThroughFunctionContext<String, AggregateFunction>> currentFunctions) {
+        CompiledFunctions current = compiled;
+        if (null == current || !current.isCompiledFrom(currentFunctions)) {
+            current = new CompiledFunctions(currentFunctions);
+            compiled = current;
+        }
+        return current;
     }
 
     @SuppressWarnings("CloneDoesntCallSuperClone")
@@ -104,7 +157,6 @@ public class ElementAggregator extends Aggregator<String> {
                 .appendSuper(super.equals(o))
                 .append(functions, that.functions)
                 .append(initialised, that.initialised)
-                .append(propertiesTuple, that.propertiesTuple)
                 .isEquals();
     }
 
@@ -114,7 +166,6 @@ public class ElementAggregator extends Aggregator<String> {
                 .appendSuper(super.hashCode())
                 .append(functions)
                 .append(initialised)
-                .append(propertiesTuple)
                 .toHashCode();
     }
 
@@ -123,10 +174,46 @@ public class ElementAggregator extends Aggregator<String> {
         return new ToStringBuilder(this)
                 .append("functions", functions)
                 .append("initialised", initialised)
-                .append("propertiesTuple", propertiesTuple)
                 .toString();
     }
 
+    /**
+     * The aggregate functions and their compiled selections. The functions are
+     * compiled again if any of the function contexts have changed, including
+     * contexts added to or replaced in the list returned by {@link #getFunctions()}.
+     */
+    private static final class CompiledFunctions {
+        private final Object[] contexts;
+        private final AggregateFunction[] functions;
+        private final ElementSelection[] selections;
+
+        @SuppressWarnings("unchecked")
+        private CompiledFunctions(final List<PassThroughFunctionContext<String, AggregateFunction>> functionContexts) {
+            this.contexts = functionContexts.toArray();
+            final int size = contexts.length;
+            this.functions = new AggregateFunction[size];
+            this.selections = new ElementSelection[size];
+            for (int i = 0; i < size; i++) {
+                final PassThroughFunctionContext<String, AggregateFunction> functionContext = (PassThroughFunctionContext<String, AggregateFunction>) contexts[i];
+                functions[i] = functionContext.getFunction();
+                selections[i] = new ElementSelection(functionContext.getSelection());
+            }
+        }
+
+        private boolean isCompiledFrom(final List<PassThroughFunctionContext<String, AggregateFunction>> functionContexts) {
+            if (contexts.length != functionContexts.size()) {
+                return false;
+            }
+            // Checked by index so no iterator is allocated for each element
+            for (int i = 0; i < contexts.length; i++) {
+                if (contexts[i] != functionContexts.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * Builder for {@link ElementAggregator}.
      */
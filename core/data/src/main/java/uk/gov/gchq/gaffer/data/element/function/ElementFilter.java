@@ -20,10 +20,15 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.data.element.Element;
-import uk.gov.gchq.gaffer.data.element.ElementTuple;
 import uk.gov.gchq.gaffer.function.FilterFunction;
+import uk.gov.gchq.gaffer.function.context.ConsumerFunctionContext;
 import uk.gov.gchq.gaffer.function.processor.Filter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Element Filter - for filtering {@link uk.gov.gchq.gaffer.data.element.Element}s.
@@ -34,11 +39,60 @@ import uk.gov.gchq.gaffer.function.processor.Filter;
  * @see uk.gov.gchq.gaffer.function.processor.Filter
  */
 public class ElementFilter extends Filter<String> {
-    private final ElementTuple elementTuple = new ElementTuple();
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElementFilter.class);
 
+    // Replaced rather than modified, so threads sharing the filter always see fully compiled functions
+    private volatile CompiledFunctions compiled;
+
+    /**
+     * Tests an element against the filter functions, performing a logical AND.
+     * The first time an element is filtered the function selections are
+     * compiled, resolving each reference to an identifier or property once, so
+     * no objects are allocated per element.
+     *
+     * @param element the element to be filtered
+     * @return true if the element passes all of the filter functions
+     */
     public boolean filter(final Element element) {
-        elementTuple.setElement(element);
-        return super.filter(elementTuple);
+        final List<ConsumerFunctionContext<String, FilterFunction>> currentFunctions = functions;
+        if (null == currentFunctions) {
+            return true;
+        }
+
+        final CompiledFunctions compiledFunctions = compile(currentFunctions);
+        for (int i = 0; i < compiledFunctions.functions.length; i++) {
+            final Object[] selection = compiledFunctions.selections[i].select(element);
+            if (!compiledFunctions.functions[i].isValid(selection)) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug(compiledFunctions.functions[i].getClass().getName() + " filtered out "
+                            + Arrays.toString(selection) + " from input: " + element);
+                }
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void addFunction(final ConsumerFunctionContext<String, FilterFunction> functionContext) {
+        super.addFunction(functionContext);
+        compiled = null;
+    }
+
+    @Override
+    public void addFunctions(final Collection<ConsumerFunctionContext<String, FilterFunction>> functionContexts) {
+        super.addFunctions(functionContexts);
+        compiled = null;
+    }
+
+    private CompiledFunctions compile(final List<ConsumerFunctionContext<String, FilterFunction>> currentFunctions) {
+        CompiledFunctions current = compiled;
+        if (null == current || !current.isCompiledFrom(currentFunctions)) {
+            current = new CompiledFunctions(currentFunctions);
+            compiled = current;
+        }
+        return current;
     }
 
     @SuppressWarnings("CloneDoesntCallSuperClone")
@@ -66,7 +120,6 @@ public class ElementFilter extends Filter<String> {
         return new EqualsBuilder()
                 .appendSuper(super.equals(o))
                 .append(functions, that.functions)
-                .append(elementTuple, that.elementTuple)
                 .isEquals();
     }
 
@@ -75,7 +128,6 @@ public class ElementFilter extends Filter<String> {
         return new HashCodeBuilder(17, 37)
                 .appendSuper(super.hashCode())
                 .append(functions)
-                .append(elementTuple)
                 .toHashCode();
     }
 
@@ -83,10 +135,46 @@ public class ElementFilter extends Filter<String> {
     public String toString() {
         return new ToStringBuilder(this)
                 .append("functions", functions)
-                .append("elementTuple", elementTuple)
                 .toString();
     }
 
+    /**
+     * The filter functions and their compiled selections. The functions are
+     * compiled again if any of the function contexts have changed, including
+     * contexts added to or replaced in the list returned by {@link #getFunctions()}.
+     */
+    private static final class CompiledFunctions {
+        private final Object[] contexts;
+        private final FilterFunction[] functions;
+        private final ElementSelection[] selections;
+
+        @SuppressWarnings("unchecked")
+        private CompiledFunctions(final List<ConsumerFunctionContext<String, FilterFunction>> functionContexts) {
+            this.contexts = functionContexts.toArray();
+            final int size = contexts.length;
+            this.functions = new FilterFunction[size];
+            this.selections = new ElementSelection[size];
+            for (int i = 0; i < size; i++) {
+                final ConsumerFunctionContext<String, FilterFunction> functionContext = (ConsumerFunctionContext<String, FilterFunction>) contexts[i];
+                functions[i] = functionContext.getFunction();
+                selections[i] = new ElementSelection(functionContext.getSelection());
+            }
+        }
+
+        private boolean isCompiledFrom(final List<ConsumerFunctionContext<String, FilterFunction>> functionContexts) {
+            if (contexts.length != functionContexts.size()) {
+                return false;
+            }
+            // Checked by index so no iterator is allocated for each element
+            for (int i = 0; i < contexts.length; i++) {
+                if (contexts[i] != functionContexts.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * Builder for {@link ElementFilter}.
      */
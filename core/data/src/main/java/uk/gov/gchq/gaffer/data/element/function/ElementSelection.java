@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.data.element.function;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.IdentifierType;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import java.util.List;
+
+/**
+ * An <code>ElementSelection</code> is a compiled list of references to an
+ * {@link Element}'s identifiers and properties. Each reference is resolved to
+ * an {@link IdentifierType} or a property name once, when the selection is
+ * created, rather than every time an element is processed. The array used to
+ * return selected values is reused, so instances are not thread safe.
+ */
+final class ElementSelection {
+    private final String[] references;
+    private final IdentifierType[] identifierTypes;
+    private final Object[] selected;
+
+    ElementSelection(final List<String> references) {
+        final int size = null != references ? references.size() : 0;
+        this.references = new String[size];
+        this.identifierTypes = new IdentifierType[size];
+        this.selected = new Object[size];
+        for (int i = 0; i < size; i++) {
+            this.references[i] = references.get(i);
+            this.identifierTypes[i] = IdentifierType.fromName(this.references[i]);
+        }
+    }
+
+    /**
+     * @param element the element to select values from
+     * @return the selected values, in a reused array
+     */
+    Object[] select(final Element element) {
+        for (int i = 0; i < references.length; i++) {
+            selected[i] = null == identifierTypes[i]
+                    ? element.getProperty(references[i])
+                    : element.getIdentifier(identifierTypes[i]);
+        }
+
+        return selected;
+    }
+
+    /**
+     * Selects values from properties. Any references to identifiers are
+     * treated as property names.
+     *
+     * @param properties the properties to select values from
+     * @return the selected values, in a reused array
+     */
+    Object[] select(final Properties properties) {
+        for (int i = 0; i < references.length; i++) {
+            selected[i] = properties.get(references[i]);
+        }
+
+        return selected;
+    }
+
+    void project(final Element element, final Object[] values) {
+        for (int i = 0; i < references.length; i++) {
+            final Object value = i < values.length ? values[i] : null;
+            if (null == identifierTypes[i]) {
+                element.putProperty(references[i], value);
+            } else {
+                element.putIdentifier(identifierTypes[i], value);
+            }
+        }
+    }
+
+    void project(final Properties properties, final Object[] values) {
+        for (int i = 0; i < references.length; i++) {
+            properties.put(references[i], i < values.length ? values[i] : null);
+        }
+    }
+
+    static boolean hasNonNullValues(final Object[] values) {
+        for (final Object value : values) {
+            if (null != value) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
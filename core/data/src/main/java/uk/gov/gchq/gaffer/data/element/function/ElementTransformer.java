@@ -21,9 +21,11 @@ import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import uk.gov.gchq.gaffer.data.element.Element;
-import uk.gov.gchq.gaffer.data.element.ElementTuple;
 import uk.gov.gchq.gaffer.function.TransformFunction;
+import uk.gov.gchq.gaffer.function.context.ConsumerProducerFunctionContext;
 import uk.gov.gchq.gaffer.function.processor.Transformer;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Element Transformer - for transforming {@link uk.gov.gchq.gaffer.data.element.Element}s.
@@ -34,11 +36,48 @@ import uk.gov.gchq.gaffer.function.processor.Transformer;
  * @see uk.gov.gchq.gaffer.function.processor.Transformer
  */
 public class ElementTransformer extends Transformer<String> {
-    private final ElementTuple elementTuple = new ElementTuple();
+    // Replaced rather than modified, so threads sharing the transformer always see fully compiled functions
+    private volatile CompiledFunctions compiled;
 
+    /**
+     * Transforms an element using the transform functions. The first time an
+     * element is transformed the function selections and projections are
+     * compiled, resolving each reference to an identifier or property once.
+     *
+     * @param element the element to be transformed
+     */
     public void transform(final Element element) {
-        elementTuple.setElement(element);
-        super.transform(elementTuple);
+        final List<ConsumerProducerFunctionContext<String, TransformFunction>> currentFunctions = functions;
+        if (null == currentFunctions) {
+            return;
+        }
+
+        final CompiledFunctions compiledFunctions = compile(currentFunctions);
+        for (int i = 0; i < compiledFunctions.functions.length; i++) {
+            final Object[] result = compiledFunctions.functions[i].transform(compiledFunctions.selections[i].select(element));
+            compiledFunctions.projections[i].project(element, result);
+        }
+    }
+
+    @Override
+    public void addFunction(final ConsumerProducerFunctionContext<String, TransformFunction> functionContext) {
+        super.addFunction(functionContext);
+        compiled = null;
+    }
+
+    @Override
+    public void addFunctions(final Collection<ConsumerProducerFunctionContext<String, TransformFunction>> functionContexts) {
+        super.addFunctions(functionContexts);
+        compiled = null;
+    }
+
+    private CompiledFunctions compile(final List<ConsumerProducerFunctionContext<String, TransformFunction>> currentFunctions) {
+        CompiledFunctions current = compiled;
+        if (null == current || !current.isCompiledFrom(currentFunctions)) {
+            current = new CompiledFunctions(currentFunctions);
+            compiled = current;
+        }
+        return current;
     }
 
     @SuppressWarnings("CloneDoesntCallSuperClone")
@@ -66,7 +105,6 @@ public class ElementTransformer extends Transformer<String> {
         return new EqualsBuilder()
                 .appendSuper(super.equals(o))
                 .append(functions, that.functions)
-                .append(elementTuple, that.elementTuple)
                 .isEquals();
     }
 
@@ -75,7 +113,6 @@ public class ElementTransformer extends Transformer<String> {
         return new HashCodeBuilder(17, 37)
                 .appendSuper(super.hashCode())
                 .append(functions)
-                .append(elementTuple)
                 .toHashCode();
     }
 
@@ -83,10 +120,50 @@ public class ElementTransformer extends Transformer<String> {
     public String toString() {
         return new ToStringBuilder(this)
                 .append("functions", functions)
-                .append("elementTuple", elementTuple)
                 .toString();
     }
 
+    /**
+     * The transform functions and their compiled selections and projections.
+     * The functions are compiled again if any of the function contexts have
+     * changed, including contexts added to or replaced in the list returned by
+     * {@link #getFunctions()}.
+     */
+    private static final class CompiledFunctions {
+        private final Object[] contexts;
+        private final TransformFunction[] functions;
+        private final ElementSelection[] selections;
+        private final ElementSelection[] projections;
+
+        @SuppressWarnings("unchecked")
+        private CompiledFunctions(final List<ConsumerProducerFunctionContext<String, TransformFunction>> functionContexts) {
+            this.contexts = functionContexts.toArray();
+            final int size = contexts.length;
+            this.functions = new TransformFunction[size];
+            this.selections = new ElementSelection[size];
+            this.projections = new ElementSelection[size];
+            for (int i = 0; i < size; i++) {
+                final ConsumerProducerFunctionContext<String, TransformFunction> functionContext = (ConsumerProducerFunctionContext<String, TransformFunction>) contexts[i];
+                functions[i] = functionContext.getFunction();
+                selections[i] = new ElementSelection(functionContext.getSelection());
+                projections[i] = new ElementSelection(functionContext.getProjection());
+            }
+        }
+
+        private boolean isCompiledFrom(final List<ConsumerProducerFunctionContext<String, TransformFunction>> functionContexts) {
+            if (contexts.length != functionContexts.size()) {
+                return false;
+            }
+            // Checked by index so no iterator is allocated for each element
+            for (int i = 0; i < contexts.length; i++) {
+                if (contexts[i] != functionContexts.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * Builder for {@link ElementTransformer}.
      */
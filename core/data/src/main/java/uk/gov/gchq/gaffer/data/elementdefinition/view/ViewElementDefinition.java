@@ -74,6 +74,19 @@ public class ViewElementDefinition implements ElementDefinition, Cloneable {
      */
     protected Set<String> groupBy;
 
+    /**
+     * The properties to return.
+     * <p>
+     * If null, then all properties are returned.
+     * </p>
+     * <p>
+     * If set, then only the specified properties are required. Stores that
+     * support this avoid deserialising the other properties and remove them
+     * from the returned elements. Other stores may still return them.
+     * </p>
+     */
+    protected Set<String> properties;
+
     /**
      * Transient property map of property name to class.
      */
@@ -87,6 +100,14 @@ public class ViewElementDefinition implements ElementDefinition, Cloneable {
         this.groupBy = groupBy;
     }
 
+    public Set<String> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(final LinkedHashSet<String> properties) {
+        this.properties = properties;
+    }
+
     public Class<?> getTransientPropertyClass(final String propertyName) {
         return transientProperties.get(propertyName);
     }
@@ -199,6 +220,7 @@ public class ViewElementDefinition implements ElementDefinition, Cloneable {
                 .append(postAggregationFilter, that.postAggregationFilter)
                 .append(postTransformFilter, that.postTransformFilter)
                 .append(groupBy, that.groupBy)
+                .append(properties, that.properties)
                 .append(transientProperties, that.transientProperties)
                 .isEquals();
     }
@@ -211,6 +233,7 @@ public class ViewElementDefinition implements ElementDefinition, Cloneable {
                 .append(postAggregationFilter)
                 .append(postTransformFilter)
                 .append(groupBy)
+                .append(properties)
                 .append(transientProperties)
                 .toHashCode();
     }
@@ -223,6 +246,7 @@ public class ViewElementDefinition implements ElementDefinition, Cloneable {
                 .append("postAggregationFilter", postAggregationFilter)
                 .append("postTransformFilter", postTransformFilter)
                 .append("groupBy", groupBy)
+                .append("properties", properties)
                 .append("transientProperties", transientProperties)
                 .toString();
     }
@@ -233,6 +257,10 @@ public class ViewElementDefinition implements ElementDefinition, Cloneable {
             groupBy = Collections.unmodifiableSet(groupBy);
         }
 
+        if (null != properties) {
+            properties = Collections.unmodifiableSet(properties);
+        }
+
         transientProperties = Collections.unmodifiableMap(transientProperties);
     }
 
@@ -324,6 +352,14 @@ public class ViewElementDefinition implements ElementDefinition, Cloneable {
             return self();
         }
 
+        public CHILD_CLASS properties(final String... properties) {
+            if (null == getElementDef().getProperties()) {
+                getElementDef().setProperties(new LinkedHashSet<>());
+            }
+            Collections.addAll(getElementDef().getProperties(), properties);
+            return self();
+        }
+
         @JsonIgnore
         public CHILD_CLASS json(final byte[] jsonBytes) throws SchemaException {
             return json(jsonBytes, ViewElementDefinition.class);
@@ -382,6 +418,10 @@ public class ViewElementDefinition implements ElementDefinition, Cloneable {
                 getElementDef().groupBy = new LinkedHashSet<>(elementDef.getGroupBy());
             }
 
+            if (null != elementDef.getProperties()) {
+                getElementDef().properties = new LinkedHashSet<>(elementDef.getProperties());
+            }
+
             return self();
         }
 
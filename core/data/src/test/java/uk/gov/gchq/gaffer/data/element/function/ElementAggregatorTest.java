@@ -23,18 +23,20 @@ import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Properties;
-import uk.gov.gchq.gaffer.data.element.PropertiesTuple;
 import uk.gov.gchq.gaffer.function.AggregateFunction;
 import uk.gov.gchq.gaffer.function.context.PassThroughFunctionContext;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -42,7 +44,7 @@ import static org.mockito.Mockito.verify;
 public class ElementAggregatorTest {
 
     @Test
-    public void shouldWrapElementInElementTupleAndCallSuper() {
+    public void shouldSelectFromElementPropertiesAndCallFunction() {
         // Given
         final String reference = "reference1";
         final String value = "value";
@@ -58,23 +60,18 @@ public class ElementAggregatorTest {
         final Edge edge = new Edge("group");
         edge.putProperty(reference, value);
 
-        final ArgumentCaptor<PropertiesTuple> propertiesTupleCaptor = ArgumentCaptor.forClass(PropertiesTuple.class);
-        given(functionContext1.select(propertiesTupleCaptor.capture())).willReturn(new String[]{value});
-
         // When
         aggregator.aggregate(edge);
 
         // Then
-        assertEquals(edge.getProperties(), propertiesTupleCaptor.getValue().getProperties());
-        verify(functionContext1, times(2)).getFunction();
-
+        verify(function).init();
         final ArgumentCaptor<Object[]> argumentCaptor = ArgumentCaptor.forClass(Object[].class);
         verify(function).aggregate(argumentCaptor.capture());
         assertEquals(value, argumentCaptor.getValue()[0]);
     }
 
     @Test
-    public void shouldWrapPropertiesInPropertiesTupleAndCallSuper() {
+    public void shouldSelectFromPropertiesAndCallFunction() {
         // Given
         final String reference = "reference1";
         final String value = "value";
@@ -88,21 +85,37 @@ public class ElementAggregatorTest {
         aggregator.addFunction(functionContext1);
 
         final Properties properties = new Properties(reference, value);
-        final ArgumentCaptor<PropertiesTuple> propertiesTupleCaptor = ArgumentCaptor.forClass(PropertiesTuple.class);
-        given(functionContext1.select(propertiesTupleCaptor.capture())).willReturn(new String[]{value});
 
         // When
         aggregator.aggregate(properties);
+        aggregator.aggregate(properties);
 
         // Then
-        verify(functionContext1, times(2)).getFunction();
-
-        assertSame(properties, propertiesTupleCaptor.getValue().getProperties());
+        verify(function).init();
+        verify(functionContext1).getSelection();
         final ArgumentCaptor<Object[]> argumentCaptor = ArgumentCaptor.forClass(Object[].class);
-        verify(function).aggregate(argumentCaptor.capture());
+        verify(function, times(2)).aggregate(argumentCaptor.capture());
         assertEquals(value, argumentCaptor.getValue()[0]);
     }
 
+    @Test
+    public void shouldNotCallFunctionIfAllSelectedPropertiesAreNull() {
+        // Given
+        final ElementAggregator aggregator = new ElementAggregator();
+        final PassThroughFunctionContext<String, AggregateFunction> functionContext1 = mock(PassThroughFunctionContext.class);
+        final AggregateFunction function = mock(AggregateFunction.class);
+        given(functionContext1.getFunction()).willReturn(function);
+        given(functionContext1.getSelection()).willReturn(Arrays.asList("reference1", "reference2"));
+
+        aggregator.addFunction(functionContext1);
+
+        // When
+        aggregator.aggregate(new Properties());
+
+        // Then
+        verify(function, never()).aggregate(Mockito.any(Object[].class));
+    }
+
     @Test
     public void shouldAggregateWithNoPropertiesOrFunctions() {
         // Given
@@ -129,6 +142,7 @@ public class ElementAggregatorTest {
         final PassThroughFunctionContext<String, AggregateFunction> functionContext1 = mock(PassThroughFunctionContext.class);
         final AggregateFunction function = mock(AggregateFunction.class);
         given(functionContext1.getFunction()).willReturn(function);
+        given(functionContext1.getSelection()).willReturn(Arrays.asList("reference1", "reference2"));
         given(function.state()).willReturn(state);
 
         aggregator.addFunction(functionContext1);
@@ -139,19 +153,19 @@ public class ElementAggregatorTest {
         aggregator.state(edge);
 
         // Then
-        final ArgumentCaptor<PropertiesTuple> propertiesTupleCaptor = ArgumentCaptor.forClass(PropertiesTuple.class);
-        verify(functionContext1).project(propertiesTupleCaptor.capture(), Mockito.eq(state));
-        assertEquals(edge.getProperties(), propertiesTupleCaptor.getValue().getProperties());
+        assertEquals("state1", edge.getProperty("reference1"));
+        assertEquals("state2", edge.getProperty("reference2"));
     }
 
     @Test
     public void shouldSetStateOnProperties() {
         // Given
-        final Object[] state = {"state1", "state2"};
+        final Object[] state = {"state1"};
         final ElementAggregator aggregator = new ElementAggregator();
         final PassThroughFunctionContext<String, AggregateFunction> functionContext1 = mock(PassThroughFunctionContext.class);
         final AggregateFunction function = mock(AggregateFunction.class);
         given(functionContext1.getFunction()).willReturn(function);
+        given(functionContext1.getSelection()).willReturn(Arrays.asList("reference1", "reference2"));
         given(function.state()).willReturn(state);
 
         aggregator.addFunction(functionContext1);
@@ -162,9 +176,8 @@ public class ElementAggregatorTest {
         aggregator.state(properties);
 
         // Then
-        final ArgumentCaptor<PropertiesTuple> propertiesTupleCaptor = ArgumentCaptor.forClass(PropertiesTuple.class);
-        verify(functionContext1).project(propertiesTupleCaptor.capture(), Mockito.eq(state));
-        assertSame(properties, propertiesTupleCaptor.getValue().getProperties());
+        assertEquals("state1", properties.get("reference1"));
+        assertNull(properties.get("reference2"));
     }
 
     @Test
@@ -19,26 +19,34 @@ package uk.gov.gchq.gaffer.data.element.function;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import uk.gov.gchq.gaffer.data.element.Element;
-import uk.gov.gchq.gaffer.data.element.ElementTuple;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.IdentifierType;
 import uk.gov.gchq.gaffer.function.FilterFunction;
+import uk.gov.gchq.gaffer.function.Tuple;
 import uk.gov.gchq.gaffer.function.context.ConsumerFunctionContext;
+import java.util.Arrays;
 import java.util.Collections;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ElementFilterTest {
 
     @Test
-    public void shouldWrapElementInElementTupleAndCallSuper() {
+    public void shouldSelectPropertiesAndIdentifiersFromElementAndCallFunction() {
         // Given
         final String reference = "reference1";
         final String value = "value";
@@ -46,25 +54,99 @@ public class ElementFilterTest {
         final ConsumerFunctionContext<String, FilterFunction> functionContext1 = mock(ConsumerFunctionContext.class);
         final FilterFunction function = mock(FilterFunction.class);
         given(functionContext1.getFunction()).willReturn(function);
+        given(functionContext1.getSelection()).willReturn(Arrays.asList(reference, IdentifierType.VERTEX.name()));
+        given(function.isValid(Mockito.any(Object[].class))).willReturn(true);
 
         filter.addFunction(functionContext1);
 
         final Element element = mock(Element.class);
         given(element.getProperty(reference)).willReturn(value);
-
-        final ArgumentCaptor<ElementTuple> elementTupleCaptor = ArgumentCaptor.forClass(ElementTuple.class);
-        given(functionContext1.select(elementTupleCaptor.capture())).willReturn(new Object[]{value});
+        given(element.getIdentifier(IdentifierType.VERTEX)).willReturn("vertex");
 
         // When
-        filter.filter(element);
+        final boolean result = filter.filter(element);
 
         // Then
-        assertSame(element, elementTupleCaptor.getValue().getElement());
-        verify(functionContext1).getFunction();
-
+        assertTrue(result);
         final ArgumentCaptor<Object[]> argumentCaptor = ArgumentCaptor.forClass(Object[].class);
         verify(function).isValid(argumentCaptor.capture());
-        assertEquals(value, argumentCaptor.getValue()[0]);
+        assertArrayEquals(new Object[]{value, "vertex"}, argumentCaptor.getValue());
+    }
+
+    @Test
+    public void shouldOnlyResolveSelectionOnceWhenFilteringManyElements() {
+        // Given
+        final String reference = "reference1";
+        final ElementFilter filter = new ElementFilter();
+        final ConsumerFunctionContext<String, FilterFunction> functionContext1 = mock(ConsumerFunctionContext.class);
+        final FilterFunction function = mock(FilterFunction.class);
+        given(functionContext1.getFunction()).willReturn(function);
+        given(functionContext1.getSelection()).willReturn(Collections.singletonList(reference));
+        given(function.isValid(Mockito.any(Object[].class))).willReturn(false);
+
+        filter.addFunction(functionContext1);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertFalse(filter.filter(new Entity("group", "vertex" + i)));
+        }
+
+        // Then
+        verify(functionContext1).getSelection();
+        verify(functionContext1, never()).select(Mockito.any(Tuple.class));
+        verify(function, times(10)).isValid(Mockito.any(Object[].class));
+    }
+
+    @Test
+    public void shouldNotRecompileFunctionsWhenFunctionListIsOnlyRead() {
+        // Given
+        final ElementFilter filter = new ElementFilter();
+        final ConsumerFunctionContext<String, FilterFunction> functionContext1 = mock(ConsumerFunctionContext.class);
+        final FilterFunction function = mock(FilterFunction.class);
+        given(functionContext1.getFunction()).willReturn(function);
+        given(functionContext1.getSelection()).willReturn(Collections.singletonList("reference1"));
+        given(function.isValid(Mockito.any(Object[].class))).willReturn(true);
+        filter.addFunction(functionContext1);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, filter.getFunctions().size());
+            assertTrue(filter.filter(new Entity("group", "vertex" + i)));
+        }
+
+        // Then
+        verify(functionContext1).getSelection();
+        verify(function, times(10)).isValid(Mockito.any(Object[].class));
+    }
+
+    @Test
+    public void shouldUseReplacedFunctionAfterFunctionListIsChanged() {
+        // Given
+        final String reference = "reference1";
+        final ElementFilter filter = new ElementFilter();
+        final ConsumerFunctionContext<String, FilterFunction> functionContext1 = mock(ConsumerFunctionContext.class);
+        final FilterFunction function1 = mock(FilterFunction.class);
+        given(functionContext1.getFunction()).willReturn(function1);
+        given(functionContext1.getSelection()).willReturn(Collections.singletonList(reference));
+        given(function1.isValid(Mockito.any(Object[].class))).willReturn(false);
+
+        final ConsumerFunctionContext<String, FilterFunction> functionContext2 = mock(ConsumerFunctionContext.class);
+        final FilterFunction function2 = mock(FilterFunction.class);
+        given(functionContext2.getFunction()).willReturn(function2);
+        given(functionContext2.getSelection()).willReturn(Collections.singletonList(reference));
+        given(function2.isValid(Mockito.any(Object[].class))).willReturn(true);
+
+        filter.addFunction(functionContext1);
+        assertFalse(filter.filter(new Entity("group", "vertex")));
+
+        // When
+        filter.getFunctions().set(0, functionContext2);
+        final boolean result = filter.filter(new Entity("group", "vertex"));
+
+        // Then
+        assertTrue(result);
+        verify(function1, times(1)).isValid(Mockito.any(Object[].class));
+        verify(function2, times(1)).isValid(Mockito.any(Object[].class));
     }
 
     @Test
@@ -19,12 +19,13 @@ package uk.gov.gchq.gaffer.data.element.function;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
-import uk.gov.gchq.gaffer.data.element.Element;
-import uk.gov.gchq.gaffer.data.element.ElementTuple;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.IdentifierType;
 import uk.gov.gchq.gaffer.function.TransformFunction;
 import uk.gov.gchq.gaffer.function.context.ConsumerProducerFunctionContext;
+import java.util.Arrays;
 import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
@@ -38,7 +39,7 @@ import static org.mockito.Mockito.verify;
 public class ElementTransformerTest {
 
     @Test
-    public void shouldWrapElementInElementTupleAndCallSuper() {
+    public void shouldSelectFromElementAndProjectResult() {
         // Given
         final String reference = "reference1";
         final String value = "value";
@@ -46,25 +47,53 @@ public class ElementTransformerTest {
         final ConsumerProducerFunctionContext<String, TransformFunction> functionContext1 = mock(ConsumerProducerFunctionContext.class);
         final TransformFunction function = mock(TransformFunction.class);
         given(functionContext1.getFunction()).willReturn(function);
+        given(functionContext1.getSelection()).willReturn(Collections.singletonList(reference));
+        given(functionContext1.getProjection()).willReturn(Arrays.asList("reference2", IdentifierType.VERTEX.name()));
+        given(function.transform(Mockito.any(Object[].class))).willReturn(new Object[]{"result", "newVertex"});
 
         transformer.addFunction(functionContext1);
 
-        final Element element = mock(Element.class);
-        given(element.getProperty(reference)).willReturn(value);
-
-        final ArgumentCaptor<ElementTuple> elementTupleCaptor = ArgumentCaptor.forClass(ElementTuple.class);
-        given(functionContext1.select(elementTupleCaptor.capture())).willReturn(new Object[]{value});
+        final Entity element = new Entity("group", "vertex");
+        element.putProperty(reference, value);
 
         // When
         transformer.transform(element);
 
         // Then
-        assertSame(element, elementTupleCaptor.getValue().getElement());
-        verify(functionContext1).getFunction();
-
         final ArgumentCaptor<Object[]> argumentCaptor = ArgumentCaptor.forClass(Object[].class);
         verify(function).transform(argumentCaptor.capture());
         assertEquals(value, argumentCaptor.getValue()[0]);
+        assertEquals("result", element.getProperty("reference2"));
+        assertEquals("newVertex", element.getVertex());
+    }
+
+    @Test
+    public void shouldUseFunctionAddedToFunctionListAfterTransforming() {
+        // Given
+        final ElementTransformer transformer = new ElementTransformer();
+        final ConsumerProducerFunctionContext<String, TransformFunction> functionContext1 = mock(ConsumerProducerFunctionContext.class);
+        final TransformFunction function1 = mock(TransformFunction.class);
+        given(functionContext1.getFunction()).willReturn(function1);
+        given(functionContext1.getSelection()).willReturn(Collections.singletonList("reference1"));
+        given(functionContext1.getProjection()).willReturn(Collections.singletonList("reference2"));
+        given(function1.transform(Mockito.any(Object[].class))).willReturn(new Object[]{"result1"});
+        final ConsumerProducerFunctionContext<String, TransformFunction> functionContext2 = mock(ConsumerProducerFunctionContext.class);
+        final TransformFunction function2 = mock(TransformFunction.class);
+        given(functionContext2.getFunction()).willReturn(function2);
+        given(functionContext2.getSelection()).willReturn(Collections.singletonList("reference2"));
+        given(functionContext2.getProjection()).willReturn(Collections.singletonList("reference3"));
+        given(function2.transform(Mockito.any(Object[].class))).willReturn(new Object[]{"result2"});
+        transformer.addFunction(functionContext1);
+        transformer.transform(new Entity("group", "vertex1"));
+
+        // When
+        transformer.getFunctions().add(functionContext2);
+        final Entity element = new Entity("group", "vertex2");
+        transformer.transform(element);
+
+        // Then
+        assertEquals("result1", element.getProperty("reference2"));
+        assertEquals("result2", element.getProperty("reference3"));
     }
 
     @Test
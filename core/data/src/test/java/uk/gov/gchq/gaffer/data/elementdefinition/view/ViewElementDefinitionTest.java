@@ -20,8 +20,11 @@ import org.junit.Test;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
 import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -101,4 +104,43 @@ public class ViewElementDefinitionTest {
                 .postTransformFilter(postFilter)
                 .build();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldSerialiseAndDeserialiseProperties() {
+        // Given
+        final ViewElementDefinition elementDef = new ViewElementDefinition.Builder()
+                .properties(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2)
+                .build();
+
+        // When
+        final ViewElementDefinition clone = elementDef.clone();
+
+        // Then
+        assertEquals(new LinkedHashSet<>(Arrays.asList(TestPropertyNames.PROP_1, TestPropertyNames.PROP_2)),
+                clone.getProperties());
+        assertEquals(elementDef, clone);
+    }
+
+    @Test
+    public void shouldOnlyOverridePropertiesWhenMergingIfSet() {
+        // Given
+        final ViewElementDefinition elementDef = new ViewElementDefinition.Builder()
+                .properties(TestPropertyNames.PROP_1)
+                .build();
+
+        // When
+        final ViewElementDefinition mergedWithAllProperties = new ViewElementDefinition.Builder()
+                .merge(elementDef)
+                .merge(new ViewElementDefinition.Builder().build())
+                .build();
+        final ViewElementDefinition mergedWithNewProperties = new ViewElementDefinition.Builder()
+                .merge(elementDef)
+                .merge(new ViewElementDefinition.Builder().properties(TestPropertyNames.PROP_2).build())
+                .build();
+
+        // Then
+        assertNull(new ViewElementDefinition.Builder().build().getProperties());
+        assertEquals(elementDef.getProperties(), mergedWithAllProperties.getProperties());
+        assertEquals(new LinkedHashSet<>(Arrays.asList(TestPropertyNames.PROP_2)), mergedWithNewProperties.getProperties());
+    }
+}
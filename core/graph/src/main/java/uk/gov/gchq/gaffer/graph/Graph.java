@@ -21,6 +21,7 @@ import org.apache.commons.io.IOUtils;
 import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.graph.hook.GraphHook;
+import uk.gov.gchq.gaffer.graph.hook.OperationChainMetrics;
 import uk.gov.gchq.gaffer.jobtracker.JobDetail;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationChain;
@@ -29,6 +30,7 @@ import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 import uk.gov.gchq.gaffer.store.StoreTrait;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.user.User;
 import java.io.IOException;
@@ -38,6 +40,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The Graph separates the user from the {@link Store}. It holds an instance of the {@link Store} and
@@ -158,6 +161,58 @@ public final class Graph {
         return result;
     }
 
+    /**
+     * Performs the given operation chain on the store asynchronously.
+     * If the operation does not have a view then the graph view is used.
+     * The graph hooks are run before the operation chain is executed and
+     * again when the result is available.
+     * NOTE the operationChain may be modified/optimised by the store.
+     *
+     * @param operationChain the operation chain to be executed.
+     * @param user           the user executing the operation chain.
+     * @param <OUTPUT>       the operation chain output type.
+     * @return a future for the operation result.
+     */
+    public <OUTPUT> CompletableFuture<OUTPUT> executeAsync(final OperationChain<OUTPUT> operationChain, final User user) {
+        updateOperationChainView(operationChain);
+
+        for (final GraphHook graphHook : graphHooks) {
+            graphHook.preExecute(operationChain, user);
+        }
+
+        return store.executeAsync(operationChain, user).thenApply(output -> {
+            OUTPUT result = output;
+            for (final GraphHook graphHook : graphHooks) {
+                result = graphHook.postExecute(result, operationChain, user);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Returns the operation chain that the store would execute for the given
+     * operation chain, after the graph view has been applied and the store has
+     * optimised it. The graph hooks are run before the operation chain is
+     * explained, so the same checks, such as operation authorisation, apply as
+     * when it is executed. The operation chain is not executed, so the post
+     * execute hooks are not run.
+     * NOTE the operationChain may be modified/optimised by the store.
+     *
+     * @param operationChain the operation chain to be explained.
+     * @param user           the user executing the operation chain.
+     * @param <OUTPUT>       the operation chain output type.
+     * @return the optimised operation chain.
+     */
+    public <OUTPUT> OperationChain<OUTPUT> explain(final OperationChain<OUTPUT> operationChain, final User user) {
+        updateOperationChainView(operationChain);
+
+        for (final GraphHook graphHook : graphHooks) {
+            graphHook.preExecute(operationChain, user);
+        }
+
+        return store.explain(operationChain, user);
+    }
+
     private <OUTPUT> void updateOperationChainView(final OperationChain<OUTPUT> operationChain) {
         for (final Operation operation : operationChain.getOperations()) {
             final View opView;
@@ -226,6 +281,17 @@ public final class Graph {
         return store.getTraits();
     }
 
+    /**
+     * Returns the metrics recorded by the store. If the store has metrics
+     * enabled then an {@link OperationChainMetrics} hook is added to the graph
+     * to record the latency of each operation chain.
+     *
+     * @return the store metrics, or null if metrics are disabled.
+     */
+    public StoreMetrics getMetrics() {
+        return store.getMetrics();
+    }
+
     /**
      * Builder for {@link Graph}.
      */
@@ -375,10 +441,22 @@ public final class Graph {
             updateSchema();
             updateStore();
             updateView();
+            updateGraphHooks();
 
             return new Graph(store, schema, view, graphHooks);
         }
 
+        private void updateGraphHooks() {
+            if (null != store.getMetrics()) {
+                for (final GraphHook graphHook : graphHooks) {
+                    if (graphHook instanceof OperationChainMetrics) {
+                        return;
+                    }
+                }
+                graphHooks.add(new OperationChainMetrics(store.getMetrics()));
+            }
+        }
+
         private void updateSchema() {
             if (!schemaBytesList.isEmpty()) {
                 if (null == properties) {
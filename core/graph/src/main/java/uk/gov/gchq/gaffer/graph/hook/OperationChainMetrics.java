@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph.hook;
+
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * An <code>OperationChainMetrics</code> is a {@link GraphHook} that records the
+ * time taken to execute each operation chain in {@link StoreMetrics}, keyed on
+ * the names of the operations in the chain, e.g. "GetElements,GenerateObjects".
+ * <p>
+ * The time is measured until the result is returned, so results that are
+ * lazily iterated over are only included up to the point they are returned.
+ * The throughput of these results is recorded separately by the store.
+ */
+public class OperationChainMetrics implements GraphHook {
+    private final StoreMetrics metrics;
+
+    /**
+     * The time each running operation chain was started. Operation chains that
+     * are never completed, e.g. because they fail, are garbage collected.
+     */
+    private final Map<OperationChain<?>, Long> startTimes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public OperationChainMetrics(final StoreMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void preExecute(final OperationChain<?> opChain, final User user) {
+        startTimes.put(opChain, System.nanoTime());
+    }
+
+    @Override
+    public <T> T postExecute(final T result, final OperationChain<?> opChain, final User user) {
+        final Long startTime = startTimes.remove(opChain);
+        if (null != startTime) {
+            metrics.recordOperationChain(getName(opChain), System.nanoTime() - startTime);
+        }
+        return result;
+    }
+
+    public StoreMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static String getName(final OperationChain<?> opChain) {
+        final StringBuilder name = new StringBuilder();
+        for (final Operation operation : opChain.getOperations()) {
+            if (name.length() > 0) {
+                name.append(",");
+            }
+            name.append(operation.getClass().getSimpleName());
+        }
+        return name.toString();
+    }
+}
@@ -30,6 +30,7 @@ import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import uk.gov.gchq.gaffer.commonutil.TestTypes;
+import uk.gov.gchq.gaffer.commonutil.exception.UnauthorisedException;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
@@ -38,6 +39,7 @@ import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.function.aggregate.StringConcat;
 import uk.gov.gchq.gaffer.function.aggregate.Sum;
 import uk.gov.gchq.gaffer.graph.hook.GraphHook;
+import uk.gov.gchq.gaffer.graph.hook.OperationAuthoriser;
 import uk.gov.gchq.gaffer.jobtracker.JobDetail;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationChain;
@@ -68,9 +70,11 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
@@ -219,6 +223,49 @@ public class GraphTest {
         inOrder.verify(hook2).preExecute(opChain, user);
     }
 
+    @Test
+    public void shouldCallGraphHooksBeforeOperationChainIsExplained() {
+        // Given
+        final OperationChain opChain = mock(OperationChain.class);
+        given(opChain.getOperations()).willReturn(Collections.singletonList(mock(Operation.class)));
+
+        final User user = mock(User.class);
+        final GraphHook hook = mock(GraphHook.class);
+        final Graph graph = new Graph.Builder()
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .addSchema(new Schema.Builder().build())
+                .addHook(hook)
+                .build();
+
+        // When
+        graph.explain(opChain, user);
+
+        // Then
+        verify(hook).preExecute(opChain, user);
+        verify(hook, Mockito.never()).postExecute(Mockito.any(), Mockito.eq(opChain), Mockito.eq(user));
+    }
+
+    @Test
+    public void shouldNotExplainOperationChainWhenUserIsNotAuthorised() {
+        // Given
+        final OperationAuthoriser opAuthoriser = new OperationAuthoriser();
+        opAuthoriser.addOpAuths(GetAllElements.class, "SuperUser");
+        final Graph graph = new Graph.Builder()
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .addSchema(new Schema.Builder().build())
+                .addHook(opAuthoriser)
+                .build();
+        final OperationChain<CloseableIterable<Element>> opChain = new OperationChain<>(new GetAllElements<>());
+
+        // When / Then
+        try {
+            graph.explain(opChain, new User());
+            fail("Exception expected");
+        } catch (final UnauthorisedException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
     @Test
     public void shouldCallAllGraphHooksBeforeJobExecuted() throws OperationException {
         // Given
@@ -326,6 +373,53 @@ public class GraphTest {
         assertSame(actualResult, result3);
     }
 
+    @Test
+    public void shouldCallAllGraphHooksWhenOperationChainExecutedAsynchronously() throws Exception {
+        // Given
+        final User user = mock(User.class);
+        final GraphHook hook1 = mock(GraphHook.class);
+        final GraphHook hook2 = mock(GraphHook.class);
+        final Store store = mock(Store.class);
+        final Schema schema = new Schema();
+        final Object result1 = mock(Object.class);
+        final Object result2 = mock(Object.class);
+        final Object result3 = mock(Object.class);
+        final OperationChain opChain = mock(OperationChain.class);
+        final CompletableFuture<Object> storeResult = new CompletableFuture<>();
+
+        given(store.getSchema()).willReturn(schema);
+        given(hook1.postExecute(result1, opChain, user)).willReturn(result2);
+        given(hook2.postExecute(result2, opChain, user)).willReturn(result3);
+
+        final Graph graph = new Graph.Builder()
+                .storeProperties(StreamUtil.storeProps(getClass()))
+                .store(store)
+                .addSchema(schema)
+                .addHook(hook1)
+                .addHook(hook2)
+                .build();
+
+        given(opChain.getOperations()).willReturn(Collections.singletonList(mock(Operation.class)));
+        given(store.executeAsync(opChain, user)).willReturn(storeResult);
+
+        // When
+        final CompletableFuture<Object> actualResult = graph.executeAsync(opChain, user);
+
+        // Then
+        final InOrder inOrder = inOrder(hook1, hook2);
+        inOrder.verify(hook1).preExecute(opChain, user);
+        inOrder.verify(hook2).preExecute(opChain, user);
+        assertFalse(actualResult.isDone());
+
+        // When
+        storeResult.complete(result1);
+
+        // Then
+        inOrder.verify(hook1).postExecute(result1, opChain, user);
+        inOrder.verify(hook2).postExecute(result2, opChain, user);
+        assertSame(result3, actualResult.get());
+    }
+
     @Test
     public void shouldCallAllGraphHooksAfterJobExecuted() throws OperationException {
         // Given
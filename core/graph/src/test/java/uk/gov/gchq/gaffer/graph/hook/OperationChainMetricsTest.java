@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.graph.hook;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.metrics.LatencySummary;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class OperationChainMetricsTest {
+    @Test
+    public void shouldRecordOperationChainLatencyAndReturnResultWithoutModification() {
+        // Given
+        final StoreMetrics metrics = new StoreMetrics();
+        final OperationChainMetrics hook = new OperationChainMetrics(metrics);
+        final Object result = mock(Object.class);
+        final OperationChain opChain = new OperationChain.Builder()
+                .first(new GetAllElements<>())
+                .then(new Limit<>())
+                .then(new GenerateObjects<>())
+                .build();
+        final User user = new User();
+
+        // When
+        hook.preExecute(opChain, user);
+        final Object returnedResult = hook.postExecute(result, opChain, user);
+
+        // Then
+        assertSame(result, returnedResult);
+        final Map<String, LatencySummary> latencies = metrics.getOperationChainLatencies();
+        assertEquals(1, latencies.size());
+        assertEquals(1, latencies.get("GetAllElements,Limit,GenerateObjects").getCount());
+    }
+
+    @Test
+    public void shouldNotRecordOperationChainThatWasNotStarted() {
+        // Given
+        final StoreMetrics metrics = new StoreMetrics();
+        final OperationChainMetrics hook = new OperationChainMetrics(metrics);
+        final OperationChain opChain = new OperationChain<>(new GetAllElements<>());
+
+        // When
+        hook.postExecute(null, opChain, new User());
+
+        // Then
+        assertTrue(metrics.getOperationChainLatencies().isEmpty());
+    }
+}
@@ -45,7 +45,9 @@ public class JobDetail implements Serializable {
             this.startTime = System.currentTimeMillis();
         } else {
             this.startTime = oldJobDetail.startTime;
-            this.endTime = System.currentTimeMillis();
+            if (JobStatus.QUEUED != this.status && JobStatus.RUNNING != this.status) {
+                this.endTime = System.currentTimeMillis();
+            }
         }
     }
 
@@ -16,7 +16,9 @@
 package uk.gov.gchq.gaffer.jobtracker;
 
 public enum JobStatus {
+    QUEUED,
     RUNNING,
     FINISHED,
-    FAILED
+    FAILED,
+    CANCELLED
 }
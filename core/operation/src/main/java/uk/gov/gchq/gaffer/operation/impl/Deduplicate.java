@@ -25,11 +25,34 @@ import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
 
 /**
  * A <code>Deduplicate</code> operation takes in an {@link Iterable} of items
- * and removes duplicates.
+ * and removes duplicates. The items are deduplicated lazily as they are
+ * iterated over, so only the distinct items seen so far are held in memory.
+ * <p>
+ * If maxItemsInMemory is set then iterating over the results fails with an
+ * error if more than that many distinct items are found, so the memory used
+ * is bounded and the results are always deduplicated exactly.
  *
  * @see Deduplicate.Builder
  */
 public class Deduplicate<T> extends AbstractGetIterableOperation<T, T> {
+    private Integer maxItemsInMemory;
+
+    /**
+     * @return the maximum number of distinct items to hold in memory, or null
+     * or 0 if there is no limit.
+     */
+    public Integer getMaxItemsInMemory() {
+        return maxItemsInMemory;
+    }
+
+    /**
+     * @param maxItemsInMemory the maximum number of distinct items to hold in
+     *                         memory, or null or 0 if there is no limit.
+     */
+    public void setMaxItemsInMemory(final Integer maxItemsInMemory) {
+        this.maxItemsInMemory = maxItemsInMemory;
+    }
+
     @Override
     protected TypeReference createOutputTypeReference() {
         return new TypeReferenceImpl.CloseableIterableObj();
@@ -59,6 +82,16 @@ public class Deduplicate<T> extends AbstractGetIterableOperation<T, T> {
         public CHILD_CLASS input(final CloseableIterable<T> input) {
             return super.input(input);
         }
+
+        /**
+         * @param maxItemsInMemory the maximum number of distinct items to hold in memory
+         * @return this Builder
+         * @see Deduplicate#setMaxItemsInMemory(Integer)
+         */
+        public CHILD_CLASS maxItemsInMemory(final Integer maxItemsInMemory) {
+            op.setMaxItemsInMemory(maxItemsInMemory);
+            return self();
+        }
     }
 
     public static final class Builder<T> extends BaseBuilder<T, Builder<T>> {
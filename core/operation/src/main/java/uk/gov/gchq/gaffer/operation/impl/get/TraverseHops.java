@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.operation.impl.get;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.collect.Lists;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.AbstractGetIterableElementsOperation;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A <code>TraverseHops</code> operation walks out from the seed
+ * {@link uk.gov.gchq.gaffer.operation.data.EntitySeed}s a number of hops and
+ * returns the {@link uk.gov.gchq.gaffer.operation.data.EntitySeed}s reached by the last hop.
+ * It gives the same vertices as chaining a {@link GetAdjacentEntitySeeds} for each hop,
+ * but the frontier of each hop is deduplicated by the store before the next hop is run,
+ * rather than every adjacent seed being passed on to the next operation.
+ * <p>
+ * Each hop uses its own {@link View} if one is given in the hop views, otherwise
+ * the view of this operation. A hop view with no groups is merged with the view of this operation.
+ * By default vertices that have already been visited, including the seeds, are not visited again,
+ * so the result is the set of vertices first reached on the last hop.
+ * Seed matching is always RELATED.
+ *
+ * @see uk.gov.gchq.gaffer.operation.impl.get.TraverseHops.Builder
+ * @see uk.gov.gchq.gaffer.operation.GetOperation
+ */
+public class TraverseHops extends AbstractGetIterableElementsOperation<EntitySeed, EntitySeed> {
+    private Integer hops;
+    private List<View> hopViews = new ArrayList<>();
+    private boolean excludeVisited = true;
+
+    public TraverseHops() {
+    }
+
+    public TraverseHops(final Iterable<EntitySeed> seeds) {
+        super(seeds);
+    }
+
+    public TraverseHops(final CloseableIterable<EntitySeed> seeds) {
+        super(seeds);
+    }
+
+    public TraverseHops(final View view) {
+        super(view);
+    }
+
+    public TraverseHops(final View view, final Iterable<EntitySeed> seeds) {
+        super(view, seeds);
+    }
+
+    public TraverseHops(final View view, final CloseableIterable<EntitySeed> seeds) {
+        super(view, seeds);
+    }
+
+    @Override
+    public SeedMatchingType getSeedMatching() {
+        return SeedMatchingType.RELATED;
+    }
+
+    /**
+     * @return the number of hops to take. If it has not been set this is the
+     * number of hop views, or 1 if there are none.
+     */
+    public int getHops() {
+        if (null == hops) {
+            return Math.max(1, hopViews.size());
+        }
+        return hops;
+    }
+
+    public void setHops(final int hops) {
+        this.hops = hops;
+    }
+
+    public List<View> getHopViews() {
+        return hopViews;
+    }
+
+    public void setHopViews(final List<View> hopViews) {
+        this.hopViews = null != hopViews ? hopViews : new ArrayList<>();
+    }
+
+    public boolean isExcludeVisited() {
+        return excludeVisited;
+    }
+
+    public void setExcludeVisited(final boolean excludeVisited) {
+        this.excludeVisited = excludeVisited;
+    }
+
+    /**
+     * Gets the {@link View} to use for a hop.
+     *
+     * @param hop the index of the hop, starting from 0
+     * @return the hop view if there is one, merged with the view of this
+     * operation if it has no groups, otherwise the view of this operation.
+     */
+    public View getHopView(final int hop) {
+        final View hopView = hop < hopViews.size() ? hopViews.get(hop) : null;
+        if (null == hopView) {
+            return getView();
+        }
+
+        if (!hopView.hasGroups() && null != getView()) {
+            final View mergedView = new View.Builder()
+                    .merge(getView())
+                    .merge(hopView)
+                    .build();
+            mergedView.expandGlobalDefinitions();
+            return mergedView;
+        }
+
+        hopView.expandGlobalDefinitions();
+        return hopView;
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "class")
+    @JsonGetter(value = "seeds")
+    @SuppressFBWarnings(value = "PZLA_PREFER_ZERO_LENGTH_ARRAYS", justification = "if the iterable is null then the array should be null")
+    @Override
+    public EntitySeed[] getSeedArray() {
+        final CloseableIterable<EntitySeed> input = getInput();
+        if (null != input) {
+            final List<EntitySeed> inputList = Lists.newArrayList(input);
+            return inputList.toArray(new EntitySeed[inputList.size()]);
+        }
+
+        return null;
+    }
+
+    @Override
+    protected TypeReference createOutputTypeReference() {
+        return new TypeReferenceImpl.CloseableIterableEntitySeed();
+    }
+
+    public abstract static class BaseBuilder<CHILD_CLASS extends BaseBuilder<?>>
+            extends AbstractGetIterableElementsOperation.BaseBuilder<TraverseHops, EntitySeed, EntitySeed, CHILD_CLASS> {
+        public BaseBuilder() {
+            super(new TraverseHops());
+        }
+
+        /**
+         * @param hops the number of hops to take
+         * @return this Builder
+         * @see TraverseHops#setHops(int)
+         */
+        public CHILD_CLASS hops(final int hops) {
+            op.setHops(hops);
+            return self();
+        }
+
+        /**
+         * @param hopView the view to use for the next hop, or null to use the view of the operation
+         * @return this Builder
+         * @see TraverseHops#getHopViews()
+         */
+        public CHILD_CLASS hopView(final View hopView) {
+            op.getHopViews().add(hopView);
+            return self();
+        }
+
+        /**
+         * @param excludeVisited true if vertices that have already been visited should not be visited again
+         * @return this Builder
+         * @see TraverseHops#setExcludeVisited(boolean)
+         */
+        public CHILD_CLASS excludeVisited(final boolean excludeVisited) {
+            op.setExcludeVisited(excludeVisited);
+            return self();
+        }
+    }
+
+    public static final class Builder extends BaseBuilder<Builder> {
+        @Override
+        protected Builder self() {
+            return this;
+        }
+    }
+}
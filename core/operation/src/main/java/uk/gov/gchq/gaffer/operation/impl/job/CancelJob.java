@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.operation.impl.job;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.type.TypeReference;
+import uk.gov.gchq.gaffer.jobtracker.JobDetail;
+import uk.gov.gchq.gaffer.operation.AbstractOperation;
+import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
+
+/**
+ * A <code>CancelJob</code> operation cancels a queued or running job and
+ * returns the updated {@link JobDetail}.
+ */
+public class CancelJob extends AbstractOperation<Object, JobDetail> {
+    @JsonIgnore
+    @Override
+    public String getInput() {
+        return (String) super.getInput();
+    }
+
+    @JsonIgnore
+    @Override
+    public void setInput(final Object input) {
+        // Ignore the input if it isn't a string to allow chaining
+        if (input instanceof String) {
+            super.setInput(input);
+        }
+    }
+
+    public String getJobId() {
+        return (String) super.getInput();
+    }
+
+    public void setJobId(final String jobId) {
+        super.setInput(jobId);
+    }
+
+    @Override
+    protected TypeReference createOutputTypeReference() {
+        return new TypeReferenceImpl.JobDetail();
+    }
+
+    public abstract static class BaseBuilder<CHILD_CLASS extends BaseBuilder<?>> extends AbstractOperation.BaseBuilder<CancelJob, Object, JobDetail, CHILD_CLASS> {
+
+        public BaseBuilder() {
+            super(new CancelJob());
+        }
+
+        /**
+         * @param jobId the jobId
+         * @return this Builder
+         * @see uk.gov.gchq.gaffer.operation.Operation#setInput(Object)
+         */
+        public CHILD_CLASS jobId(final String jobId) {
+            return super.input(jobId);
+        }
+    }
+
+    public static final class Builder extends BaseBuilder<Builder> {
+        @Override
+        protected Builder self() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.operation.impl.get;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.GetOperation;
+import uk.gov.gchq.gaffer.operation.OperationTest;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TraverseHopsTest implements OperationTest {
+    private static final JSONSerialiser serialiser = new JSONSerialiser();
+
+    @Test
+    @Override
+    public void shouldSerialiseAndDeserialiseOperation() throws SerialisationException {
+        // Given
+        final EntitySeed seed1 = new EntitySeed("identifier1");
+        final EntitySeed seed2 = new EntitySeed("identifier2");
+        final TraverseHops op = new TraverseHops.Builder()
+                .seeds(Arrays.asList(seed1, seed2))
+                .hops(3)
+                .hopView(new View.Builder()
+                        .edge("testEdgeGroup")
+                        .build())
+                .excludeVisited(false)
+                .build();
+
+        // When
+        byte[] json = serialiser.serialise(op, true);
+        final TraverseHops deserialisedOp = serialiser.deserialise(json, TraverseHops.class);
+
+        // Then
+        final Iterator itr = deserialisedOp.getSeeds().iterator();
+        assertEquals(seed1, itr.next());
+        assertEquals(seed2, itr.next());
+        assertFalse(itr.hasNext());
+        assertEquals(3, deserialisedOp.getHops());
+        assertEquals(1, deserialisedOp.getHopViews().size());
+        assertTrue(deserialisedOp.getHopViews().get(0).getEdgeGroups().contains("testEdgeGroup"));
+        assertFalse(deserialisedOp.isExcludeVisited());
+    }
+
+    @Test
+    @Override
+    public void builderShouldCreatePopulatedOperation() {
+        final EntitySeed seed = new EntitySeed("A");
+        final TraverseHops op = new TraverseHops.Builder()
+                .addSeed(seed)
+                .inOutType(GetOperation.IncludeIncomingOutgoingType.OUTGOING)
+                .option("testOption", "true")
+                .hopView(null)
+                .hopView(new View.Builder()
+                        .edge("testEdgeGroup")
+                        .build())
+                .build();
+
+        assertEquals("true", op.getOption("testOption"));
+        assertEquals(GetOperation.IncludeIncomingOutgoingType.OUTGOING, op.getIncludeIncomingOutGoing());
+        assertEquals(seed, op.getInput().iterator().next());
+        assertEquals(2, op.getHops());
+        assertTrue(op.isExcludeVisited());
+    }
+
+    @Test
+    public void shouldUseOperationViewForHopsWithoutHopView() {
+        // Given
+        final View view = new View.Builder()
+                .edge("testEdgeGroup")
+                .build();
+        final View hopView = new View.Builder()
+                .edge("otherEdgeGroup")
+                .build();
+        final TraverseHops op = new TraverseHops.Builder()
+                .view(view)
+                .hopView(hopView)
+                .hops(2)
+                .build();
+
+        // Then
+        assertSame(hopView, op.getHopView(0));
+        assertSame(view, op.getHopView(1));
+    }
+}
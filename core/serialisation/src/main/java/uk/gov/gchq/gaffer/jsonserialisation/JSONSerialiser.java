@@ -32,7 +32,6 @@ import com.fasterxml.jackson.databind.ser.BeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
-import org.apache.commons.io.IOUtils;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.jsonserialisation.jackson.CloseableIterableDeserializer;
@@ -210,8 +209,7 @@ public class JSONSerialiser {
      */
     public <T> T deserialise(final InputStream stream, final Class<T> clazz) throws SerialisationException {
         try (final InputStream stream2 = stream) {
-            final byte[] bytes = IOUtils.toByteArray(stream2);
-            return deserialise(bytes, clazz);
+            return mapper.readValue(stream2, clazz);
         } catch (final IOException e) {
             throw new SerialisationException(e.getMessage(), e);
         }
@@ -241,13 +239,28 @@ public class JSONSerialiser {
      */
     public <T> T deserialise(final InputStream stream, final TypeReference<T> type) throws SerialisationException {
         try (final InputStream stream2 = stream) {
-            final byte[] bytes = IOUtils.toByteArray(stream2);
-            return deserialise(bytes, type);
+            return mapper.readValue(stream2, type);
         } catch (final IOException e) {
             throw new SerialisationException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Lazily deserialises a json array of objects from a stream. The items are
+     * parsed one at a time as the returned iterable is iterated, so the whole
+     * array is never held in memory. The returned iterable can only be iterated
+     * once and closing it will close the stream. If the json is invalid a
+     * {@link java.io.UncheckedIOException} is thrown whilst iterating.
+     *
+     * @param stream the {@link java.io.InputStream} containing a json array
+     * @param clazz  the class of the items in the json array
+     * @param <T>    the type of the items
+     * @return an iterable of the deserialised items
+     */
+    public <T> CloseableIterable<T> deserialiseIterable(final InputStream stream, final Class<T> clazz) {
+        return new JsonArrayIterable<>(stream, mapper, clazz);
+    }
+
     @JsonIgnore
     public ObjectMapper getMapper() {
         return mapper;
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.jsonserialisation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.IOUtils;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * A <code>JsonArrayIterable</code> lazily deserialises the items of a json array
+ * from an {@link InputStream}, so only one item is held in memory at a time.
+ * As the stream can only be read once, the iterable can only be iterated once.
+ * If the json cannot be read an {@link UncheckedIOException} is thrown.
+ *
+ * @param <T> the type of the items in the json array
+ */
+class JsonArrayIterable<T> implements CloseableIterable<T> {
+    private final InputStream stream;
+    private final ObjectMapper mapper;
+    private final Class<T> clazz;
+    private boolean iterated = false;
+
+    JsonArrayIterable(final InputStream stream, final ObjectMapper mapper, final Class<T> clazz) {
+        this.stream = stream;
+        this.mapper = mapper;
+        this.clazz = clazz;
+    }
+
+    @Override
+    public void close() {
+        IOUtils.closeQuietly(stream);
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("This iterable reads from a stream so can only be iterated once");
+        }
+        iterated = true;
+
+        try {
+            return new JsonArrayIterator(mapper.getFactory().createParser(stream));
+        } catch (final IOException e) {
+            close();
+            throw new UncheckedIOException("Unable to read json array: " + e.getMessage(), e);
+        }
+    }
+
+    private class JsonArrayIterator implements CloseableIterator<T> {
+        private final JsonParser parser;
+        private Boolean hasNext;
+
+        JsonArrayIterator(final JsonParser parser) throws IOException {
+            this.parser = parser;
+            final JsonToken firstToken = parser.nextToken();
+            if (null == firstToken) {
+                hasNext = false;
+            } else if (JsonToken.START_ARRAY != firstToken) {
+                throw new IOException("Expected a json array but found: " + firstToken);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null == hasNext) {
+                try {
+                    final JsonToken token = parser.nextToken();
+                    if (null == token) {
+                        throw new IOException("Unexpected end of json array");
+                    }
+                    hasNext = JsonToken.END_ARRAY != token;
+                } catch (final IOException e) {
+                    close();
+                    throw new UncheckedIOException("Unable to read json array: " + e.getMessage(), e);
+                }
+
+                if (!hasNext) {
+                    close();
+                }
+            }
+
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            try {
+                final T item = mapper.readValue(parser, clazz);
+                hasNext = null;
+                return item;
+            } catch (final IOException e) {
+                close();
+                throw new UncheckedIOException("Unable to deserialise json array item: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeQuietly(parser);
+            JsonArrayIterable.this.close();
+        }
+    }
+}
@@ -17,7 +17,11 @@
 package uk.gov.gchq.gaffer.serialisation;
 
 import uk.gov.gchq.gaffer.exception.SerialisationException;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * A class that implements this interface is responsible for serialising an
@@ -55,6 +59,23 @@ public interface Serialisation<T> extends Serializable {
      */
     byte[] serialise(final T object) throws SerialisationException;
 
+    /**
+     * Serialise some object and write the serialised form to the provided {@link OutputStream}.
+     * By default this writes the result of {@link #serialise(Object)}, serialisers that can write
+     * directly to the stream should override this to avoid creating the intermediate byte array.
+     *
+     * @param object the object to be serialised
+     * @param output the output stream to write the serialised bytes to
+     * @throws SerialisationException if the object fails to serialise
+     */
+    default void serialise(final T object, final OutputStream output) throws SerialisationException {
+        try {
+            output.write(serialise(object));
+        } catch (final IOException e) {
+            throw new SerialisationException("Failed to write serialised object", e);
+        }
+    }
+
     /**
      * Deserialise an array of bytes into the original object.
      *
@@ -64,6 +85,41 @@ public interface Serialisation<T> extends Serializable {
      */
     T deserialise(final byte[] bytes) throws SerialisationException;
 
+    /**
+     * Deserialise a range of an array of bytes into the original object.
+     * By default the range is copied into a new array and passed to {@link #deserialise(byte[])},
+     * serialisers that can read the range in place should override this to avoid the copy.
+     *
+     * @param bytes  the array containing the bytes to deserialise
+     * @param offset the index of the first byte to deserialise
+     * @param length the number of bytes to deserialise
+     * @return T the deserialised object
+     * @throws SerialisationException if the object fails to deserialise
+     */
+    default T deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        if (0 == offset && bytes.length == length) {
+            return deserialise(bytes);
+        }
+        return deserialise(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+
+    /**
+     * Deserialise the remaining bytes in a {@link ByteBuffer} into the original object.
+     * The position of the buffer is not changed.
+     *
+     * @param buffer the buffer containing the bytes to deserialise
+     * @return T the deserialised object
+     * @throws SerialisationException if the object fails to deserialise
+     */
+    default T deserialise(final ByteBuffer buffer) throws SerialisationException {
+        if (buffer.hasArray()) {
+            return deserialise(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return deserialise(bytes);
+    }
+
     /**
      * Handle an empty byte array and reconstruct an appropriate representation in Object form.
      *
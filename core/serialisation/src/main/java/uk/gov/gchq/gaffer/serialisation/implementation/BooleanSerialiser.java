@@ -35,6 +35,11 @@ public class BooleanSerialiser implements Serialisation<Boolean> {
         return bytes.length == 1 && TRUE == bytes[0];
     }
 
+    @Override
+    public Boolean deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        return length == 1 && TRUE == bytes[offset];
+    }
+
     @Override
     public Boolean deserialiseEmptyBytes() {
         return Boolean.FALSE;
@@ -47,6 +47,15 @@ public class StringSerialiser implements Serialisation<String> {
         }
     }
 
+    @Override
+    public String deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        try {
+            return new String(bytes, offset, length, CommonConstants.UTF_8);
+        } catch (UnsupportedEncodingException e) {
+            throw new SerialisationException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public String deserialiseEmptyBytes() {
         return "";
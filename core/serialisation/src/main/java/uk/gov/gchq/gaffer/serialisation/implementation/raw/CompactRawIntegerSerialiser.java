@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.serialisation.implementation.raw;
 
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.serialisation.Serialisation;
+import java.io.OutputStream;
 
 /**
  * Serialises integers using a variable-length scheme that means smaller integers get serialised into a smaller
@@ -43,9 +44,19 @@ public class CompactRawIntegerSerialiser implements Serialisation<Integer> {
         return CompactRawSerialisationUtils.writeLong(i);
     }
 
+    @Override
+    public void serialise(final Integer i, final OutputStream output) throws SerialisationException {
+        CompactRawSerialisationUtils.write(i, output);
+    }
+
     @Override
     public Integer deserialise(final byte[] bytes) throws SerialisationException {
-        final long result = CompactRawSerialisationUtils.readLong(bytes);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Integer deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        final long result = CompactRawSerialisationUtils.readLong(bytes, offset);
         if ((result > Integer.MAX_VALUE) || (result < Integer.MIN_VALUE)) {
             throw new SerialisationException("Value too long to fit in integer");
         }
@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.serialisation.implementation.raw;
 
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.serialisation.Serialisation;
+import java.io.OutputStream;
 
 /**
  * Serialises longs using a variable-length scheme that means smaller longs get serialised into a smaller
@@ -39,11 +40,21 @@ public class CompactRawLongSerialiser implements Serialisation<Long> {
         return CompactRawSerialisationUtils.writeLong(l);
     }
 
+    @Override
+    public void serialise(final Long l, final OutputStream output) throws SerialisationException {
+        CompactRawSerialisationUtils.write(l, output);
+    }
+
     @Override
     public Long deserialise(final byte[] bytes) throws SerialisationException {
         return CompactRawSerialisationUtils.readLong(bytes);
     }
 
+    @Override
+    public Long deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        return CompactRawSerialisationUtils.readLong(bytes, offset);
+    }
+
     @Override
     public Long deserialiseEmptyBytes() {
         return null;
@@ -61,13 +61,30 @@ public final class CompactRawSerialisationUtils {
     }
 
     public static long readLong(final byte[] bytes) throws SerialisationException {
-        final byte firstByte = bytes[0];
+        return readLong(bytes, 0);
+    }
+
+    /**
+     * Reads a long written by {@link CompactRawSerialisationUtils#writeLong(long)} starting at the
+     * given offset in the byte array, without copying the bytes. The number of bytes read can be
+     * found using {@link CompactRawSerialisationUtils#decodeVIntSize(byte)} on the first byte.
+     *
+     * @param bytes  the array containing the serialised long
+     * @param offset the index of the first byte of the serialised long
+     * @return The value of the serialised long.
+     * @throws SerialisationException if the array does not contain a complete serialised long.
+     */
+    public static long readLong(final byte[] bytes, final int offset) throws SerialisationException {
+        final byte firstByte = bytes[offset];
         final int len = decodeVIntSize(firstByte);
         if (len == 1) {
             return (long) firstByte;
         }
+        if (offset + len > bytes.length) {
+            throw new SerialisationException("Not enough bytes to read a long of length " + len);
+        }
         long i = 0;
-        short place = 1;
+        int place = offset + 1;
         for (int idx = 0; idx < len - 1; idx++) {
             final byte b = bytes[place++];
             i = i << 8;
@@ -42,10 +42,15 @@ public class RawIntegerSerialiser implements Serialisation<Integer> {
 
     @Override
     public Integer deserialise(final byte[] bytes) throws SerialisationException {
-        return (int) ((int) bytes[0] & 255L
-                | ((int) bytes[1] & 255L) << 8
-                | ((int) bytes[2] & 255L) << 16
-                | ((int) bytes[3] & 255L) << 24);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Integer deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        return (int) ((int) bytes[offset] & 255L
+                | ((int) bytes[offset + 1] & 255L) << 8
+                | ((int) bytes[offset + 2] & 255L) << 16
+                | ((int) bytes[offset + 3] & 255L) << 24);
     }
 
     @Override
@@ -46,14 +46,19 @@ public class RawLongSerialiser implements Serialisation<Long> {
 
     @Override
     public Long deserialise(final byte[] bytes) throws SerialisationException {
-        return (long) bytes[0] & 255L
-                | ((long) bytes[1] & 255L) << 8
-                | ((long) bytes[2] & 255L) << 16
-                | ((long) bytes[3] & 255L) << 24
-                | ((long) bytes[4] & 255L) << 32
-                | ((long) bytes[5] & 255L) << 40
-                | ((long) bytes[6] & 255L) << 48
-                | ((long) bytes[7] & 255L) << 56;
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Long deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        return (long) bytes[offset] & 255L
+                | ((long) bytes[offset + 1] & 255L) << 8
+                | ((long) bytes[offset + 2] & 255L) << 16
+                | ((long) bytes[offset + 3] & 255L) << 24
+                | ((long) bytes[offset + 4] & 255L) << 32
+                | ((long) bytes[offset + 5] & 255L) << 40
+                | ((long) bytes[offset + 6] & 255L) << 48
+                | ((long) bytes[offset + 7] & 255L) << 56;
     }
 
     @Override
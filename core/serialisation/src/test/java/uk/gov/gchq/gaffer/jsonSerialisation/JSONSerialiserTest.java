@@ -22,16 +22,26 @@ import org.junit.Before;
 import org.junit.Test;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.commonutil.JsonUtil;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.gaffer.serialisation.ParameterisedTestObject;
 import uk.gov.gchq.gaffer.serialisation.SimpleTestObject;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 public class JSONSerialiserTest {
@@ -179,4 +189,81 @@ public class JSONSerialiserTest {
         // Then
         assertTrue(json.contains("x"));
     }
+
+    @Test
+    public void shouldLazilyDeserialiseJsonArray() throws Exception {
+        // Given
+        final byte[] json = serialiser.serialise(Arrays.asList("a", "b", "c"));
+
+        // When
+        final List<String> results = new ArrayList<>();
+        try (final CloseableIterable<String> iterable = serialiser.deserialiseIterable(new ByteArrayInputStream(json), String.class)) {
+            for (final String item : iterable) {
+                results.add(item);
+            }
+        }
+
+        // Then
+        assertEquals(Arrays.asList("a", "b", "c"), results);
+    }
+
+    @Test
+    public void shouldLazilyDeserialiseEmptyJsonArray() throws Exception {
+        // Given
+        final byte[] json = serialiser.serialise(Collections.emptyList());
+
+        // When
+        final CloseableIterable<String> iterable = serialiser.deserialiseIterable(new ByteArrayInputStream(json), String.class);
+
+        // Then
+        assertFalse(iterable.iterator().hasNext());
+    }
+
+    @Test
+    public void shouldOnlyAllowLazilyDeserialisedJsonArrayToBeIteratedOnce() throws Exception {
+        // Given
+        final byte[] json = serialiser.serialise(Collections.singletonList("a"));
+        final CloseableIterable<String> iterable = serialiser.deserialiseIterable(new ByteArrayInputStream(json), String.class);
+        iterable.iterator();
+
+        // When / Then
+        try {
+            iterable.iterator();
+            fail("Exception expected");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getMessage().contains("once"));
+        }
+    }
+
+    @Test
+    public void shouldThrowUncheckedIOExceptionWhenLazilyDeserialisingMalformedJsonArray() throws Exception {
+        // Given
+        final byte[] json = "[\"a\", {".getBytes(CommonConstants.UTF_8);
+        final CloseableIterable<String> iterable = serialiser.deserialiseIterable(new ByteArrayInputStream(json), String.class);
+        final Iterator<String> itr = iterable.iterator();
+        assertEquals("a", itr.next());
+
+        // When / Then
+        try {
+            itr.next();
+            fail("Exception expected");
+        } catch (final UncheckedIOException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldThrowUncheckedIOExceptionWhenLazilyDeserialisingJsonThatIsNotAnArray() throws Exception {
+        // Given
+        final byte[] json = serialiser.serialise("a");
+        final CloseableIterable<String> iterable = serialiser.deserialiseIterable(new ByteArrayInputStream(json), String.class);
+
+        // When / Then
+        try {
+            iterable.iterator();
+            fail("Exception expected");
+        } catch (final UncheckedIOException e) {
+            assertTrue(e.getMessage().contains("Expected a json array"));
+        }
+    }
 }
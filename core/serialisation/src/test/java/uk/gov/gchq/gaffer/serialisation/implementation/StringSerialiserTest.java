@@ -19,6 +19,7 @@ import org.junit.Test;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.serialisation.Serialisation;
 import uk.gov.gchq.gaffer.serialisation.SerialisationTest;
+import java.nio.ByteBuffer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -38,6 +39,32 @@ public class StringSerialiserTest extends SerialisationTest<String> {
         }
     }
 
+    @Test
+    public void shouldDeserialiseRangeOfBytes() throws SerialisationException {
+        // Given
+        final byte[] bytes = serialiser.serialise("prefix-value-suffix");
+
+        // When
+        final String value = serialiser.deserialise(bytes, 7, 5);
+
+        // Then
+        assertEquals("value", value);
+    }
+
+    @Test
+    public void shouldDeserialiseRemainingBytesInByteBuffer() throws SerialisationException {
+        // Given
+        final ByteBuffer buffer = ByteBuffer.wrap(serialiser.serialise("prefix-value"));
+        buffer.position(7);
+
+        // When
+        final String value = serialiser.deserialise(buffer);
+
+        // Then
+        assertEquals("value", value);
+        assertEquals(7, buffer.position());
+    }
+
     @Test
     public void cantSerialiseLongClass() throws SerialisationException {
         assertFalse(serialiser.canHandle(Long.class));
@@ -22,6 +22,7 @@ package uk.gov.gchq.gaffer.serialisation.implementation.raw;
  import java.io.DataInputStream;
  import java.io.DataOutputStream;
 
+ import static org.junit.Assert.assertArrayEquals;
  import static org.junit.Assert.assertEquals;
  import static org.junit.Assert.assertFalse;
  import static org.junit.Assert.assertTrue;
@@ -82,6 +83,12 @@ package uk.gov.gchq.gaffer.serialisation.implementation.raw;
          CompactRawSerialisationUtils.write(value, new DataOutputStream(baos));
          final long result = CompactRawSerialisationUtils.read(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
          assertEquals(result, value);
+         final ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+         SERIALISER.serialise(value, streamed);
+         assertArrayEquals(b, streamed.toByteArray());
+         final byte[] padded = new byte[b.length + 4];
+         System.arraycopy(b, 0, padded, 2, b.length);
+         assertEquals(value, (long) SERIALISER.deserialise(padded, 2, b.length));
      }
 
  }
\ No newline at end of file
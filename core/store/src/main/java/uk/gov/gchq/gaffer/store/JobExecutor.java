@@ -0,0 +1,296 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A <code>JobExecutor</code> runs operation chain jobs for a {@link Store} on a
+ * bounded pool of threads.
+ * <p>
+ * Jobs that cannot start immediately are queued. Higher {@link Priority} jobs
+ * are taken from the queue first, and jobs with the same priority are run in
+ * the order they were submitted. A job is rejected if the queue is full or if
+ * the user already has the maximum number of queued or running jobs.
+ * <p>
+ * Queued and running jobs can be cancelled using their job id. The queue depth,
+ * number of active jobs and the time jobs spend waiting in the queue are
+ * recorded so the pool and queue can be sized. They can be published as
+ * gauges in the {@link StoreMetrics}.
+ */
+public class JobExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobExecutor.class);
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    /**
+     * The operation option used to set the {@link Priority} of a job.
+     */
+    public static final String PRIORITY_OPTION = "gaffer.job.priority";
+
+    /**
+     * The names of the gauges published in the store metrics for the number
+     * of queued, running, started and rejected jobs and the mean and maximum
+     * time in milliseconds that started jobs waited in the queue.
+     */
+    public static final String QUEUE_SIZE_METRIC = "jobExecutor.queueSize";
+    public static final String ACTIVE_JOBS_METRIC = "jobExecutor.activeJobs";
+    public static final String STARTED_JOBS_METRIC = "jobExecutor.startedJobs";
+    public static final String REJECTED_JOBS_METRIC = "jobExecutor.rejectedJobs";
+    public static final String MEAN_WAIT_TIME_METRIC = "jobExecutor.meanWaitMillis";
+    public static final String MAX_WAIT_TIME_METRIC = "jobExecutor.maxWaitMillis";
+
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int maxQueueSize;
+    private final Integer maxJobsPerUser;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Integer> jobsPerUser = new HashMap<>();
+    private final AtomicLong jobSequence = new AtomicLong();
+
+    private final AtomicLong numStartedJobs = new AtomicLong();
+    private final AtomicLong numRejectedJobs = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    /**
+     * @param numThreads     the maximum number of jobs to run at the same time
+     * @param maxQueueSize   the maximum number of jobs waiting to run
+     * @param maxJobsPerUser the maximum number of queued or running jobs per user,
+     *                       or null if there is no limit
+     */
+    public JobExecutor(final int numThreads, final int maxQueueSize, final Integer maxJobsPerUser) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("The number of job executor threads must be at least 1");
+        }
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("The job executor queue size must not be negative");
+        }
+        this.maxQueueSize = maxQueueSize;
+        this.maxJobsPerUser = maxJobsPerUser;
+        this.executor = new ThreadPoolExecutor(numThreads, numThreads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), new JobThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits a job to be run.
+     *
+     * @param jobId    the job id, used to cancel the job
+     * @param userId   the id of the user running the job
+     * @param priority the job priority, NORMAL is used if this is null
+     * @param job      the job to run
+     * @throws OperationException if the queue is full or the user has too many jobs
+     */
+    public void submit(final String jobId, final String userId, final Priority priority, final Runnable job) throws OperationException {
+        final Job newJob = new Job(jobId, userId, null != priority ? priority : Priority.NORMAL, jobSequence.getAndIncrement(), job);
+        synchronized (this) {
+            if (executor.getQueue().size() >= maxQueueSize
+                    && executor.getActiveCount() >= executor.getMaximumPoolSize()) {
+                numRejectedJobs.incrementAndGet();
+                throw new OperationException("Unable to run job " + jobId + " as the job queue is full (" + maxQueueSize + " jobs)");
+            }
+            final int numUserJobs = jobsPerUser.getOrDefault(userId, 0);
+            if (null != maxJobsPerUser && numUserJobs >= maxJobsPerUser) {
+                numRejectedJobs.incrementAndGet();
+                throw new OperationException("Unable to run job " + jobId + " as user " + userId
+                        + " already has the maximum number of jobs (" + maxJobsPerUser + ")");
+            }
+            jobsPerUser.put(userId, numUserJobs + 1);
+            jobs.put(jobId, newJob);
+        }
+        executor.execute(newJob);
+    }
+
+    /**
+     * Cancels a queued or running job. A running job is interrupted.
+     *
+     * @param jobId the id of the job to cancel
+     * @return true if the job was cancelled, false if it had already completed
+     * or was not found
+     */
+    public boolean cancel(final String jobId) {
+        final Job job = jobs.get(jobId);
+        if (null == job || !job.cancel(true)) {
+            return false;
+        }
+        // Remove cancelled jobs from the queue straight away rather than waiting for a thread to pick them up
+        if (executor.remove(job)) {
+            onFinish(job);
+        }
+        LOGGER.info("Cancelled job {}", jobId);
+        return true;
+    }
+
+    /**
+     * @param jobId the job id
+     * @return true if the job with the given id has been cancelled
+     */
+    public boolean isCancelled(final String jobId) {
+        final Job job = jobs.get(jobId);
+        return null != job && job.isCancelled();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Publishes the queue and wait time statistics as gauges in the given metrics.
+     *
+     * @param metrics the store metrics
+     */
+    public void registerMetrics(final StoreMetrics metrics) {
+        metrics.registerGauge(QUEUE_SIZE_METRIC, this::getQueueSize);
+        metrics.registerGauge(ACTIVE_JOBS_METRIC, this::getActiveCount);
+        metrics.registerGauge(STARTED_JOBS_METRIC, this::getNumStartedJobs);
+        metrics.registerGauge(REJECTED_JOBS_METRIC, this::getNumRejectedJobs);
+        metrics.registerGauge(MEAN_WAIT_TIME_METRIC, this::getMeanWaitTime);
+        metrics.registerGauge(MAX_WAIT_TIME_METRIC, this::getMaxWaitTime);
+    }
+
+    /**
+     * @return the number of jobs waiting to run
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of jobs currently running
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getNumStartedJobs() {
+        return numStartedJobs.get();
+    }
+
+    public long getNumRejectedJobs() {
+        return numRejectedJobs.get();
+    }
+
+    /**
+     * @return the mean time in milliseconds that started jobs waited in the queue
+     */
+    public long getMeanWaitTime() {
+        final long started = numStartedJobs.get();
+        return 0 == started ? 0 : totalWaitTime.get() / started;
+    }
+
+    /**
+     * @return the longest time in milliseconds that a started job waited in the queue
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    private void onStart(final Job job) {
+        final long waitTime = System.currentTimeMillis() - job.submittedTime;
+        numStartedJobs.incrementAndGet();
+        totalWaitTime.addAndGet(waitTime);
+        maxWaitTime.accumulateAndGet(waitTime, Math::max);
+        LOGGER.debug("Starting job {} after waiting {}ms, {} jobs queued", job.jobId, waitTime, getQueueSize());
+    }
+
+    private void onFinish(final Job job) {
+        jobs.remove(job.jobId, job);
+        synchronized (this) {
+            final Integer numUserJobs = jobsPerUser.get(job.userId);
+            if (null == numUserJobs || numUserJobs <= 1) {
+                jobsPerUser.remove(job.userId);
+            } else {
+                jobsPerUser.put(job.userId, numUserJobs - 1);
+            }
+        }
+    }
+
+    private final class Job extends FutureTask<Void> implements Comparable<Job> {
+        private final String jobId;
+        private final String userId;
+        private final Priority priority;
+        private final long sequence;
+        private final long submittedTime = System.currentTimeMillis();
+
+        private Job(final String jobId, final String userId, final Priority priority, final long sequence, final Runnable job) {
+            super(job, null);
+            this.jobId = jobId;
+            this.userId = userId;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!isDone()) {
+                    onStart(this);
+                }
+                super.run();
+            } finally {
+                onFinish(this);
+            }
+        }
+
+        @Override
+        public int compareTo(final Job other) {
+            final int result = priority.compareTo(other.priority);
+            return 0 != result ? result : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    private static final class JobThreadFactory implements ThreadFactory {
+        private final String namePrefix = "gaffer-job-executor-" + POOL_NUMBER.incrementAndGet() + "-";
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,795 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.TransformIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.GetOperation;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.Deduplicate;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.Validate;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.export.GetExports;
+import uk.gov.gchq.gaffer.operation.impl.export.resultcache.ExportToGafferResultCache;
+import uk.gov.gchq.gaffer.operation.impl.export.resultcache.GetGafferResultCacheExport;
+import uk.gov.gchq.gaffer.operation.impl.export.set.ExportToSet;
+import uk.gov.gchq.gaffer.operation.impl.export.set.GetSetExport;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateElements;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
+import uk.gov.gchq.gaffer.operation.impl.job.CancelJob;
+import uk.gov.gchq.gaffer.operation.impl.job.GetAllJobDetails;
+import uk.gov.gchq.gaffer.operation.impl.job.GetJobDetails;
+import uk.gov.gchq.gaffer.operation.impl.job.GetJobResults;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+import uk.gov.gchq.gaffer.user.User;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A <code>ResultCache</code> caches the results of read only operation chains
+ * executed on a {@link Store}, so repeated queries do not have to go back to
+ * the underlying data store.
+ * <p>
+ * Results are keyed on the JSON of the operation chain and the user's data
+ * auths. The cache holds at most maxEntries results, evicting the least
+ * recently used, and results expire after the configured time to live.
+ * Iterable results are cached as they are iterated over, and are only cached
+ * if they are fully iterated and contain no more than maxResultSize items.
+ * <p>
+ * When {@link AddElements} is executed, cached results for the groups that
+ * were added are invalidated. Any other operation chain that is not known to
+ * be read only invalidates the whole cache. Elements added directly to the
+ * underlying data store, rather than via this store, will not invalidate the
+ * cache.
+ * <p>
+ * Operation chain inputs must be able to be iterated over more than once, so
+ * only chains with inputs that are collections, or wrapped collections, are
+ * cached.
+ * <p>
+ * Cached results are copied, so modifying a returned result does not change
+ * the cached result. Strings, numbers and booleans are immutable and are
+ * cached as they are. Elements are cached in the store's serialised form,
+ * using the serialisers in the schema, and any other result is cached in its
+ * serialised JSON form. Serialised results are deserialised each time they are
+ * returned. Each result is deserialised once when it is cached and is only
+ * cached if the copy is equal to the original, so a cached result can always
+ * be returned. If a cached result still cannot be deserialised it is removed
+ * from the cache and the operation chain is executed as normal.
+ * <p>
+ * The number of hits, misses, evictions, expirations and invalidations can be
+ * published as gauges in the {@link StoreMetrics}.
+ */
+public class ResultCache {
+    /**
+     * The names of the gauges published in the store metrics for the number
+     * of cached results and the number of cache hits, misses, least recently
+     * used evictions, expired results and invalidations.
+     */
+    public static final String SIZE_METRIC = "resultCache.size";
+    public static final String HITS_METRIC = "resultCache.hits";
+    public static final String MISSES_METRIC = "resultCache.misses";
+    public static final String EVICTIONS_METRIC = "resultCache.evictions";
+    public static final String EXPIRATIONS_METRIC = "resultCache.expirations";
+    public static final String INVALIDATIONS_METRIC = "resultCache.invalidations";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultCache.class);
+    private static final JSONSerialiser JSON_SERIALISER = new JSONSerialiser();
+    private static final Set<Class<?>> IMMUTABLE_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            String.class,
+            Boolean.class,
+            Character.class,
+            Byte.class,
+            Short.class,
+            Integer.class,
+            Long.class,
+            Float.class,
+            Double.class,
+            BigInteger.class,
+            BigDecimal.class
+    )));
+
+    /**
+     * Operations that do not modify the data in the store and whose results
+     * only depend on their input and the data in the store.
+     */
+    private static final Set<Class<? extends Operation>> READ_ONLY_OPERATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            GenerateElements.class,
+            GenerateObjects.class,
+            Deduplicate.class,
+            Limit.class,
+            Count.class,
+            CountGroups.class,
+            Validate.class
+    )));
+
+    /**
+     * Operations that cannot be cached but do not modify the data in the store.
+     */
+    private static final Set<Class<? extends Operation>> NON_MODIFYING_OPERATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ExportToSet.class,
+            GetSetExport.class,
+            GetExports.class,
+            ExportToGafferResultCache.class,
+            GetGafferResultCacheExport.class,
+            GetJobDetails.class,
+            GetAllJobDetails.class,
+            GetJobResults.class,
+            CancelJob.class
+    )));
+
+    private final long timeToLive;
+    private final int maxResultSize;
+    private final Schema schema;
+    private final ElementSerialiser elementSerialiser;
+    private final Map<String, Entry> entries;
+
+    /**
+     * Incremented every time the cache is invalidated, so results from chains
+     * that were running during an invalidation are not cached.
+     */
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * @param maxEntries    the maximum number of results to cache
+     * @param timeToLive    the time in milliseconds that results are cached for
+     * @param maxResultSize the maximum number of items in a cached iterable result
+     */
+    public ResultCache(final int maxEntries, final long timeToLive, final int maxResultSize) {
+        this(maxEntries, timeToLive, maxResultSize, null);
+    }
+
+    /**
+     * @param maxEntries    the maximum number of results to cache
+     * @param timeToLive    the time in milliseconds that results are cached for
+     * @param maxResultSize the maximum number of items in a cached iterable result
+     * @param schema        the schema used to serialise cached elements, or null to cache elements as JSON
+     */
+    public ResultCache(final int maxEntries, final long timeToLive, final int maxResultSize, final Schema schema) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The result cache must be able to hold at least 1 result");
+        }
+        this.timeToLive = timeToLive;
+        this.maxResultSize = maxResultSize;
+        this.schema = null != schema && null != schema.getVertexSerialiser() ? schema : null;
+        this.elementSerialiser = null != this.schema ? new ElementSerialiser(this.schema) : null;
+        this.entries = new LruMap(maxEntries, evictions);
+    }
+
+    /**
+     * Returns the cached result for the operation chain if there is one,
+     * otherwise executes the chain and caches the result.
+     *
+     * @param operationChain the operation chain
+     * @param user           the user executing the operation chain
+     * @param executor       executes the operation chain on the store
+     * @param <OUTPUT>       the output type of the operation chain
+     * @return the result of the operation chain
+     * @throws OperationException if the operation chain fails
+     */
+    public <OUTPUT> OUTPUT execute(final OperationChain<OUTPUT> operationChain,
+                                   final User user,
+                                   final ChainExecutor<OUTPUT> executor) throws OperationException {
+        if (!isCacheable(operationChain)) {
+            final ModificationTracker tracker = trackModifications(operationChain);
+            if (null == tracker) {
+                return executor.execute();
+            }
+            try {
+                return executor.execute();
+            } finally {
+                tracker.invalidate();
+            }
+        }
+
+        final String key = createKey(operationChain, user);
+        if (null == key) {
+            return executor.execute();
+        }
+
+        final Object cachedResult = getCachedResult(key);
+        if (null != cachedResult) {
+            return (OUTPUT) cachedResult;
+        }
+
+        final long startGeneration = getGeneration();
+        misses.incrementAndGet();
+        return cacheResult(operationChain, key, executor.execute(), startGeneration);
+    }
+
+    /**
+     * Returns a completed future for the cached result of the operation chain
+     * if there is one, otherwise executes the chain asynchronously and caches
+     * the result when the future completes.
+     *
+     * @param operationChain the operation chain
+     * @param user           the user executing the operation chain
+     * @param executor       executes the operation chain on the store asynchronously
+     * @param <OUTPUT>       the output type of the operation chain
+     * @return a future for the result of the operation chain
+     */
+    public <OUTPUT> CompletableFuture<OUTPUT> executeAsync(final OperationChain<OUTPUT> operationChain,
+                                                           final User user,
+                                                           final AsyncChainExecutor<OUTPUT> executor) {
+        if (!isCacheable(operationChain)) {
+            final ModificationTracker tracker = trackModifications(operationChain);
+            if (null == tracker) {
+                return executor.execute();
+            }
+            final CompletableFuture<OUTPUT> result;
+            try {
+                result = executor.execute();
+            } catch (final RuntimeException e) {
+                tracker.invalidate();
+                throw e;
+            }
+            return result.whenComplete((output, t) -> tracker.invalidate());
+        }
+
+        final String key = createKey(operationChain, user);
+        if (null == key) {
+            return executor.execute();
+        }
+
+        final Object cachedResult = getCachedResult(key);
+        if (null != cachedResult) {
+            return CompletableFuture.completedFuture((OUTPUT) cachedResult);
+        }
+
+        final long startGeneration = getGeneration();
+        misses.incrementAndGet();
+        return executor.execute().thenApply(result -> cacheResult(operationChain, key, result, startGeneration));
+    }
+
+    /**
+     * Removes cached results that could include elements in the given groups.
+     *
+     * @param groups the groups, or null to remove all cached results
+     */
+    public synchronized void invalidate(final Set<String> groups) {
+        generation++;
+        invalidations.incrementAndGet();
+        if (null == groups) {
+            entries.clear();
+            return;
+        }
+
+        final Iterator<Entry> itr = entries.values().iterator();
+        while (itr.hasNext()) {
+            final Set<String> entryGroups = itr.next().groups;
+            if (null == entryGroups || !Collections.disjoint(entryGroups, groups)) {
+                itr.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        invalidate(null);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Publishes the cache statistics as gauges in the given metrics.
+     *
+     * @param metrics the store metrics
+     */
+    public void registerMetrics(final StoreMetrics metrics) {
+        metrics.registerGauge(SIZE_METRIC, this::size);
+        metrics.registerGauge(HITS_METRIC, this::getHits);
+        metrics.registerGauge(MISSES_METRIC, this::getMisses);
+        metrics.registerGauge(EVICTIONS_METRIC, this::getEvictions);
+        metrics.registerGauge(EXPIRATIONS_METRIC, this::getExpirations);
+        metrics.registerGauge(INVALIDATIONS_METRIC, this::getInvalidations);
+    }
+
+    /**
+     * @param operationChain the operation chain that may modify the store
+     * @return a tracker to invalidate the cache once the operation chain has
+     * been executed, or null if the operation chain does not modify the store.
+     */
+    private ModificationTracker trackModifications(final OperationChain<?> operationChain) {
+        boolean invalidateAll = false;
+        Set<String> addedGroups = null;
+        final Map<AddElements, CloseableIterable<Element>> originalElements = new IdentityHashMap<>();
+        for (final Operation operation : operationChain.getOperations()) {
+            if (operation instanceof AddElements) {
+                final AddElements addElements = (AddElements) operation;
+                if (null == addElements.getElements()) {
+                    // The elements will come from the previous operation so the groups cannot be tracked
+                    invalidateAll = true;
+                } else {
+                    if (null == addedGroups) {
+                        addedGroups = ConcurrentHashMap.newKeySet();
+                    }
+                    originalElements.put(addElements, addElements.getElements());
+                    addElements.setElements(new GroupTrackingIterable(addElements.getElements(), addedGroups));
+                }
+            } else if (!isReadOnly(operation) && !NON_MODIFYING_OPERATIONS.contains(operation.getClass())) {
+                invalidateAll = true;
+            }
+        }
+
+        if (!invalidateAll && null == addedGroups) {
+            return null;
+        }
+
+        return new ModificationTracker(originalElements, invalidateAll ? null : addedGroups);
+    }
+
+    /**
+     * @param key the key of the operation chain
+     * @return a copy of the cached result, or null if there is no cached
+     * result or it cannot be deserialised.
+     */
+    private Object getCachedResult(final String key) {
+        final Entry entry = getEntry(key);
+        if (null == entry) {
+            return null;
+        }
+
+        final Object result;
+        try {
+            result = copyResult(entry);
+        } catch (final SerialisationException e) {
+            LOGGER.warn("Unable to deserialise cached result, removing it from the cache", e);
+            removeEntry(key, entry);
+            return null;
+        }
+        hits.incrementAndGet();
+        LOGGER.debug("Result cache hit for operation chain {}", key);
+        return result;
+    }
+
+    private synchronized Entry getEntry(final String key) {
+        final Entry entry = entries.get(key);
+        if (null != entry) {
+            if (entry.expiryTime > System.currentTimeMillis()) {
+                return entry;
+            }
+            entries.remove(key);
+            expirations.incrementAndGet();
+        }
+        return null;
+    }
+
+    private synchronized void removeEntry(final String key, final Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    /**
+     * Deserialises all of the items in an entry up front, so the result
+     * returned from a cache hit cannot fail part way through being iterated.
+     */
+    private Object copyResult(final Entry entry) throws SerialisationException {
+        if (null == entry.items) {
+            return fromCachedItem(entry.result);
+        }
+
+        final List<Object> items = new ArrayList<>(entry.items.size());
+        for (final Object item : entry.items) {
+            items.add(fromCachedItem(item));
+        }
+        return new WrappedCloseableIterable<>(items);
+    }
+
+    private synchronized long getGeneration() {
+        return generation;
+    }
+
+    private <OUTPUT> OUTPUT cacheResult(final OperationChain<OUTPUT> operationChain, final String key,
+                                        final OUTPUT result, final long startGeneration) {
+        if (null == result) {
+            return null;
+        }
+
+        final Set<String> groups = getGroups(operationChain);
+        if (result instanceof CloseableIterable) {
+            return (OUTPUT) new CachingIterable<>((CloseableIterable<?>) result, key, groups, startGeneration);
+        }
+        if (result instanceof Iterable) {
+            // Only closeable iterables can be cached lazily
+            return result;
+        }
+
+        final Object cachedResult;
+        try {
+            cachedResult = toCachedItem(result);
+        } catch (final SerialisationException e) {
+            LOGGER.debug("Unable to serialise result, it will not be cached", e);
+            return result;
+        }
+        put(key, new Entry(cachedResult, null, groups, System.currentTimeMillis() + timeToLive), startGeneration);
+        return result;
+    }
+
+    private boolean isCacheable(final OperationChain<?> operationChain) {
+        if (null == operationChain.getOperations() || operationChain.getOperations().isEmpty()) {
+            return false;
+        }
+
+        for (final Operation operation : operationChain.getOperations()) {
+            if (!isReadOnly(operation) || !isReIterable(operation.getInput())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isReadOnly(final Operation operation) {
+        return operation instanceof GetOperation || READ_ONLY_OPERATIONS.contains(operation.getClass());
+    }
+
+    private boolean isReIterable(final Object input) {
+        if (input instanceof WrappedCloseableIterable) {
+            return isReIterable(((WrappedCloseableIterable) input).getIterable());
+        }
+
+        return !(input instanceof Iterable)
+                || input instanceof Collection
+                || input instanceof EmptyClosableIterable;
+    }
+
+    private String createKey(final OperationChain<?> operationChain, final User user) {
+        final String json;
+        try {
+            json = new String(JSON_SERIALISER.serialise(operationChain), StandardCharsets.UTF_8);
+        } catch (final SerialisationException e) {
+            LOGGER.debug("Unable to serialise operation chain, the result will not be cached", e);
+            return null;
+        }
+
+        final Set<String> auths = null != user && null != user.getDataAuths() ? new TreeSet<>(user.getDataAuths()) : Collections.emptySet();
+        return auths + json;
+    }
+
+    /**
+     * @param operationChain the operation chain
+     * @return the groups that the operation chain's views could return, or
+     * null if the chain could return any group.
+     */
+    private Set<String> getGroups(final OperationChain<?> operationChain) {
+        final Set<String> groups = new HashSet<>();
+        for (final Operation operation : operationChain.getOperations()) {
+            if (operation instanceof GetOperation) {
+                final View view = operation.getView();
+                if (null == view) {
+                    return null;
+                }
+                groups.addAll(view.getGroups());
+            }
+        }
+
+        return groups;
+    }
+
+    /**
+     * Serialises an item to be cached and checks that it can be deserialised
+     * back to an equal item.
+     *
+     * @param item the item to cache
+     * @return the item to hold in the cache
+     * @throws SerialisationException if the item cannot be serialised or does not round trip
+     */
+    private Object toCachedItem(final Object item) throws SerialisationException {
+        if (null == item || IMMUTABLE_CLASSES.contains(item.getClass())) {
+            return item;
+        }
+
+        final Object cachedItem;
+        if (item instanceof Element && canSerialise((Element) item)) {
+            cachedItem = new SerialisedElement(serialiseElement((Element) item));
+        } else {
+            cachedItem = new SerialisedItem(JSON_SERIALISER.serialise(item), item.getClass());
+        }
+        if (!item.equals(fromCachedItem(cachedItem))) {
+            throw new SerialisationException("Result of type " + item.getClass().getName()
+                    + " is not equal to its deserialised copy");
+        }
+        return cachedItem;
+    }
+
+    private Object fromCachedItem(final Object cachedItem) throws SerialisationException {
+        if (cachedItem instanceof SerialisedElement) {
+            return deserialiseElement(((SerialisedElement) cachedItem).bytes);
+        }
+        if (cachedItem instanceof SerialisedItem) {
+            final SerialisedItem serialisedItem = (SerialisedItem) cachedItem;
+            return JSON_SERIALISER.deserialise(serialisedItem.json, serialisedItem.clazz);
+        }
+        return cachedItem;
+    }
+
+    private boolean canSerialise(final Element element) {
+        return null != elementSerialiser && null != schema.getElement(element.getGroup());
+    }
+
+    private byte[] serialiseElement(final Element element) throws SerialisationException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            elementSerialiser.writeElement(element, new DataOutputStream(bytes));
+        } catch (final IOException e) {
+            throw new SerialisationException("Unable to serialise element", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Element deserialiseElement(final byte[] bytes) throws SerialisationException {
+        try {
+            return elementSerialiser.readElement(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (final IOException e) {
+            throw new SerialisationException("Unable to deserialise cached element", e);
+        }
+    }
+
+    private synchronized void put(final String key, final Entry entry, final long startGeneration) {
+        if (startGeneration == generation) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Executes an operation chain on the {@link Store}.
+     *
+     * @param <OUTPUT> the output type of the operation chain
+     */
+    public interface ChainExecutor<OUTPUT> {
+        OUTPUT execute() throws OperationException;
+    }
+
+    /**
+     * Executes an operation chain on the {@link Store} asynchronously.
+     *
+     * @param <OUTPUT> the output type of the operation chain
+     */
+    public interface AsyncChainExecutor<OUTPUT> {
+        CompletableFuture<OUTPUT> execute();
+    }
+
+    /**
+     * Restores the original {@link AddElements} inputs and invalidates the
+     * cached results once a modifying operation chain has been executed.
+     */
+    private final class ModificationTracker {
+        private final Map<AddElements, CloseableIterable<Element>> originalElements;
+        private final Set<String> addedGroups;
+
+        private ModificationTracker(final Map<AddElements, CloseableIterable<Element>> originalElements, final Set<String> addedGroups) {
+            this.originalElements = originalElements;
+            this.addedGroups = addedGroups;
+        }
+
+        private void invalidate() {
+            for (final Map.Entry<AddElements, CloseableIterable<Element>> entry : originalElements.entrySet()) {
+                entry.getKey().setElements(entry.getValue());
+            }
+            ResultCache.this.invalidate(addedGroups);
+        }
+    }
+
+    private static final class LruMap extends LinkedHashMap<String, Entry> {
+        private static final long serialVersionUID = -2532519637530468404L;
+        private final int maxEntries;
+        private final AtomicLong evictions;
+
+        private LruMap(final int maxEntries, final AtomicLong evictions) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            final boolean remove = size() > maxEntries;
+            if (remove) {
+                evictions.incrementAndGet();
+            }
+            return remove;
+        }
+    }
+
+    private static final class Entry {
+        private final Object result;
+        private final List<Object> items;
+        private final Set<String> groups;
+        private final long expiryTime;
+
+        private Entry(final Object result, final List<Object> items, final Set<String> groups, final long expiryTime) {
+            this.result = result;
+            this.items = items;
+            this.groups = groups;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    /**
+     * A copy of a mutable result, held in its serialised JSON form.
+     */
+    private static final class SerialisedItem {
+        private final byte[] json;
+        private final Class<?> clazz;
+
+        private SerialisedItem(final byte[] json, final Class<?> clazz) {
+            this.json = json;
+            this.clazz = clazz;
+        }
+    }
+
+    /**
+     * A copy of an element, held in the store's serialised form.
+     */
+    private static final class SerialisedElement {
+        private final byte[] bytes;
+
+        private SerialisedElement(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Records the items as they are iterated over and caches them once the
+     * first iterator has been exhausted.
+     */
+    private final class CachingIterable<T> implements CloseableIterable<T> {
+        private final CloseableIterable<T> result;
+        private final String key;
+        private final Set<String> groups;
+        private final long startGeneration;
+        private boolean recording = true;
+
+        private CachingIterable(final CloseableIterable<T> result, final String key, final Set<String> groups, final long startGeneration) {
+            this.result = result;
+            this.key = key;
+            this.groups = groups;
+            this.startGeneration = startGeneration;
+        }
+
+        @Override
+        public void close() {
+            result.close();
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            final CloseableIterator<T> itr = result.iterator();
+            if (!recording) {
+                return itr;
+            }
+            recording = false;
+
+            return new CloseableIterator<T>() {
+                private List<Object> items = new ArrayList<>();
+
+                @Override
+                public boolean hasNext() {
+                    final boolean hasNext = itr.hasNext();
+                    if (!hasNext && null != items) {
+                        put(key, new Entry(null, Collections.unmodifiableList(items), groups,
+                                System.currentTimeMillis() + timeToLive), startGeneration);
+                        items = null;
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public T next() {
+                    final T item = itr.next();
+                    if (null != items) {
+                        if (items.size() < maxResultSize) {
+                            try {
+                                items.add(toCachedItem(item));
+                            } catch (final SerialisationException e) {
+                                LOGGER.debug("Unable to serialise result item, the result will not be cached", e);
+                                items = null;
+                            }
+                        } else {
+                            items = null;
+                        }
+                    }
+                    return item;
+                }
+
+                @Override
+                public void close() {
+                    items = null;
+                    itr.close();
+                }
+            };
+        }
+    }
+
+    private static final class GroupTrackingIterable extends TransformIterable<Element, Element> {
+        private final Set<String> groups;
+
+        private GroupTrackingIterable(final Iterable<Element> elements, final Set<String> groups) {
+            super(elements);
+            this.groups = groups;
+        }
+
+        @Override
+        protected Element transform(final Element element) {
+            if (null != element) {
+                groups.add(element.getGroup());
+            }
+            return element;
+        }
+    }
+}
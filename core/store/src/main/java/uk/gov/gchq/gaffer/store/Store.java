@@ -19,6 +19,7 @@ package uk.gov.gchq.gaffer.store;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.commonutil.exception.UnauthorisedException;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.IdentifierType;
@@ -56,21 +57,26 @@ import uk.gov.gchq.gaffer.operation.impl.get.GetEntitiesBySeed;
 import uk.gov.gchq.gaffer.operation.impl.get.GetRelatedEdges;
 import uk.gov.gchq.gaffer.operation.impl.get.GetRelatedElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetRelatedEntities;
+import uk.gov.gchq.gaffer.operation.impl.get.TraverseHops;
+import uk.gov.gchq.gaffer.operation.impl.job.CancelJob;
 import uk.gov.gchq.gaffer.operation.impl.job.GetAllJobDetails;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobDetails;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobResults;
 import uk.gov.gchq.gaffer.serialisation.Serialisation;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
 import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.CountHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.DeduplicateHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.LimitHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
+import uk.gov.gchq.gaffer.store.operation.handler.TraverseHopsHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.ValidateHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.export.GetExportsHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.export.set.ExportToSetHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.export.set.GetSetExportHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.generate.GenerateElementsHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.generate.GenerateObjectsHandler;
+import uk.gov.gchq.gaffer.store.operation.handler.job.CancelJobHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.job.GetAllJobDetailsHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.job.GetJobDetailsHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.job.GetJobResultsHandler;
@@ -78,6 +84,7 @@ import uk.gov.gchq.gaffer.store.operationdeclaration.OperationDeclaration;
 import uk.gov.gchq.gaffer.store.operationdeclaration.OperationDeclarations;
 import uk.gov.gchq.gaffer.store.optimiser.CoreOperationChainOptimiser;
 import uk.gov.gchq.gaffer.store.optimiser.OperationChainOptimiser;
+import uk.gov.gchq.gaffer.store.optimiser.PushDownOperationChainOptimiser;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
@@ -87,9 +94,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A <code>Store</code> backs a Graph and is responsible for storing the {@link uk.gov.gchq.gaffer.data.element.Element}s and
@@ -100,6 +112,7 @@ import java.util.Set;
  */
 public abstract class Store {
     private static final Logger LOGGER = LoggerFactory.getLogger(Store.class);
+    private static final AtomicLong STORE_INSTANCE_COUNT = new AtomicLong();
 
     /**
      * The schema - contains the type of {@link uk.gov.gchq.gaffer.data.element.Element}s to be stored and how to aggregate the elements.
@@ -117,9 +130,13 @@ public abstract class Store {
     private ViewValidator viewValidator;
 
     private JobTracker jobTracker;
+    private JobExecutor jobExecutor;
+    private ResultCache resultCache;
+    private StoreMetrics metrics;
 
     public Store() {
         opChainOptimisers.add(new CoreOperationChainOptimiser(this));
+        opChainOptimisers.add(new PushDownOperationChainOptimiser(this));
         this.viewValidator = new ViewValidator();
         this.schemaOptimiser = new SchemaOptimiser();
     }
@@ -128,10 +145,37 @@ public abstract class Store {
         this.schema = schema;
         this.properties = properties;
         this.jobTracker = createJobTracker(properties);
+        this.jobExecutor = createJobExecutor(properties);
+        if (null != metrics) {
+            // The store is being re-initialised, so its previous metrics are replaced
+            metrics.unregisterMBean();
+        }
+        this.metrics = createMetrics(properties);
+        if (null != metrics && null != jobExecutor) {
+            jobExecutor.registerMetrics(metrics);
+        }
 
         addOpHandlers();
         optimiseSchema();
         validateSchemas();
+        // The result cache serialises elements with the optimised schema
+        this.resultCache = createResultCache(properties);
+        if (null != metrics && null != resultCache) {
+            resultCache.registerMetrics(metrics);
+        }
+    }
+
+    /**
+     * Releases the resources held by the store, such as the threads used to
+     * run jobs. The store should not be used once it has been closed.
+     */
+    public void close() {
+        if (null != jobExecutor) {
+            jobExecutor.shutdown();
+        }
+        if (null != metrics) {
+            metrics.unregisterMBean();
+        }
     }
 
     protected JobTracker createJobTracker(final StoreProperties properties) {
@@ -149,6 +193,76 @@ public abstract class Store {
         return null;
     }
 
+    /**
+     * Creates the {@link JobExecutor} used to run operation chain jobs. Jobs
+     * can only be run if a {@link JobTracker} has been configured.
+     *
+     * @param properties the store properties
+     * @return the job executor, or null if there is no job tracker
+     */
+    protected JobExecutor createJobExecutor(final StoreProperties properties) {
+        if (null == jobTracker) {
+            return null;
+        }
+
+        return new JobExecutor(properties.getJobExecutorThreads(),
+                properties.getJobExecutorMaxQueueSize(),
+                properties.getJobExecutorMaxJobsPerUser());
+    }
+
+    /**
+     * Creates the {@link ResultCache} used to cache the results of read only
+     * operation chains.
+     *
+     * @param properties the store properties
+     * @return the result cache, or null if result caching is disabled
+     */
+    protected ResultCache createResultCache(final StoreProperties properties) {
+        final int maxEntries = properties.getResultCacheMaxEntries();
+        if (maxEntries < 1) {
+            return null;
+        }
+
+        return new ResultCache(maxEntries,
+                TimeUnit.SECONDS.toMillis(properties.getResultCacheTtlSeconds()),
+                properties.getResultCacheMaxResultSize(),
+                getSchema());
+    }
+
+    /**
+     * Creates the {@link StoreMetrics} used to record operation latencies and
+     * throughput. The metrics are registered as an MBean, named after the
+     * store class and {@link #getMetricsId()}, so they can be monitored over JMX.
+     * The MBean is unregistered when the store is closed or re-initialised.
+     * Stores are often not closed, for example a Graph never closes its store,
+     * so the MBean only holds the metrics weakly and is unregistered once the
+     * store and its metrics have been garbage collected.
+     *
+     * @param properties the store properties
+     * @return the store metrics, or null if metrics are disabled
+     */
+    protected StoreMetrics createMetrics(final StoreProperties properties) {
+        if (!properties.getMetricsEnabled()) {
+            return null;
+        }
+
+        final StoreMetrics newMetrics = new StoreMetrics();
+        newMetrics.registerMBean(getClass().getSimpleName(), getMetricsId());
+        return newMetrics;
+    }
+
+    /**
+     * Returns the id used to name this store's metrics MBean, so the metrics
+     * of stores with the same class do not replace each other. Stores should
+     * override this to return an id for the data they hold, such as a table
+     * name. By default a number unique to this store instance is used.
+     *
+     * @return the id used to name the store's metrics MBean
+     */
+    protected String getMetricsId() {
+        return String.valueOf(STORE_INSTANCE_COUNT.incrementAndGet());
+    }
+
     /**
      * Returns true if the Store can handle the provided trait and false if it cannot.
      *
@@ -189,6 +303,21 @@ public abstract class Store {
         return execute(new OperationChain<>(operation), user);
     }
 
+    /**
+     * Validates and optimises a given operation chain without executing it.
+     * The returned operation chain is the plan that would be executed by
+     * {@link #execute(OperationChain, User)}. The operations in the provided
+     * chain may be modified by the optimisers.
+     *
+     * @param operationChain the operation chain to explain.
+     * @param user           the user executing the operation chain
+     * @param <OUTPUT>       the output type of the operation.
+     * @return the optimised operation chain.
+     */
+    public <OUTPUT> OperationChain<OUTPUT> explain(final OperationChain<OUTPUT> operationChain, final User user) {
+        return prepareOperationChain(operationChain, createContext(user));
+    }
+
     /**
      * Executes a given operation chain and returns the result.
      *
@@ -202,7 +331,7 @@ public abstract class Store {
         final Context context = createContext(user);
         addOrUpdateJobDetail(operationChain, context, null, JobStatus.RUNNING);
         try {
-            final OUTPUT result = _execute(operationChain, context);
+            final OUTPUT result = executeWithResultCache(operationChain, context);
             addOrUpdateJobDetail(operationChain, context, null, JobStatus.FINISHED);
             return result;
         } catch (final Throwable t) {
@@ -211,6 +340,42 @@ public abstract class Store {
         }
     }
 
+    /**
+     * Executes a given operation chain asynchronously and returns a future for
+     * the result. If the operation chain fails the future is completed
+     * exceptionally with the cause of the failure.
+     * <p>
+     * By default the operation chain is executed in the calling thread, so the
+     * returned future has already completed. Stores that wait on remote
+     * services override {@link #_executeAsync(OperationChain, Context)} so that
+     * several operation chains can be executed at the same time.
+     *
+     * @param operationChain the operation chain to execute.
+     * @param user           the user executing the operation chain
+     * @param <OUTPUT>       the output type of the operation.
+     * @return a future for the result of executing the operation chain.
+     */
+    public <OUTPUT> CompletableFuture<OUTPUT> executeAsync(final OperationChain<OUTPUT> operationChain, final User user) {
+        final Context context = createContext(user);
+        addOrUpdateJobDetail(operationChain, context, null, JobStatus.RUNNING);
+        CompletableFuture<OUTPUT> result;
+        try {
+            result = executeAsyncWithResultCache(operationChain, context);
+        } catch (final RuntimeException e) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+        }
+
+        return result.whenComplete((output, t) -> {
+            if (null == t) {
+                addOrUpdateJobDetail(operationChain, context, null, JobStatus.FINISHED);
+            } else {
+                final Throwable cause = t instanceof CompletionException && null != t.getCause() ? t.getCause() : t;
+                addOrUpdateJobDetail(operationChain, context, cause.getMessage(), JobStatus.FAILED);
+            }
+        });
+    }
+
     /**
      * Executes a given operation chain job and returns the job detail.
      *
@@ -239,29 +404,102 @@ public abstract class Store {
             }
         }
 
-        final JobDetail initialJobDetail = addOrUpdateJobDetail(operationChain, context, null, JobStatus.RUNNING);
-        new Thread(() -> {
-            try {
-                _execute(operationChain, context);
-                addOrUpdateJobDetail(operationChain, context, null, JobStatus.FINISHED);
-            } catch (final Throwable t) {
-                LOGGER.warn("Operation chain job failed to execute", t);
-                addOrUpdateJobDetail(operationChain, context, t.getMessage(), JobStatus.FAILED);
-            }
-        }).start();
+        final JobDetail initialJobDetail = addOrUpdateJobDetail(operationChain, context, null, JobStatus.QUEUED);
+        try {
+            jobExecutor.submit(context.getJobId(), user.getUserId(), getJobPriority(operationChain),
+                    () -> runJob(operationChain, context));
+        } catch (final OperationException e) {
+            addOrUpdateJobDetail(operationChain, context, e.getMessage(), JobStatus.FAILED);
+            throw e;
+        }
 
         return initialJobDetail;
     }
 
+    /**
+     * Cancels a queued or running operation chain job. A running job is
+     * interrupted, however the operation handlers may not stop straight away.
+     * Users can only cancel their own jobs, unless they have the job admin
+     * auth configured in {@link StoreProperties#JOB_ADMIN_AUTH}.
+     *
+     * @param jobId the id of the job to cancel
+     * @param user  the user cancelling the job
+     * @return the updated job detail
+     * @throws OperationException thrown if jobs are not configured, the job
+     *                            cannot be found or it has already completed.
+     * @throws UnauthorisedException thrown if the user is not allowed to cancel the job.
+     */
+    public JobDetail cancelJob(final String jobId, final User user) throws OperationException {
+        if (null == jobTracker) {
+            throw new OperationException("Running jobs has not configured.");
+        }
+
+        final JobDetail jobDetail = jobTracker.getJob(jobId, user);
+        if (null == jobDetail) {
+            throw new OperationException("Job " + jobId + " could not be found");
+        }
+
+        if (!isJobOwnerOrAdmin(jobDetail, user)) {
+            throw new UnauthorisedException("User " + user.getUserId() + " is not authorised to cancel job " + jobId);
+        }
+
+        if (!jobExecutor.cancel(jobId)) {
+            throw new OperationException("Job " + jobId + " could not be cancelled as it is not queued or running");
+        }
+
+        final JobDetail cancelledJobDetail = new JobDetail();
+        cancelledJobDetail.setStatus(JobStatus.CANCELLED);
+        cancelledJobDetail.setDescription("Cancelled by user " + user.getUserId());
+        final JobDetail newJobDetail = new JobDetail(jobDetail, cancelledJobDetail);
+        jobTracker.addOrUpdateJob(newJobDetail, user);
+        return newJobDetail;
+    }
+
     public <OUTPUT> OUTPUT _execute(final OperationChain<OUTPUT> operationChain, final Context context) throws OperationException {
         final OperationChain<OUTPUT> optimisedOperationChain = prepareOperationChain(operationChain, context);
         return handleOperationChain(optimisedOperationChain, context);
     }
 
+    /**
+     * Executes the operation chain and returns a future for the result. The
+     * default implementation executes the operation chain in the calling thread.
+     * The store's {@link ResultCache} is checked before this is called and
+     * caches the result, so implementations do not need to use the cache.
+     *
+     * @param operationChain the operation chain to execute
+     * @param context        the operation chain context
+     * @param <OUTPUT>       the output type of the operation chain
+     * @return a future for the result of executing the operation chain
+     */
+    protected <OUTPUT> CompletableFuture<OUTPUT> _executeAsync(final OperationChain<OUTPUT> operationChain, final Context context) {
+        final CompletableFuture<OUTPUT> result = new CompletableFuture<>();
+        try {
+            result.complete(_execute(operationChain, context));
+        } catch (final OperationException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     public JobTracker getJobTracker() {
         return jobTracker;
     }
 
+    public JobExecutor getJobExecutor() {
+        return jobExecutor;
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * @return the store metrics, or null if metrics are disabled
+     */
+    public StoreMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * @param operationClass the operation class to check
      * @return true if the provided operation is supported.
@@ -371,6 +609,16 @@ public abstract class Store {
                         + op.getClass().getName()
                         + " is not valid. See the logs for more information.");
             }
+            if (op instanceof TraverseHops) {
+                final TraverseHops traverseHops = (TraverseHops) op;
+                for (int hop = 0; hop < traverseHops.getHops(); hop++) {
+                    if (!viewValidator.validate(traverseHops.getHopView(hop), schema, hasTrait(StoreTrait.ORDERED))) {
+                        throw new SchemaException("View for hop " + hop + " of operation "
+                                + op.getClass().getName()
+                                + " is not valid. See the logs for more information.");
+                    }
+                }
+            }
         }
     }
 
@@ -454,6 +702,71 @@ public abstract class Store {
         return (OUTPUT) result;
     }
 
+    private void runJob(final OperationChain<?> operationChain, final Context context) {
+        if (jobExecutor.isCancelled(context.getJobId())) {
+            return;
+        }
+        addOrUpdateJobDetail(operationChain, context, null, JobStatus.RUNNING);
+        if (jobExecutor.isCancelled(context.getJobId())) {
+            // The job was cancelled while the running status was being written, so the cancelled status is restored
+            addOrUpdateJobDetail(operationChain, context, null, JobStatus.CANCELLED);
+            return;
+        }
+        try {
+            executeWithResultCache(operationChain, context);
+            if (!jobExecutor.isCancelled(context.getJobId())) {
+                addOrUpdateJobDetail(operationChain, context, null, JobStatus.FINISHED);
+            }
+        } catch (final Throwable t) {
+            if (jobExecutor.isCancelled(context.getJobId())) {
+                LOGGER.debug("Cancelled operation chain job stopped with an exception", t);
+            } else {
+                LOGGER.warn("Operation chain job failed to execute", t);
+                addOrUpdateJobDetail(operationChain, context, t.getMessage(), JobStatus.FAILED);
+            }
+        }
+    }
+
+    private boolean isJobOwnerOrAdmin(final JobDetail jobDetail, final User user) {
+        if (null != user.getUserId() && user.getUserId().equals(jobDetail.getUserId())) {
+            return true;
+        }
+        final String adminAuth = properties.getJobAdminAuth();
+        return null != adminAuth && null != user.getOpAuths() && user.getOpAuths().contains(adminAuth);
+    }
+
+    private <OUTPUT> OUTPUT executeWithResultCache(final OperationChain<OUTPUT> operationChain, final Context context) throws OperationException {
+        if (null == resultCache) {
+            return _execute(operationChain, context);
+        }
+
+        return resultCache.execute(operationChain, context.getUser(), () -> _execute(operationChain, context));
+    }
+
+    private <OUTPUT> CompletableFuture<OUTPUT> executeAsyncWithResultCache(final OperationChain<OUTPUT> operationChain, final Context context) {
+        if (null == resultCache) {
+            return _executeAsync(operationChain, context);
+        }
+
+        return resultCache.executeAsync(operationChain, context.getUser(), () -> _executeAsync(operationChain, context));
+    }
+
+    private JobExecutor.Priority getJobPriority(final OperationChain<?> operationChain) {
+        for (final Operation operation : operationChain.getOperations()) {
+            final String priority = operation.getOption(JobExecutor.PRIORITY_OPTION);
+            if (null != priority) {
+                try {
+                    return JobExecutor.Priority.valueOf(priority.toUpperCase(Locale.getDefault()));
+                } catch (final IllegalArgumentException e) {
+                    LOGGER.warn("Unknown job priority: {}, the default priority will be used", priority);
+                    return null;
+                }
+            }
+        }
+
+        return null;
+    }
+
     private JobDetail addOrUpdateJobDetail(final OperationChain<?> operationChain, final Context context, final String msg, final JobStatus jobStatus) {
         final JobDetail newJobDetail = new JobDetail(context.getJobId(), context.getUser().getUserId(), operationChain, jobStatus, msg);
         if (null != jobTracker) {
@@ -470,11 +783,22 @@ public abstract class Store {
     protected <OPERATION extends Operation<?, OUTPUT>, OUTPUT> OUTPUT handleOperation(final OPERATION operation, final Context context) throws
             OperationException {
         final OperationHandler<OPERATION, OUTPUT> handler = getOperationHandler(operation.getClass());
+        final long startTime = System.nanoTime();
         OUTPUT result;
-        if (null != handler) {
-            result = handler.doOperation(operation, context, this);
-        } else {
-            result = doUnhandledOperation(operation, context);
+        try {
+            if (null != handler) {
+                result = handler.doOperation(operation, context, this);
+            } else {
+                result = doUnhandledOperation(operation, context);
+            }
+        } finally {
+            if (null != metrics) {
+                metrics.recordOperation(operation.getClass(), null != handler ? handler.getClass() : null, System.nanoTime() - startTime);
+            }
+        }
+
+        if (null != metrics && result instanceof CloseableIterable) {
+            result = (OUTPUT) metrics.trackOutput(operation.getClass(), startTime, (CloseableIterable<?>) result);
         }
 
         return result;
@@ -512,6 +836,7 @@ public abstract class Store {
 
         // Get Adjacent
         addOperationHandler(GetAdjacentEntitySeeds.class, (OperationHandler) getAdjacentEntitySeedsHandler());
+        addOperationHandler(TraverseHops.class, new TraverseHopsHandler());
 
         // Get All Elements
         addOperationHandler(GetAllElements.class, (OperationHandler) getGetAllElementsHandler());
@@ -535,6 +860,7 @@ public abstract class Store {
         addOperationHandler(GetJobDetails.class, new GetJobDetailsHandler());
         addOperationHandler(GetAllJobDetails.class, new GetAllJobDetailsHandler());
         addOperationHandler(GetJobResults.class, new GetJobResultsHandler());
+        addOperationHandler(CancelJob.class, new CancelJobHandler());
 
         // Other
         addOperationHandler(GenerateElements.class, new GenerateElementsHandler<>());
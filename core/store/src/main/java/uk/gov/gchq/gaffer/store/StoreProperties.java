@@ -49,6 +49,37 @@ public class StoreProperties implements Cloneable {
     public static final String JOB_TRACKER_CLASS = "gaffer.store.job.tracker.class";
     public static final String JOB_TRACKER_CONFIG_PATH = "gaffer.store.job.tracker.config.path";
 
+    public static final String JOB_EXECUTOR_THREADS = "gaffer.store.job.executor.threads";
+    public static final String JOB_EXECUTOR_THREADS_DEFAULT = "10";
+    public static final String JOB_EXECUTOR_MAX_QUEUE_SIZE = "gaffer.store.job.executor.max.queue.size";
+    public static final String JOB_EXECUTOR_MAX_QUEUE_SIZE_DEFAULT = "1000";
+    /**
+     * The maximum number of queued or running jobs each user can have. By default there is no limit.
+     */
+    public static final String JOB_EXECUTOR_MAX_JOBS_PER_USER = "gaffer.store.job.executor.max.jobs.per.user";
+    /**
+     * The operation auth that allows a user to cancel jobs run by other users. By default users can only cancel their
+     * own jobs.
+     */
+    public static final String JOB_ADMIN_AUTH = "gaffer.store.job.admin.auth";
+
+    /**
+     * The maximum number of operation chain results to cache. By default results are not cached.
+     */
+    public static final String RESULT_CACHE_MAX_ENTRIES = "gaffer.store.result.cache.max.entries";
+    public static final String RESULT_CACHE_MAX_ENTRIES_DEFAULT = "0";
+    public static final String RESULT_CACHE_TTL_SECONDS = "gaffer.store.result.cache.ttl.seconds";
+    public static final String RESULT_CACHE_TTL_SECONDS_DEFAULT = "300";
+    public static final String RESULT_CACHE_MAX_RESULT_SIZE = "gaffer.store.result.cache.max.result.size";
+    public static final String RESULT_CACHE_MAX_RESULT_SIZE_DEFAULT = "10000";
+
+    /**
+     * Whether operation latencies and throughput should be recorded in
+     * {@link uk.gov.gchq.gaffer.store.metrics.StoreMetrics}. By default metrics are not recorded.
+     */
+    public static final String METRICS_ENABLED = "gaffer.store.metrics.enabled";
+    public static final String METRICS_ENABLED_DEFAULT = "false";
+
     private Properties props = new Properties();
 
     // Required for loading by reflection.
@@ -145,6 +176,71 @@ public class StoreProperties implements Cloneable {
         set(JOB_TRACKER_CONFIG_PATH, jobTrackerConfigPath);
     }
 
+    public int getJobExecutorThreads() {
+        return Integer.parseInt(get(JOB_EXECUTOR_THREADS, JOB_EXECUTOR_THREADS_DEFAULT));
+    }
+
+    public void setJobExecutorThreads(final String jobExecutorThreads) {
+        set(JOB_EXECUTOR_THREADS, jobExecutorThreads);
+    }
+
+    public int getJobExecutorMaxQueueSize() {
+        return Integer.parseInt(get(JOB_EXECUTOR_MAX_QUEUE_SIZE, JOB_EXECUTOR_MAX_QUEUE_SIZE_DEFAULT));
+    }
+
+    public void setJobExecutorMaxQueueSize(final String jobExecutorMaxQueueSize) {
+        set(JOB_EXECUTOR_MAX_QUEUE_SIZE, jobExecutorMaxQueueSize);
+    }
+
+    public Integer getJobExecutorMaxJobsPerUser() {
+        final String maxJobsPerUser = get(JOB_EXECUTOR_MAX_JOBS_PER_USER);
+        return null != maxJobsPerUser ? Integer.valueOf(maxJobsPerUser) : null;
+    }
+
+    public void setJobExecutorMaxJobsPerUser(final String jobExecutorMaxJobsPerUser) {
+        set(JOB_EXECUTOR_MAX_JOBS_PER_USER, jobExecutorMaxJobsPerUser);
+    }
+
+    public String getJobAdminAuth() {
+        return get(JOB_ADMIN_AUTH);
+    }
+
+    public void setJobAdminAuth(final String jobAdminAuth) {
+        set(JOB_ADMIN_AUTH, jobAdminAuth);
+    }
+
+    public int getResultCacheMaxEntries() {
+        return Integer.parseInt(get(RESULT_CACHE_MAX_ENTRIES, RESULT_CACHE_MAX_ENTRIES_DEFAULT));
+    }
+
+    public void setResultCacheMaxEntries(final String resultCacheMaxEntries) {
+        set(RESULT_CACHE_MAX_ENTRIES, resultCacheMaxEntries);
+    }
+
+    public long getResultCacheTtlSeconds() {
+        return Long.parseLong(get(RESULT_CACHE_TTL_SECONDS, RESULT_CACHE_TTL_SECONDS_DEFAULT));
+    }
+
+    public void setResultCacheTtlSeconds(final String resultCacheTtlSeconds) {
+        set(RESULT_CACHE_TTL_SECONDS, resultCacheTtlSeconds);
+    }
+
+    public int getResultCacheMaxResultSize() {
+        return Integer.parseInt(get(RESULT_CACHE_MAX_RESULT_SIZE, RESULT_CACHE_MAX_RESULT_SIZE_DEFAULT));
+    }
+
+    public void setResultCacheMaxResultSize(final String resultCacheMaxResultSize) {
+        set(RESULT_CACHE_MAX_RESULT_SIZE, resultCacheMaxResultSize);
+    }
+
+    public boolean getMetricsEnabled() {
+        return Boolean.parseBoolean(get(METRICS_ENABLED, METRICS_ENABLED_DEFAULT));
+    }
+
+    public void setMetricsEnabled(final String metricsEnabled) {
+        set(METRICS_ENABLED, metricsEnabled);
+    }
+
     public String getSchemaClassName() {
         return get(SCHEMA_CLASS, Schema.class.getName());
     }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A <code>LatencyHistogram</code> counts latencies in a fixed set of buckets,
+ * so it uses a constant amount of memory however many latencies are recorded.
+ * Percentiles are estimated as the upper bound of the bucket they fall in,
+ * or the maximum latency if they fall in the last bucket.
+ * It is safe to record latencies from multiple threads.
+ */
+public class LatencyHistogram {
+    /**
+     * The upper bounds, in milliseconds, of each bucket apart from the last,
+     * which holds all latencies of at least the largest bound.
+     */
+    static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && millis >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public LatencySummary getSummary() {
+        final long[] counts = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        final long maxMillis = TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        final Map<String, Long> bucketCounts = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            bucketCounts.put("<" + BUCKET_BOUNDS[i] + "ms", counts[i]);
+        }
+        bucketCounts.put(">=" + BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1] + "ms", counts[BUCKET_BOUNDS.length]);
+
+        final double meanMillis = 0 == total ? 0 : (double) totalNanos.get() / total / TimeUnit.MILLISECONDS.toNanos(1);
+        return new LatencySummary(total, meanMillis, maxMillis,
+                getPercentile(counts, total, 0.5, maxMillis),
+                getPercentile(counts, total, 0.95, maxMillis),
+                getPercentile(counts, total, 0.99, maxMillis),
+                bucketCounts);
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    private static long getPercentile(final long[] counts, final long total, final double percentile, final long maxMillis) {
+        if (0 == total) {
+            return 0;
+        }
+
+        final long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BUCKET_BOUNDS[i];
+            }
+        }
+        return maxMillis;
+    }
+}
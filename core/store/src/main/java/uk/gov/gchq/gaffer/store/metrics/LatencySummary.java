@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A <code>LatencySummary</code> is a snapshot of a {@link LatencyHistogram}.
+ * All times are in milliseconds.
+ */
+public class LatencySummary {
+    private final long count;
+    private final double meanMillis;
+    private final long maxMillis;
+    private final long p50Millis;
+    private final long p95Millis;
+    private final long p99Millis;
+    private final Map<String, Long> buckets;
+
+    @ConstructorProperties({"count", "meanMillis", "maxMillis", "p50Millis", "p95Millis", "p99Millis", "buckets"})
+    public LatencySummary(final long count, final double meanMillis, final long maxMillis,
+                          final long p50Millis, final long p95Millis, final long p99Millis,
+                          final Map<String, Long> buckets) {
+        this.count = count;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+        this.buckets = Collections.unmodifiableMap(buckets);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public long getP50Millis() {
+        return p50Millis;
+    }
+
+    public long getP95Millis() {
+        return p95Millis;
+    }
+
+    public long getP99Millis() {
+        return p99Millis;
+    }
+
+    /**
+     * @return the number of latencies in each bucket, keyed on the bucket range
+     */
+    public Map<String, Long> getBuckets() {
+        return buckets;
+    }
+}
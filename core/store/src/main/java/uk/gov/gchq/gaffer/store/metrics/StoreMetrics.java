@@ -0,0 +1,420 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * <code>StoreMetrics</code> records how long operations, operation handlers
+ * and operation chains take to execute on a {@link uk.gov.gchq.gaffer.store.Store},
+ * how quickly the results of iterable operation outputs are returned and any
+ * store specific counters, such as the number of scanners created.
+ * <p>
+ * Gauges publish values that are held elsewhere, such as the size of the job
+ * queue. They are read each time the metrics are requested and are not reset.
+ * <p>
+ * Latencies are recorded in {@link LatencyHistogram}s. The metrics can be
+ * registered as an MBean so they can be monitored over JMX.
+ * <p>
+ * The MBean server only holds a weak reference to the registered metrics, so
+ * metrics that are never unregistered, for example because their store is
+ * never closed, can still be garbage collected along with their store. The
+ * MBeans of metrics that have been garbage collected are unregistered the next
+ * time any metrics are registered.
+ */
+public class StoreMetrics implements StoreMetricsMXBean {
+    public static final String JMX_DOMAIN = "uk.gov.gchq.gaffer.store";
+    private static final Logger LOGGER = LoggerFactory.getLogger(StoreMetrics.class);
+    private static final ReferenceQueue<StoreMetrics> COLLECTED_METRICS = new ReferenceQueue<>();
+    private static final ConcurrentMap<ObjectName, MetricsReference> REGISTRATIONS = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LatencyHistogram> operationLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> handlerLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> operationChainLatencies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, OutputThroughput> outputThroughput = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private ObjectName registeredName;
+
+    /**
+     * Records the time taken to execute an operation.
+     *
+     * @param operationClass the class of the operation
+     * @param handlerClass   the class of the operation handler, or null if the operation was not handled by a handler
+     * @param nanos          the time taken in nanoseconds
+     */
+    public void recordOperation(final Class<?> operationClass, final Class<?> handlerClass, final long nanos) {
+        getHistogram(operationLatencies, operationClass.getName()).record(nanos);
+        if (null != handlerClass) {
+            getHistogram(handlerLatencies, handlerClass.getName()).record(nanos);
+        }
+    }
+
+    /**
+     * Records the time taken to execute an operation chain.
+     *
+     * @param name  the name of the operation chain
+     * @param nanos the time taken in nanoseconds
+     */
+    public void recordOperationChain(final String name, final long nanos) {
+        getHistogram(operationChainLatencies, name).record(nanos);
+    }
+
+    /**
+     * Wraps the output of an operation so the number of results and the rate
+     * they are returned at are recorded as it is iterated over.
+     *
+     * @param operationClass the class of the operation
+     * @param startTime      the {@link System#nanoTime()} the operation was started at
+     * @param output         the output of the operation
+     * @param <T>            the type of the results
+     * @return the wrapped output
+     */
+    public <T> CloseableIterable<T> trackOutput(final Class<?> operationClass, final long startTime, final CloseableIterable<T> output) {
+        final OutputThroughput throughput = outputThroughput.computeIfAbsent(operationClass.getName(), k -> new OutputThroughput());
+        return new TrackedIterable<>(output, throughput, startTime);
+    }
+
+    public void incrementCounter(final String name) {
+        incrementCounter(name, 1);
+    }
+
+    public void incrementCounter(final String name, final long delta) {
+        counters.computeIfAbsent(name, k -> new AtomicLong()).addAndGet(delta);
+    }
+
+    public long getCounter(final String name) {
+        final AtomicLong counter = counters.get(name);
+        return null == counter ? 0 : counter.get();
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name.
+     *
+     * @param name  the name of the gauge
+     * @param gauge supplies the current value of the gauge
+     */
+    public void registerGauge(final String name, final LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public long getGauge(final String name) {
+        final LongSupplier gauge = gauges.get(name);
+        return null == gauge ? 0 : gauge.getAsLong();
+    }
+
+    @Override
+    public Map<String, LatencySummary> getOperationLatencies() {
+        return getSummaries(operationLatencies);
+    }
+
+    @Override
+    public Map<String, LatencySummary> getHandlerLatencies() {
+        return getSummaries(handlerLatencies);
+    }
+
+    @Override
+    public Map<String, LatencySummary> getOperationChainLatencies() {
+        return getSummaries(operationChainLatencies);
+    }
+
+    @Override
+    public Map<String, ThroughputSummary> getOutputThroughput() {
+        final Map<String, ThroughputSummary> summaries = new TreeMap<>();
+        for (final Map.Entry<String, OutputThroughput> entry : outputThroughput.entrySet()) {
+            summaries.put(entry.getKey(), entry.getValue().getSummary());
+        }
+        return summaries;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        final Map<String, Long> values = new TreeMap<>();
+        for (final Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().get());
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+        final Map<String, Long> values = new TreeMap<>();
+        for (final Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getAsLong());
+        }
+        return values;
+    }
+
+    @Override
+    public void reset() {
+        operationLatencies.clear();
+        handlerLatencies.clear();
+        operationChainLatencies.clear();
+        outputThroughput.clear();
+        counters.clear();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server. If metrics with
+     * the same name and id are already registered they are replaced. The
+     * MBeans of any metrics that have been garbage collected without being
+     * unregistered are unregistered first.
+     *
+     * @param name the name to register the metrics under, such as the store class
+     * @param id   the id of the data the metrics are recorded for, such as the table name
+     * @return the object name the metrics were registered with, or null if they could not be registered
+     */
+    public synchronized ObjectName registerMBean(final String name, final String id) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        unregisterCollectedMBeans(server);
+        try {
+            final ObjectName objectName = createObjectName(name, id);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            final MetricsReference reference = new MetricsReference(this, objectName);
+            server.registerMBean(new StandardMBean(new WeakStoreMetrics(reference), StoreMetricsMXBean.class, true), objectName);
+            REGISTRATIONS.put(objectName, reference);
+            registeredName = objectName;
+            return objectName;
+        } catch (final JMException e) {
+            LOGGER.warn("Unable to register store metrics MBean {} with id {}", name, id, e);
+            return null;
+        }
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server, if they have
+     * been registered.
+     */
+    public synchronized void unregisterMBean() {
+        if (null == registeredName) {
+            return;
+        }
+
+        final MetricsReference reference = REGISTRATIONS.get(registeredName);
+        if (null != reference && this == reference.get()) {
+            unregister(ManagementFactory.getPlatformMBeanServer(), reference);
+        }
+        registeredName = null;
+    }
+
+    public static ObjectName createObjectName(final String name, final String id) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=StoreMetrics,name=" + ObjectName.quote(name)
+                + ",id=" + ObjectName.quote(id));
+    }
+
+    private static void unregisterCollectedMBeans(final MBeanServer server) {
+        Reference<? extends StoreMetrics> reference;
+        while (null != (reference = COLLECTED_METRICS.poll())) {
+            final MetricsReference metricsReference = (MetricsReference) reference;
+            LOGGER.debug("Unregistering store metrics MBean {} as its metrics have been garbage collected", metricsReference.objectName);
+            unregister(server, metricsReference);
+        }
+    }
+
+    private static void unregister(final MBeanServer server, final MetricsReference reference) {
+        // The MBean is only unregistered if it has not since been replaced by other metrics with the same name
+        if (REGISTRATIONS.remove(reference.objectName, reference)) {
+            try {
+                if (server.isRegistered(reference.objectName)) {
+                    server.unregisterMBean(reference.objectName);
+                }
+            } catch (final JMException e) {
+                LOGGER.warn("Unable to unregister store metrics MBean {}", reference.objectName, e);
+            }
+        }
+    }
+
+    private static LatencyHistogram getHistogram(final ConcurrentMap<String, LatencyHistogram> histograms, final String name) {
+        return histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    private static Map<String, LatencySummary> getSummaries(final Map<String, LatencyHistogram> histograms) {
+        final Map<String, LatencySummary> summaries = new TreeMap<>();
+        for (final Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            summaries.put(entry.getKey(), entry.getValue().getSummary());
+        }
+        return summaries;
+    }
+
+    /**
+     * A weak reference to registered metrics, which is queued once the
+     * metrics have been garbage collected so their MBean can be unregistered.
+     */
+    private static final class MetricsReference extends WeakReference<StoreMetrics> {
+        private final ObjectName objectName;
+
+        private MetricsReference(final StoreMetrics metrics, final ObjectName objectName) {
+            super(metrics, COLLECTED_METRICS);
+            this.objectName = objectName;
+        }
+    }
+
+    /**
+     * The object registered with the MBean server, which delegates to the
+     * metrics while they have not been garbage collected.
+     */
+    private static final class WeakStoreMetrics implements StoreMetricsMXBean {
+        private final MetricsReference reference;
+
+        private WeakStoreMetrics(final MetricsReference reference) {
+            this.reference = reference;
+        }
+
+        @Override
+        public Map<String, LatencySummary> getOperationLatencies() {
+            final StoreMetrics metrics = reference.get();
+            return null != metrics ? metrics.getOperationLatencies() : Collections.emptyMap();
+        }
+
+        @Override
+        public Map<String, LatencySummary> getHandlerLatencies() {
+            final StoreMetrics metrics = reference.get();
+            return null != metrics ? metrics.getHandlerLatencies() : Collections.emptyMap();
+        }
+
+        @Override
+        public Map<String, LatencySummary> getOperationChainLatencies() {
+            final StoreMetrics metrics = reference.get();
+            return null != metrics ? metrics.getOperationChainLatencies() : Collections.emptyMap();
+        }
+
+        @Override
+        public Map<String, ThroughputSummary> getOutputThroughput() {
+            final StoreMetrics metrics = reference.get();
+            return null != metrics ? metrics.getOutputThroughput() : Collections.emptyMap();
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            final StoreMetrics metrics = reference.get();
+            return null != metrics ? metrics.getCounters() : Collections.emptyMap();
+        }
+
+        @Override
+        public Map<String, Long> getGauges() {
+            final StoreMetrics metrics = reference.get();
+            return null != metrics ? metrics.getGauges() : Collections.emptyMap();
+        }
+
+        @Override
+        public void reset() {
+            final StoreMetrics metrics = reference.get();
+            if (null != metrics) {
+                metrics.reset();
+            }
+        }
+    }
+
+    private static final class OutputThroughput {
+        private final AtomicLong iterations = new AtomicLong();
+        private final AtomicLong elements = new AtomicLong();
+        private final AtomicLong iterationNanos = new AtomicLong();
+        private final LatencyHistogram timeToFirstResult = new LatencyHistogram();
+
+        private void recordIteration(final long numElements, final long nanos) {
+            iterations.incrementAndGet();
+            elements.addAndGet(numElements);
+            iterationNanos.addAndGet(nanos);
+        }
+
+        private ThroughputSummary getSummary() {
+            return new ThroughputSummary(iterations.get(), elements.get(),
+                    TimeUnit.NANOSECONDS.toMillis(iterationNanos.get()), timeToFirstResult.getSummary());
+        }
+    }
+
+    private static final class TrackedIterable<T> implements CloseableIterable<T> {
+        private final CloseableIterable<T> output;
+        private final OutputThroughput throughput;
+        private final long startTime;
+        private final AtomicBoolean firstResult = new AtomicBoolean(true);
+
+        private TrackedIterable(final CloseableIterable<T> output, final OutputThroughput throughput, final long startTime) {
+            this.output = output;
+            this.throughput = throughput;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public void close() {
+            output.close();
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            final CloseableIterator<T> itr = output.iterator();
+            final long iteratorStartTime = System.nanoTime();
+            return new CloseableIterator<T>() {
+                private long numElements;
+                private boolean recorded;
+
+                @Override
+                public boolean hasNext() {
+                    final boolean hasNext = itr.hasNext();
+                    if (!hasNext) {
+                        record();
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public T next() {
+                    final T item = itr.next();
+                    if (0 == numElements && firstResult.compareAndSet(true, false)) {
+                        throughput.timeToFirstResult.record(System.nanoTime() - startTime);
+                    }
+                    numElements++;
+                    return item;
+                }
+
+                @Override
+                public void close() {
+                    record();
+                    itr.close();
+                }
+
+                private void record() {
+                    if (!recorded) {
+                        recorded = true;
+                        throughput.recordIteration(numElements, System.nanoTime() - iteratorStartTime);
+                    }
+                }
+            };
+        }
+    }
+}
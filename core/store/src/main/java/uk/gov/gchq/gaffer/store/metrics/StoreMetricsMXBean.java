@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX management interface for {@link StoreMetrics}.
+ */
+public interface StoreMetricsMXBean {
+    /**
+     * @return the latency of each operation class, keyed on the operation class name
+     */
+    Map<String, LatencySummary> getOperationLatencies();
+
+    /**
+     * @return the latency of each operation handler, keyed on the handler class name
+     */
+    Map<String, LatencySummary> getHandlerLatencies();
+
+    /**
+     * @return the latency of each operation chain, keyed on the names of the operations in the chain
+     */
+    Map<String, LatencySummary> getOperationChainLatencies();
+
+    /**
+     * @return the throughput of iterable operation outputs, keyed on the operation class name
+     */
+    Map<String, ThroughputSummary> getOutputThroughput();
+
+    /**
+     * @return the store specific counters, keyed on the counter name
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @return the current value of each gauge, keyed on the gauge name
+     */
+    Map<String, Long> getGauges();
+
+    /**
+     * Resets all of the metrics, apart from the gauges.
+     */
+    void reset();
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A <code>ThroughputSummary</code> is a snapshot of the number of results
+ * returned by iterating over the output of an operation and how quickly they
+ * were returned.
+ */
+public class ThroughputSummary {
+    private final long iterations;
+    private final long elements;
+    private final long iterationMillis;
+    private final LatencySummary timeToFirstResult;
+
+    @ConstructorProperties({"iterations", "elements", "iterationMillis", "timeToFirstResult"})
+    public ThroughputSummary(final long iterations, final long elements, final long iterationMillis,
+                             final LatencySummary timeToFirstResult) {
+        this.iterations = iterations;
+        this.elements = elements;
+        this.iterationMillis = iterationMillis;
+        this.timeToFirstResult = timeToFirstResult;
+    }
+
+    /**
+     * @return the number of times the output has been iterated over
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the total number of results returned by the iterators
+     */
+    public long getElements() {
+        return elements;
+    }
+
+    /**
+     * @return the total time in milliseconds between each iterator being
+     * created and it being exhausted or closed
+     */
+    public long getIterationMillis() {
+        return iterationMillis;
+    }
+
+    public double getElementsPerSecond() {
+        return 0 == iterationMillis ? 0 : elements * 1000.0 / iterationMillis;
+    }
+
+    /**
+     * @return the time from the operation being started to the first result
+     * being returned
+     */
+    public LatencySummary getTimeToFirstResult() {
+        return timeToFirstResult;
+    }
+}
@@ -23,6 +23,8 @@ import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.util.Map;
 
 public class CountGroupsHandler implements OperationHandler<CountGroups, GroupCounts> {
     @Override
@@ -51,4 +53,36 @@ public class CountGroupsHandler implements OperationHandler<CountGroups, GroupCo
 
         return groupCounts;
     }
+
+    /**
+     * Creates {@link GroupCounts} from the number of elements in each group, for
+     * stores that are able to count the groups without returning every element.
+     * The limit is applied in the same way as when counting elements one at a time.
+     *
+     * @param counts the number of elements in each group
+     * @param schema the schema, used to determine whether a group is an entity or edge group
+     * @param limit  the maximum number of elements to count, or null for no limit
+     * @return the group counts
+     */
+    protected GroupCounts createGroupCounts(final Map<String, Long> counts, final Schema schema, final Integer limit) {
+        final GroupCounts groupCounts = new GroupCounts();
+        long remaining = null != limit ? limit : Long.MAX_VALUE;
+        for (final Map.Entry<String, Long> entry : counts.entrySet()) {
+            if (entry.getValue() > remaining) {
+                groupCounts.setLimitHit(true);
+            }
+
+            final long count = Math.min(entry.getValue(), remaining);
+            if (count > 0) {
+                remaining -= count;
+                if (schema.getEntityGroups().contains(entry.getKey())) {
+                    groupCounts.getEntityGroups().put(entry.getKey(), (int) Math.min(count, Integer.MAX_VALUE));
+                } else {
+                    groupCounts.getEdgeGroups().put(entry.getKey(), (int) Math.min(count, Integer.MAX_VALUE));
+                }
+            }
+        }
+
+        return groupCounts;
+    }
 }
@@ -16,22 +16,129 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler;
 
-import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
-import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.Status;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.Deduplicate;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * An <code>DeduplicateHandler</code> handles for {@link Deduplicate} operations.
- * Adds all the operation input items into a {@link java.util.LinkedHashSet} to
- * remove duplicate items.
+ * Lazily removes duplicate items as the operation input is iterated over,
+ * keeping the distinct items seen so far in a {@link java.util.HashSet}. The
+ * order of the input items is maintained.
+ * <p>
+ * If the operation's maxItemsInMemory is exceeded then iterating over the
+ * results fails with a {@link GafferRuntimeException}, rather than returning
+ * results that may not be deduplicated exactly.
  */
 public class DeduplicateHandler<T> implements OperationHandler<Deduplicate<T>, CloseableIterable<T>> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeduplicateHandler.class);
+
     @Override
     public CloseableIterable<T> doOperation(final Deduplicate<T> operation, final Context context, final Store store) throws OperationException {
-        return new WrappedCloseableIterable<>(Sets.newLinkedHashSet(operation.getInput()));
+        final Integer maxItemsInMemory = operation.getMaxItemsInMemory();
+        if (null != maxItemsInMemory && maxItemsInMemory < 0) {
+            throw new OperationException("maxItemsInMemory must not be negative");
+        }
+        final CloseableIterable<T> input = operation.getInput();
+        if (null == input) {
+            return new EmptyClosableIterable<>();
+        }
+        return new DeduplicatedIterable<>(input, maxItemsInMemory);
+    }
+
+    private static final class DeduplicatedIterable<T> implements CloseableIterable<T> {
+        private final CloseableIterable<T> input;
+        private final Integer maxItemsInMemory;
+
+        private DeduplicatedIterable(final CloseableIterable<T> input, final Integer maxItemsInMemory) {
+            this.input = input;
+            this.maxItemsInMemory = maxItemsInMemory;
+        }
+
+        @Override
+        public void close() {
+            input.close();
+        }
+
+        @Override
+        public CloseableIterator<T> iterator() {
+            return new DeduplicatedIterator<>(input.iterator(), maxItemsInMemory);
+        }
+    }
+
+    private static final class DeduplicatedIterator<T> implements CloseableIterator<T> {
+        private final CloseableIterator<T> input;
+        private final Integer maxItemsInMemory;
+        private final Set<T> seenItems = new HashSet<>();
+
+        private T nextItem;
+        private boolean hasNextItem;
+        private long numItems;
+        private long numDuplicates;
+        private boolean finished;
+
+        private DeduplicatedIterator(final CloseableIterator<T> input, final Integer maxItemsInMemory) {
+            this.input = input;
+            this.maxItemsInMemory = maxItemsInMemory;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!hasNextItem && input.hasNext()) {
+                final T item = input.next();
+                numItems++;
+                if (isNewItem(item)) {
+                    nextItem = item;
+                    hasNextItem = true;
+                } else {
+                    numDuplicates++;
+                }
+            }
+            if (!hasNextItem && !finished) {
+                finished = true;
+                LOGGER.info("Deduplicate removed {} duplicates from {} items", numDuplicates, numItems);
+            }
+            return hasNextItem;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNextItem = false;
+            final T item = nextItem;
+            nextItem = null;
+            return item;
+        }
+
+        @Override
+        public void close() {
+            input.close();
+        }
+
+        private boolean isNewItem(final T item) {
+            if (seenItems.contains(item)) {
+                return false;
+            }
+            if (null != maxItemsInMemory && 0 != maxItemsInMemory && seenItems.size() >= maxItemsInMemory) {
+                throw new GafferRuntimeException("Deduplicate found more than maxItemsInMemory (" + maxItemsInMemory
+                        + ") distinct items after reading " + numItems + " items. Increase maxItemsInMemory or reduce"
+                        + " the number of items to deduplicate.", Status.BAD_REQUEST);
+            }
+            seenItems.add(item);
+            return true;
+        }
     }
 }
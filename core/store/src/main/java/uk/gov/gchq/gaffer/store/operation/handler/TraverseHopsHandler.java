@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentEntitySeeds;
+import uk.gov.gchq.gaffer.operation.impl.get.TraverseHops;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A <code>TraverseHopsHandler</code> handles {@link TraverseHops} operations.
+ * Each hop runs a {@link GetAdjacentEntitySeeds} for the current frontier and
+ * the adjacent seeds are deduplicated into the frontier for the next hop, so
+ * only the distinct vertices reached are held in memory between hops. When the
+ * operation excludes visited vertices a single set of visited vertices is used
+ * for all hops.
+ * <p>
+ * Stores can override {@link #expandHop(TraverseHops, int, List, Context, Store, Consumer)}
+ * to find the adjacent seeds without running a separate operation for each hop.
+ */
+public class TraverseHopsHandler implements OperationHandler<TraverseHops, CloseableIterable<EntitySeed>> {
+    @Override
+    public CloseableIterable<EntitySeed> doOperation(final TraverseHops operation, final Context context, final Store store) throws OperationException {
+        final int hops = operation.getHops();
+        if (hops < 1) {
+            throw new OperationException("hops must be at least 1");
+        }
+
+        final Set<Object> visited = new HashSet<>();
+        List<EntitySeed> frontier = new ArrayList<>();
+        if (null != operation.getSeeds()) {
+            for (final EntitySeed seed : operation.getSeeds()) {
+                if (visited.add(seed.getVertex())) {
+                    frontier.add(seed);
+                }
+            }
+        }
+
+        for (int hop = 0; hop < hops && !frontier.isEmpty(); hop++) {
+            final Set<Object> seen = operation.isExcludeVisited() ? visited : new HashSet<>();
+            final List<EntitySeed> nextFrontier = new ArrayList<>();
+            expandHop(operation, hop, frontier, context, store, seed -> {
+                if (seen.add(seed.getVertex())) {
+                    nextFrontier.add(seed);
+                }
+            });
+            frontier = nextFrontier;
+        }
+
+        return new WrappedCloseableIterable<>(frontier);
+    }
+
+    /**
+     * Finds the seeds adjacent to the frontier of a hop and passes them to
+     * the consumer. Seeds may be passed to the consumer more than once.
+     *
+     * @param operation the traverse hops operation
+     * @param hop       the index of the hop, starting from 0
+     * @param frontier  the distinct seeds to expand
+     * @param context   the operation context
+     * @param store     the store to query
+     * @param consumer  the consumer of the adjacent seeds
+     * @throws OperationException if the adjacent seeds could not be retrieved
+     */
+    protected void expandHop(final TraverseHops operation, final int hop, final List<EntitySeed> frontier,
+                             final Context context, final Store store, final Consumer<EntitySeed> consumer) throws OperationException {
+        try (final CloseableIterable<EntitySeed> adjacentSeeds = store._execute(
+                new OperationChain<>(createHopOperation(operation, hop, frontier)), context)) {
+            adjacentSeeds.forEach(consumer);
+        }
+    }
+
+    /**
+     * Creates the {@link GetAdjacentEntitySeeds} operation for a hop, with the
+     * hop view and the flags and options of the traverse hops operation.
+     *
+     * @param operation the traverse hops operation
+     * @param hop       the index of the hop, starting from 0
+     * @param seeds     the seeds to get the adjacent seeds of
+     * @return the operation for the hop
+     */
+    protected GetAdjacentEntitySeeds createHopOperation(final TraverseHops operation, final int hop, final List<EntitySeed> seeds) {
+        final GetAdjacentEntitySeeds hopOperation = new GetAdjacentEntitySeeds(operation.getHopView(hop), seeds);
+        hopOperation.setIncludeEdges(operation.getIncludeEdges());
+        hopOperation.setIncludeIncomingOutGoing(operation.getIncludeIncomingOutGoing());
+        hopOperation.setPopulateProperties(operation.isPopulateProperties());
+        hopOperation.setOptions(new HashMap<>(operation.getOptions()));
+        return hopOperation;
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.optimiser;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.EmptyClosableIterable;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.GetElementsOperation;
+import uk.gov.gchq.gaffer.operation.GetIterableOperation;
+import uk.gov.gchq.gaffer.operation.GetOperation;
+import uk.gov.gchq.gaffer.operation.GetOperation.IncludeEdgeType;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.data.generator.EdgeSeedExtractor;
+import uk.gov.gchq.gaffer.operation.data.generator.EntitySeedExtractor;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.Deduplicate;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentEntitySeeds;
+import uk.gov.gchq.gaffer.operation.impl.get.TraverseHops;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Rewrites operation chains so the store does less work. It is run after the
+ * {@link CoreOperationChainOptimiser} and applies the following rules:
+ * <ul>
+ * <li>Get operations whose view and include flags cannot match any group in the
+ * schema are replaced with an empty result, so the store is not queried.</li>
+ * <li>Consecutive {@link Limit} operations are merged into a single limit and
+ * consecutive {@link Deduplicate} operations are merged into a single
+ * deduplicate with the smaller maxItemsInMemory.</li>
+ * <li>Consecutive {@link GetAdjacentEntitySeeds} hops whose results are
+ * deduplicated are merged into a single {@link TraverseHops}, with the view of
+ * each hop as its hop views, so the store can run all the hops in one
+ * operation and only pass the distinct vertices between hops.</li>
+ * <li>A {@link Limit} directly after a get operation is folded into the get
+ * operation's result limit, so the store can stop scanning once it has
+ * returned enough elements. The limit is kept for stores that do not read the
+ * result limit.</li>
+ * <li>Get operations followed only by operations that do not use element
+ * properties, such as {@link Count}, {@link CountGroups} or extracting seeds,
+ * are told not to populate properties.</li>
+ * </ul>
+ * Each rule only ever removes work, so the rules do not need to be weighed
+ * against each other. Get operations are rewritten on a copy, made with a json
+ * round trip that shares the seeds with the original, so the caller's
+ * operation chain is left unchanged. If an operation cannot be copied it is
+ * left as it is.
+ */
+public class PushDownOperationChainOptimiser extends AbstractOperationChainOptimiser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PushDownOperationChainOptimiser.class);
+    private static final JSONSerialiser OPERATION_SERIALISER = new JSONSerialiser(
+            JSONSerialiser.createDefaultMapper().addMixIn(GetOperation.class, WithoutSeeds.class));
+
+    private final Store store;
+
+    public PushDownOperationChainOptimiser(final Store store) {
+        this.store = store;
+    }
+
+    /**
+     * No pre operations are added.
+     *
+     * @param previousOp the previous operation
+     * @param currentOp  the current operation
+     * @return an empty list
+     */
+    @Override
+    protected List<Operation> addPreOperations(final Operation<?, ?> previousOp, final Operation<?, ?> currentOp) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Replaces get operations that cannot return any elements with an operation
+     * that returns an empty result.
+     *
+     * @param previousOp the previous operation
+     * @param currentOp  the current operation
+     * @param nextOp     the next operation
+     * @return singleton list containing the current operation or its replacement.
+     */
+    @Override
+    protected List<Operation> optimiseCurrentOperation(final Operation<?, ?> previousOp, final Operation<?, ?> currentOp, final Operation<?, ?> nextOp) {
+        if (currentOp instanceof GetElementsOperation && !canMatchAnyGroup((GetElementsOperation<?, ?>) currentOp)) {
+            return Collections.singletonList((Operation) createEmptyResultOperation(currentOp));
+        }
+
+        return Collections.singletonList((Operation) currentOp);
+    }
+
+    /**
+     * No post operations are added.
+     *
+     * @param currentOp the current operation
+     * @param nextOp    the next operation
+     * @return an empty list
+     */
+    @Override
+    protected List<Operation> addPostOperations(final Operation<?, ?> currentOp, final Operation<?, ?> nextOp) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Merges consecutive limits, deduplicates and adjacent seed hops, then
+     * pushes limits and the populate properties flag down into the get
+     * operations.
+     *
+     * @param ops operations to be optimised
+     * @return the optimised operations.
+     */
+    @Override
+    protected List<Operation> optimiseAll(final List<Operation> ops) {
+        final List<Operation> optimisedOps = mergeHops(mergeConsecutiveOperations(ops));
+        for (int index = 0; index < optimisedOps.size(); index++) {
+            if (optimisedOps.get(index) instanceof GetElementsOperation) {
+                optimisedOps.set(index, pushDown(optimisedOps, index));
+            }
+        }
+
+        return optimisedOps;
+    }
+
+    private List<Operation> mergeConsecutiveOperations(final List<Operation> ops) {
+        final List<Operation> mergedOps = new ArrayList<>(ops.size());
+        Operation<?, ?> previousOp = null;
+        for (final Operation<?, ?> op : ops) {
+            if (previousOp instanceof Limit && isChainedLimit(op)) {
+                final Limit<?> mergedLimit = mergeLimits((Limit<?>) previousOp, (Limit<?>) op);
+                mergedOps.set(mergedOps.size() - 1, mergedLimit);
+                previousOp = mergedLimit;
+                continue;
+            }
+
+            if (previousOp instanceof Deduplicate && isChainedDeduplicate(op)) {
+                final Deduplicate<?> mergedDeduplicate = mergeDeduplicates((Deduplicate<?>) previousOp, (Deduplicate<?>) op);
+                mergedOps.set(mergedOps.size() - 1, mergedDeduplicate);
+                previousOp = mergedDeduplicate;
+                continue;
+            }
+
+            mergedOps.add(op);
+            previousOp = op;
+        }
+
+        return mergedOps;
+    }
+
+    private Limit<?> mergeLimits(final Limit<?> limit1, final Limit<?> limit2) {
+        // A new limit is created so the caller's operations are not modified
+        final Limit<Object> mergedLimit = new Limit<>();
+        mergedLimit.setInput((CloseableIterable<Object>) limit1.getInput());
+        mergedLimit.setView(limit1.getView());
+        mergedLimit.setOptions(limit1.getOptions());
+        mergedLimit.setResultLimit(min(limit1.getResultLimit(), limit2.getResultLimit()));
+        return mergedLimit;
+    }
+
+    private Deduplicate<?> mergeDeduplicates(final Deduplicate<?> deduplicate1, final Deduplicate<?> deduplicate2) {
+        // The second deduplicate would fail if the first returned more than its maxItemsInMemory distinct items, so
+        // the merged deduplicate keeps the smaller bound
+        final Integer maxItemsInMemory = min(toBound(deduplicate1.getMaxItemsInMemory()), toBound(deduplicate2.getMaxItemsInMemory()));
+        if (Objects.equals(maxItemsInMemory, toBound(deduplicate1.getMaxItemsInMemory()))) {
+            return deduplicate1;
+        }
+
+        // A new deduplicate is created so the caller's operations are not modified
+        final Deduplicate<Object> mergedDeduplicate = new Deduplicate<>();
+        mergedDeduplicate.setInput((CloseableIterable<Object>) deduplicate1.getInput());
+        mergedDeduplicate.setView(deduplicate1.getView());
+        mergedDeduplicate.setOptions(deduplicate1.getOptions());
+        mergedDeduplicate.setMaxItemsInMemory(maxItemsInMemory);
+        return mergedDeduplicate;
+    }
+
+    private Integer toBound(final Integer maxItemsInMemory) {
+        // null and 0 both mean there is no bound
+        return null != maxItemsInMemory && maxItemsInMemory > 0 ? maxItemsInMemory : null;
+    }
+
+    /**
+     * Replaces runs of chained {@link GetAdjacentEntitySeeds} operations that
+     * are followed by a {@link Deduplicate} with a single {@link TraverseHops}.
+     * The vertices reached are deduplicated anyway, so it makes no difference
+     * that the traverse hops only passes the distinct vertices between hops.
+     *
+     * @param ops the operations
+     * @return the operations with the hops merged
+     */
+    private List<Operation> mergeHops(final List<Operation> ops) {
+        if (!store.isSupported(TraverseHops.class)) {
+            return ops;
+        }
+
+        final List<Operation> mergedOps = new ArrayList<>(ops.size());
+        int index = 0;
+        while (index < ops.size()) {
+            final Operation<?, ?> op = ops.get(index);
+            int end = index + 1;
+            if (isHop(op)) {
+                while (end < ops.size() && isChainedHop((GetAdjacentEntitySeeds) op, ops.get(end))) {
+                    end++;
+                }
+            }
+
+            final int numHops = end - index;
+            if (numHops > 1 && end < ops.size() && isChainedDeduplicate(ops.get(end))) {
+                mergedOps.add(createTraverseHops((List) ops.subList(index, end)));
+            } else {
+                mergedOps.addAll(ops.subList(index, end));
+            }
+            index = end;
+        }
+
+        return mergedOps;
+    }
+
+    private boolean isHop(final Operation<?, ?> op) {
+        return null != op && GetAdjacentEntitySeeds.class == op.getClass();
+    }
+
+    private boolean isChainedHop(final GetAdjacentEntitySeeds firstHop, final Operation<?, ?> op) {
+        if (!isHop(op) || null != op.getInput()) {
+            return false;
+        }
+
+        final GetAdjacentEntitySeeds hop = (GetAdjacentEntitySeeds) op;
+        return firstHop.getIncludeEdges() == hop.getIncludeEdges()
+                && firstHop.getIncludeIncomingOutGoing() == hop.getIncludeIncomingOutGoing()
+                && firstHop.isPopulateProperties() == hop.isPopulateProperties()
+                && Objects.equals(firstHop.getOptions(), hop.getOptions());
+    }
+
+    private TraverseHops createTraverseHops(final List<GetAdjacentEntitySeeds> hops) {
+        final GetAdjacentEntitySeeds firstHop = hops.get(0);
+        final TraverseHops traverseHops = new TraverseHops();
+        traverseHops.setInput(firstHop.getInput());
+        traverseHops.setView(cloneView(firstHop.getView()));
+        for (final GetAdjacentEntitySeeds hop : hops) {
+            traverseHops.getHopViews().add(cloneView(hop.getView()));
+        }
+        traverseHops.setHops(hops.size());
+        traverseHops.setExcludeVisited(false);
+        traverseHops.setIncludeEdges(firstHop.getIncludeEdges());
+        traverseHops.setIncludeIncomingOutGoing(firstHop.getIncludeIncomingOutGoing());
+        traverseHops.setPopulateProperties(firstHop.isPopulateProperties());
+        traverseHops.setOptions(new HashMap<>(firstHop.getOptions()));
+        return traverseHops;
+    }
+
+    private View cloneView(final View view) {
+        return null != view ? view.clone() : null;
+    }
+
+    /**
+     * Folds a following limit into the result limit of a get operation and
+     * turns off populating properties if they are not used, on a copy of the
+     * get operation.
+     *
+     * @param ops   the operations
+     * @param index the index of the get operation
+     * @return the get operation, or a copy of it with the changes
+     */
+    private Operation pushDown(final List<Operation> ops, final int index) {
+        final GetElementsOperation<?, ?> op = (GetElementsOperation<?, ?>) ops.get(index);
+        final Operation<?, ?> nextOp = (index + 1) < ops.size() ? ops.get(index + 1) : null;
+        Integer resultLimit = null;
+        if (op instanceof GetIterableOperation) {
+            resultLimit = ((GetIterableOperation<?, ?>) op).getResultLimit();
+            if (isChainedLimit(nextOp)) {
+                resultLimit = min(resultLimit, ((Limit<?>) nextOp).getResultLimit());
+            }
+        }
+        final boolean populateProperties = op.isPopulateProperties() && arePropertiesRequired(ops, index + 1);
+        if (populateProperties == op.isPopulateProperties()
+                && (!(op instanceof GetIterableOperation) || Objects.equals(resultLimit, ((GetIterableOperation<?, ?>) op).getResultLimit()))) {
+            return op;
+        }
+
+        final GetElementsOperation<?, ?> copy = copyWithSeeds(op);
+        if (null == copy) {
+            return op;
+        }
+        copy.setPopulateProperties(populateProperties);
+        if (copy instanceof GetIterableOperation) {
+            ((GetIterableOperation<?, ?>) copy).setResultLimit(resultLimit);
+        }
+        return copy;
+    }
+
+    private <OP extends GetElementsOperation> OP copyWithSeeds(final OP op) {
+        final OP copy;
+        try {
+            copy = (OP) OPERATION_SERIALISER.deserialise(OPERATION_SERIALISER.serialise(op), op.getClass());
+        } catch (final SerialisationException e) {
+            LOGGER.debug("Unable to copy operation {}, it will not be optimised", op.getClass().getName(), e);
+            return null;
+        }
+        copy.setInput(op.getInput());
+        return copy;
+    }
+
+    private boolean arePropertiesRequired(final List<Operation> ops, final int startIndex) {
+        for (int index = startIndex; index < ops.size(); index++) {
+            final Operation<?, ?> op = ops.get(index);
+            if (isChainedLimit(op)) {
+                continue;
+            }
+
+            return !(op instanceof Count
+                    || op instanceof CountGroups
+                    || (op instanceof GenerateObjects && isSeedExtractor((GenerateObjects<?, ?>) op)))
+                    || null != op.getInput();
+        }
+
+        // The properties are returned to the user
+        return true;
+    }
+
+    private boolean isSeedExtractor(final GenerateObjects<?, ?> op) {
+        return op.getElementGenerator() instanceof EntitySeedExtractor
+                || op.getElementGenerator() instanceof EdgeSeedExtractor;
+    }
+
+    private boolean isChainedLimit(final Operation<?, ?> op) {
+        // A limit with its own input does not use the output of the previous operation
+        return op instanceof Limit && null == op.getInput();
+    }
+
+    private boolean isChainedDeduplicate(final Operation<?, ?> op) {
+        return op instanceof Deduplicate && null == op.getInput();
+    }
+
+    private boolean canMatchAnyGroup(final GetElementsOperation<?, ?> op) {
+        final View view = op.getView();
+        final Schema schema = store.getSchema();
+        // A view without any groups is treated by the graph as a view of all groups
+        if (null == view || null == schema || !view.hasGroups()) {
+            return true;
+        }
+
+        final boolean canMatchEntities = op.isIncludeEntities()
+                && !Collections.disjoint(view.getEntityGroups(), getGroups(schema.getEntityGroups()));
+        final boolean canMatchEdges = IncludeEdgeType.NONE != op.getIncludeEdges()
+                && !Collections.disjoint(view.getEdgeGroups(), getGroups(schema.getEdgeGroups()));
+        return canMatchEntities || canMatchEdges;
+    }
+
+    private Set<String> getGroups(final Set<String> groups) {
+        return null != groups ? groups : Collections.emptySet();
+    }
+
+    private Limit<?> createEmptyResultOperation(final Operation<?, ?> currentOp) {
+        final Limit<Object> limit = new Limit<>();
+        limit.setInput(new EmptyClosableIterable<>());
+        limit.setResultLimit(0);
+        limit.setOptions(currentOp.getOptions());
+        return limit;
+    }
+
+    private Integer min(final Integer limit1, final Integer limit2) {
+        if (null == limit1) {
+            return limit2;
+        }
+
+        if (null == limit2) {
+            return limit1;
+        }
+
+        return Math.min(limit1, limit2);
+    }
+
+    /**
+     * Jackson mix in that stops the seeds being serialised when get operations
+     * are copied, so lazy seeds are not read and are shared with the copy.
+     */
+    @JsonIgnoreProperties("seeds")
+    private abstract static class WithoutSeeds {
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.serialiser;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.Serialisation;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes {@link Element}s and {@link Properties} to a {@link DataOutput} and reads them back from a {@link DataInput}.
+ * Vertices are serialised with the schema vertex serialiser and each property is serialised with the serialiser from
+ * its {@link TypeDefinition}.
+ */
+public class ElementSerialiser {
+    private static final byte ENTITY = 0;
+    private static final byte EDGE = 1;
+    // Written in place of the length of a property value that is null, so null and empty values can be told apart
+    private static final int NULL_LENGTH = -1;
+
+    private final Schema schema;
+
+    public ElementSerialiser(final Schema schema) {
+        this.schema = schema;
+    }
+
+    public void writeElement(final Element element, final DataOutput out) throws IOException {
+        out.writeUTF(element.getGroup());
+        if (element instanceof Entity) {
+            out.writeByte(ENTITY);
+            writeVertex(((Entity) element).getVertex(), out);
+        } else if (element instanceof Edge) {
+            final Edge edge = (Edge) element;
+            out.writeByte(EDGE);
+            writeVertex(edge.getSource(), out);
+            writeVertex(edge.getDestination(), out);
+            out.writeBoolean(edge.isDirected());
+        } else {
+            throw new SerialisationException("Unable to serialise element of class " + element.getClass().getName());
+        }
+        writeProperties(element.getGroup(), element.getProperties(), out);
+    }
+
+    public Element readElement(final DataInput in) throws IOException {
+        final String group = in.readUTF();
+        final byte type = in.readByte();
+        final Element element;
+        if (ENTITY == type) {
+            element = new Entity(group, readVertex(in));
+        } else if (EDGE == type) {
+            element = new Edge(group, readVertex(in), readVertex(in), in.readBoolean());
+        } else {
+            throw new SerialisationException("Unknown element type " + type);
+        }
+        element.copyProperties(readProperties(group, in));
+        return element;
+    }
+
+    public void writeProperties(final String group, final Properties properties, final DataOutput out) throws IOException {
+        final SchemaElementDefinition sed = getElementDefinition(group);
+        out.writeInt(properties.size());
+        for (final Map.Entry<String, Object> entry : properties.entrySet()) {
+            final Serialisation serialiser = getSerialiser(sed, entry.getKey());
+            out.writeUTF(entry.getKey());
+            if (null == entry.getValue()) {
+                out.writeInt(NULL_LENGTH);
+            } else {
+                writeBytes(serialiser.serialise(entry.getValue()), out);
+            }
+        }
+    }
+
+    public Properties readProperties(final String group, final DataInput in) throws IOException {
+        final SchemaElementDefinition sed = getElementDefinition(group);
+        final int numProperties = in.readInt();
+        final Properties properties = new Properties();
+        for (int i = 0; i < numProperties; i++) {
+            final String propertyName = in.readUTF();
+            final Serialisation serialiser = getSerialiser(sed, propertyName);
+            final int length = in.readInt();
+            if (NULL_LENGTH == length) {
+                properties.put(propertyName, null);
+            } else {
+                properties.put(propertyName, serialiser.deserialise(readBytes(length, in)));
+            }
+        }
+        return properties;
+    }
+
+    private void writeVertex(final Object vertex, final DataOutput out) throws IOException {
+        writeBytes(schema.getVertexSerialiser().serialise(vertex), out);
+    }
+
+    private Object readVertex(final DataInput in) throws IOException {
+        return schema.getVertexSerialiser().deserialise(readBytes(in));
+    }
+
+    private void writeBytes(final byte[] bytes, final DataOutput out) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private byte[] readBytes(final DataInput in) throws IOException {
+        return readBytes(in.readInt(), in);
+    }
+
+    private byte[] readBytes(final int length, final DataInput in) throws IOException {
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private SchemaElementDefinition getElementDefinition(final String group) throws SerialisationException {
+        final SchemaElementDefinition sed = schema.getElement(group);
+        if (null == sed) {
+            throw new SerialisationException("No schema definition found for group " + group);
+        }
+        return sed;
+    }
+
+    private Serialisation getSerialiser(final SchemaElementDefinition sed, final String propertyName) throws SerialisationException {
+        final TypeDefinition typeDef = sed.getPropertyTypeDef(propertyName);
+        if (null == typeDef || null == typeDef.getSerialiser()) {
+            throw new SerialisationException("No serialiser found for property " + propertyName);
+        }
+        return typeDef.getSerialiser();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.serialiser;
+
+import org.apache.commons.io.IOUtils;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * An <code>ElementStreamSerialiser</code> writes a stream of {@link Element}s in a compact binary
+ * format and lazily reads them back. Each element is written using an {@link ElementSerialiser}, so
+ * vertices and properties are serialised with the serialisers from the {@link Schema}. Both ends of the
+ * stream must therefore use the same schema.
+ * <p>
+ * Each element is preceded by a marker byte and the stream is terminated with an end marker, so a
+ * stream that was cut short can be detected.
+ * </p>
+ */
+public class ElementStreamSerialiser {
+    public static final String MEDIA_TYPE = "application/x-gaffer-elements";
+
+    private static final byte ELEMENT = 1;
+    private static final byte END = 0;
+
+    private final ElementSerialiser elementSerialiser;
+
+    public ElementStreamSerialiser(final Schema schema) {
+        this.elementSerialiser = new ElementSerialiser(schema);
+    }
+
+    /**
+     * Writes the elements to the provided stream. The stream is flushed but not closed.
+     *
+     * @param elements the elements to write
+     * @param stream   the stream to write to
+     * @throws IOException if an element could not be serialised or written
+     */
+    public void serialise(final Iterable<?> elements, final OutputStream stream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        for (final Object element : elements) {
+            if (!(element instanceof Element)) {
+                throw new SerialisationException("Only elements can be serialised, but found: "
+                        + (null == element ? "null" : element.getClass().getName()));
+            }
+            out.writeByte(ELEMENT);
+            elementSerialiser.writeElement((Element) element, out);
+        }
+        out.writeByte(END);
+        out.flush();
+    }
+
+    /**
+     * Lazily reads elements from the provided stream. The elements are only read
+     * from the stream as the returned iterable is iterated, so the returned
+     * iterable can only be iterated once. Closing the iterable closes the stream.
+     *
+     * @param stream the stream to read from
+     * @return an iterable of the elements in the stream
+     */
+    public CloseableIterable<Element> deserialise(final InputStream stream) {
+        return new ElementStreamIterable(stream);
+    }
+
+    private class ElementStreamIterable implements CloseableIterable<Element> {
+        private final InputStream stream;
+        private boolean iterated = false;
+
+        ElementStreamIterable(final InputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeQuietly(stream);
+        }
+
+        @Override
+        public CloseableIterator<Element> iterator() {
+            if (iterated) {
+                throw new IllegalStateException("This iterable reads from a stream so can only be iterated once");
+            }
+            iterated = true;
+            return new ElementStreamIterator(new DataInputStream(new BufferedInputStream(stream)));
+        }
+
+        private class ElementStreamIterator implements CloseableIterator<Element> {
+            private final DataInputStream in;
+            private Boolean hasNext;
+
+            ElementStreamIterator(final DataInputStream in) {
+                this.in = in;
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (null == hasNext) {
+                    try {
+                        final byte marker = in.readByte();
+                        if (ELEMENT != marker && END != marker) {
+                            throw new SerialisationException("Unknown marker " + marker + " in element stream");
+                        }
+                        hasNext = ELEMENT == marker;
+                    } catch (final IOException e) {
+                        close();
+                        throw new RuntimeException("Unable to read element stream: " + e.getMessage(), e);
+                    }
+
+                    if (!hasNext) {
+                        close();
+                    }
+                }
+
+                return hasNext;
+            }
+
+            @Override
+            public Element next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                try {
+                    final Element element = elementSerialiser.readElement(in);
+                    hasNext = null;
+                    return element;
+                } catch (final IOException e) {
+                    close();
+                    throw new RuntimeException("Unable to read element from element stream: " + e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public void close() {
+                ElementStreamIterable.this.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store;
+
+import org.junit.After;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.store.JobExecutor.Priority;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JobExecutorTest {
+    private final CountDownLatch blockingJobStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseBlockingJob = new CountDownLatch(1);
+    private JobExecutor jobExecutor;
+
+    @After
+    public void after() {
+        releaseBlockingJob.countDown();
+        if (null != jobExecutor) {
+            jobExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldRunHigherPriorityJobsFirst() throws Exception {
+        // Given
+        jobExecutor = new JobExecutor(1, 10, null);
+        final List<String> completedJobs = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch allJobsFinished = new CountDownLatch(3);
+        submitBlockingJob("user");
+
+        // When
+        for (final Priority priority : Arrays.asList(Priority.LOW, Priority.NORMAL, Priority.HIGH)) {
+            jobExecutor.submit(priority.name(), "user", priority, () -> {
+                completedJobs.add(priority.name());
+                allJobsFinished.countDown();
+            });
+        }
+        assertEquals(3, jobExecutor.getQueueSize());
+        releaseBlockingJob.countDown();
+
+        // Then
+        assertTrue(allJobsFinished.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("HIGH", "NORMAL", "LOW"), completedJobs);
+        assertEquals(4, jobExecutor.getNumStartedJobs());
+    }
+
+    @Test
+    public void shouldRejectJobWhenQueueIsFull() throws Exception {
+        // Given
+        jobExecutor = new JobExecutor(1, 1, null);
+        submitBlockingJob("user1");
+        jobExecutor.submit("job2", "user2", null, () -> {
+        });
+
+        // When / Then
+        try {
+            jobExecutor.submit("job3", "user3", null, () -> {
+            });
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains("queue is full"));
+        }
+        assertEquals(1, jobExecutor.getNumRejectedJobs());
+    }
+
+    @Test
+    public void shouldRejectJobWhenUserHasTooManyJobs() throws Exception {
+        // Given
+        jobExecutor = new JobExecutor(2, 10, 1);
+        submitBlockingJob("user1");
+
+        // When
+        jobExecutor.submit("job2", "user2", null, () -> {
+        });
+        try {
+            jobExecutor.submit("job3", "user1", null, () -> {
+            });
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            // Then
+            assertTrue(e.getMessage().contains("user1"));
+        }
+    }
+
+    @Test
+    public void shouldCancelQueuedJob() throws Exception {
+        // Given
+        jobExecutor = new JobExecutor(1, 10, 1);
+        final List<String> completedJobs = Collections.synchronizedList(new ArrayList<>());
+        submitBlockingJob("user1");
+        jobExecutor.submit("job2", "user2", null, () -> completedJobs.add("job2"));
+
+        // When
+        final boolean cancelled = jobExecutor.cancel("job2");
+
+        // Then
+        assertTrue(cancelled);
+        assertEquals(0, jobExecutor.getQueueSize());
+        assertFalse(jobExecutor.cancel("job2"));
+
+        // The cancelled job no longer counts towards the user's limit
+        final CountDownLatch job3Finished = new CountDownLatch(1);
+        jobExecutor.submit("job3", "user2", null, job3Finished::countDown);
+        releaseBlockingJob.countDown();
+        assertTrue(job3Finished.await(10, TimeUnit.SECONDS));
+        assertEquals(Collections.emptyList(), completedJobs);
+    }
+
+    @Test
+    public void shouldCancelRunningJob() throws Exception {
+        // Given
+        jobExecutor = new JobExecutor(1, 10, null);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        jobExecutor.submit("job1", "user", null, () -> {
+            blockingJobStarted.countDown();
+            try {
+                releaseBlockingJob.await();
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        assertTrue(blockingJobStarted.await(10, TimeUnit.SECONDS));
+
+        // When
+        final boolean cancelled = jobExecutor.cancel("job1");
+
+        // Then
+        assertTrue(cancelled);
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldPublishQueueStatisticsAsGaugesInStoreMetrics() throws Exception {
+        // Given
+        jobExecutor = new JobExecutor(1, 1, null);
+        final StoreMetrics metrics = new StoreMetrics();
+        jobExecutor.registerMetrics(metrics);
+        submitBlockingJob("user1");
+        jobExecutor.submit("job2", "user2", null, () -> {
+        });
+
+        // When
+        try {
+            jobExecutor.submit("job3", "user3", null, () -> {
+            });
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains("queue is full"));
+        }
+
+        // Then
+        assertEquals(1, metrics.getGauge(JobExecutor.QUEUE_SIZE_METRIC));
+        assertEquals(1, metrics.getGauge(JobExecutor.ACTIVE_JOBS_METRIC));
+        assertEquals(1, metrics.getGauge(JobExecutor.STARTED_JOBS_METRIC));
+        assertEquals(1, metrics.getGauge(JobExecutor.REJECTED_JOBS_METRIC));
+        assertEquals(jobExecutor.getMaxWaitTime(), metrics.getGauge(JobExecutor.MAX_WAIT_TIME_METRIC));
+        assertEquals(jobExecutor.getMeanWaitTime(), metrics.getGauge(JobExecutor.MEAN_WAIT_TIME_METRIC));
+    }
+
+    private void submitBlockingJob(final String userId) throws Exception {
+        jobExecutor.submit("blockingJob", userId, Priority.HIGH, () -> {
+            blockingJobStarted.countDown();
+            try {
+                releaseBlockingJob.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blockingJobStarted.await(10, TimeUnit.SECONDS));
+    }
+}
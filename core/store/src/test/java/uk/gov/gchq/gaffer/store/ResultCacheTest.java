@@ -0,0 +1,424 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ResultCacheTest {
+    private static final List<Element> ELEMENTS = Arrays.asList(
+            new Entity(TestGroups.ENTITY, "vertex1"),
+            new Entity(TestGroups.ENTITY, "vertex2"));
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    public void shouldReturnCachedResultForRepeatedOperationChain() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user = new User("user");
+
+        // When
+        final List<Element> results1 = Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements));
+        final List<Element> results2 = Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements));
+
+        // Then
+        assertEquals(ELEMENTS, results1);
+        assertEquals(ELEMENTS, results2);
+        assertEquals(1, executions.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldNotChangeCachedResultWhenReturnedElementsAreModified() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user = new User("user");
+        final List<Element> results1 = Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getMutableElements));
+        final List<Element> results2 = Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getMutableElements));
+
+        // When
+        results1.get(0).putProperty(TestPropertyNames.COUNT, 10L);
+        results2.get(1).putProperty(TestPropertyNames.COUNT, 20L);
+        final List<Element> results3 = Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getMutableElements));
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(ELEMENTS, results3);
+        assertNotSame(results2.get(0), results3.get(0));
+    }
+
+    @Test
+    public void shouldCacheElementsInSerialisedFormUsingSchema() throws OperationException {
+        // Given
+        final Schema schema = new Schema.Builder()
+                .type("string", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .serialiser(new StringSerialiser())
+                        .build())
+                .type("long", new TypeDefinition.Builder()
+                        .clazz(Long.class)
+                        .serialiser(new CompactRawLongSerialiser())
+                        .build())
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(TestPropertyNames.COUNT, "long")
+                        .build())
+                .vertexSerialiser(new StringSerialiser())
+                .build();
+        final ResultCache cache = new ResultCache(10, 60000, 100, schema);
+        final User user = new User("user");
+        final List<Element> results1 = Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElementsWithLongProperty));
+
+        // When
+        results1.get(0).putProperty(TestPropertyNames.COUNT, 10L);
+        final List<Element> results2 = Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElementsWithLongProperty));
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1L, results2.get(0).getProperty(TestPropertyNames.COUNT));
+    }
+
+    @Test
+    public void shouldNotCacheResultsThatCannotBeDeserialised() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user = new User("user");
+        final OperationChain operationChain = createGetAllElements(TestGroups.ENTITY);
+
+        // When
+        final NotDeserialisable result1 = (NotDeserialisable) cache.execute(operationChain, user, this::getNotDeserialisable);
+        final NotDeserialisable result2 = (NotDeserialisable) cache.execute(operationChain, user, this::getNotDeserialisable);
+
+        // Then
+        assertEquals("value", result1.getValue());
+        assertEquals("value", result2.getValue());
+        assertEquals(2, executions.get());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldReturnCachedResultForRepeatedAsyncOperationChain() throws Exception {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user = new User("user");
+
+        // When
+        final List<Element> results1 = Lists.newArrayList(cache.executeAsync(createGetAllElements(TestGroups.ENTITY), user, this::getElementsAsync).get());
+        final List<Element> results2 = Lists.newArrayList(cache.executeAsync(createGetAllElements(TestGroups.ENTITY), user, this::getElementsAsync).get());
+        final List<Element> results3 = Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements));
+
+        // Then
+        assertEquals(ELEMENTS, results1);
+        assertEquals(ELEMENTS, results2);
+        assertEquals(ELEMENTS, results3);
+        assertEquals(1, executions.get());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void shouldInvalidateCachedResultsWhenAsyncAddElementsCompletes() throws Exception {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user = new User("user");
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements));
+        final AddElements addElementsOp = new AddElements(Collections.singletonList(new Entity(TestGroups.ENTITY, "vertex3")));
+        final CloseableIterable<Element> originalInput = addElementsOp.getElements();
+        final CompletableFuture<Void> addElementsResult = new CompletableFuture<>();
+
+        // When
+        final CompletableFuture<Void> result = cache.executeAsync(new OperationChain<>(addElementsOp), user, () -> {
+            Lists.newArrayList(addElementsOp.getElements());
+            return addElementsResult;
+        });
+
+        // Then
+        assertEquals(1, cache.size());
+        addElementsResult.complete(null);
+        result.get();
+        assertEquals(0, cache.size());
+        assertSame(originalInput, addElementsOp.getElements());
+    }
+
+    @Test
+    public void shouldNotShareCachedResultsBetweenUsersWithDifferentAuths() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user1 = new User.Builder().userId("user1").dataAuth("auth1").build();
+        final User user2 = new User.Builder().userId("user2").dataAuth("auth2").build();
+
+        // When
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user1, this::getElements));
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user2, this::getElements));
+
+        // Then
+        assertEquals(2, executions.get());
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheResultsThatAreNotFullyIterated() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user = new User("user");
+
+        // When
+        final CloseableIterable<Element> results = cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements);
+        results.iterator().next();
+        results.close();
+        cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements);
+
+        // Then
+        assertEquals(2, executions.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheResultsLargerThanMaxResultSize() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 1);
+        final User user = new User("user");
+
+        // When
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements));
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldExpireCachedResultsAfterTimeToLive() throws OperationException, InterruptedException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 1, 100);
+        final User user = new User("user");
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements));
+        Thread.sleep(10);
+
+        // When
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements));
+
+        // Then
+        assertEquals(2, executions.get());
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getExpirations());
+    }
+
+    @Test
+    public void shouldPublishStatisticsAsGaugesInStoreMetrics() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(1, 60000, 100);
+        final StoreMetrics metrics = new StoreMetrics();
+        cache.registerMetrics(metrics);
+        final User user = new User("user");
+
+        // When
+        cache.execute(createCount("vertex1"), user, this::count);
+        cache.execute(createCount("vertex1"), user, this::count);
+        cache.execute(createCount("vertex2"), user, this::count);
+        cache.clear();
+
+        // Then
+        assertEquals(0, metrics.getGauge(ResultCache.SIZE_METRIC));
+        assertEquals(1, metrics.getGauge(ResultCache.HITS_METRIC));
+        assertEquals(2, metrics.getGauge(ResultCache.MISSES_METRIC));
+        assertEquals(1, metrics.getGauge(ResultCache.EVICTIONS_METRIC));
+        assertEquals(0, metrics.getGauge(ResultCache.EXPIRATIONS_METRIC));
+        assertEquals(1, metrics.getGauge(ResultCache.INVALIDATIONS_METRIC));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResult() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(2, 60000, 100);
+        final User user = new User("user");
+        final OperationChain<Long> count1 = createCount("vertex1");
+        final OperationChain<Long> count2 = createCount("vertex2");
+        final OperationChain<Long> count3 = createCount("vertex3");
+
+        // When
+        cache.execute(count1, user, this::count);
+        cache.execute(count2, user, this::count);
+        cache.execute(count1, user, this::count);
+        cache.execute(count3, user, this::count);
+        cache.execute(count1, user, this::count);
+        cache.execute(count2, user, this::count);
+
+        // Then
+        assertEquals(4, executions.get());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldInvalidateCachedResultsForGroupsAddedByAddElements() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user = new User("user");
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements));
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.EDGE), user, this::getElements));
+        final List<Element> elementsToAdd = Collections.singletonList(new Entity(TestGroups.ENTITY, "vertex3"));
+        final AddElements addElementsOp = new AddElements(elementsToAdd);
+        final CloseableIterable<Element> originalInput = addElementsOp.getElements();
+        final OperationChain<Void> addElements = new OperationChain<>(addElementsOp);
+
+        // When
+        cache.execute(addElements, user, () -> {
+            Lists.newArrayList(addElementsOp.getElements());
+            return null;
+        });
+
+        // Then
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getInvalidations());
+        assertSame(originalInput, addElementsOp.getElements());
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.EDGE), user, this::getElements));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void shouldInvalidateAllCachedResultsWhenAddElementsInputIsChained() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user = new User("user");
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.ENTITY), user, this::getElements));
+        Lists.newArrayList(cache.execute(createGetAllElements(TestGroups.EDGE), user, this::getElements));
+        final OperationChain<Void> addElements = new OperationChain.Builder()
+                .first(new GetAllElements<>())
+                .then(new AddElements())
+                .build();
+
+        // When
+        cache.execute(addElements, user, () -> null);
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheChainsWithIterableInputs() throws OperationException {
+        // Given
+        final ResultCache cache = new ResultCache(10, 60000, 100);
+        final User user = new User("user");
+        final Iterable<EntitySeed> seeds = () -> Collections.singletonList(new EntitySeed("vertex1")).iterator();
+
+        // When
+        final CloseableIterable<Element> results = cache.execute(
+                new OperationChain<>(new GetElements.Builder<EntitySeed, Element>().seeds(seeds).build()),
+                user, this::getElements);
+
+        // Then
+        assertEquals(ELEMENTS, Lists.newArrayList(results));
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.size());
+    }
+
+    private OperationChain<CloseableIterable<Element>> createGetAllElements(final String group) {
+        return new OperationChain<>(new GetAllElements.Builder<>()
+                .view(new View.Builder()
+                        .entity(group)
+                        .build())
+                .build());
+    }
+
+    private OperationChain<Long> createCount(final String vertex) {
+        return new OperationChain.Builder()
+                .first(new GetElements.Builder<EntitySeed, Element>()
+                        .addSeed(new EntitySeed(vertex))
+                        .build())
+                .then(new Count<>())
+                .build();
+    }
+
+    private CloseableIterable<Element> getElements() {
+        executions.incrementAndGet();
+        return new WrappedCloseableIterable<>(ELEMENTS);
+    }
+
+    private CompletableFuture<CloseableIterable<Element>> getElementsAsync() {
+        return CompletableFuture.supplyAsync(this::getElements);
+    }
+
+    private CloseableIterable<Element> getMutableElements() {
+        executions.incrementAndGet();
+        return new WrappedCloseableIterable<>(Arrays.asList(
+                new Entity(TestGroups.ENTITY, "vertex1"),
+                new Entity(TestGroups.ENTITY, "vertex2")));
+    }
+
+    private CloseableIterable<Element> getElementsWithLongProperty() {
+        executions.incrementAndGet();
+        final Entity entity = new Entity(TestGroups.ENTITY, "vertex1");
+        entity.putProperty(TestPropertyNames.COUNT, 1L);
+        return new WrappedCloseableIterable<>(Collections.singletonList(entity));
+    }
+
+    private NotDeserialisable getNotDeserialisable() {
+        executions.incrementAndGet();
+        return new NotDeserialisable("value");
+    }
+
+    private Long count() {
+        return (long) executions.incrementAndGet();
+    }
+
+    public static final class NotDeserialisable {
+        private final String value;
+
+        public NotDeserialisable(final String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+}
@@ -16,13 +16,16 @@
 
 package uk.gov.gchq.gaffer.store;
 
+import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.exception.UnauthorisedException;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.IdentifierType;
@@ -56,6 +59,7 @@ import uk.gov.gchq.gaffer.operation.impl.get.GetAllEntities;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.serialisation.Serialisation;
 import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
 import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.DeduplicateHandler;
 import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
@@ -72,12 +76,19 @@ import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
 import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
 import uk.gov.gchq.gaffer.store.schema.ViewValidator;
 import uk.gov.gchq.gaffer.user.User;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -332,6 +343,188 @@ public class StoreTest {
         assertSame(getElementsResult, result);
     }
 
+    @Test
+    public void shouldRecordOperationMetricsWhenEnabled() throws Exception {
+        // Given
+        final Schema schema = createSchemaMock();
+        final StoreProperties properties = mock(StoreProperties.class);
+        given(properties.getMetricsEnabled()).willReturn(true);
+        final StoreImpl store = new StoreImpl();
+        final GetElements<ElementSeed, Element> getElements = new GetElements<>();
+        given(getElementsHandler.doOperation(getElements, context, store))
+                .willReturn(new WrappedCloseableIterable<>(Arrays.asList(new Entity("group1"), new Entity("group2"))));
+
+        store.initialise(schema, properties);
+
+        // When
+        final CloseableIterable<Element> result = store.execute(getElements, user);
+        int count = 0;
+        for (final Element ignored : result) {
+            count++;
+        }
+
+        // Then
+        assertEquals(2, count);
+        final StoreMetrics metrics = store.getMetrics();
+        assertEquals(1, metrics.getOperationLatencies().get(GetElements.class.getName()).getCount());
+        assertEquals(1, metrics.getHandlerLatencies().get(getElementsHandler.getClass().getName()).getCount());
+        assertEquals(2, metrics.getOutputThroughput().get(GetElements.class.getName()).getElements());
+    }
+
+    @Test
+    public void shouldPublishJobExecutorStatisticsInMetricsWhenEnabled() throws Exception {
+        // Given
+        final Schema schema = createSchemaMock();
+        final StoreProperties properties = mock(StoreProperties.class);
+        given(properties.getMetricsEnabled()).willReturn(true);
+        given(properties.getJobTrackerClass()).willReturn("jobTrackerClass");
+        given(properties.getJobExecutorThreads()).willReturn(1);
+        given(properties.getJobExecutorMaxQueueSize()).willReturn(10);
+        final StoreImpl store = new StoreImpl();
+
+        // When
+        store.initialise(schema, properties);
+
+        // Then
+        try {
+            assertEquals(0L, (long) store.getMetrics().getGauges().get(JobExecutor.QUEUE_SIZE_METRIC));
+            assertEquals(0L, (long) store.getMetrics().getGauges().get(JobExecutor.REJECTED_JOBS_METRIC));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void shouldPublishResultCacheStatisticsInMetricsWhenEnabled() throws Exception {
+        // Given
+        final Schema schema = createSchemaMock();
+        final StoreProperties properties = mock(StoreProperties.class);
+        given(properties.getMetricsEnabled()).willReturn(true);
+        given(properties.getResultCacheMaxEntries()).willReturn(10);
+        given(properties.getResultCacheTtlSeconds()).willReturn(60L);
+        given(properties.getResultCacheMaxResultSize()).willReturn(100);
+        final StoreImpl store = new StoreImpl();
+        final GetElements<ElementSeed, Element> getElements = new GetElements<>();
+        given(getElementsHandler.doOperation(getElements, context, store))
+                .willReturn(new WrappedCloseableIterable<>(Collections.singletonList(new Entity(TestGroups.ENTITY, "vertex"))));
+        store.initialise(schema, properties);
+
+        // When
+        try {
+            Lists.newArrayList(store.execute(new OperationChain<>(getElements), user));
+            Lists.newArrayList(store.execute(new OperationChain<>(getElements), user));
+
+            // Then
+            assertEquals(1, store.getMetrics().getGauge(ResultCache.HITS_METRIC));
+            assertEquals(1, store.getMetrics().getGauge(ResultCache.MISSES_METRIC));
+            assertEquals(1, store.getMetrics().getGauge(ResultCache.SIZE_METRIC));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void shouldRegisterSeparateMetricsForEachStoreAndUnregisterWhenClosed() throws Exception {
+        // Given
+        final Schema schema = createSchemaMock();
+        final StoreProperties properties = mock(StoreProperties.class);
+        given(properties.getMetricsEnabled()).willReturn(true);
+        final StoreImpl store1 = new StoreImpl();
+        final StoreImpl store2 = new StoreImpl();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName storeMetricsName = new ObjectName(StoreMetrics.JMX_DOMAIN + ":type=StoreMetrics,name="
+                + ObjectName.quote(StoreImpl.class.getSimpleName()) + ",*");
+        final int registeredBefore = server.queryNames(storeMetricsName, null).size();
+
+        // When
+        store1.initialise(schema, properties);
+        store2.initialise(schema, properties);
+
+        // Then
+        assertEquals(registeredBefore + 2, server.queryNames(storeMetricsName, null).size());
+        store1.close();
+        store2.close();
+        assertEquals(registeredBefore, server.queryNames(storeMetricsName, null).size());
+    }
+
+    @Test
+    public void shouldExecuteOperationChainAsynchronously() throws Exception {
+        // Given
+        final Schema schema = createSchemaMock();
+        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreImpl store = new StoreImpl();
+        final CloseableIterable<Element> getElementsResult = mock(CloseableIterable.class);
+        final GetElements<ElementSeed, Element> getElements = new GetElements<>();
+        final OperationChain<CloseableIterable<Element>> opChain = new OperationChain<>(getElements);
+
+        given(getElementsHandler.doOperation(getElements, context, store))
+                .willReturn(getElementsResult);
+
+        store.initialise(schema, properties);
+
+        // When
+        final CompletableFuture<CloseableIterable<Element>> result = store.executeAsync(opChain, user);
+
+        // Then
+        assertTrue(result.isDone());
+        assertSame(getElementsResult, result.get());
+    }
+
+    @Test
+    public void shouldUseResultCacheWhenExecutingOperationChainAsynchronously() throws Exception {
+        // Given
+        final Schema schema = createSchemaMock();
+        final StoreProperties properties = mock(StoreProperties.class);
+        given(properties.getResultCacheMaxEntries()).willReturn(10);
+        given(properties.getResultCacheTtlSeconds()).willReturn(60L);
+        given(properties.getResultCacheMaxResultSize()).willReturn(100);
+        final StoreImpl store = new StoreImpl();
+        final List<Element> elements = Collections.singletonList(new Entity(TestGroups.ENTITY, "vertex"));
+        final GetElements<ElementSeed, Element> getElements = new GetElements<>();
+
+        given(getElementsHandler.doOperation(getElements, context, store))
+                .willReturn(new WrappedCloseableIterable<>(elements));
+
+        store.initialise(schema, properties);
+
+        // When
+        final CloseableIterable<Element> result1 = store.executeAsync(new OperationChain<>(getElements), user).get();
+        assertEquals(elements, Lists.newArrayList(result1));
+        final CloseableIterable<Element> result2 = store.executeAsync(new OperationChain<>(getElements), user).get();
+
+        // Then
+        assertEquals(elements, Lists.newArrayList(result2));
+        verify(getElementsHandler, times(1)).doOperation(getElements, context, store);
+        assertEquals(1, store.getResultCache().getHits());
+    }
+
+    @Test
+    public void shouldCompleteExceptionallyWhenAsynchronousOperationChainFails() throws Exception {
+        // Given
+        final Schema schema = createSchemaMock();
+        final StoreProperties properties = mock(StoreProperties.class);
+        final StoreImpl store = new StoreImpl();
+        final GetElements<ElementSeed, Element> getElements = new GetElements<>();
+        final OperationChain<CloseableIterable<Element>> opChain = new OperationChain<>(getElements);
+        final OperationException exception = new OperationException("Failed");
+
+        given(getElementsHandler.doOperation(getElements, context, store))
+                .willThrow(exception);
+
+        store.initialise(schema, properties);
+
+        // When
+        final CompletableFuture<CloseableIterable<Element>> result = store.executeAsync(opChain, user);
+
+        // Then
+        try {
+            result.get();
+            fail("Exception expected");
+        } catch (final ExecutionException e) {
+            assertSame(exception, e.getCause());
+        }
+    }
+
     @Test
     public void shouldReturnAllSupportedOperations() throws Exception {
         // Given
@@ -341,7 +534,7 @@ public class StoreTest {
         final Map<String, String> options = mock(HashMap.class);
 
         final StoreImpl store = new StoreImpl();
-        final int expectedNumberOfOperations = 33; // this includes the deprecated Get operations
+        final int expectedNumberOfOperations = 35; // this includes the deprecated Get operations
 
         given(validatable.isValidate()).willReturn(true);
         given(validatable.getOptions()).willReturn(options);
@@ -438,6 +631,9 @@ public class StoreTest {
                 .build();
         final StoreProperties properties = mock(StoreProperties.class);
         given(properties.getJobTrackerClass()).willReturn("jobTrackerClass");
+        given(properties.getJobExecutorThreads()).willReturn(1);
+        given(properties.getJobExecutorMaxQueueSize()).willReturn(10);
+        given(properties.getJobExecutorMaxJobsPerUser()).willReturn(null);
         final Store store = new StoreImpl();
         final Schema schema = new Schema();
         store.initialise(schema, properties);
@@ -448,9 +644,11 @@ public class StoreTest {
         // Then
         Thread.sleep(1000);
         final ArgumentCaptor<JobDetail> jobDetail = ArgumentCaptor.forClass(JobDetail.class);
-        verify(jobTracker, times(2)).addOrUpdateJob(jobDetail.capture(), Mockito.eq(user));
+        verify(jobTracker, times(3)).addOrUpdateJob(jobDetail.capture(), Mockito.eq(user));
         assertEquals(jobDetail.getAllValues().get(0), resultJobDetail);
-        assertEquals(JobStatus.FINISHED, jobDetail.getAllValues().get(1).getStatus());
+        assertEquals(JobStatus.QUEUED, jobDetail.getAllValues().get(0).getStatus());
+        assertEquals(JobStatus.RUNNING, jobDetail.getAllValues().get(1).getStatus());
+        assertEquals(JobStatus.FINISHED, jobDetail.getAllValues().get(2).getStatus());
 
         final ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.forClass(Context.class);
         verify(exportToGafferResultCacheHandler).doOperation(Mockito.any(ExportToGafferResultCache.class), contextCaptor.capture(), Mockito.eq(store));
@@ -464,6 +662,9 @@ public class StoreTest {
         final OperationChain<?> opChain = new OperationChain<>(operation);
         final StoreProperties properties = mock(StoreProperties.class);
         given(properties.getJobTrackerClass()).willReturn("jobTrackerClass");
+        given(properties.getJobExecutorThreads()).willReturn(1);
+        given(properties.getJobExecutorMaxQueueSize()).willReturn(10);
+        given(properties.getJobExecutorMaxJobsPerUser()).willReturn(null);
         final Store store = new StoreImpl();
         final Schema schema = new Schema();
         store.initialise(schema, properties);
@@ -474,20 +675,113 @@ public class StoreTest {
         // Then
         Thread.sleep(1000);
         final ArgumentCaptor<JobDetail> jobDetail = ArgumentCaptor.forClass(JobDetail.class);
-        verify(jobTracker, times(2)).addOrUpdateJob(jobDetail.capture(), Mockito.eq(user));
+        verify(jobTracker, times(3)).addOrUpdateJob(jobDetail.capture(), Mockito.eq(user));
         assertEquals(jobDetail.getAllValues().get(0), resultJobDetail);
-        assertEquals(JobStatus.FINISHED, jobDetail.getAllValues().get(1).getStatus());
+        assertEquals(JobStatus.QUEUED, jobDetail.getAllValues().get(0).getStatus());
+        assertEquals(JobStatus.RUNNING, jobDetail.getAllValues().get(1).getStatus());
+        assertEquals(JobStatus.FINISHED, jobDetail.getAllValues().get(2).getStatus());
 
         final ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.forClass(Context.class);
         verify(exportToGafferResultCacheHandler).doOperation(Mockito.any(ExportToGafferResultCache.class), contextCaptor.capture(), Mockito.eq(store));
         assertSame(user, contextCaptor.getValue().getUser());
     }
 
+    @Test
+    public void shouldNotAllowUserToCancelAnotherUsersJob() throws OperationException, StoreException {
+        // Given
+        final StoreProperties properties = createJobProperties();
+        final Store store = new StoreImpl();
+        store.initialise(new Schema(), properties);
+        final User otherUser = new User("user02");
+        given(jobTracker.getJob("jobId", otherUser)).willReturn(new JobDetail("jobId", user.getUserId(), null, JobStatus.RUNNING, null));
+
+        // When / Then
+        try {
+            store.cancelJob("jobId", otherUser);
+            fail("Exception expected");
+        } catch (final UnauthorisedException e) {
+            assertTrue(e.getMessage().contains("not authorised to cancel job jobId"));
+        }
+        verify(jobTracker, times(0)).addOrUpdateJob(Mockito.any(JobDetail.class), Mockito.any(User.class));
+    }
+
+    @Test
+    public void shouldAllowJobAdminToCancelAnotherUsersJob() throws StoreException {
+        // Given
+        final StoreProperties properties = createJobProperties();
+        given(properties.getJobAdminAuth()).willReturn("JobAdmin");
+        final Store store = new StoreImpl();
+        store.initialise(new Schema(), properties);
+        final User adminUser = new User.Builder()
+                .userId("admin")
+                .opAuth("JobAdmin")
+                .build();
+        given(jobTracker.getJob("jobId", adminUser)).willReturn(new JobDetail("jobId", user.getUserId(), null, JobStatus.RUNNING, null));
+
+        // When / Then - the admin is allowed to cancel the job, but it is not known to the job executor
+        try {
+            store.cancelJob("jobId", adminUser);
+            fail("Exception expected");
+        } catch (final OperationException e) {
+            assertTrue(e.getMessage().contains("not queued or running"));
+        }
+    }
+
+    @Test
+    public void shouldNotRunJobCancelledBeforeItsRunningStatusIsWritten() throws Exception {
+        // Given
+        final StoreProperties properties = createJobProperties();
+        final StoreImpl store = new StoreImpl();
+        store.initialise(new Schema(), properties);
+        final Operation<?, ?> operation = mock(Operation.class);
+        final OperationChain<?> opChain = new OperationChain<>(operation);
+        final CountDownLatch jobStarted = new CountDownLatch(1);
+        final CountDownLatch jobCancelled = new CountDownLatch(1);
+        given(jobTracker.getJob(Mockito.anyString(), Mockito.eq(user))).willAnswer(invocation -> {
+            // Pause the job thread while it reads the job detail to write the running status
+            if (Thread.currentThread().getName().startsWith("gaffer-job-executor")) {
+                jobStarted.countDown();
+                boolean interrupted = false;
+                while (true) {
+                    try {
+                        jobCancelled.await();
+                        break;
+                    } catch (final InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new JobDetail((String) invocation.getArguments()[0], user.getUserId(), null, JobStatus.QUEUED, null);
+        });
+
+        // When
+        store.executeJob(opChain, user);
+        jobStarted.await();
+        store.cancelJob(context.getJobId(), user);
+        jobCancelled.countDown();
+
+        // Then
+        Thread.sleep(1000);
+        final ArgumentCaptor<JobDetail> jobDetail = ArgumentCaptor.forClass(JobDetail.class);
+        verify(jobTracker, times(4)).addOrUpdateJob(jobDetail.capture(), Mockito.eq(user));
+        assertEquals(JobStatus.QUEUED, jobDetail.getAllValues().get(0).getStatus());
+        assertEquals(JobStatus.CANCELLED, jobDetail.getAllValues().get(1).getStatus());
+        assertEquals(JobStatus.RUNNING, jobDetail.getAllValues().get(2).getStatus());
+        assertEquals(JobStatus.CANCELLED, jobDetail.getAllValues().get(3).getStatus());
+        assertTrue(store.getDoUnhandledOperationCalls().isEmpty());
+    }
+
     @Test
     public void shouldGetJobTracker() throws OperationException, ExecutionException, InterruptedException, StoreException {
         // Given
         final StoreProperties properties = mock(StoreProperties.class);
         given(properties.getJobTrackerClass()).willReturn("jobTrackerClass");
+        given(properties.getJobExecutorThreads()).willReturn(1);
+        given(properties.getJobExecutorMaxQueueSize()).willReturn(10);
+        given(properties.getJobExecutorMaxJobsPerUser()).willReturn(null);
         final Store store = new StoreImpl();
         final Schema schema = new Schema();
         store.initialise(schema, properties);
@@ -498,6 +792,15 @@ public class StoreTest {
         assertSame(jobTracker, resultJobTracker);
     }
 
+    private StoreProperties createJobProperties() {
+        final StoreProperties properties = mock(StoreProperties.class);
+        given(properties.getJobTrackerClass()).willReturn("jobTrackerClass");
+        given(properties.getJobExecutorThreads()).willReturn(1);
+        given(properties.getJobExecutorMaxQueueSize()).willReturn(10);
+        given(properties.getJobExecutorMaxJobsPerUser()).willReturn(null);
+        return properties;
+    }
+
     private Schema createSchemaMock() {
         final Schema schema = mock(Schema.class);
         given(schema.validate()).willReturn(true);
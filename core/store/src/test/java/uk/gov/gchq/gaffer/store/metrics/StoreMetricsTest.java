@@ -0,0 +1,248 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.metrics;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.operation.handler.LimitHandler;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StoreMetricsTest {
+    @Test
+    public void shouldRecordOperationAndHandlerLatencies() {
+        // Given
+        final StoreMetrics metrics = new StoreMetrics();
+
+        // When
+        metrics.recordOperation(Limit.class, LimitHandler.class, TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.recordOperation(Limit.class, LimitHandler.class, TimeUnit.MILLISECONDS.toNanos(7));
+        metrics.recordOperation(GetAllElements.class, null, TimeUnit.MILLISECONDS.toNanos(1));
+
+        // Then
+        final LatencySummary limitLatency = metrics.getOperationLatencies().get(Limit.class.getName());
+        assertEquals(2, limitLatency.getCount());
+        assertEquals(5.0, limitLatency.getMeanMillis(), 0.001);
+        assertEquals(7, limitLatency.getMaxMillis());
+        assertEquals(5, limitLatency.getP50Millis());
+        assertEquals(10, limitLatency.getP99Millis());
+        assertEquals(1L, (long) limitLatency.getBuckets().get("<5ms"));
+        assertEquals(1L, (long) limitLatency.getBuckets().get("<10ms"));
+        assertEquals(2, metrics.getHandlerLatencies().get(LimitHandler.class.getName()).getCount());
+        assertEquals(1, metrics.getOperationLatencies().get(GetAllElements.class.getName()).getCount());
+        assertEquals(1, metrics.getHandlerLatencies().size());
+    }
+
+    @Test
+    public void shouldRecordOutputThroughputWhenIterated() {
+        // Given
+        final StoreMetrics metrics = new StoreMetrics();
+        final CloseableIterable<Integer> output = metrics.trackOutput(GetAllElements.class, System.nanoTime(),
+                new WrappedCloseableIterable<>(Arrays.asList(1, 2, 3)));
+
+        // When
+        int count = 0;
+        for (final Integer ignored : output) {
+            count++;
+        }
+        try (final CloseableIterator<Integer> itr = output.iterator()) {
+            itr.next();
+        }
+
+        // Then
+        assertEquals(3, count);
+        final ThroughputSummary throughput = metrics.getOutputThroughput().get(GetAllElements.class.getName());
+        assertEquals(2, throughput.getIterations());
+        assertEquals(4, throughput.getElements());
+        assertEquals(1, throughput.getTimeToFirstResult().getCount());
+    }
+
+    @Test
+    public void shouldIncrementCountersAndReset() {
+        // Given
+        final StoreMetrics metrics = new StoreMetrics();
+
+        // When
+        metrics.incrementCounter("scanners");
+        metrics.incrementCounter("ranges", 5);
+        metrics.incrementCounter("ranges", 2);
+
+        // Then
+        assertEquals(1, metrics.getCounter("scanners"));
+        assertEquals(7, metrics.getCounter("ranges"));
+        assertEquals(0, metrics.getCounter("unknown"));
+
+        // When
+        metrics.reset();
+
+        // Then
+        assertTrue(metrics.getCounters().isEmpty());
+    }
+
+    @Test
+    public void shouldReadGaugesWhenRequestedAndNotResetThem() {
+        // Given
+        final StoreMetrics metrics = new StoreMetrics();
+        final AtomicLong queueSize = new AtomicLong(3);
+        metrics.registerGauge("queueSize", queueSize::get);
+
+        // When
+        queueSize.set(5);
+
+        // Then
+        assertEquals(5, metrics.getGauge("queueSize"));
+        assertEquals(Collections.singletonMap("queueSize", 5L), metrics.getGauges());
+        assertEquals(0, metrics.getGauge("unknown"));
+
+        // When
+        metrics.reset();
+
+        // Then
+        assertEquals(5, metrics.getGauge("queueSize"));
+    }
+
+    @Test
+    public void shouldRegisterMetricsAsMBean() throws Exception {
+        // Given
+        final StoreMetrics metrics = new StoreMetrics();
+        metrics.incrementCounter("scanners", 3);
+        metrics.registerGauge("queueSize", () -> 2);
+        metrics.recordOperation(Limit.class, LimitHandler.class, 1);
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        // When
+        final ObjectName objectName = metrics.registerMBean("StoreMetricsTest", "table1");
+
+        // Then
+        try {
+            assertNotNull(objectName);
+            assertTrue(server.isRegistered(objectName));
+            final TabularData counters = (TabularData) server.getAttribute(objectName, "Counters");
+            assertEquals(3L, counters.get(new Object[]{"scanners"}).get("value"));
+            final TabularData gauges = (TabularData) server.getAttribute(objectName, "Gauges");
+            assertEquals(2L, gauges.get(new Object[]{"queueSize"}).get("value"));
+            final TabularData latencies = (TabularData) server.getAttribute(objectName, "OperationLatencies");
+            assertFalse(latencies.isEmpty());
+        } finally {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+    @Test
+    public void shouldUnregisterMBeanOnceMetricsAreGarbageCollected() throws Exception {
+        // Given
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        StoreMetrics metrics = new StoreMetrics();
+        final ObjectName objectName = metrics.registerMBean("StoreMetricsTest", "collected");
+        final WeakReference<StoreMetrics> reference = new WeakReference<>(metrics);
+        assertTrue(server.isRegistered(objectName));
+
+        // When
+        metrics = null;
+        for (int i = 0; i < 20 && null != reference.get(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        final StoreMetrics otherMetrics = new StoreMetrics();
+        final ObjectName otherObjectName = otherMetrics.registerMBean("StoreMetricsTest", "other");
+
+        // Then
+        try {
+            assertNull(reference.get());
+            assertFalse(server.isRegistered(objectName));
+            assertTrue(server.isRegistered(otherObjectName));
+        } finally {
+            otherMetrics.unregisterMBean();
+        }
+    }
+
+    @Test
+    public void shouldNotUnregisterMetricsThatReplacedTheseMetrics() throws Exception {
+        // Given
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final StoreMetrics metrics1 = new StoreMetrics();
+        final StoreMetrics metrics2 = new StoreMetrics();
+        final ObjectName objectName = metrics1.registerMBean("StoreMetricsTest", "replaced");
+        metrics2.registerMBean("StoreMetricsTest", "replaced");
+
+        // When
+        metrics1.unregisterMBean();
+
+        // Then
+        try {
+            assertTrue(server.isRegistered(objectName));
+        } finally {
+            metrics2.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(objectName));
+    }
+
+    @Test
+    public void shouldRegisterMetricsWithDifferentIdsSeparately() throws Exception {
+        // Given
+        final StoreMetrics metrics1 = new StoreMetrics();
+        final StoreMetrics metrics2 = new StoreMetrics();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        // When
+        final ObjectName objectName1 = metrics1.registerMBean("StoreMetricsTest", "table1");
+        final ObjectName objectName2 = metrics2.registerMBean("StoreMetricsTest", "table2");
+
+        // Then
+        try {
+            assertNotEquals(objectName1, objectName2);
+            assertTrue(server.isRegistered(objectName1));
+            assertTrue(server.isRegistered(objectName2));
+        } finally {
+            metrics1.unregisterMBean();
+            metrics2.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(objectName1));
+        assertFalse(server.isRegistered(objectName2));
+    }
+
+    @Test
+    public void shouldReturnZeroSummaryForEmptyHistogram() {
+        // Given
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        final LatencySummary summary = histogram.getSummary();
+
+        // Then
+        assertEquals(0, summary.getCount());
+        assertEquals(0, summary.getP95Millis());
+        assertNull(summary.getBuckets().get("unknown"));
+    }
+}
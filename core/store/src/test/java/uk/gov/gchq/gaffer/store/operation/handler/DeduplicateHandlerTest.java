@@ -16,16 +16,24 @@
 
 package uk.gov.gchq.gaffer.store.operation.handler;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.iterable.ChainedIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.Deduplicate;
 import uk.gov.gchq.gaffer.store.Context;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -62,4 +70,91 @@ public class DeduplicateHandlerTest {
         // Then
         assertEquals(Arrays.asList(10, 9, 8, 7, 6, 5, 4, 3, 2, 1), Lists.newArrayList(results));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldDeduplicateResultsLazily() throws OperationException {
+        // Given
+        final Iterable<Integer> infiniteResults = () -> new Iterator<Integer>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return count++ % 3;
+            }
+        };
+        final DeduplicateHandler<Integer> handler = new DeduplicateHandler<>();
+        final Deduplicate<Integer> operation = mock(Deduplicate.class);
+
+        given(operation.getInput()).willReturn(new WrappedCloseableIterable<>(new ChainedIterable<>(Arrays.asList(5, 5, 4), infiniteResults)));
+
+        // When
+        final Iterator<Integer> results = handler.doOperation(operation, new Context(), null).iterator();
+
+        // Then
+        assertEquals(Arrays.asList(5, 4, 0, 1, 2), Lists.newArrayList(Iterators.limit(results, 5)));
+    }
+
+    @Test
+    public void shouldDeduplicateResultsWithinMaxItemsInMemory() throws OperationException {
+        // Given
+        final List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+            items.add(i / 2);
+        }
+        final DeduplicateHandler<Integer> handler = new DeduplicateHandler<>();
+        final Deduplicate<Integer> operation = new Deduplicate.Builder<Integer>()
+                .input(items)
+                .maxItemsInMemory(100)
+                .build();
+
+        // When
+        final Iterable<Integer> results = handler.doOperation(operation, new Context(), null);
+
+        // Then
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, Lists.newArrayList(results));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenMaxItemsInMemoryIsExceeded() throws OperationException {
+        // Given
+        final DeduplicateHandler<Integer> handler = new DeduplicateHandler<>();
+        final Deduplicate<Integer> operation = new Deduplicate.Builder<Integer>()
+                .input(Arrays.asList(1, 2, 1, 2, 3))
+                .maxItemsInMemory(2)
+                .build();
+        final Iterator<Integer> results = handler.doOperation(operation, new Context(), null).iterator();
+        assertEquals(Integer.valueOf(1), results.next());
+        assertEquals(Integer.valueOf(2), results.next());
+
+        // When / Then
+        try {
+            results.next();
+            fail("Exception expected");
+        } catch (final GafferRuntimeException e) {
+            assertTrue(e.getMessage().contains("maxItemsInMemory"));
+        }
+    }
+
+    @Test(expected = OperationException.class)
+    public void shouldThrowExceptionIfMaxItemsInMemoryIsNegative() throws OperationException {
+        // Given
+        final DeduplicateHandler<Integer> handler = new DeduplicateHandler<>();
+        final Deduplicate<Integer> operation = new Deduplicate.Builder<Integer>()
+                .input(Arrays.asList(1, 2))
+                .maxItemsInMemory(-1)
+                .build();
+
+        // When / Then
+        handler.doOperation(operation, new Context(), null);
+    }
+}
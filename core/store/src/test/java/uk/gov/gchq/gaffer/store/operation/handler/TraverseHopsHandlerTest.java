@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.operation.handler;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentEntitySeeds;
+import uk.gov.gchq.gaffer.operation.impl.get.TraverseHops;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+
+public class TraverseHopsHandlerTest {
+    private final Map<Object, List<Object>> adjacentVertices = new HashMap<>();
+    private final List<GetAdjacentEntitySeeds> hopOperations = new ArrayList<>();
+    private Store store;
+
+    @Before
+    public void setUp() throws OperationException {
+        adjacentVertices.put("A", Arrays.asList("B", "C"));
+        adjacentVertices.put("B", Arrays.asList("A", "D"));
+        adjacentVertices.put("C", Arrays.asList("D", "D"));
+        adjacentVertices.put("D", Collections.singletonList("E"));
+
+        store = mock(Store.class);
+        given(store._execute(any(OperationChain.class), any(Context.class))).willAnswer(invocation -> {
+            final GetAdjacentEntitySeeds hopOperation = (GetAdjacentEntitySeeds) ((OperationChain) invocation.getArguments()[0]).getOperations().get(0);
+            hopOperations.add(hopOperation);
+            final List<EntitySeed> results = new ArrayList<>();
+            for (final EntitySeed seed : hopOperation.getSeeds()) {
+                for (final Object vertex : adjacentVertices.getOrDefault(seed.getVertex(), Collections.emptyList())) {
+                    results.add(new EntitySeed(vertex));
+                }
+            }
+            return new WrappedCloseableIterable<>(results);
+        });
+    }
+
+    @Test
+    public void shouldNotRevisitVerticesByDefault() throws OperationException {
+        // Given
+        final TraverseHops operation = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("A"))
+                .hops(2)
+                .build();
+
+        // When
+        final List<EntitySeed> results = Lists.newArrayList(new TraverseHopsHandler().doOperation(operation, new Context(), store));
+
+        // Then
+        assertEquals(Collections.singletonList(new EntitySeed("D")), results);
+        assertEquals(2, hopOperations.size());
+        assertEquals(Arrays.asList(new EntitySeed("B"), new EntitySeed("C")), Lists.newArrayList(hopOperations.get(1).getSeeds()));
+    }
+
+    @Test
+    public void shouldRevisitVerticesWhenNotExcludingVisited() throws OperationException {
+        // Given
+        final TraverseHops operation = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("A"))
+                .hops(2)
+                .excludeVisited(false)
+                .build();
+
+        // When
+        final List<EntitySeed> results = Lists.newArrayList(new TraverseHopsHandler().doOperation(operation, new Context(), store));
+
+        // Then
+        assertEquals(Arrays.asList(new EntitySeed("A"), new EntitySeed("D")), results);
+    }
+
+    @Test
+    public void shouldUseViewForEachHop() throws OperationException {
+        // Given
+        final View view = new View.Builder()
+                .edge("edge")
+                .build();
+        final View hopView = new View.Builder()
+                .edge("otherEdge")
+                .build();
+        final TraverseHops operation = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("A"))
+                .view(view)
+                .hopView(null)
+                .hopView(hopView)
+                .build();
+
+        // When
+        new TraverseHopsHandler().doOperation(operation, new Context(), store);
+
+        // Then
+        assertEquals(2, hopOperations.size());
+        assertSame(view, hopOperations.get(0).getView());
+        assertSame(hopView, hopOperations.get(1).getView());
+    }
+
+    @Test
+    public void shouldStopWhenFrontierIsEmpty() throws OperationException {
+        // Given
+        final TraverseHops operation = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("D"))
+                .hops(4)
+                .build();
+
+        // When
+        final List<EntitySeed> results = Lists.newArrayList(new TraverseHopsHandler().doOperation(operation, new Context(), store));
+
+        // Then
+        assertEquals(Collections.emptyList(), results);
+        assertEquals(2, hopOperations.size());
+    }
+
+    @Test(expected = OperationException.class)
+    public void shouldThrowExceptionIfHopsIsLessThanOne() throws OperationException {
+        // Given
+        final TraverseHops operation = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("A"))
+                .hops(0)
+                .build();
+
+        // When
+        new TraverseHopsHandler().doOperation(operation, new Context(), store);
+    }
+}
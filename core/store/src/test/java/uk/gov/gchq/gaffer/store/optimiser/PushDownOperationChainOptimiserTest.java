@@ -0,0 +1,360 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.optimiser;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.operation.GetOperation.IncludeEdgeType;
+import uk.gov.gchq.gaffer.operation.GetOperation.IncludeIncomingOutgoingType;
+import uk.gov.gchq.gaffer.operation.Operation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.Deduplicate;
+import uk.gov.gchq.gaffer.operation.impl.Limit;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentEntitySeeds;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.get.TraverseHops;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class PushDownOperationChainOptimiserTest {
+    private static final String ENTITY_GROUP = "BasicEntity";
+    private static final String EDGE_GROUP = "BasicEdge";
+
+    private Store store;
+    private PushDownOperationChainOptimiser optimiser;
+
+    @Before
+    public void setup() {
+        store = mock(Store.class);
+        final Schema schema = new Schema.Builder()
+                .entity(ENTITY_GROUP, new SchemaEntityDefinition())
+                .edge(EDGE_GROUP, new SchemaEdgeDefinition())
+                .build();
+        given(store.getSchema()).willReturn(schema);
+        optimiser = new PushDownOperationChainOptimiser(store);
+    }
+
+    @Test
+    public void shouldMergeConsecutiveLimitsUsingSmallestLimit() {
+        // Given
+        final GetAllElements<?> getAllElements = new GetAllElements<>();
+        final Limit<Object> limit1 = new Limit.Builder<>().limitResults(10).build();
+        final Limit<Object> limit2 = new Limit.Builder<>().limitResults(5).build();
+        final Limit<Object> limit3 = new Limit<>();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                getAllElements,
+                limit1,
+                limit2,
+                limit3));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(2, ops.size());
+        assertEquals(5, (int) ((GetAllElements<?>) ops.get(0)).getResultLimit());
+        assertEquals(5, (int) ((Limit<?>) ops.get(1)).getResultLimit());
+    }
+
+    @Test
+    public void shouldNotModifyOriginalOperationsWhenMergingLimits() {
+        // Given
+        final Limit<Object> limit1 = new Limit.Builder<>().limitResults(10).option("key", "value").build();
+        final Limit<Object> limit2 = new Limit.Builder<>().limitResults(5).build();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                new GetAllElements<>(),
+                limit1,
+                limit2));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(10, (int) limit1.getResultLimit());
+        assertEquals(5, (int) limit2.getResultLimit());
+        assertEquals(Arrays.asList(opChain.getOperations().get(0), limit1, limit2), opChain.getOperations());
+        assertNotSame(limit1, ops.get(1));
+        assertEquals("value", ops.get(1).getOption("key"));
+    }
+
+    @Test
+    public void shouldRemoveRepeatedDeduplicate() {
+        // Given
+        final GetAllElements<?> getAllElements = new GetAllElements<>();
+        final Deduplicate<Object> deduplicate1 = new Deduplicate<>();
+        final Deduplicate<Object> deduplicate2 = new Deduplicate<>();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                getAllElements,
+                deduplicate1,
+                deduplicate2));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(2, ops.size());
+        assertSame(deduplicate1, ops.get(1));
+    }
+
+    @Test
+    public void shouldMergeDeduplicatesKeepingSmallerMaxItemsInMemory() {
+        // Given
+        final GetAllElements<?> getAllElements = new GetAllElements<>();
+        final Deduplicate<Object> deduplicate1 = new Deduplicate.Builder<>()
+                .maxItemsInMemory(100)
+                .build();
+        final Deduplicate<Object> deduplicate2 = new Deduplicate.Builder<>()
+                .maxItemsInMemory(10)
+                .build();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                getAllElements,
+                deduplicate1,
+                deduplicate2));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(2, ops.size());
+        assertEquals(10, (int) ((Deduplicate<?>) ops.get(1)).getMaxItemsInMemory());
+        assertEquals(100, (int) deduplicate1.getMaxItemsInMemory());
+    }
+
+    @Test
+    public void shouldMergeUnboundedDeduplicateWithBoundedDeduplicate() {
+        // Given
+        final GetAllElements<?> getAllElements = new GetAllElements<>();
+        final Deduplicate<Object> deduplicate1 = new Deduplicate<>();
+        final Deduplicate<Object> deduplicate2 = new Deduplicate.Builder<>()
+                .maxItemsInMemory(10)
+                .build();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                getAllElements,
+                deduplicate1,
+                deduplicate2));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(2, ops.size());
+        assertEquals(10, (int) ((Deduplicate<?>) ops.get(1)).getMaxItemsInMemory());
+    }
+
+    @Test
+    public void shouldReplaceGetOperationThatCannotMatchAnyGroupWithEmptyResult() {
+        // Given
+        final GetElements<?, ?> getElements = new GetElements.Builder<>()
+                .view(new View.Builder()
+                        .entity(ENTITY_GROUP)
+                        .build())
+                .includeEntities(false)
+                .build();
+        final OperationChain<?> opChain = new OperationChain<>(getElements);
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(1, ops.size());
+        final Limit<?> limit = (Limit<?>) ops.get(0);
+        assertEquals(0, (int) limit.getResultLimit());
+        assertNotNull(limit.getInput());
+        assertFalse(limit.getInput().iterator().hasNext());
+    }
+
+    @Test
+    public void shouldNotReplaceGetOperationThatCanMatchAGroup() {
+        // Given
+        final GetElements<?, ?> getEntities = new GetElements.Builder<>()
+                .view(new View.Builder()
+                        .entity(ENTITY_GROUP)
+                        .build())
+                .includeEdges(IncludeEdgeType.NONE)
+                .build();
+        final GetElements<?, ?> getWithEmptyView = new GetElements.Builder<>()
+                .view(new View())
+                .includeEntities(false)
+                .build();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                getEntities,
+                getWithEmptyView));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(2, ops.size());
+        assertSame(getEntities, ops.get(0));
+        assertSame(getWithEmptyView, ops.get(1));
+    }
+
+    @Test
+    public void shouldFoldLimitIntoCopyOfGetOperation() {
+        // Given
+        final CloseableIterable<EntitySeed> seeds = new UnreadableSeeds();
+        final GetElements<EntitySeed, ?> getElements = new GetElements.Builder<EntitySeed, Element>()
+                .seeds(seeds)
+                .view(new View.Builder()
+                        .entity(ENTITY_GROUP)
+                        .build())
+                .option("key", "value")
+                .build();
+        final Limit<Object> limit = new Limit.Builder<>().limitResults(5).build();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                getElements,
+                limit));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(2, ops.size());
+        final GetElements<?, ?> optimisedGetElements = (GetElements<?, ?>) ops.get(0);
+        assertNotSame(getElements, optimisedGetElements);
+        assertEquals(5, (int) optimisedGetElements.getResultLimit());
+        assertSame(seeds, optimisedGetElements.getSeeds());
+        assertEquals(getElements.getView().getEntityGroups(), optimisedGetElements.getView().getEntityGroups());
+        assertEquals("value", optimisedGetElements.getOption("key"));
+        assertSame(limit, ops.get(1));
+        assertNull(getElements.getResultLimit());
+    }
+
+    @Test
+    public void shouldNotPopulatePropertiesOnCopyOfGetOperationWhenResultsAreOnlyCounted() {
+        // Given
+        final GetAllElements<?> getAllElements = new GetAllElements<>();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                getAllElements,
+                new Limit.Builder<>().limitResults(5).build(),
+                new CountGroups()));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertFalse(((GetAllElements<?>) ops.get(0)).isPopulateProperties());
+        assertTrue(getAllElements.isPopulateProperties());
+    }
+
+    @Test
+    public void shouldPopulatePropertiesWhenResultsAreReturned() {
+        // Given
+        final GetAllElements<?> getAllElements = new GetAllElements<>();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                getAllElements,
+                new Deduplicate<>()));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertSame(getAllElements, ops.get(0));
+    }
+
+    @Test
+    public void shouldMergeDeduplicatedAdjacentEntitySeedHopsIntoTraverseHops() {
+        // Given
+        given(store.isSupported(TraverseHops.class)).willReturn(true);
+        final CloseableIterable<EntitySeed> seeds = new UnreadableSeeds();
+        final View view1 = new View.Builder()
+                .edge(EDGE_GROUP)
+                .build();
+        final View view2 = new View.Builder()
+                .edge(EDGE_GROUP)
+                .entity(ENTITY_GROUP)
+                .build();
+        final GetAdjacentEntitySeeds hop1 = new GetAdjacentEntitySeeds.Builder()
+                .seeds(seeds)
+                .view(view1)
+                .inOutType(IncludeIncomingOutgoingType.OUTGOING)
+                .build();
+        final GetAdjacentEntitySeeds hop2 = new GetAdjacentEntitySeeds.Builder()
+                .view(view2)
+                .inOutType(IncludeIncomingOutgoingType.OUTGOING)
+                .build();
+        final Deduplicate<Object> deduplicate = new Deduplicate<>();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                hop1,
+                hop2,
+                deduplicate));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(2, ops.size());
+        final TraverseHops traverseHops = (TraverseHops) ops.get(0);
+        assertSame(seeds, traverseHops.getSeeds());
+        assertEquals(2, traverseHops.getHops());
+        assertEquals(view1.getGroups(), traverseHops.getHopView(0).getGroups());
+        assertEquals(view2.getGroups(), traverseHops.getHopView(1).getGroups());
+        assertFalse(traverseHops.isExcludeVisited());
+        assertEquals(IncludeIncomingOutgoingType.OUTGOING, traverseHops.getIncludeIncomingOutGoing());
+        assertSame(deduplicate, ops.get(1));
+    }
+
+    @Test
+    public void shouldNotMergeAdjacentEntitySeedHopsWhenResultsAreNotDeduplicated() {
+        // Given
+        given(store.isSupported(TraverseHops.class)).willReturn(true);
+        final GetAdjacentEntitySeeds hop1 = new GetAdjacentEntitySeeds.Builder()
+                .addSeed(new EntitySeed("A"))
+                .build();
+        final GetAdjacentEntitySeeds hop2 = new GetAdjacentEntitySeeds();
+        final OperationChain<?> opChain = new OperationChain<>(Arrays.asList(
+                hop1,
+                hop2));
+
+        // When
+        final List<Operation> ops = optimiser.optimise(opChain).getOperations();
+
+        // Then
+        assertEquals(Arrays.asList(hop1, hop2), ops);
+    }
+
+    private static final class UnreadableSeeds implements CloseableIterable<EntitySeed> {
+        @Override
+        public CloseableIterator<EntitySeed> iterator() {
+            throw new AssertionError("The seeds should not be read when the chain is optimised");
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.store.serialiser;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ElementStreamSerialiserTest {
+    private static final Schema SCHEMA = new Schema.Builder()
+            .type("string", new TypeDefinition.Builder()
+                    .clazz(String.class)
+                    .serialiser(new StringSerialiser())
+                    .build())
+            .type("long", new TypeDefinition.Builder()
+                    .clazz(Long.class)
+                    .serialiser(new CompactRawLongSerialiser())
+                    .build())
+            .type("true", Boolean.class)
+            .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                    .vertex("string")
+                    .property(TestPropertyNames.COUNT, "long")
+                    .build())
+            .edge(TestGroups.EDGE, new SchemaEdgeDefinition.Builder()
+                    .source("string")
+                    .destination("string")
+                    .directed("true")
+                    .property(TestPropertyNames.COUNT, "long")
+                    .build())
+            .vertexSerialiser(new StringSerialiser())
+            .build();
+
+    private final ElementStreamSerialiser serialiser = new ElementStreamSerialiser(SCHEMA);
+
+    @Test
+    public void shouldSerialiseAndDeserialiseElements() throws Exception {
+        // Given
+        final Entity entity = new Entity(TestGroups.ENTITY, "A");
+        entity.putProperty(TestPropertyNames.COUNT, 1L);
+        final Edge edge = new Edge(TestGroups.EDGE, "A", "B", true);
+        edge.putProperty(TestPropertyNames.COUNT, 2L);
+        final List<Element> elements = Arrays.asList(entity, edge);
+
+        // When
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serialiser.serialise(elements, out);
+        final List<Element> results = new ArrayList<>();
+        try (final CloseableIterable<Element> deserialised = serialiser.deserialise(new ByteArrayInputStream(out.toByteArray()))) {
+            for (final Element element : deserialised) {
+                results.add(element);
+            }
+        }
+
+        // Then
+        assertEquals(elements, results);
+    }
+
+    @Test
+    public void shouldSerialiseAndDeserialiseNoElements() throws Exception {
+        // When
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serialiser.serialise(Collections.emptyList(), out);
+        final CloseableIterable<Element> deserialised = serialiser.deserialise(new ByteArrayInputStream(out.toByteArray()));
+
+        // Then
+        assertEquals(1, out.size());
+        assertFalse(deserialised.iterator().hasNext());
+    }
+
+    @Test
+    public void shouldFailToSerialiseObjectsThatAreNotElements() throws Exception {
+        // When / Then
+        try {
+            serialiser.serialise(Collections.singletonList("not an element"), new ByteArrayOutputStream());
+            fail("Exception expected");
+        } catch (final SerialisationException e) {
+            assertEquals("Only elements can be serialised, but found: java.lang.String", e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldFailToReadTruncatedStream() throws Exception {
+        // Given
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serialiser.serialise(Collections.singletonList(new Entity(TestGroups.ENTITY, "A")), out);
+        final byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+
+        // When
+        final CloseableIterable<Element> deserialised = serialiser.deserialise(new ByteArrayInputStream(truncated));
+        final Iterator<Element> itr = deserialised.iterator();
+        itr.next();
+
+        // Then
+        try {
+            itr.hasNext();
+            fail("Exception expected");
+        } catch (final RuntimeException e) {
+            assertTrue(e.getMessage().startsWith("Unable to read element stream"));
+        }
+    }
+}
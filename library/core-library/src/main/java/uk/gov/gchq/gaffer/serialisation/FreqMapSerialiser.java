@@ -22,8 +22,8 @@ import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSeriali
 import uk.gov.gchq.gaffer.types.FreqMap;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
-import java.util.Arrays;
 import java.util.Map.Entry;
 import java.util.Set;
 
@@ -37,52 +37,62 @@ public class FreqMapSerialiser implements Serialisation<FreqMap> {
 
     @Override
     public byte[] serialise(final FreqMap map) throws SerialisationException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serialise(map, out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public void serialise(final FreqMap map, final OutputStream out) throws SerialisationException {
         Set<Entry<String, Long>> entrySet = map.entrySet();
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         boolean isFirst = true;
         for (final Entry<String, Long> entry : entrySet) {
             if (entry.getKey() != null && entry.getValue() != null) {
-                if (isFirst) {
-                    isFirst = false;
-                } else {
-                    out.write(ByteArrayEscapeUtils.DELIMITER);
-                }
-
                 try {
+                    if (isFirst) {
+                        isFirst = false;
+                    } else {
+                        out.write(ByteArrayEscapeUtils.DELIMITER);
+                    }
                     out.write(ByteArrayEscapeUtils.escape(entry.getKey().getBytes(CommonConstants.UTF_8)));
                 } catch (final IOException e) {
                     throw new SerialisationException("Failed to serialise a key from a FreqMap: " + entry.getKey(), e);
                 }
-                out.write(ByteArrayEscapeUtils.DELIMITER);
 
                 try {
+                    out.write(ByteArrayEscapeUtils.DELIMITER);
                     out.write(ByteArrayEscapeUtils.escape(longSerialiser.serialise(entry.getValue())));
                 } catch (final IOException e) {
                     throw new SerialisationException("Failed to serialise a value from a FreqMap: " + entry.getValue(), e);
                 }
             }
         }
-
-        return out.toByteArray();
     }
 
     @Override
     public FreqMap deserialise(final byte[] bytes) throws
             SerialisationException {
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public FreqMap deserialise(final byte[] bytes, final int offset, final int length) throws
+            SerialisationException {
         FreqMap freqMap = new FreqMap();
-        if (bytes.length == 0) {
+        if (length == 0) {
             return freqMap;
         }
 
-        int lastDelimiter = 0;
+        final int end = offset + length;
+        int lastDelimiter = offset;
         String key = null;
-        for (int i = 0; i < bytes.length; i++) {
+        for (int i = offset; i < end; i++) {
             if (bytes[i] == ByteArrayEscapeUtils.DELIMITER) {
                 if (null == key) {
                     // Deserialise key
                     if (i > lastDelimiter) {
                         try {
-                            key = new String(ByteArrayEscapeUtils.unEscape(Arrays.copyOfRange(bytes, lastDelimiter, i)), CommonConstants.UTF_8);
+                            key = new String(ByteArrayEscapeUtils.unEscape(bytes, lastDelimiter, i - lastDelimiter), CommonConstants.UTF_8);
                         } catch (UnsupportedEncodingException e) {
                             throw new SerialisationException("Failed to deserialise a key from a FreqMap", e);
                         }
@@ -92,7 +102,7 @@ public class FreqMapSerialiser implements Serialisation<FreqMap> {
                 } else {
                     // Deserialise value
                     if (i > lastDelimiter) {
-                        final Long value = longSerialiser.deserialise(ByteArrayEscapeUtils.unEscape(Arrays.copyOfRange(bytes, lastDelimiter, i)));
+                        final Long value = longSerialiser.deserialise(ByteArrayEscapeUtils.unEscape(bytes, lastDelimiter, i - lastDelimiter));
                         freqMap.put(key, value);
                         key = null;
                     }
@@ -104,8 +114,8 @@ public class FreqMapSerialiser implements Serialisation<FreqMap> {
 
         if (null != key) {
             // Deserialise value
-            if (bytes.length > lastDelimiter) {
-                final Long value = longSerialiser.deserialise(ByteArrayEscapeUtils.unEscape(Arrays.copyOfRange(bytes, lastDelimiter, bytes.length)));
+            if (end > lastDelimiter) {
+                final Long value = longSerialiser.deserialise(ByteArrayEscapeUtils.unEscape(bytes, lastDelimiter, end - lastDelimiter));
                 freqMap.put(key, value);
             }
         }
@@ -18,7 +18,9 @@ package uk.gov.gchq.gaffer.serialisation;
 import org.junit.Test;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.types.FreqMap;
+import java.io.ByteArrayOutputStream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -51,6 +53,38 @@ public class FreqMapSerialiserTest extends SerialisationTest<FreqMap> {
         assertEquals((Long) 20L, deserialised.get("z"));
     }
 
+    @Test
+    public void shouldDeserialiseFreqMapFromRangeOfBytes() throws SerialisationException {
+        // Given
+        final FreqMap freqMap = new FreqMap();
+        freqMap.put("x", 10L);
+        freqMap.put("y", 5L);
+        final byte[] serialised = serialiser.serialise(freqMap);
+        final byte[] padded = new byte[serialised.length + 6];
+        System.arraycopy(serialised, 0, padded, 3, serialised.length);
+
+        // When
+        final FreqMap deserialised = serialiser.deserialise(padded, 3, serialised.length);
+
+        // Then
+        assertEquals(freqMap, deserialised);
+    }
+
+    @Test
+    public void shouldSerialiseFreqMapToOutputStream() throws SerialisationException {
+        // Given
+        final FreqMap freqMap = new FreqMap();
+        freqMap.put("x", 10L);
+        freqMap.put("y", 5L);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        serialiser.serialise(freqMap, out);
+
+        // Then
+        assertArrayEquals(serialiser.serialise(freqMap), out.toByteArray());
+    }
+
     @Test
     public void shouldSerialiseDeserialiseFreqMapWithAnEmptyKey() throws SerialisationException {
         // Given
@@ -69,7 +69,7 @@ public class JcsJobTrackerIT {
         expectedJobDetail.setStartTime(jobDetails.getStartTime());
 
         int count = 0;
-        while (JobStatus.RUNNING == jobDetails.getStatus() && ++count < 20) {
+        while ((JobStatus.QUEUED == jobDetails.getStatus() || JobStatus.RUNNING == jobDetails.getStatus()) && ++count < 20) {
             Thread.sleep(100);
             jobDetails = graph.execute(new GetJobDetails.Builder()
                     .jobId(jobId)
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.frequencies.serialisation;
 
+import com.yahoo.memory.MemoryRegion;
 import com.yahoo.memory.NativeMemory;
 import com.yahoo.sketches.frequencies.LongsSketch;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
@@ -39,7 +40,12 @@ public class LongsSketchSerialiser implements Serialisation<LongsSketch> {
 
     @Override
     public LongsSketch deserialise(final byte[] bytes) throws SerialisationException {
-        return LongsSketch.getInstance(new NativeMemory(bytes));
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public LongsSketch deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        return LongsSketch.getInstance(new MemoryRegion(new NativeMemory(bytes), offset, length));
     }
 
     @Override
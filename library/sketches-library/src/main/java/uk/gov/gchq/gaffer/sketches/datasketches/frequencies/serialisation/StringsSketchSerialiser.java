@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.frequencies.serialisation;
 
+import com.yahoo.memory.MemoryRegion;
 import com.yahoo.memory.NativeMemory;
 import com.yahoo.sketches.ArrayOfStringsSerDe;
 import com.yahoo.sketches.frequencies.ItemsSketch;
@@ -41,7 +42,12 @@ public class StringsSketchSerialiser implements Serialisation<ItemsSketch<String
 
     @Override
     public ItemsSketch<String> deserialise(final byte[] bytes) throws SerialisationException {
-        return ItemsSketch.getInstance(new NativeMemory(bytes), SERIALISER);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public ItemsSketch<String> deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        return ItemsSketch.getInstance(new MemoryRegion(new NativeMemory(bytes), offset, length), SERIALISER);
     }
 
     @Override
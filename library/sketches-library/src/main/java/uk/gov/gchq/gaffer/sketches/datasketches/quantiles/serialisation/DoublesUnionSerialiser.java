@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.quantiles.serialisation;
 
+import com.yahoo.memory.MemoryRegion;
 import com.yahoo.memory.NativeMemory;
 import com.yahoo.sketches.quantiles.DoublesUnion;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
@@ -39,8 +40,13 @@ public class DoublesUnionSerialiser implements Serialisation<DoublesUnion> {
 
     @Override
     public DoublesUnion deserialise(final byte[] bytes) throws SerialisationException {
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public DoublesUnion deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
         final DoublesUnion union = DoublesUnion.builder().build();
-        union.update(new NativeMemory(bytes));
+        union.update(new MemoryRegion(new NativeMemory(bytes), offset, length));
         return union;
     }
 
@@ -16,6 +16,7 @@
 package uk.gov.gchq.gaffer.sketches.datasketches.quantiles.serialisation;
 
 import com.google.common.collect.Ordering;
+import com.yahoo.memory.MemoryRegion;
 import com.yahoo.memory.NativeMemory;
 import com.yahoo.sketches.ArrayOfStringsSerDe;
 import com.yahoo.sketches.quantiles.ItemsUnion;
@@ -45,7 +46,12 @@ public class StringsUnionSerialiser implements Serialisation<ItemsUnion<String>>
 
     @Override
     public ItemsUnion<String> deserialise(final byte[] bytes) throws SerialisationException {
-       return ItemsUnion.getInstance(new NativeMemory(bytes), Ordering.<String>natural(), SERIALISER);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public ItemsUnion<String> deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        return ItemsUnion.getInstance(new MemoryRegion(new NativeMemory(bytes), offset, length), Ordering.<String>natural(), SERIALISER);
     }
 
     @Override
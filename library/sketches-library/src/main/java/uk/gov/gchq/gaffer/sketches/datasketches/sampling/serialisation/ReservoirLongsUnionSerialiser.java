@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.sampling.serialisation;
 
+import com.yahoo.memory.MemoryRegion;
 import com.yahoo.memory.NativeMemory;
 import com.yahoo.sketches.sampling.ReservoirLongsUnion;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
@@ -39,7 +40,12 @@ public class ReservoirLongsUnionSerialiser implements Serialisation<ReservoirLon
 
     @Override
     public ReservoirLongsUnion deserialise(final byte[] bytes) throws SerialisationException {
-        return ReservoirLongsUnion.getInstance(new NativeMemory(bytes));
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public ReservoirLongsUnion deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        return ReservoirLongsUnion.getInstance(new MemoryRegion(new NativeMemory(bytes), offset, length));
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.sampling.serialisation;
 
+import com.yahoo.memory.MemoryRegion;
 import com.yahoo.memory.NativeMemory;
 import com.yahoo.sketches.ArrayOfStringsSerDe;
 import com.yahoo.sketches.sampling.ReservoirItemsUnion;
@@ -41,7 +42,12 @@ public class ReservoirStringsUnionSerialiser implements Serialisation<ReservoirI
 
     @Override
     public ReservoirItemsUnion<String> deserialise(final byte[] bytes) throws SerialisationException {
-        return ReservoirItemsUnion.getInstance(new NativeMemory(bytes), SERIALISER);
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public ReservoirItemsUnion<String> deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
+        return ReservoirItemsUnion.getInstance(new MemoryRegion(new NativeMemory(bytes), offset, length), SERIALISER);
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.gaffer.sketches.datasketches.theta.serialisation;
 
+import com.yahoo.memory.MemoryRegion;
 import com.yahoo.memory.NativeMemory;
 import com.yahoo.sketches.theta.Sketch;
 import com.yahoo.sketches.theta.Sketches;
@@ -41,8 +42,13 @@ public class UnionSerialiser implements Serialisation<Union> {
 
     @Override
     public Union deserialise(final byte[] bytes) throws SerialisationException {
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Union deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
         final Union union = Sketches.setOperationBuilder().buildUnion();
-        union.update(Sketch.heapify(new NativeMemory(bytes)));
+        union.update(Sketch.heapify(new MemoryRegion(new NativeMemory(bytes), offset, length)));
         return union;
     }
 
@@ -18,6 +18,8 @@ package uk.gov.gchq.gaffer.sketches.serialisation;
 import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.serialisation.Serialisation;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 
 public class HyperLogLogPlusSerialiser implements Serialisation<HyperLogLogPlus> {
@@ -39,8 +41,13 @@ public class HyperLogLogPlusSerialiser implements Serialisation<HyperLogLogPlus>
 
     @Override
     public HyperLogLogPlus deserialise(final byte[] bytes) throws SerialisationException {
+        return deserialise(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public HyperLogLogPlus deserialise(final byte[] bytes, final int offset, final int length) throws SerialisationException {
         try {
-            return HyperLogLogPlus.Builder.build(bytes);
+            return HyperLogLogPlus.Builder.build(new DataInputStream(new ByteArrayInputStream(bytes, offset, length)));
         } catch (final IOException e) {
             throw new RuntimeException("Failed to create HyperLogLogPlus sketch from given bytes", e);
         }
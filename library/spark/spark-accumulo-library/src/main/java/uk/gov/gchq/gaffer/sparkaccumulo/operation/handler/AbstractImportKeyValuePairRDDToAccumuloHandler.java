@@ -15,7 +15,9 @@
  */
 package uk.gov.gchq.gaffer.sparkaccumulo.operation.handler;
 
+import org.apache.accumulo.core.data.Key;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.spark.api.java.JavaRDD;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.operation.hdfs.operation.ImportAccumuloKeyValueFiles;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
@@ -29,11 +31,23 @@ import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.List;
 
 public abstract class AbstractImportKeyValuePairRDDToAccumuloHandler<T extends VoidOutput<?>> implements OperationHandler<T, Void> {
+    /**
+     * Option to divide each tablet into sub-bins using split points sampled from this fraction of the row keys.
+     */
+    public static final String SUB_BIN_SAMPLE_FRACTION = "subBinSampleFraction";
+    /**
+     * Option for the maximum number of sub-bins each tablet is divided into when sampling.
+     */
+    public static final String NUM_SUB_BINS = "numSubBins";
+    public static final int DEFAULT_NUM_SUB_BINS = 4;
 
     protected abstract void prepareKeyValues(final T operation, final AccumuloKeyRangePartitioner partitioner) throws OperationException;
 
+    protected abstract JavaRDD<Key> getKeys(final T operation);
+
     protected abstract String getFailurePath(final T operation);
 
     protected abstract String getOutputPath(final T operation);
@@ -54,7 +68,7 @@ public abstract class AbstractImportKeyValuePairRDDToAccumuloHandler<T extends V
             throw new OperationException("Option failurePath must be set for this option to be run against the accumulostore");
         }
 
-        prepareKeyValues(operation, new AccumuloKeyRangePartitioner(store));
+        prepareKeyValues(operation, createPartitioner(operation, store));
 
         final ImportAccumuloKeyValueFiles importAccumuloKeyValueFiles =
                 new ImportAccumuloKeyValueFiles.Builder()
@@ -64,6 +78,29 @@ public abstract class AbstractImportKeyValuePairRDDToAccumuloHandler<T extends V
         store._execute(new OperationChain<>(importAccumuloKeyValueFiles), context);
     }
 
+    private AccumuloKeyRangePartitioner createPartitioner(final T operation, final AccumuloStore store) throws OperationException {
+        final JavaRDD<Key> keys = getKeys(operation);
+        final String sampleFraction = operation.getOption(SUB_BIN_SAMPLE_FRACTION);
+        if (null == sampleFraction) {
+            return new AccumuloKeyRangePartitioner(keys.context(), store);
+        }
+
+        final double fraction;
+        final int numSubBins;
+        try {
+            fraction = Double.parseDouble(sampleFraction);
+            final String numSubBinsOption = operation.getOption(NUM_SUB_BINS);
+            numSubBins = null != numSubBinsOption ? Integer.parseInt(numSubBinsOption) : DEFAULT_NUM_SUB_BINS;
+        } catch (final NumberFormatException e) {
+            throw new OperationException("Options " + SUB_BIN_SAMPLE_FRACTION + " and " + NUM_SUB_BINS + " must be numbers", e);
+        }
+
+        final List<byte[]> sampleRows = keys.sample(false, fraction)
+                .map(key -> key.getRowData().toArray())
+                .collect();
+        return new AccumuloKeyRangePartitioner(keys.context(), store, sampleRows, numSubBins);
+    }
+
     protected Configuration getConfiguration(final T operation) throws OperationException {
         final Configuration conf = new Configuration();
         final String serialisedConf = operation.getOption(AbstractGetRDDHandler.HADOOP_CONFIGURATION_KEY);
@@ -30,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.spark.operation.dataframe.ClassTagConstants;
 import uk.gov.gchq.gaffer.spark.operation.dataframe.ConvertElementToRow;
@@ -58,9 +59,9 @@ import java.util.Map;
  * <p>
  * <code>AccumuloStoreRelation</code> implements the {@link PrunedScan} interface which allows all {@link Element}s
  * of the specified groups to be returned to the <code>DataFrame</code> but with only the specified columns returned.
- * Currently, {@link AccumuloStore} does not allow projection of properties in the tablet server, so this projection
- * is performed within the Spark executors, rather than in Accumulo's tablet servers. Once {@link AccumuloStore}
- * supports this projection in the tablet servers, then this will become more efficient.
+ * The required columns are added to the {@link View} as the properties to return, so properties that are not
+ * required are not deserialised from the Accumulo values. Currently, {@link AccumuloStore} does not allow projection
+ * of properties in the tablet server, so the values are still sent to the Spark executors in full.
  * <p>
  * <code>AccumuloStoreRelation</code> implements the {@link PrunedFilteredScan} interface which allows only
  * {@link Element}s that match the the provided {@link Filter}s to be returned. The majority of these are implemented
@@ -68,7 +69,7 @@ import java.util.Map;
  * the data is sent to a Spark executor). If a {@link Filter} is specified that specifies either the vertex in an
  * <code>Entity</code> or either the source or destination vertex in an <code>Edge</code> then this is applied by
  * using the appropriate range scan on Accumulo. Queries against this <code>DataFrame</code> that do this should be
- * very quick.
+ * very quick. Spark only re-applies the {@link Filter}s that are reported by {@link #unhandledFilters(Filter[])}.
  */
 public class AccumuloStoreRelation extends BaseRelation implements TableScan, PrunedScan, PrunedFilteredScan {
 
@@ -136,8 +137,8 @@ public class AccumuloStoreRelation extends BaseRelation implements TableScan, Pr
      * Creates a <code>DataFrame</code> of all {@link Element}s from the specified groups with columns that are not
      * required filtered out.
      * <p>
-     * Currently this does not push the projection down to the store (i.e. it should be implemented in an iterator,
-     * not in the transform). Issue 320 refers to this.
+     * The required columns are added to the view so that the other properties are not deserialised. The projection
+     * is not applied in Accumulo's tablet servers. Issue 320 refers to this.
      *
      * @param requiredColumns The columns to return.
      * @return An {@link RDD} of {@link Row}s containing the requested columns.
@@ -148,7 +149,7 @@ public class AccumuloStoreRelation extends BaseRelation implements TableScan, Pr
             LOGGER.info("Building scan with required columns: {}", StringUtils.join(requiredColumns, ','));
             LOGGER.info("Building GetRDDOfAllElements with view set to groups {}", StringUtils.join(groups, ','));
             final GetRDDOfAllElements operation = new GetRDDOfAllElements(sqlContext.sparkContext());
-            operation.setView(view);
+            operation.setView(getProjectedView(view, requiredColumns));
             final RDD<Element> rdd = store.execute(operation, user);
             return rdd.map(new ConvertElementToRow(new LinkedHashSet<>(Arrays.asList(requiredColumns)),
                             propertyNeedsConversion, converterByProperty),
@@ -163,11 +164,12 @@ public class AccumuloStoreRelation extends BaseRelation implements TableScan, Pr
      * Creates a <code>DataFrame</code> of all {@link Element}s from the specified groups with columns that are not
      * required filtered out and with (some of) the supplied {@link Filter}s applied.
      * <p>
-     * Note that Spark also applies the provided {@link Filter}s - applying them here is an optimisation to reduce
-     * the amount of data transferred from the store to Spark's executors (this is known as "predicate pushdown").
+     * Note that Spark also applies the provided {@link Filter}s that are returned by
+     * {@link #unhandledFilters(Filter[])} - applying the others here is an optimisation to reduce the amount of data
+     * transferred from the store to Spark's executors (this is known as "predicate pushdown").
      * <p>
-     * Currently this does not push the projection down to the store (i.e. it should be implemented in an iterator,
-     * not in the transform). Issue 320 refers to this.
+     * The required columns are added to the view so that the other properties are not deserialised. The projection
+     * is not applied in Accumulo's tablet servers. Issue 320 refers to this.
      *
      * @param requiredColumns The columns to return.
      * @param filters         The {@link Filter}s to apply (these are applied before aggregation).
@@ -186,6 +188,7 @@ public class AccumuloStoreRelation extends BaseRelation implements TableScan, Pr
             // and there is no group X in the schema).
             return sqlContext.emptyDataFrame().rdd();
         }
+        operation.setView(getProjectedView(operation.getView(), requiredColumns));
         try {
             final RDD<Element> rdd = store.execute(operation, user);
             return rdd.map(new ConvertElementToRow(new LinkedHashSet<>(Arrays.asList(requiredColumns)),
@@ -197,4 +200,38 @@ public class AccumuloStoreRelation extends BaseRelation implements TableScan, Pr
         }
     }
 
+    /**
+     * Returns the {@link Filter}s that are not fully applied by {@link #buildScan(String[], Filter[])}, so that Spark
+     * does not re-evaluate the filters that have already been applied by Gaffer.
+     *
+     * @param filters The {@link Filter}s that Spark would like to push down.
+     * @return The {@link Filter}s that Spark must still apply.
+     */
+    @Override
+    public Filter[] unhandledFilters(final Filter[] filters) {
+        return new FiltersToOperationConverter(sqlContext, view, store.getSchema(), filters)
+                .getUnhandledFilters(propertyNeedsConversion);
+    }
+
+    private View getProjectedView(final View view, final String[] requiredColumns) {
+        final View expandedView = view.clone();
+        expandedView.expandGlobalDefinitions();
+        View.Builder builder = new View.Builder();
+        for (final Map.Entry<String, ViewElementDefinition> entry : expandedView.getEntities().entrySet()) {
+            builder = builder.entity(entry.getKey(), getProjectedElementDefinition(entry.getValue(), requiredColumns));
+        }
+        for (final Map.Entry<String, ViewElementDefinition> entry : expandedView.getEdges().entrySet()) {
+            builder = builder.edge(entry.getKey(), getProjectedElementDefinition(entry.getValue(), requiredColumns));
+        }
+        return builder.build();
+    }
+
+    private ViewElementDefinition getProjectedElementDefinition(final ViewElementDefinition elementDef,
+                                                                final String[] requiredColumns) {
+        return new ViewElementDefinition.Builder()
+                .merge(elementDef)
+                .properties(requiredColumns)
+                .build();
+    }
+
 }
@@ -55,6 +55,8 @@ public class ImportJavaRDDOfElementsHandler implements OperationHandler<ImportJa
         final ElementConverterFunction func = new ElementConverterFunction(broadcast);
         final JavaPairRDD<Key, Value> rdd = operation.getInput().flatMapToPair(func);
         final ImportKeyValueJavaPairRDDToAccumulo op = new ImportKeyValueJavaPairRDDToAccumulo.Builder().input(rdd).failurePath(failurePath).outputPath(outputPath).build();
+        // Pass on the options, such as those for partitioning the key value pairs
+        op.getOptions().putAll(operation.getOptions());
         store._execute(new OperationChain<>(op), context);
     }
 }
@@ -19,6 +19,7 @@ import org.apache.accumulo.core.client.mapreduce.AccumuloFileOutputFormat;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.sparkaccumulo.operation.handler.AbstractImportKeyValuePairRDDToAccumuloHandler;
 import uk.gov.gchq.gaffer.sparkaccumulo.operation.javardd.ImportKeyValueJavaPairRDDToAccumulo;
@@ -31,6 +32,11 @@ public class ImportKeyValueJavaPairRDDToAccumuloHandler extends AbstractImportKe
         rdd.saveAsNewAPIHadoopFile(operation.getOutputPath(), Key.class, Value.class, AccumuloFileOutputFormat.class, getConfiguration(operation));
     }
 
+    @Override
+    protected JavaRDD<Key> getKeys(final ImportKeyValueJavaPairRDDToAccumulo operation) {
+        return operation.getInput().keys();
+    }
+
     @Override
     protected String getFailurePath(final ImportKeyValueJavaPairRDDToAccumulo operation) {
         return operation.getFailurePath();
@@ -18,6 +18,7 @@ package uk.gov.gchq.gaffer.sparkaccumulo.operation.handler.scalardd;
 import org.apache.accumulo.core.client.mapreduce.AccumuloFileOutputFormat;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
+import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.rdd.OrderedRDDFunctions;
 import org.apache.spark.rdd.PairRDDFunctions;
 import scala.Tuple2;
@@ -42,6 +43,11 @@ public class ImportKeyValuePairRDDToAccumuloHandler extends AbstractImportKeyVal
         pairRDDFunctions.saveAsNewAPIHadoopFile(operation.getOutputPath(), Key.class, Value.class, AccumuloFileOutputFormat.class, getConfiguration(operation));
     }
 
+    @Override
+    protected JavaRDD<Key> getKeys(final ImportKeyValuePairRDDToAccumulo operation) {
+        return operation.getInput().toJavaRDD().map(keyValue -> keyValue._1());
+    }
+
     @Override
     protected String getFailurePath(final ImportKeyValuePairRDDToAccumulo operation) {
         return operation.getFailurePath();
@@ -60,6 +60,8 @@ public class ImportRDDOfElementsHandler implements OperationHandler<ImportRDDOfE
                         .failurePath(failurePath)
                         .outputPath(outputPath)
                         .build();
+        // Pass on the options, such as those for partitioning the key value pairs
+        op.getOptions().putAll(operation.getOptions());
         store._execute(new OperationChain<>(op), context);
     }
 }
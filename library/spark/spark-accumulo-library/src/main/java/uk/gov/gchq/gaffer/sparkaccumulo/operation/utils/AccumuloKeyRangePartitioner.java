@@ -19,27 +19,64 @@ import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Key;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableComparator;
 import org.apache.spark.Partitioner;
+import org.apache.spark.SparkContext;
+import org.apache.spark.broadcast.Broadcast;
+import scala.reflect.ClassTag;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.store.StoreException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * This is a spark compatible implementation of the accumulo RangePartitioner ( @link org.apache.accumulo.core.client.mapreduce.lib.partition.RangePartitioner }
+ * <p>
+ * Split points are held as byte arrays and compared to row keys as unsigned bytes, which is the order
+ * Accumulo sorts rows in, so no Strings are created when partitioning. The split points are broadcast so
+ * they are only sent to each executor once.
+ * <p>
+ * Each tablet can optionally be divided into sub-bins, either by hashing the row key or by using split points
+ * taken from a sample of the row keys. Sampled sub-bins keep each partition sorted and evenly sized when some
+ * tablets receive more data than others.
  */
 public class AccumuloKeyRangePartitioner extends Partitioner {
+    private static final long serialVersionUID = 2879530217364509184L;
+    private static final ClassTag<byte[][]> SPLITS_CLASS_TAG = scala.reflect.ClassTag$.MODULE$.apply(byte[][].class);
+    private static final Comparator<byte[]> UNSIGNED_BYTES_COMPARATOR =
+            (bytes1, bytes2) -> WritableComparator.compareBytes(bytes1, 0, bytes1.length, bytes2, 0, bytes2.length);
 
-    private static final long serialVersionUID = -5616778533667038166L;
-    private String[] splits;
+    private final Broadcast<byte[][]> splits;
     private int numSubBins = 0;
 
-    public AccumuloKeyRangePartitioner(final AccumuloStore store) throws OperationException {
-        this.splits = getSplits(store);
+    public AccumuloKeyRangePartitioner(final SparkContext sparkContext, final AccumuloStore store) throws OperationException {
+        this(sparkContext, getSplits(store));
+    }
+
+    /**
+     * Creates a partitioner that divides each tablet into sub-bins using split points taken from the sampled row keys.
+     * Tablets that have fewer sampled rows are divided into fewer sub-bins.
+     *
+     * @param sparkContext the spark context used to broadcast the split points
+     * @param store        the accumulo store
+     * @param sampleRows   a sample of the row keys that will be partitioned
+     * @param numSubBins   the maximum number of sub-bins for each tablet
+     * @throws OperationException if the split points could not be retrieved from accumulo
+     */
+    public AccumuloKeyRangePartitioner(final SparkContext sparkContext, final AccumuloStore store,
+                                       final Collection<byte[]> sampleRows, final int numSubBins) throws OperationException {
+        this(sparkContext, getSampledSplits(getSplits(store), sampleRows, numSubBins));
+    }
+
+    AccumuloKeyRangePartitioner(final SparkContext sparkContext, final byte[][] splits) {
+        this.splits = sparkContext.broadcast(splits, SPLITS_CLASS_TAG);
     }
 
     private synchronized int getNumSubBins() {
@@ -50,34 +87,94 @@ public class AccumuloKeyRangePartitioner extends Partitioner {
         return numSubBins;
     }
 
+    /**
+     * Divides each partition into sub-bins using a hash of the row key.
+     *
+     * @param numSubBins the number of sub-bins for each partition
+     */
     public synchronized void setNumSubBins(final int numSubBins) {
         this.numSubBins = numSubBins;
     }
 
     @Override
     public int numPartitions() {
-        return splits.length + 1;
+        return (splits.value().length + 1) * getNumSubBins();
     }
 
     @Override
     public int getPartition(final Object o) {
-        return findPartition(((Key) o).getRow(), getNumSubBins());
+        return findPartition(((Key) o).getRowData(), getNumSubBins());
     }
 
-    private int findPartition(final Text key, final int numSubBins) {
-        // find the bin for the range, and guarantee it is positive
-        int index = Arrays.binarySearch(splits, key.toString());
-        index = index < 0 ? (index + 1) * -1 : index;
+    private int findPartition(final ByteSequence row, final int numSubBins) {
+        final int index = findBin(splits.value(), row.getBackingArray(), row.offset(), row.length());
 
         // both conditions work with numSubBins == 1, but this check is to avoid
         // hashing, when we don't need to, for speed
         if (numSubBins < 2) {
             return index;
         }
-        return (key.toString().hashCode() & Integer.MAX_VALUE) % numSubBins + index * numSubBins;
+        final int hash = WritableComparator.hashBytes(row.getBackingArray(), row.offset(), row.length());
+        return (hash & Integer.MAX_VALUE) % numSubBins + index * numSubBins;
+    }
+
+    // The bin for a row is the index of the first split point that is not less than the row.
+    // As in accumulo, a row equal to a split point is in the bin that ends with that split point.
+    private static int findBin(final byte[][] splits, final byte[] row, final int offset, final int length) {
+        int low = 0;
+        int high = splits.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = WritableComparator.compareBytes(splits[mid], 0, splits[mid].length, row, offset, length);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return low;
+    }
+
+    // Adds split points between the tablet split points so that the sampled rows in each tablet
+    // are divided evenly between up to numSubBins bins.
+    static byte[][] getSampledSplits(final byte[][] tabletSplits, final Collection<byte[]> sampleRows, final int numSubBins) {
+        final byte[][] samples = sampleRows.toArray(new byte[sampleRows.size()][]);
+        Arrays.sort(samples, UNSIGNED_BYTES_COMPARATOR);
+
+        final List<byte[]> splits = new ArrayList<>(tabletSplits.length * Math.max(1, numSubBins));
+        int sampleIndex = 0;
+        for (int bin = 0; bin <= tabletSplits.length; bin++) {
+            final byte[] binEnd = bin < tabletSplits.length ? tabletSplits[bin] : null;
+            final int binStart = sampleIndex;
+            while (sampleIndex < samples.length
+                    && (null == binEnd || UNSIGNED_BYTES_COMPARATOR.compare(samples[sampleIndex], binEnd) <= 0)) {
+                sampleIndex++;
+            }
+
+            final int binSize = sampleIndex - binStart;
+            byte[] previous = bin > 0 ? tabletSplits[bin - 1] : null;
+            for (int i = 1; i < numSubBins; i++) {
+                final int index = binStart + (int) ((long) i * binSize / numSubBins) - 1;
+                if (index < binStart) {
+                    continue;
+                }
+                final byte[] subSplit = samples[index];
+                if ((null == previous || UNSIGNED_BYTES_COMPARATOR.compare(subSplit, previous) > 0)
+                        && (null == binEnd || UNSIGNED_BYTES_COMPARATOR.compare(subSplit, binEnd) < 0)) {
+                    splits.add(subSplit);
+                    previous = subSplit;
+                }
+            }
+            if (null != binEnd) {
+                splits.add(binEnd);
+            }
+        }
+        return splits.toArray(new byte[splits.size()][]);
     }
 
-    public static synchronized String[] getSplits(final AccumuloStore store) throws OperationException {
+    public static synchronized byte[][] getSplits(final AccumuloStore store) throws OperationException {
         final Connector connector;
         try {
             connector = store.getConnection();
@@ -88,8 +185,13 @@ public class AccumuloKeyRangePartitioner extends Partitioner {
         final String table = store.getProperties().getTable();
         try {
             final Collection<Text> splits = connector.tableOperations().listSplits(table);
-            final String[] arr = new String[splits.size()];
-            return splits.parallelStream().map(text -> text.toString()).collect(Collectors.toList()).toArray(arr);
+            final byte[][] arr = new byte[splits.size()][];
+            int i = 0;
+            for (final Text split : splits) {
+                arr[i++] = split.copyBytes();
+            }
+            Arrays.sort(arr, UNSIGNED_BYTES_COMPARATOR);
+            return arr;
         } catch (TableNotFoundException | AccumuloSecurityException | AccumuloException e) {
             throw new OperationException("Failed to get accumulo split points from table " + table, e);
         }
@@ -20,8 +20,10 @@ import org.apache.spark.SparkContext;
 import org.apache.spark.rdd.RDD;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.SQLContext;
+import org.apache.spark.sql.sources.EqualTo;
 import org.apache.spark.sql.sources.Filter;
 import org.apache.spark.sql.sources.GreaterThan;
+import org.apache.spark.sql.sources.IsNotNull;
 import org.junit.Test;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
 import uk.gov.gchq.gaffer.accumulostore.SingleUseMockAccumuloStore;
@@ -51,6 +53,7 @@ import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -233,6 +236,33 @@ public class AccumuloStoreRelationTest {
         sqlContext.sparkContext().stop();
     }
 
+    @Test
+    public void shouldOnlyReturnFiltersThatAreNotAppliedByGafferAsUnhandled() throws StoreException {
+        // Given
+        final SQLContext sqlContext = getSqlContext("shouldOnlyReturnFiltersThatAreNotAppliedByGafferAsUnhandled");
+        final Schema schema = getSchema();
+        final AccumuloProperties properties = AccumuloProperties
+                .loadStoreProperties(getClass().getResourceAsStream("/store.properties"));
+        final SingleUseMockAccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise(schema, properties);
+        final AccumuloStoreRelation relation = new AccumuloStoreRelation(sqlContext, Collections.emptyList(),
+                getViewFromSchema(schema), store, new User());
+        final Filter groupFilter = new EqualTo(SchemaToStructTypeConverter.GROUP, GetDataFrameOfElementsHandlerTest.EDGE_GROUP);
+        final Filter propertyFilter = new GreaterThan("property1", 4);
+        final Filter propertyNotNullFilter = new IsNotNull("property2");
+        final Filter propertyEqualToFilter = new EqualTo("property1", 4);
+        final Filter sourceFilter = new EqualTo(SchemaToStructTypeConverter.SRC_COL_NAME, "0");
+
+        // When
+        final Filter[] unhandledFilters = relation.unhandledFilters(new Filter[]{groupFilter, propertyFilter,
+                propertyNotNullFilter, propertyEqualToFilter, sourceFilter});
+
+        // Then
+        assertArrayEquals(new Filter[]{propertyEqualToFilter, sourceFilter}, unhandledFilters);
+
+        sqlContext.sparkContext().stop();
+    }
+
     private static Schema getSchema() {
         return Schema.fromJson(AccumuloStoreRelationTest.class.getResourceAsStream("/schema-DataFrame/dataSchema.json"),
                 AccumuloStoreRelationTest.class.getResourceAsStream("/schema-DataFrame/dataTypes.json"),
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.sparkaccumulo.operation.utils;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.hadoop.io.Text;
+import org.apache.spark.SparkConf;
+import org.apache.spark.SparkContext;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AccumuloKeyRangePartitionerTest {
+    private static SparkContext sparkContext;
+
+    @BeforeClass
+    public static void setup() {
+        final SparkConf sparkConf = new SparkConf()
+                .setMaster("local")
+                .setAppName("testAccumuloKeyRangePartitioner")
+                .set("spark.driver.allowMultipleContexts", "true");
+        sparkContext = new SparkContext(sparkConf);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        sparkContext.stop();
+        sparkContext = null;
+    }
+
+    @Test
+    public void shouldPartitionBinaryRowsInUnsignedByteOrder() {
+        // Given
+        final byte[][] splits = {{0x10}, {(byte) 0x80}};
+        final AccumuloKeyRangePartitioner partitioner = new AccumuloKeyRangePartitioner(sparkContext, splits);
+
+        // When / Then
+        assertEquals(3, partitioner.numPartitions());
+        assertEquals(0, partitioner.getPartition(new Key(new Text(new byte[]{0x05}))));
+        assertEquals(0, partitioner.getPartition(new Key(new Text(new byte[]{0x10}))));
+        assertEquals(1, partitioner.getPartition(new Key(new Text(new byte[]{0x10, 0x00}))));
+        assertEquals(1, partitioner.getPartition(new Key(new Text(new byte[]{0x7F}))));
+        assertEquals(1, partitioner.getPartition(new Key(new Text(new byte[]{(byte) 0x80}))));
+        assertEquals(2, partitioner.getPartition(new Key(new Text(new byte[]{(byte) 0x90}))));
+        assertEquals(2, partitioner.getPartition(new Key(new Text(new byte[]{(byte) 0xFF, 0x01}))));
+    }
+
+    @Test
+    public void shouldHashRowsIntoSubBinsOfTheirTablet() {
+        // Given
+        final byte[][] splits = {{'m'}};
+        final AccumuloKeyRangePartitioner partitioner = new AccumuloKeyRangePartitioner(sparkContext, splits);
+        partitioner.setNumSubBins(3);
+
+        // When / Then
+        assertEquals(6, partitioner.numPartitions());
+        for (char c = 'a'; c <= 'z'; c++) {
+            final int partition = partitioner.getPartition(new Key("" + c));
+            if (c <= 'm') {
+                assertTrue(partition >= 0 && partition < 3);
+            } else {
+                assertTrue(partition >= 3 && partition < 6);
+            }
+        }
+    }
+
+    @Test
+    public void shouldAddSampledSplitsWithinEachTablet() {
+        // Given
+        final byte[][] tabletSplits = {{'m'}};
+        final List<byte[]> sampleRows = new ArrayList<>();
+        for (char c = 'z'; c >= 'a'; c--) {
+            sampleRows.add(new byte[]{(byte) c});
+        }
+
+        // When
+        final byte[][] splits = AccumuloKeyRangePartitioner.getSampledSplits(tabletSplits, sampleRows, 2);
+
+        // Then
+        assertArrayEquals(new byte[][]{{'f'}, {'m'}, {'s'}}, splits);
+
+        final AccumuloKeyRangePartitioner partitioner = new AccumuloKeyRangePartitioner(sparkContext, splits);
+        final int[] partitionSizes = new int[partitioner.numPartitions()];
+        for (final byte[] row : sampleRows) {
+            partitionSizes[partitioner.getPartition(new Key(new Text(row)))]++;
+        }
+        assertArrayEquals(new int[]{6, 7, 6, 7}, partitionSizes);
+    }
+
+    @Test
+    public void shouldNotAddDuplicateSampledSplits() {
+        // Given
+        final byte[][] tabletSplits = {{'m'}};
+        final List<byte[]> sampleRows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sampleRows.add(new byte[]{'c'});
+        }
+
+        // When
+        final byte[][] splits = AccumuloKeyRangePartitioner.getSampledSplits(tabletSplits, sampleRows, 4);
+
+        // Then
+        assertArrayEquals(new byte[][]{{'c'}, {'m'}}, splits);
+    }
+}
@@ -113,6 +113,71 @@ public class FiltersToOperationConverter {
         return operation;
     }
 
+    /**
+     * Returns the filters that are not fully applied by the operation returned from {@link #getOperation()}, so
+     * Spark only needs to re-evaluate these filters.
+     * <p>
+     * Filters on the group are applied exactly by the groups in the view. Filters comparing a property to a value,
+     * and filters requiring a property to be non-null, are applied exactly by the post aggregation filter, unless
+     * the property is converted before being returned to Spark or a group containing the property has a
+     * transformer. All other filters are returned.
+     *
+     * @param propertyNeedsConversion a map from property name to whether the property is converted before being
+     *                                returned to Spark
+     * @return the filters that are not fully applied.
+     */
+    public Filter[] getUnhandledFilters(final Map<String, Boolean> propertyNeedsConversion) {
+        final List<Filter> unhandledFilters = new ArrayList<>();
+        for (final Filter filter : filters) {
+            if (!isGroupFilter(filter) && !isHandledPropertyFilter(filter, propertyNeedsConversion)) {
+                unhandledFilters.add(filter);
+            }
+        }
+        LOGGER.info("The following filters are not handled by Gaffer: {}", StringUtils.join(unhandledFilters, ','));
+        return unhandledFilters.toArray(new Filter[unhandledFilters.size()]);
+    }
+
+    private boolean isGroupFilter(final Filter filter) {
+        return null != checkForGroups(filter);
+    }
+
+    private boolean isHandledPropertyFilter(final Filter filter, final Map<String, Boolean> propertyNeedsConversion) {
+        final String property;
+        if (filter instanceof EqualNullSafe && null != ((EqualNullSafe) filter).value()) {
+            property = ((EqualNullSafe) filter).attribute();
+        } else if (filter instanceof GreaterThan) {
+            property = ((GreaterThan) filter).attribute();
+        } else if (filter instanceof GreaterThanOrEqual) {
+            property = ((GreaterThanOrEqual) filter).attribute();
+        } else if (filter instanceof LessThan) {
+            property = ((LessThan) filter).attribute();
+        } else if (filter instanceof LessThanOrEqual) {
+            property = ((LessThanOrEqual) filter).attribute();
+        } else if (filter instanceof In) {
+            property = ((In) filter).attribute();
+        } else if (filter instanceof IsNotNull) {
+            property = ((IsNotNull) filter).attribute();
+        } else {
+            return false;
+        }
+
+        if (!Boolean.FALSE.equals(propertyNeedsConversion.get(property))) {
+            return false;
+        }
+
+        final Set<String> groups = getGroupsThatHaveProperty(property);
+        if (groups.isEmpty()) {
+            return false;
+        }
+        for (final String group : groups) {
+            final ViewElementDefinition viewElementDef = view.getElement(group);
+            if (null != viewElementDef && null != viewElementDef.getTransformer()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private View applyGroupFilters(final View view) {
         View derivedView = View.fromJson(view.toCompactJson());
         final Set<String> groups = checkForGroups();
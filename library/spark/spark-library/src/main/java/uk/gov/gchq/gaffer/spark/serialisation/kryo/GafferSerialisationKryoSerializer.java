@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.spark.serialisation.kryo;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.Serialisation;
+
+/**
+ * A Kryo {@link Serializer} that writes objects using a Gaffer {@link Serialisation}.
+ * It is used for property types, such as sketches, that already have a compact
+ * Gaffer serialisation but would otherwise be written field by field by Kryo.
+ *
+ * @param <T> the type of object to serialise
+ */
+public class GafferSerialisationKryoSerializer<T> extends Serializer<T> {
+    private final Serialisation<T> serialisation;
+
+    public GafferSerialisationKryoSerializer(final Serialisation<T> serialisation) {
+        this.serialisation = serialisation;
+    }
+
+    @Override
+    public void write(final Kryo kryo, final Output output, final T object) {
+        final byte[] bytes;
+        try {
+            bytes = serialisation.serialise(object);
+        } catch (final SerialisationException e) {
+            throw new KryoException("Unable to serialise " + object.getClass().getName(), e);
+        }
+        output.writeVarInt(bytes.length, true);
+        output.writeBytes(bytes);
+    }
+
+    @Override
+    public T read(final Kryo kryo, final Input input, final Class<T> type) {
+        final byte[] bytes = input.readBytes(input.readVarInt(true));
+        try {
+            return serialisation.deserialise(bytes);
+        } catch (final SerialisationException e) {
+            throw new KryoException("Unable to deserialise " + type.getName(), e);
+        }
+    }
+}
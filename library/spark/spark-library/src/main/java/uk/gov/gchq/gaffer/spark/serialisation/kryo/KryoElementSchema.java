@@ -0,0 +1,305 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.spark.serialisation.kryo;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.serialisation.Serialisation;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Writes the groups and properties of elements with Kryo using the {@link Schema}.
+ * <p>
+ * Groups in the schema are written as their index in the sorted list of schema groups.
+ * The properties of a group are written in schema order without their names. Integer,
+ * long, float, double, boolean and string properties are written with the Kryo primitive
+ * encodings and other properties with the serialiser from their {@link TypeDefinition}.
+ * Groups, properties and values that do not match the schema are written in full, with
+ * their names and classes.
+ */
+final class KryoElementSchema {
+    private static final int UNKNOWN_GROUP = 0;
+    private static final byte ABSENT = 0;
+    private static final byte SCHEMA_VALUE = 1;
+    private static final byte KRYO_VALUE = 2;
+
+    private final List<String> groups = new ArrayList<>();
+    private final Map<String, Integer> groupIds = new HashMap<>();
+    private final Map<String, GroupProperties> groupProperties = new HashMap<>();
+
+    KryoElementSchema(final Schema schema) {
+        for (final String group : new TreeSet<>(schema.getGroups())) {
+            groupIds.put(group, groups.size());
+            groups.add(group);
+            groupProperties.put(group, new GroupProperties(schema.getElement(group)));
+        }
+    }
+
+    void writeGroup(final Output output, final String group) {
+        final Integer groupId = groupIds.get(group);
+        if (null == groupId) {
+            output.writeVarInt(UNKNOWN_GROUP, true);
+            output.writeString(group);
+        } else {
+            output.writeVarInt(groupId + 1, true);
+        }
+    }
+
+    String readGroup(final Input input) {
+        final int groupId = input.readVarInt(true);
+        if (UNKNOWN_GROUP == groupId) {
+            return input.readString();
+        }
+        return groups.get(groupId - 1);
+    }
+
+    void writeProperties(final Kryo kryo, final Output output, final String group, final Properties properties) {
+        final GroupProperties schemaProperties = groupProperties.get(group);
+        int numWritten = 0;
+        if (null != schemaProperties) {
+            numWritten = schemaProperties.write(kryo, output, properties);
+        }
+
+        if (numWritten == properties.size()) {
+            output.writeVarInt(0, true);
+            return;
+        }
+
+        output.writeVarInt(properties.size() - numWritten, true);
+        for (final Map.Entry<String, Object> entry : properties.entrySet()) {
+            if (null == schemaProperties || !schemaProperties.contains(entry.getKey())) {
+                output.writeString(entry.getKey());
+                kryo.writeClassAndObject(output, entry.getValue());
+            }
+        }
+    }
+
+    Properties readProperties(final Kryo kryo, final Input input, final String group) {
+        final Properties properties = new Properties();
+        final GroupProperties schemaProperties = groupProperties.get(group);
+        if (null != schemaProperties) {
+            schemaProperties.read(kryo, input, properties);
+        }
+
+        final int numOtherProperties = input.readVarInt(true);
+        for (int i = 0; i < numOtherProperties; i++) {
+            properties.put(input.readString(), kryo.readClassAndObject(input));
+        }
+        return properties;
+    }
+
+    private static final class GroupProperties {
+        private final String[] names;
+        private final PropertyCodec[] codecs;
+
+        private GroupProperties(final SchemaElementDefinition elementDef) {
+            names = elementDef.getProperties().toArray(new String[elementDef.getProperties().size()]);
+            codecs = new PropertyCodec[names.length];
+            for (int i = 0; i < names.length; i++) {
+                codecs[i] = PropertyCodec.create(elementDef.getPropertyTypeDef(names[i]));
+            }
+        }
+
+        private boolean contains(final String name) {
+            for (final String schemaName : names) {
+                if (schemaName.equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int write(final Kryo kryo, final Output output, final Properties properties) {
+            int numWritten = 0;
+            for (int i = 0; i < names.length; i++) {
+                final Object value = properties.get(names[i]);
+                if (null == value) {
+                    output.writeByte(ABSENT);
+                } else {
+                    if (null != codecs[i] && codecs[i].canWrite(value)) {
+                        output.writeByte(SCHEMA_VALUE);
+                        codecs[i].write(output, value);
+                    } else {
+                        output.writeByte(KRYO_VALUE);
+                        kryo.writeClassAndObject(output, value);
+                    }
+                    numWritten++;
+                }
+            }
+            return numWritten;
+        }
+
+        private void read(final Kryo kryo, final Input input, final Properties properties) {
+            for (int i = 0; i < names.length; i++) {
+                final byte valueType = input.readByte();
+                if (SCHEMA_VALUE == valueType) {
+                    properties.put(names[i], codecs[i].read(input));
+                } else if (KRYO_VALUE == valueType) {
+                    properties.put(names[i], kryo.readClassAndObject(input));
+                }
+            }
+        }
+    }
+
+    private abstract static class PropertyCodec {
+        private final Class<?> clazz;
+
+        protected PropertyCodec(final Class<?> clazz) {
+            this.clazz = clazz;
+        }
+
+        private static PropertyCodec create(final TypeDefinition typeDef) {
+            if (null == typeDef || null == typeDef.getClazz()) {
+                return null;
+            }
+
+            final Class<?> clazz = typeDef.getClazz();
+            if (Integer.class.equals(clazz)) {
+                return new PropertyCodec(clazz) {
+                    @Override
+                    protected void write(final Output output, final Object value) {
+                        output.writeVarInt((Integer) value, false);
+                    }
+
+                    @Override
+                    protected Object read(final Input input) {
+                        return input.readVarInt(false);
+                    }
+                };
+            }
+            if (Long.class.equals(clazz)) {
+                return new PropertyCodec(clazz) {
+                    @Override
+                    protected void write(final Output output, final Object value) {
+                        output.writeVarLong((Long) value, false);
+                    }
+
+                    @Override
+                    protected Object read(final Input input) {
+                        return input.readVarLong(false);
+                    }
+                };
+            }
+            if (Double.class.equals(clazz)) {
+                return new PropertyCodec(clazz) {
+                    @Override
+                    protected void write(final Output output, final Object value) {
+                        output.writeDouble((Double) value);
+                    }
+
+                    @Override
+                    protected Object read(final Input input) {
+                        return input.readDouble();
+                    }
+                };
+            }
+            if (Float.class.equals(clazz)) {
+                return new PropertyCodec(clazz) {
+                    @Override
+                    protected void write(final Output output, final Object value) {
+                        output.writeFloat((Float) value);
+                    }
+
+                    @Override
+                    protected Object read(final Input input) {
+                        return input.readFloat();
+                    }
+                };
+            }
+            if (Boolean.class.equals(clazz)) {
+                return new PropertyCodec(clazz) {
+                    @Override
+                    protected void write(final Output output, final Object value) {
+                        output.writeBoolean((Boolean) value);
+                    }
+
+                    @Override
+                    protected Object read(final Input input) {
+                        return input.readBoolean();
+                    }
+                };
+            }
+            if (String.class.equals(clazz)) {
+                return new PropertyCodec(clazz) {
+                    @Override
+                    protected void write(final Output output, final Object value) {
+                        output.writeString((String) value);
+                    }
+
+                    @Override
+                    protected Object read(final Input input) {
+                        return input.readString();
+                    }
+                };
+            }
+            if (null != typeDef.getSerialiser()) {
+                return new SerialisationCodec(clazz, typeDef.getSerialiser());
+            }
+
+            return null;
+        }
+
+        private boolean canWrite(final Object value) {
+            return clazz.isInstance(value);
+        }
+
+        protected abstract void write(final Output output, final Object value);
+
+        protected abstract Object read(final Input input);
+    }
+
+    private static final class SerialisationCodec extends PropertyCodec {
+        private final Serialisation serialisation;
+
+        private SerialisationCodec(final Class<?> clazz, final Serialisation serialisation) {
+            super(clazz);
+            this.serialisation = serialisation;
+        }
+
+        @Override
+        protected void write(final Output output, final Object value) {
+            final byte[] bytes;
+            try {
+                bytes = serialisation.serialise(value);
+            } catch (final SerialisationException e) {
+                throw new KryoException("Unable to serialise property value of class " + value.getClass().getName(), e);
+            }
+            output.writeVarInt(bytes.length, true);
+            output.writeBytes(bytes);
+        }
+
+        @Override
+        protected Object read(final Input input) {
+            final byte[] bytes = input.readBytes(input.readVarInt(true));
+            try {
+                return 0 == bytes.length ? serialisation.deserialiseEmptyBytes() : serialisation.deserialise(bytes);
+            } catch (final SerialisationException e) {
+                throw new KryoException("Unable to deserialise property value", e);
+            }
+        }
+    }
+}
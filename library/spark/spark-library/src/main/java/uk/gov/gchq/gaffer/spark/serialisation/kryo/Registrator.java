@@ -15,75 +15,174 @@
  */
 package uk.gov.gchq.gaffer.spark.serialisation.kryo;
 
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
 import com.esotericsoftware.kryo.Kryo;
-import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.yahoo.sketches.frequencies.LongsSketch;
+import com.yahoo.sketches.quantiles.DoublesUnion;
+import com.yahoo.sketches.sampling.ReservoirLongsUnion;
+import com.yahoo.sketches.theta.Union;
+import org.apache.spark.SparkConf;
+import org.apache.spark.SparkEnv;
 import org.apache.spark.serializer.KryoRegistrator;
+import org.roaringbitmap.RoaringBitmap;
+import uk.gov.gchq.gaffer.bitmap.serialisation.RoaringBitmapSerialiser;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.serialisation.FreqMapSerialiser;
+import uk.gov.gchq.gaffer.sketches.datasketches.frequencies.serialisation.LongsSketchSerialiser;
+import uk.gov.gchq.gaffer.sketches.datasketches.quantiles.serialisation.DoublesUnionSerialiser;
+import uk.gov.gchq.gaffer.sketches.datasketches.sampling.serialisation.ReservoirLongsUnionSerialiser;
+import uk.gov.gchq.gaffer.sketches.datasketches.theta.serialisation.UnionSerialiser;
+import uk.gov.gchq.gaffer.sketches.serialisation.HyperLogLogPlusSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.types.FreqMap;
+import java.io.UnsupportedEncodingException;
 
 /**
  * A custom {@link KryoRegistrator} that serializes Gaffer {@link Entity}s and {@link Edge}s. NB: It
  * is not necessary to implement one for Elements as that is an abstract class.
+ * <p>
+ * If a {@link Schema} is set in the Spark configuration using {@link #setSchema(SparkConf, Schema)}
+ * then groups are written as small integers and properties are written in schema order using the
+ * serialisers from the schema, rather than with their names and classes. Common Gaffer property
+ * types such as {@link FreqMap}s, {@link HyperLogLogPlus}, sketches and {@link RoaringBitmap}s are
+ * also registered so they are written using their Gaffer serialisers.
+ * <p>
+ * The classes are always registered in the same order so the registration ids agree between the
+ * driver and the executors.
  */
 public class Registrator implements KryoRegistrator {
+    public static final String SCHEMA = "spark.gaffer.schema";
+
+    private static String cachedSchemaJson;
+    private static KryoElementSchema cachedElementSchema;
+
+    private final KryoElementSchema elementSchema;
+
+    public Registrator() {
+        this(getSchemaJson());
+    }
+
+    public Registrator(final Schema schema) {
+        this.elementSchema = new KryoElementSchema(null != schema ? schema : new Schema());
+    }
+
+    private Registrator(final String schemaJson) {
+        this.elementSchema = getElementSchema(schemaJson);
+    }
+
+    /**
+     * Adds the {@link Schema} to the {@link SparkConf} so that the {@link Registrator}s
+     * created by Spark can write elements using the schema.
+     *
+     * @param sparkConf the spark configuration
+     * @param schema    the schema of the elements in the RDDs
+     * @return the spark configuration
+     */
+    public static SparkConf setSchema(final SparkConf sparkConf, final Schema schema) {
+        try {
+            return sparkConf.set(SCHEMA, new String(schema.toCompactJson(), CommonConstants.UTF_8));
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalArgumentException("Unable to add schema to the spark configuration", e);
+        }
+    }
 
     @Override
     public void registerClasses(final Kryo kryo) {
-        kryo.register(Entity.class, new KryoEntitySerializer());
-        kryo.register(Edge.class, new KryoEdgeSerializer());
+        kryo.register(Entity.class, new KryoEntitySerializer(elementSchema));
+        kryo.register(Edge.class, new KryoEdgeSerializer(elementSchema));
         kryo.register(Properties.class);
+        kryo.register(FreqMap.class, new GafferSerialisationKryoSerializer<>(new FreqMapSerialiser()));
+        kryo.register(HyperLogLogPlus.class, new GafferSerialisationKryoSerializer<>(new HyperLogLogPlusSerialiser()));
+        kryo.register(LongsSketch.class, new GafferSerialisationKryoSerializer<>(new LongsSketchSerialiser()));
+        kryo.register(ReservoirLongsUnion.class, new GafferSerialisationKryoSerializer<>(new ReservoirLongsUnionSerialiser()));
+        kryo.register(RoaringBitmap.class, new GafferSerialisationKryoSerializer<RoaringBitmap>(new RoaringBitmapSerialiser()));
 
+        // Union and DoublesUnion are abstract so their implementations are not known here.
+        kryo.addDefaultSerializer(Union.class, new GafferSerialisationKryoSerializer<>(new UnionSerialiser()));
+        kryo.addDefaultSerializer(DoublesUnion.class, new GafferSerialisationKryoSerializer<>(new DoublesUnionSerialiser()));
+    }
+
+    private static String getSchemaJson() {
+        final SparkEnv sparkEnv = SparkEnv.get();
+        if (null == sparkEnv) {
+            return null;
+        }
+        return sparkEnv.conf().get(SCHEMA, null);
+    }
+
+    private static synchronized KryoElementSchema getElementSchema(final String schemaJson) {
+        if (null == cachedElementSchema || !isSameSchema(schemaJson)) {
+            final Schema schema;
+            try {
+                schema = null != schemaJson ? Schema.fromJson(schemaJson.getBytes(CommonConstants.UTF_8)) : new Schema();
+            } catch (final UnsupportedEncodingException e) {
+                throw new IllegalArgumentException("Unable to read schema from the spark configuration", e);
+            }
+            cachedElementSchema = new KryoElementSchema(schema);
+            cachedSchemaJson = schemaJson;
+        }
+        return cachedElementSchema;
+    }
+
+    private static boolean isSameSchema(final String schemaJson) {
+        return null == schemaJson ? null == cachedSchemaJson : schemaJson.equals(cachedSchemaJson);
     }
 }
 
 class KryoEntitySerializer extends Serializer<Entity> {
+    private final KryoElementSchema elementSchema;
+
+    KryoEntitySerializer(final KryoElementSchema elementSchema) {
+        this.elementSchema = elementSchema;
+    }
 
     @Override
     public void write(final Kryo kryo, final Output output, final Entity entity) {
-        output.writeString(entity.getGroup());
-        kryo.writeClass(output, entity.getVertex().getClass());
-        kryo.writeObject(output, entity.getVertex());
-        kryo.writeObjectOrNull(output, entity.getProperties(), Properties.class);
+        elementSchema.writeGroup(output, entity.getGroup());
+        kryo.writeClassAndObject(output, entity.getVertex());
+        elementSchema.writeProperties(kryo, output, entity.getGroup(), entity.getProperties());
     }
 
     @Override
     public Entity read(final Kryo kryo, final Input input, final Class<Entity> type) {
-        final String group = input.readString();
+        final String group = elementSchema.readGroup(input);
         final Entity entity = new Entity(group);
-        final Registration reg = kryo.readClass(input);
-        entity.setVertex(kryo.readObject(input, reg.getType()));
-        entity.copyProperties(kryo.readObjectOrNull(input, Properties.class));
+        entity.setVertex(kryo.readClassAndObject(input));
+        entity.copyProperties(elementSchema.readProperties(kryo, input, group));
         return entity;
     }
 }
 
 class KryoEdgeSerializer extends Serializer<Edge> {
+    private final KryoElementSchema elementSchema;
+
+    KryoEdgeSerializer(final KryoElementSchema elementSchema) {
+        this.elementSchema = elementSchema;
+    }
 
     @Override
     public void write(final Kryo kryo, final Output output, final Edge edge) {
-        output.writeString(edge.getGroup());
-        kryo.writeClass(output, edge.getSource().getClass());
-        kryo.writeObject(output, edge.getSource());
-        kryo.writeClass(output, edge.getDestination().getClass());
-        kryo.writeObject(output, edge.getDestination());
+        elementSchema.writeGroup(output, edge.getGroup());
+        kryo.writeClassAndObject(output, edge.getSource());
+        kryo.writeClassAndObject(output, edge.getDestination());
         output.writeBoolean(edge.isDirected());
-        kryo.writeObjectOrNull(output, edge.getProperties(), Properties.class);
+        elementSchema.writeProperties(kryo, output, edge.getGroup(), edge.getProperties());
     }
 
     @Override
     public Edge read(final Kryo kryo, final Input input, final Class<Edge> type) {
-        final String group = input.readString();
+        final String group = elementSchema.readGroup(input);
         final Edge edge = new Edge(group);
-        Registration reg = kryo.readClass(input);
-        edge.setSource(kryo.readObject(input, reg.getType()));
-        reg = kryo.readClass(input);
-        edge.setDestination(kryo.readObject(input, reg.getType()));
+        edge.setSource(kryo.readClassAndObject(input));
+        edge.setDestination(kryo.readClassAndObject(input));
         edge.setDirected(input.readBoolean());
-        edge.copyProperties(kryo.readObjectOrNull(input, Properties.class));
+        edge.copyProperties(elementSchema.readProperties(kryo, input, group));
         return edge;
     }
 }
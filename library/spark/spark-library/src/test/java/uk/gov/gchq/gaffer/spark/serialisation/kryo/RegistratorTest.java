@@ -15,17 +15,27 @@
  */
 package uk.gov.gchq.gaffer.spark.serialisation.kryo;
 
+import com.clearspring.analytics.stream.cardinality.HyperLogLogPlus;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import org.junit.Before;
 import org.junit.Test;
+import org.roaringbitmap.RoaringBitmap;
 import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEdgeDefinition;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.types.FreqMap;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class RegistratorTest {
 
@@ -80,4 +90,148 @@ public class RegistratorTest {
         assertEquals(edge, read);
     }
 
+    @Test
+    public void shouldRoundTripElementsUsingSchema() {
+        // Given
+        final Kryo schemaKryo = createKryo(getSchema());
+        final Entity entity = new Entity("entityGroup", "vertex");
+        entity.putProperty("count", 5);
+        entity.putProperty("freqMap", createFreqMap());
+        final Edge edge = new Edge("edgeGroup", 1L, 2L, true);
+        edge.putProperty("count", -5);
+        edge.putProperty("timestamp", 1000L);
+        edge.putProperty("label", "a label");
+
+        // When
+        final Element readEntity = roundTrip(schemaKryo, entity);
+        final Element readEdge = roundTrip(schemaKryo, edge);
+
+        // Then
+        assertEquals(entity, readEntity);
+        assertEquals(edge, readEdge);
+    }
+
+    @Test
+    public void shouldRoundTripElementsNotInSchema() {
+        // Given
+        final Kryo schemaKryo = createKryo(getSchema());
+        final Entity entity = new Entity("unknownGroup", "vertex");
+        entity.putProperty("count", 5);
+        entity.putProperty("other", "value");
+
+        // When
+        final Element read = roundTrip(schemaKryo, entity);
+
+        // Then
+        assertEquals(entity, read);
+    }
+
+    @Test
+    public void shouldRoundTripPropertiesThatDoNotMatchSchema() {
+        // Given
+        final Kryo schemaKryo = createKryo(getSchema());
+        final Edge edge = new Edge("edgeGroup", "source", "destination", false);
+        edge.putProperty("count", "not an integer");
+        edge.putProperty("extraProperty", 1.5d);
+
+        // When
+        final Element read = roundTrip(schemaKryo, edge);
+
+        // Then
+        assertEquals(edge, read);
+    }
+
+    @Test
+    public void shouldRoundTripRegisteredPropertyTypes() {
+        // Given
+        final HyperLogLogPlus hllp = new HyperLogLogPlus(5, 5);
+        hllp.offer("A");
+        hllp.offer("B");
+        final RoaringBitmap bitmap = RoaringBitmap.bitmapOf(1, 10, 100);
+        final Entity entity = new Entity("group", "vertex");
+        entity.putProperty("freqMap", createFreqMap());
+        entity.putProperty("hllp", hllp);
+        entity.putProperty("bitmap", bitmap);
+
+        // When
+        final Element read = roundTrip(kryo, entity);
+
+        // Then
+        assertEquals(entity.getProperty("freqMap"), read.getProperty("freqMap"));
+        assertEquals(bitmap, read.getProperty("bitmap"));
+        assertEquals(hllp.cardinality(), ((HyperLogLogPlus) read.getProperty("hllp")).cardinality());
+    }
+
+    @Test
+    public void shouldWriteFewerBytesUsingSchema() {
+        // Given
+        final Kryo schemaKryo = createKryo(getSchema());
+        final Edge edge = new Edge("edgeGroup", 1L, 2L, true);
+        edge.putProperty("count", 5);
+        edge.putProperty("timestamp", 1000L);
+        edge.putProperty("label", "a label");
+
+        // When
+        final int sizeWithoutSchema = serialise(kryo, edge).length;
+        final int sizeWithSchema = serialise(schemaKryo, edge).length;
+
+        // Then
+        assertTrue("Expected " + sizeWithSchema + " to be less than " + sizeWithoutSchema,
+                sizeWithSchema < sizeWithoutSchema);
+    }
+
+    private static Kryo createKryo(final Schema schema) {
+        final Kryo kryo = new Kryo();
+        new Registrator(schema).registerClasses(kryo);
+        return kryo;
+    }
+
+    private static Element roundTrip(final Kryo kryo, final Element element) {
+        final Input input = new Input(new ByteArrayInputStream(serialise(kryo, element)));
+        final Element read = (Element) kryo.readClassAndObject(input);
+        input.close();
+        return read;
+    }
+
+    private static byte[] serialise(final Kryo kryo, final Element element) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final Output output = new Output(baos);
+        kryo.writeClassAndObject(output, element);
+        output.close();
+        return baos.toByteArray();
+    }
+
+    private static FreqMap createFreqMap() {
+        final FreqMap freqMap = new FreqMap();
+        freqMap.upsert("a", 2L);
+        freqMap.upsert("b", 3L);
+        return freqMap;
+    }
+
+    private static Schema getSchema() {
+        return new Schema.Builder()
+                .entity("entityGroup", new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property("count", "int")
+                        .property("freqMap", "freqMap")
+                        .build())
+                .edge("edgeGroup", new SchemaEdgeDefinition.Builder()
+                        .source("long")
+                        .destination("long")
+                        .directed("true")
+                        .property("count", "int")
+                        .property("timestamp", "long")
+                        .property("label", "label")
+                        .build())
+                .type("string", String.class)
+                .type("int", Integer.class)
+                .type("long", Long.class)
+                .type("true", Boolean.class)
+                .type("freqMap", FreqMap.class)
+                .type("label", new TypeDefinition.Builder()
+                        .clazz(CharSequence.class)
+                        .serialiser(new StringSerialiser())
+                        .build())
+                .build();
+    }
 }
@@ -33,6 +33,9 @@ public abstract class SystemProperty {
     public static final String SERVICES_PACKAGE_PREFIX = "gaffer.rest-api.resourcePackage";
     public static final String PACKAGE_PREFIXES = "gaffer.package.prefixes";
     public static final String OP_AUTHS_PATH = "gaffer.operation.auths.path";
+    public static final String CHUNKED_THREADS = "gaffer.rest-api.chunked.threads";
+    public static final String CHUNKED_MAX_QUEUE_SIZE = "gaffer.rest-api.chunked.max.queue.size";
+    public static final String GZIP_ENABLED = "gaffer.rest-api.gzip";
 
     // DEFAULTS
     /**
@@ -44,4 +47,7 @@ public abstract class SystemProperty {
     public static final String CORE_VERSION = "1.0.0";
     public static final String GRAPH_FACTORY_CLASS_DEFAULT = DefaultGraphFactory.class.getName();
     public static final String USER_FACTORY_CLASS_DEFAULT = UnknownUserFactory.class.getName();
+    public static final String CHUNKED_THREADS_DEFAULT = "10";
+    public static final String CHUNKED_MAX_QUEUE_SIZE_DEFAULT = "100";
+    public static final String GZIP_ENABLED_DEFAULT = "false";
 }
@@ -19,7 +19,9 @@ package uk.gov.gchq.gaffer.rest.application;
 import io.swagger.jaxrs.config.BeanConfig;
 import io.swagger.jaxrs.listing.ApiListingResource;
 import io.swagger.jaxrs.listing.SwaggerSerializers;
+import org.glassfish.jersey.message.GZipEncoder;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.EncodingFilter;
 import uk.gov.gchq.gaffer.rest.FactoriesBinder;
 import uk.gov.gchq.gaffer.rest.SystemProperty;
 import uk.gov.gchq.gaffer.rest.mapper.GafferCheckedExceptionMapper;
@@ -27,6 +29,7 @@ import uk.gov.gchq.gaffer.rest.mapper.GafferRuntimeExceptionMapper;
 import uk.gov.gchq.gaffer.rest.mapper.GenericExceptionMapper;
 import uk.gov.gchq.gaffer.rest.mapper.ProcessingExceptionMapper;
 import uk.gov.gchq.gaffer.rest.mapper.WebApplicationExceptionMapper;
+import uk.gov.gchq.gaffer.rest.serialisation.ElementStreamMessageBodyWriter;
 import uk.gov.gchq.gaffer.rest.serialisation.RestJsonProvider;
 import uk.gov.gchq.gaffer.rest.service.ExamplesService;
 import uk.gov.gchq.gaffer.rest.service.GraphConfigurationService;
@@ -49,6 +52,20 @@ public class ApplicationConfig extends ResourceConfig {
         setupBeanConfig();
         registerClasses(resources);
         register(new FactoriesBinder());
+        enableCompression();
+    }
+
+    /**
+     * Compresses responses with gzip for clients that accept it and
+     * decompresses gzip encoded requests, if enabled with the
+     * gaffer.rest-api.gzip system property. It is disabled by default as the
+     * gzip encoder buffers chunked output, so chunks would not be sent to the
+     * client as soon as they are written.
+     */
+    protected void enableCompression() {
+        if (Boolean.parseBoolean(System.getProperty(SystemProperty.GZIP_ENABLED, SystemProperty.GZIP_ENABLED_DEFAULT))) {
+            EncodingFilter.enableFor(this, GZipEncoder.class);
+        }
     }
 
     protected void setupBeanConfig() {
@@ -75,6 +92,7 @@ public class ApplicationConfig extends ResourceConfig {
         resources.add(ApiListingResource.class);
         resources.add(SwaggerSerializers.class);
         resources.add(RestJsonProvider.class);
+        resources.add(ElementStreamMessageBodyWriter.class);
     }
 
     protected void addExceptionMappers() {
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.rest.serialisation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
+import uk.gov.gchq.gaffer.store.StoreTrait;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
+import uk.gov.gchq.gaffer.store.serialiser.ElementStreamSerialiser;
+import javax.inject.Inject;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * A {@link MessageBodyWriter} that writes {@link uk.gov.gchq.gaffer.data.element.Element} results
+ * using the compact binary {@link ElementStreamSerialiser} format. It is used when the client
+ * accepts the {@link ElementStreamSerialiser#MEDIA_TYPE} media type. Elements are written to
+ * the response as they are read from the result iterable.
+ * <p>
+ * The operation service declares an Object return type, so the media type is chosen before the
+ * result is known. Results that are not an iterable of elements, such as counts or generated
+ * objects, are therefore written as json instead, with the content type set to application/json.
+ * </p>
+ */
+@Provider
+@Produces(ElementStreamSerialiser.MEDIA_TYPE)
+public class ElementStreamMessageBodyWriter implements MessageBodyWriter<Object> {
+    private static final ObjectMapper MAPPER = JSONSerialiser.createDefaultMapper();
+
+    @Inject
+    private GraphFactory graphFactory;
+
+    @Override
+    public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
+        // Results of any type can be written, as results that are not elements are written as json
+        return true;
+    }
+
+    @Override
+    public long getSize(final Object elements, final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(final Object elements, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                        final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders, final OutputStream entityStream) throws IOException {
+        try {
+            if (!(elements instanceof Iterable)) {
+                httpHeaders.putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_TYPE);
+                MAPPER.writeValue(entityStream, elements);
+                return;
+            }
+
+            // The first item is checked so results that are not elements can still be written as json
+            final Iterator<?> itr = ((Iterable<?>) elements).iterator();
+            final Object first = itr.hasNext() ? itr.next() : null;
+            final Iterable<?> items = null == first ? Collections.emptyList() : () -> new ChainedIterator(first, itr);
+            if (null == first || first instanceof Element) {
+                new ElementStreamSerialiser(getSchema()).serialise(items, entityStream);
+            } else {
+                httpHeaders.putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_TYPE);
+                writeJsonArray(items, entityStream);
+            }
+        } finally {
+            if (elements instanceof Closeable) {
+                ((Closeable) elements).close();
+            }
+        }
+    }
+
+    private void writeJsonArray(final Iterable<?> items, final OutputStream entityStream) throws IOException {
+        final JsonGenerator generator = MAPPER.getFactory().createGenerator(entityStream);
+        generator.writeStartArray();
+        for (final Object item : items) {
+            generator.writeObject(item);
+        }
+        generator.writeEndArray();
+        generator.flush();
+    }
+
+    /**
+     * The graph schema does not hold the default vertex serialiser chosen by
+     * the store, so the schema is optimised in the same way the store does it
+     * to make sure clients decode vertices with the same serialiser.
+     *
+     * @return the schema used to serialise the elements
+     */
+    private Schema getSchema() {
+        final Graph graph = graphFactory.getGraph();
+        final Schema schema = graph.getSchema();
+        if (null != schema.getVertexSerialiser()) {
+            return schema;
+        }
+
+        return new SchemaOptimiser().optimise(schema, graph.hasTrait(StoreTrait.ORDERED));
+    }
+
+    /**
+     * Returns the first item that has already been read, followed by the rest of the items.
+     */
+    private static final class ChainedIterator implements Iterator<Object> {
+        private final Iterator<?> itr;
+        private Object first;
+        private boolean firstRead;
+
+        private ChainedIterator(final Object first, final Iterator<?> itr) {
+            this.first = first;
+            this.itr = itr;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !firstRead || itr.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            if (!firstRead) {
+                firstRead = true;
+                final Object item = first;
+                first = null;
+                return item;
+            }
+            return itr.next();
+        }
+    }
+}
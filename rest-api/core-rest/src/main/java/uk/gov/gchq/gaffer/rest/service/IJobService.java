@@ -23,6 +23,7 @@ import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.jobtracker.JobDetail;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -54,6 +55,11 @@ public interface IJobService {
     @ApiOperation(value = "Get the details of a job", response = JobDetail.class)
     JobDetail details(@ApiParam(value = "a job id") @PathParam("id") final String id);
 
+    @DELETE
+    @Path("{id}")
+    @ApiOperation(value = "Cancel a queued or running job", response = JobDetail.class)
+    JobDetail cancel(@ApiParam(value = "a job id") @PathParam("id") final String id);
+
     @GET
     @Path("{id}/results")
     @ApiOperation(value = "Get the results of a job", response = Object.class, responseContainer = "List")
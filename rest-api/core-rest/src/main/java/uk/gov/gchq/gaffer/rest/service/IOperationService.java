@@ -42,12 +42,16 @@ import uk.gov.gchq.gaffer.operation.impl.get.GetEntitiesBySeed;
 import uk.gov.gchq.gaffer.operation.impl.get.GetRelatedEdges;
 import uk.gov.gchq.gaffer.operation.impl.get.GetRelatedElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetRelatedEntities;
+import uk.gov.gchq.gaffer.store.serialiser.ElementStreamSerialiser;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
+import java.io.InputStream;
 
 /**
  * An <code>IOperationService</code> has methods to execute {@link uk.gov.gchq.gaffer.operation.Operation}s on the
@@ -60,14 +64,33 @@ import javax.ws.rs.core.MediaType;
 public interface IOperationService {
 
     @POST
+    @Produces({MediaType.APPLICATION_JSON, ElementStreamSerialiser.MEDIA_TYPE})
     @ApiOperation(value = "Performs the given operation chain on the graph", response = Object.class)
     Object execute(final OperationChain opChain);
 
     @POST
     @Path("/chunked")
     @ApiOperation(value = "Performs the given operation chain on the graph, returned chunked output. NOTE - does not work in Swagger.", response = Element.class)
+    ChunkedOutput<byte[]> executeChunkedAsBytes(final OperationChain<CloseableIterable<Element>> opChain);
+
+    /**
+     * Performs the given operation chain on the graph, writing each result to
+     * the chunked output as a json String.
+     *
+     * @param opChain the operation chain to perform
+     * @return the chunked output
+     * @deprecated use {@link #executeChunkedAsBytes(OperationChain)}, which
+     * serves the /chunked endpoint and writes the json bytes of each result
+     * without creating a String for it.
+     */
+    @Deprecated
     ChunkedOutput<String> executeChunked(final OperationChain<CloseableIterable<Element>> opChain);
 
+    @POST
+    @Path("/explain")
+    @ApiOperation(value = "Returns the optimised operation chain that would be executed for the given operation chain, without executing it", response = OperationChain.class)
+    OperationChain explain(final OperationChain opChain);
+
     @POST
     @Path("/generate/objects")
     @ApiOperation(value = "Generate objects from elements", response = Object.class, responseContainer = "List")
@@ -159,4 +182,11 @@ public interface IOperationService {
     @Path("/add/elements")
     @ApiOperation(value = "Add elements to the graph", response = Boolean.class)
     void addElements(final AddElements operation);
+
+    @PUT
+    @Path("/add/elements/stream")
+    @ApiOperation(value = "Add a json array of elements to the graph. The elements are streamed into the graph as they are read.", response = Boolean.class)
+    void addElementsStream(final InputStream elements,
+                           @QueryParam("validate") @DefaultValue("true") final boolean validate,
+                           @QueryParam("skipInvalidElements") @DefaultValue("false") final boolean skipInvalidElements);
 }
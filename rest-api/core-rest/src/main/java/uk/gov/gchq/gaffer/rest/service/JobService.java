@@ -22,6 +22,7 @@ import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.jobtracker.JobDetail;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.job.CancelJob;
 import uk.gov.gchq.gaffer.operation.impl.job.GetAllJobDetails;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobDetails;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobResults;
@@ -89,6 +90,19 @@ public class JobService implements IJobService {
         }
     }
 
+    @Override
+    public JobDetail cancel(final String id) {
+        try {
+            return graphFactory.getGraph().execute(
+                    new CancelJob.Builder()
+                            .jobId(id)
+                            .build(),
+                    userFactory.createUser());
+        } catch (OperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public CloseableIterable results(final String id) {
         try {
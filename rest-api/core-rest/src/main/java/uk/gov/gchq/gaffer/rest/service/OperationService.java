@@ -23,9 +23,12 @@ import org.glassfish.jersey.server.ChunkedOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.core.exception.GafferRuntimeException;
+import uk.gov.gchq.gaffer.core.exception.Status;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationException;
@@ -47,12 +50,21 @@ import uk.gov.gchq.gaffer.operation.impl.get.GetEntitiesBySeed;
 import uk.gov.gchq.gaffer.operation.impl.get.GetRelatedEdges;
 import uk.gov.gchq.gaffer.operation.impl.get.GetRelatedElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetRelatedEntities;
+import uk.gov.gchq.gaffer.rest.SystemProperty;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
 import uk.gov.gchq.gaffer.user.User;
 import javax.inject.Inject;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser.createDefaultMapper;
 
@@ -71,6 +83,7 @@ import static uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser.createDefaultM
 public class OperationService implements IOperationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(OperationService.class);
     public final ObjectMapper mapper = createDefaultMapper();
+    private final JSONSerialiser jsonSerialiser = new JSONSerialiser(mapper);
 
     @Inject
     private GraphFactory graphFactory;
@@ -83,25 +96,35 @@ public class OperationService implements IOperationService {
         return _execute(opChain);
     }
 
+    @SuppressFBWarnings
+    @Override
+    public ChunkedOutput<byte[]> executeChunkedAsBytes(final OperationChain opChain) {
+        // Create chunked output instance
+        final ChunkedOutput<byte[]> output = new ChunkedOutput<>(byte[].class, "\r\n");
+        executeInBackground(opChain, output, result -> chunkResultAsBytes(result, output));
+        return output;
+    }
+
+    @Deprecated
     @SuppressFBWarnings
     @Override
     public ChunkedOutput<String> executeChunked(final OperationChain opChain) {
         // Create chunked output instance
         final ChunkedOutput<String> output = new ChunkedOutput<>(String.class, "\r\n");
+        executeInBackground(opChain, output, result -> chunkResult(result, output));
+        return output;
+    }
 
-        // write chunks to the chunked output object
-        new Thread() {
-            public void run() {
-                try {
-                    final Object result = _execute(opChain);
-                    chunkResult(result, output);
-                } finally {
-                    IOUtils.closeQuietly(output);
-                }
-            }
-        }.start();
+    @Override
+    public OperationChain explain(final OperationChain opChain) {
+        final User user = userFactory.createUser();
+        preOperationHook(opChain, user);
 
-        return output;
+        try {
+            return graphFactory.getGraph().explain(opChain, user);
+        } finally {
+            postOperationHook(opChain, user);
+        }
     }
 
     @Override
@@ -184,6 +207,23 @@ public class OperationService implements IOperationService {
         _execute(operation);
     }
 
+    @Override
+    public void addElementsStream(final InputStream elements, final boolean validate, final boolean skipInvalidElements) {
+        try (final CloseableIterable<Element> elementIterable = jsonSerialiser.deserialiseIterable(elements, Element.class)) {
+            _execute(new AddElements.Builder()
+                    .elements(elementIterable)
+                    .validate(validate)
+                    .skipInvalidElements(skipInvalidElements)
+                    .build());
+        } catch (final RuntimeException e) {
+            final UncheckedIOException jsonError = getJsonError(e);
+            if (null != jsonError) {
+                throw new GafferRuntimeException("Unable to deserialise elements: " + jsonError.getMessage(), e, Status.BAD_REQUEST);
+            }
+            throw e;
+        }
+    }
+
     protected void preOperationHook(final OperationChain<?> opChain, final User user) {
         // no action by default
     }
@@ -209,12 +249,46 @@ public class OperationService implements IOperationService {
         }
     }
 
+    protected void chunkResultAsBytes(final Object result, final ChunkedOutput<byte[]> output) {
+        writeChunks(result, item -> output.write(mapper.writeValueAsBytes(item)));
+    }
+
+    /**
+     * Writes the result to the chunked output as json Strings.
+     *
+     * @param result the result to write
+     * @param output the chunked output
+     * @deprecated use {@link #chunkResultAsBytes(Object, ChunkedOutput)}, which
+     * writes the json bytes of each item without creating a String for it.
+     */
+    @Deprecated
     protected void chunkResult(final Object result, final ChunkedOutput<String> output) {
+        writeChunks(result, item -> output.write(mapper.writeValueAsString(item)));
+    }
+
+    private void executeInBackground(final OperationChain opChain, final ChunkedOutput<?> output, final Consumer<Object> chunker) {
+        // write chunks to the chunked output object
+        try {
+            ChunkedExecutorHolder.EXECUTOR.execute(() -> {
+                try {
+                    final Object result = _execute(opChain);
+                    chunker.accept(result);
+                } finally {
+                    IOUtils.closeQuietly(output);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            IOUtils.closeQuietly(output);
+            throw new GafferRuntimeException("Too many chunked operations are running, please try again later", e, Status.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private void writeChunks(final Object result, final ChunkWriter writer) {
         if (result instanceof Iterable) {
             final Iterable itr = (Iterable) result;
             try {
                 for (final Object item : itr) {
-                    output.write(mapper.writeValueAsString(item));
+                    writer.write(item);
                 }
             } catch (final IOException ioe) {
                 LOGGER.warn("IOException (chunks)", ioe);
@@ -225,10 +299,51 @@ public class OperationService implements IOperationService {
             }
         } else {
             try {
-                output.write(mapper.writeValueAsString(result));
+                writer.write(result);
             } catch (final IOException ioe) {
                 LOGGER.warn("IOException (chunks)", ioe);
             }
         }
     }
+
+    /**
+     * Finds the error thrown when the streamed elements json could not be
+     * read. The error may have been wrapped by the store whilst it was
+     * iterating over the elements.
+     */
+    private static UncheckedIOException getJsonError(final Throwable e) {
+        Throwable cause = e;
+        while (null != cause) {
+            if (cause instanceof UncheckedIOException) {
+                return (UncheckedIOException) cause;
+            }
+            cause = cause.getCause();
+        }
+        return null;
+    }
+
+    private interface ChunkWriter {
+        void write(final Object item) throws IOException;
+    }
+
+    /**
+     * Lazily creates the bounded thread pool used to write chunked results,
+     * shared by all instances of the service.
+     */
+    private static final class ChunkedExecutorHolder {
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            final int numThreads = Integer.parseInt(System.getProperty(SystemProperty.CHUNKED_THREADS, SystemProperty.CHUNKED_THREADS_DEFAULT));
+            final int maxQueueSize = Integer.parseInt(System.getProperty(SystemProperty.CHUNKED_MAX_QUEUE_SIZE, SystemProperty.CHUNKED_MAX_QUEUE_SIZE_DEFAULT));
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(maxQueueSize), runnable -> {
+                final Thread thread = new Thread(runnable, "gaffer-chunked-operation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
 }
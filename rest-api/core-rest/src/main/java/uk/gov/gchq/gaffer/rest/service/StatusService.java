@@ -25,6 +25,8 @@ import uk.gov.gchq.gaffer.core.exception.Status;
 import uk.gov.gchq.gaffer.rest.SystemStatus;
 import uk.gov.gchq.gaffer.rest.factory.GraphFactory;
 import uk.gov.gchq.gaffer.rest.factory.UserFactory;
+import uk.gov.gchq.gaffer.store.StoreProperties;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
 import javax.inject.Inject;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
@@ -60,4 +62,20 @@ public class StatusService {
 
         return new SystemStatus("Unable to create graph.");
     }
+
+    @GET
+    @Path("/metrics")
+    @ApiOperation(value = "Returns the operation latency and throughput metrics recorded by the store", response = StoreMetrics.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 404, message = "Metrics are not enabled"),
+            @ApiResponse(code = 500, message = "Something wrong in Server")})
+    public StoreMetrics metrics() {
+        final StoreMetrics metrics = graphFactory.getGraph().getMetrics();
+        if (null == metrics) {
+            throw new GafferRuntimeException("Metrics are not enabled. Set " + StoreProperties.METRICS_ENABLED
+                    + " to true in the store properties to enable them.", Status.NOT_FOUND);
+        }
+
+        return metrics;
+    }
 }
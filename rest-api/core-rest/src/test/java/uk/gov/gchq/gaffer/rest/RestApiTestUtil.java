@@ -102,6 +102,18 @@ public class RestApiTestUtil {
                 .build());
     }
 
+    public static Response addElementsStream(final Element... elements) throws IOException {
+        return addElementsStream(JSON_SERIALISER.serialise(elements));
+    }
+
+    public static Response addElementsStream(final byte[] elementsJson) throws IOException {
+        startServer();
+        return client.target(REST_URI)
+                .path("/graph/doOperation/add/elements/stream")
+                .request()
+                .put(Entity.entity(elementsJson, MediaType.APPLICATION_JSON_TYPE));
+    }
+
     public static Response executeOperation(final Operation<?, ?> operation) throws IOException {
         startServer();
         return client.target(REST_URI)
@@ -118,6 +130,14 @@ public class RestApiTestUtil {
                 .post(Entity.entity(JSON_SERIALISER.serialise(opChain), MediaType.APPLICATION_JSON_TYPE));
     }
 
+    public static Response executeOperationChain(final OperationChain opChain, final String preferredMediaType) throws IOException {
+        startServer();
+        return client.target(REST_URI)
+                .path("/graph/doOperation")
+                .request(preferredMediaType, MediaType.APPLICATION_JSON + ";q=0.5")
+                .post(Entity.entity(JSON_SERIALISER.serialise(opChain), MediaType.APPLICATION_JSON_TYPE));
+    }
+
     public static Response executeOperationChainChunked(final OperationChain opChain) throws IOException {
         startServer();
         return client.target(REST_URI)
@@ -16,21 +16,32 @@
 
 package uk.gov.gchq.gaffer.rest.service;
 
+import com.google.common.collect.Lists;
 import org.glassfish.jersey.client.ChunkedInput;
 import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.data.GroupCounts;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.data.generator.EntitySeedExtractor;
 import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.rest.AbstractRestApiIT;
 import uk.gov.gchq.gaffer.rest.RestApiTestUtil;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaOptimiser;
+import uk.gov.gchq.gaffer.store.serialiser.ElementStreamSerialiser;
 import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -54,6 +65,86 @@ public class OperationServiceIT extends AbstractRestApiIT {
         verifyElements(DEFAULT_ELEMENTS, results);
     }
 
+    @Test
+    public void shouldAddStreamedElements() throws IOException {
+        // Given
+        final Response addResponse = RestApiTestUtil.addElementsStream(DEFAULT_ELEMENTS);
+
+        // When
+        final Response response = RestApiTestUtil.executeOperation(new GetAllElements<>());
+
+        // Then
+        assertEquals(204, addResponse.getStatus());
+        final List<Element> results = response.readEntity(new GenericType<List<Element>>() {
+        });
+
+        verifyElements(DEFAULT_ELEMENTS, results);
+    }
+
+    @Test
+    public void shouldReturnBadRequestWhenStreamedElementsJsonIsMalformed() throws IOException {
+        // Given
+        final byte[] json = "[{\"class\": \"uk.gov.gchq.gaffer.data.element.Entity\", ".getBytes(CommonConstants.UTF_8);
+
+        // When
+        final Response response = RestApiTestUtil.addElementsStream(json);
+
+        // Then
+        assertEquals(400, response.getStatus());
+    }
+
+    @Test
+    public void shouldReturnBinaryElementsWhenRequested() throws IOException {
+        // Given
+        RestApiTestUtil.addElements(DEFAULT_ELEMENTS);
+
+        // When
+        final Response response = RestApiTestUtil.executeOperationChain(
+                new OperationChain<>(new GetAllElements<>()), ElementStreamSerialiser.MEDIA_TYPE);
+
+        // Then
+        assertEquals(ElementStreamSerialiser.MEDIA_TYPE, response.getMediaType().toString());
+        final Schema schema = new SchemaOptimiser().optimise(
+                Schema.fromJson(StreamUtil.openStream(getClass(), StreamUtil.SCHEMA)), false);
+        final List<Element> results = Lists.newArrayList(
+                new ElementStreamSerialiser(schema).deserialise(response.readEntity(InputStream.class)));
+
+        verifyElements(DEFAULT_ELEMENTS, results);
+    }
+
+    @Test
+    public void shouldReturnJsonWhenBinaryElementsRequestedForGroupCounts() throws IOException {
+        // Given
+        RestApiTestUtil.addElements(DEFAULT_ELEMENTS);
+
+        // When
+        final Response response = RestApiTestUtil.executeOperationChain(new OperationChain.Builder()
+                .first(new GetAllElements<>())
+                .then(new CountGroups())
+                .build(), ElementStreamSerialiser.MEDIA_TYPE);
+
+        // Then
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+        verifyGroupCounts(response.readEntity(GroupCounts.class));
+    }
+
+    @Test
+    public void shouldReturnJsonWhenBinaryElementsRequestedForSeeds() throws IOException {
+        // Given
+        RestApiTestUtil.addElements(DEFAULT_ELEMENTS);
+
+        // When
+        final Response response = RestApiTestUtil.executeOperationChain(new OperationChain.Builder()
+                .first(new GetAllElements<>())
+                .then(new GenerateObjects<>(new EntitySeedExtractor()))
+                .build(), ElementStreamSerialiser.MEDIA_TYPE);
+
+        // Then
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+        assertEquals(DEFAULT_ELEMENTS.length, response.readEntity(new GenericType<List<EntitySeed>>() {
+        }).size());
+    }
+
     @Test
     public void shouldReturnGroupCounts() throws IOException {
         // Given
@@ -17,6 +17,7 @@
 package uk.gov.gchq.gaffer.accumulostore;
 
 import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityKeyPackage;
+import uk.gov.gchq.gaffer.accumulostore.utils.BloomFilterUtils;
 import uk.gov.gchq.gaffer.store.StoreProperties;
 import java.io.InputStream;
 import java.nio.file.Path;
@@ -40,11 +41,17 @@ public class AccumuloProperties extends StoreProperties {
     public static final String CLIENT_SIDE_BLOOM_FILTER_SIZE = "accumulo.clientSideBloomFilterSize";
     public static final String FALSE_POSITIVE_RATE = "accumulo.falsePositiveRate";
     public static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR = "accumulo.maxBloomFilterToPassToAnIterator";
+    public static final String BLOOM_FILTER_TYPE = "accumulo.bloomFilterType";
     public static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER = "accumulo.maxBufferSizeForBatchWriterInBytes";
     public static final String MAX_TIME_OUT_FOR_BATCH_WRITER = "accumulo.maxTimeOutForBatchWriterInMilliseconds";
     public static final String NUM_THREADS_FOR_BATCH_WRITER = "accumulo.numThreadsForBatchWriter";
     public static final String TABLE_REPLICATION_FACTOR = "accumulo.file.replication";
     public static final String ENABLE_VALIDATOR_ITERATOR = "gaffer.store.accumulo.enable.validator.iterator";
+    public static final String NUM_THREADS_FOR_INGEST = "gaffer.store.accumulo.ingest.threads";
+    public static final String BATCH_SIZE_FOR_INGEST = "gaffer.store.accumulo.ingest.batchSize";
+    public static final String MAX_BATCHES_IN_FLIGHT_FOR_INGEST = "gaffer.store.accumulo.ingest.maxBatchesInFlight";
+    public static final String MAX_BATCHES_IN_FLIGHT_FOR_QUERY = "gaffer.store.accumulo.query.maxBatchesInFlight";
+    public static final String NUM_THREADS_FOR_QUERY = "gaffer.store.accumulo.query.threads";
 
     // default values
     private static final String NUM_THREADS_FOR_BATCH_WRITER_DEFAULT = "10";
@@ -52,10 +59,16 @@ public class AccumuloProperties extends StoreProperties {
     private static final String CLIENT_SIDE_BLOOM_FILTER_SIZE_DEFAULT = "838860800";
     private static final String FALSE_POSITIVE_RATE_DEFAULT = "0.0002";
     private static final String MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR_DEFAULT = "8388608";
+    private static final String BLOOM_FILTER_TYPE_DEFAULT = BloomFilterUtils.BLOCKED;
     private static final String MAX_BUFFER_SIZE_FOR_BATCH_WRITER_DEFAULT = "1000000";
     private static final String MAX_TIME_OUT_FOR_BATCH_WRITER_DEFAULT = "1000";
     private static final String THREADS_FOR_BATCH_SCANNER_DEFAULT = "10";
     public static final String ENABLE_VALIDATOR_ITERATOR_DEFAULT = "true";
+    private static final String NUM_THREADS_FOR_INGEST_DEFAULT = "1";
+    private static final String BATCH_SIZE_FOR_INGEST_DEFAULT = "1000";
+    private static final String MAX_BATCHES_IN_FLIGHT_FOR_INGEST_DEFAULT = "16";
+    private static final String MAX_BATCHES_IN_FLIGHT_FOR_QUERY_DEFAULT = "1";
+    private static final String NUM_THREADS_FOR_QUERY_DEFAULT = "10";
 
     public AccumuloProperties() {
         super();
@@ -310,6 +323,27 @@ public class AccumuloProperties extends StoreProperties {
         set(MAX_BLOOM_FILTER_TO_PASS_TO_AN_ITERATOR, maxBloomFilterToPassToAnIterator);
     }
 
+    /**
+     * Get the type of bloom filter used to filter set based queries, either
+     * blocked or hadoop. Blocked filters are faster to build and query, hadoop
+     * filters are slightly more accurate for the same size.
+     *
+     * @return A String representing the type of bloom filter to use
+     */
+    public String getBloomFilterType() {
+        return get(BLOOM_FILTER_TYPE, BLOOM_FILTER_TYPE_DEFAULT);
+    }
+
+    /**
+     * Set the type of bloom filter used to filter set based queries, either
+     * blocked or hadoop.
+     *
+     * @param bloomFilterType the type of bloom filter to use
+     */
+    public void setBloomFilterType(final String bloomFilterType) {
+        set(BLOOM_FILTER_TYPE, bloomFilterType);
+    }
+
     /**
      * Get the key package that should be used in conjunction with this table
      *
@@ -369,4 +403,102 @@ public class AccumuloProperties extends StoreProperties {
     public void setEnableValidatorIterator(final boolean enableValidatorIterator) {
         set(ENABLE_VALIDATOR_ITERATOR, Boolean.toString(enableValidatorIterator));
     }
+
+    /**
+     * Gets the number of threads used to convert elements into mutations when adding elements.
+     * If this is 1 the elements are converted on the thread that is adding them.
+     *
+     * @return the number of threads used to convert elements into mutations
+     */
+    public int getNumThreadsForIngest() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_INGEST, NUM_THREADS_FOR_INGEST_DEFAULT));
+    }
+
+    /**
+     * Sets the number of threads used to convert elements into mutations when adding elements.
+     *
+     * @param numThreadsForIngest the number of threads used to convert elements into mutations
+     */
+    public void setNumThreadsForIngest(final String numThreadsForIngest) {
+        set(NUM_THREADS_FOR_INGEST, numThreadsForIngest);
+    }
+
+    /**
+     * Gets the number of elements converted into mutations as a single batch when adding elements.
+     *
+     * @return the number of elements in each batch
+     */
+    public int getBatchSizeForIngest() {
+        return Integer.parseInt(get(BATCH_SIZE_FOR_INGEST, BATCH_SIZE_FOR_INGEST_DEFAULT));
+    }
+
+    /**
+     * Sets the number of elements converted into mutations as a single batch when adding elements.
+     *
+     * @param batchSizeForIngest the number of elements in each batch
+     */
+    public void setBatchSizeForIngest(final String batchSizeForIngest) {
+        set(BATCH_SIZE_FOR_INGEST, batchSizeForIngest);
+    }
+
+    /**
+     * Gets the maximum number of batches of elements that can be waiting to be converted or written to the
+     * batch writer at any one time when adding elements.
+     *
+     * @return the maximum number of batches in flight
+     */
+    public int getMaxBatchesInFlightForIngest() {
+        return Integer.parseInt(get(MAX_BATCHES_IN_FLIGHT_FOR_INGEST, MAX_BATCHES_IN_FLIGHT_FOR_INGEST_DEFAULT));
+    }
+
+    /**
+     * Sets the maximum number of batches of elements that can be waiting to be converted or written to the
+     * batch writer at any one time when adding elements.
+     *
+     * @param maxBatchesInFlightForIngest the maximum number of batches in flight
+     */
+    public void setMaxBatchesInFlightForIngest(final String maxBatchesInFlightForIngest) {
+        set(MAX_BATCHES_IN_FLIGHT_FOR_INGEST, maxBatchesInFlightForIngest);
+    }
+
+    /**
+     * Gets the maximum number of batches of seeds that can have their ranges built and scanners started in the
+     * background, ahead of the batch currently being read, when retrieving elements for seeds. If this is 0 each
+     * batch is only started once the previous batch has been read.
+     *
+     * @return the maximum number of batches in flight
+     */
+    public int getMaxBatchesInFlightForQuery() {
+        return Integer.parseInt(get(MAX_BATCHES_IN_FLIGHT_FOR_QUERY, MAX_BATCHES_IN_FLIGHT_FOR_QUERY_DEFAULT));
+    }
+
+    /**
+     * Sets the maximum number of batches of seeds that can have their ranges built and scanners started in the
+     * background, ahead of the batch currently being read, when retrieving elements for seeds.
+     *
+     * @param maxBatchesInFlightForQuery the maximum number of batches in flight
+     */
+    public void setMaxBatchesInFlightForQuery(final String maxBatchesInFlightForQuery) {
+        set(MAX_BATCHES_IN_FLIGHT_FOR_QUERY, maxBatchesInFlightForQuery);
+    }
+
+    /**
+     * Gets the number of threads shared by all queries to build the ranges and start the scanners for the batches of
+     * seeds that are in flight, see {@link #getMaxBatchesInFlightForQuery()}.
+     *
+     * @return the number of threads used to start batches in the background when retrieving elements
+     */
+    public int getNumThreadsForQuery() {
+        return Integer.parseInt(get(NUM_THREADS_FOR_QUERY, NUM_THREADS_FOR_QUERY_DEFAULT));
+    }
+
+    /**
+     * Sets the number of threads shared by all queries to build the ranges and start the scanners for the batches of
+     * seeds that are in flight.
+     *
+     * @param numThreadsForQuery the number of threads used to start batches in the background
+     */
+    public void setNumThreadsForQuery(final String numThreadsForQuery) {
+        set(NUM_THREADS_FOR_QUERY, numThreadsForQuery);
+    }
 }
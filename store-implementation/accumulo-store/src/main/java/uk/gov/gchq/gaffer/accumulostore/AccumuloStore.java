@@ -22,22 +22,18 @@ import org.apache.accumulo.core.client.BatchWriter;
 import org.apache.accumulo.core.client.ClientConfiguration;
 import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.IteratorSetting;
-import org.apache.accumulo.core.client.MutationsRejectedException;
 import org.apache.accumulo.core.client.mapreduce.AccumuloInputFormat;
 import org.apache.accumulo.core.client.mapreduce.lib.impl.InputConfigurator;
 import org.apache.accumulo.core.client.security.tokens.PasswordToken;
-import org.apache.accumulo.core.data.Key;
-import org.apache.accumulo.core.data.Mutation;
-import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.security.Authorizations;
-import org.apache.accumulo.core.security.ColumnVisibility;
 import org.apache.hadoop.conf.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.inputformat.ElementInputFormat;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloKeyPackage;
-import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.AccumuloCountGroupsHandler;
+import uk.gov.gchq.gaffer.accumulostore.operation.handler.AccumuloCountHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.AddElementsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetAdjacentEntitySeedsHandler;
 import uk.gov.gchq.gaffer.accumulostore.operation.handler.GetAllElementsHandler;
@@ -61,7 +57,7 @@ import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsInRanges;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetElementsWithinSet;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.GetEntitiesInRanges;
 import uk.gov.gchq.gaffer.accumulostore.operation.impl.SummariseGroupOverRanges;
-import uk.gov.gchq.gaffer.accumulostore.utils.Pair;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloElementWriter;
 import uk.gov.gchq.gaffer.accumulostore.utils.TableUtils;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
@@ -73,6 +69,8 @@ import uk.gov.gchq.gaffer.hdfs.operation.AddElementsFromHdfs;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.data.ElementSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentEntitySeeds;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
@@ -90,6 +88,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static uk.gov.gchq.gaffer.store.StoreTrait.ORDERED;
 import static uk.gov.gchq.gaffer.store.StoreTrait.POST_AGGREGATION_FILTERING;
@@ -112,9 +114,28 @@ import static uk.gov.gchq.gaffer.store.StoreTrait.VISIBILITY;
  */
 public class AccumuloStore extends Store {
     public static final Set<StoreTrait> TRAITS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(STORE_AGGREGATION, QUERY_AGGREGATION, PRE_AGGREGATION_FILTERING, POST_AGGREGATION_FILTERING, POST_TRANSFORMATION_FILTERING, TRANSFORMATION, STORE_VALIDATION, ORDERED, VISIBILITY)));
+    /**
+     * The names of the counters recorded in the store metrics for the number
+     * of batch scanners created and the number of ranges they scan.
+     */
+    public static final String BATCH_SCANNERS_METRIC = "accumulo.batchScanners";
+    public static final String SCANNED_RANGES_METRIC = "accumulo.scannedRanges";
+    /**
+     * The names of the counters recorded in the store metrics for the number
+     * of elements and mutations written when adding elements, the number of
+     * elements that could not be converted and the number of mutations that
+     * Accumulo rejected.
+     */
+    public static final String ELEMENTS_WRITTEN_METRIC = "accumulo.elementsWritten";
+    public static final String MUTATIONS_WRITTEN_METRIC = "accumulo.mutationsWritten";
+    public static final String FAILED_CONVERSIONS_METRIC = "accumulo.failedConversions";
+    public static final String REJECTED_MUTATIONS_METRIC = "accumulo.rejectedMutations";
     private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloStore.class);
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60L;
     private AccumuloKeyPackage keyPackage;
     private Connector connection = null;
+    private ExecutorService ingestExecutor;
+    private ExecutorService queryExecutor;
 
     @Override
     public void initialise(final Schema schema, final StoreProperties properties)
@@ -236,6 +257,8 @@ public class AccumuloStore extends Store {
         addOperationHandler(SampleDataForSplitPoints.class, new SampleDataForSplitPointsHandler());
         addOperationHandler(ImportAccumuloKeyValueFiles.class, new ImportAccumuloKeyValueFilesHandler());
         addOperationHandler(SummariseGroupOverRanges.class, new SummariseGroupOverRangesHandler());
+        addOperationHandler(Count.class, new AccumuloCountHandler());
+        addOperationHandler(CountGroups.class, new AccumuloCountGroupsHandler());
     }
 
     @Override
@@ -274,61 +297,82 @@ public class AccumuloStore extends Store {
     }
 
     protected void insertGraphElements(final Iterable<Element> elements) throws StoreException {
+        if (null == elements) {
+            throw new GafferRuntimeException("Could not find any elements to add to graph.", Status.BAD_REQUEST);
+        }
         // Create BatchWriter
         final BatchWriter writer = TableUtils.createBatchWriter(this);
-        // Loop through elements, convert to mutations, and add to
-        // BatchWriter.as
+        // Convert the elements to mutations, in parallel if configured, and
+        // add them to the BatchWriter.
         // The BatchWriter takes care of batching them up, sending them without
         // too high a latency, etc.
-        if (elements != null) {
-            for (final Element element : elements) {
-                final Pair<Key> keys;
-                try {
-                    keys = keyPackage.getKeyConverter().getKeysFromElement(element);
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error("Failed to create an accumulo key from element of type " + element.getGroup()
-                            + " when trying to insert elements");
-                    continue;
-                }
-                final Value value;
-                try {
-                    value = keyPackage.getKeyConverter().getValueFromElement(element);
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error("Failed to create an accumulo value from element of type " + element.getGroup()
-                            + " when trying to insert elements");
-                    continue;
-                }
-                final Mutation m = new Mutation(keys.getFirst().getRow());
-                m.put(keys.getFirst().getColumnFamily(), keys.getFirst().getColumnQualifier(),
-                        new ColumnVisibility(keys.getFirst().getColumnVisibility()), keys.getFirst().getTimestamp(), value);
-                try {
-                    writer.addMutation(m);
-                } catch (final MutationsRejectedException e) {
-                    LOGGER.error("Failed to create an accumulo key mutation");
-                    continue;
-                }
-                // If the GraphElement is a Vertex then there will only be 1 key,
-                // and the second will be null.
-                // If the GraphElement is an Edge then there will be 2 keys.
-                if (keys.getSecond() != null) {
-                    final Mutation m2 = new Mutation(keys.getSecond().getRow());
-                    m2.put(keys.getSecond().getColumnFamily(), keys.getSecond().getColumnQualifier(),
-                            new ColumnVisibility(keys.getSecond().getColumnVisibility()), keys.getSecond().getTimestamp(),
-                            value);
-                    try {
-                        writer.addMutation(m2);
-                    } catch (final MutationsRejectedException e) {
-                        LOGGER.error("Failed to create an accumulo key mutation");
-                    }
-                }
-            }
-        } else {
-            throw new GafferRuntimeException("Could not find any elements to add to graph.", Status.BAD_REQUEST);
+        new AccumuloElementWriter(keyPackage.getKeyConverter(), writer, getIngestExecutor(),
+                getProperties().getBatchSizeForIngest(), getProperties().getMaxBatchesInFlightForIngest(), getMetrics())
+                .write(elements);
+    }
+
+    /**
+     * Gets the {@link ExecutorService} used to convert elements into mutations
+     * when adding elements, creating it if required.
+     *
+     * @return the {@link ExecutorService}, or null if elements should be
+     * converted on the calling thread.
+     */
+    protected synchronized ExecutorService getIngestExecutor() {
+        final int numThreads = getProperties().getNumThreadsForIngest();
+        if (numThreads <= 1) {
+            return null;
         }
-        try {
-            writer.close();
-        } catch (final MutationsRejectedException e) {
-            LOGGER.warn("Accumulo batch writer failed to close", e);
+        if (null == ingestExecutor) {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads,
+                    THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                final Thread thread = new Thread(runnable, "accumulo-store-ingest");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            ingestExecutor = executor;
+        }
+        return ingestExecutor;
+    }
+
+    /**
+     * Gets the {@link ExecutorService} shared by the retrievers to start the
+     * batch scanners for batches of seeds in the background, creating it if
+     * required.
+     *
+     * @return the {@link ExecutorService}
+     */
+    public synchronized ExecutorService getQueryExecutor() {
+        if (null == queryExecutor) {
+            final int numThreads = getProperties().getNumThreadsForQuery();
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads,
+                    THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                final Thread thread = new Thread(runnable, "accumulo-store-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            queryExecutor = executor;
+        }
+        return queryExecutor;
+    }
+
+    @Override
+    protected String getMetricsId() {
+        return getProperties().getTable();
+    }
+
+    @Override
+    public synchronized void close() {
+        super.close();
+        if (null != ingestExecutor) {
+            ingestExecutor.shutdownNow();
+            ingestExecutor = null;
+        }
+        if (null != queryExecutor) {
+            queryExecutor.shutdownNow();
+            queryExecutor = null;
         }
     }
 
@@ -36,11 +36,17 @@ import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.function.TransformFunction;
+import uk.gov.gchq.gaffer.function.context.ConsumerProducerFunctionContext;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 /**
  * An {@link InputFormatBase} that allows the data in an Accumulo store to be read as {@link Element},
@@ -71,6 +77,7 @@ public class ElementInputFormat extends InputFormatBase<Element, NullWritable> {
 
         private AccumuloElementConverter converter;
         private View view;
+        private final Map<String, Set<String>> propertiesToDeserialiseByGroup = new HashMap<>();
 
         ElementWithPropertiesRecordReader(final String keyPackageClass, final Schema schema, final View view)
                 throws StoreException, SchemaException, SerialisationException, UnsupportedEncodingException {
@@ -92,13 +99,18 @@ public class ElementInputFormat extends InputFormatBase<Element, NullWritable> {
                 ++numKeysRead;
                 final Entry<Key, Value> entry = scannerIterator.next();
                 try {
-                    currentK = converter.getFullElement(entry.getKey(), entry.getValue());
+                    currentK = converter.getElementFromKey(entry.getKey());
                     final ViewElementDefinition viewDef = view.getElement(currentK.getGroup());
+                    converter.addPropertiesFromValue(currentK.getGroup(), entry.getValue(), currentK.getProperties(),
+                            getPropertiesToDeserialise(currentK.getGroup(), viewDef));
                     if (viewDef != null) {
                         final ElementTransformer transformer = viewDef.getTransformer();
                         if (transformer != null) {
                             transformer.transform(currentK);
                         }
+                        if (null != viewDef.getProperties()) {
+                            currentK.getProperties().keySet().retainAll(viewDef.getProperties());
+                        }
                     }
                     currentV = NullWritable.get();
                 } catch (final AccumuloElementConversionException e) {
@@ -111,6 +123,32 @@ public class ElementInputFormat extends InputFormatBase<Element, NullWritable> {
             }
             return false;
         }
+
+        /**
+         * Gets the properties that need to be deserialised from the value: the properties required by the view
+         * and the properties used by its transformer.
+         *
+         * @param group   the element group
+         * @param viewDef the view element definition for the group
+         * @return the properties to deserialise, or null if all the properties are required
+         */
+        private Set<String> getPropertiesToDeserialise(final String group, final ViewElementDefinition viewDef) {
+            if (null == viewDef || null == viewDef.getProperties()) {
+                return null;
+            }
+
+            Set<String> propertiesToDeserialise = propertiesToDeserialiseByGroup.get(group);
+            if (null == propertiesToDeserialise) {
+                propertiesToDeserialise = new HashSet<>(viewDef.getProperties());
+                if (null != viewDef.getTransformFunctions()) {
+                    for (final ConsumerProducerFunctionContext<String, TransformFunction> function : viewDef.getTransformFunctions()) {
+                        propertiesToDeserialise.addAll(function.getSelection());
+                    }
+                }
+                propertiesToDeserialiseByGroup.put(group, propertiesToDeserialise);
+            }
+            return propertiesToDeserialise;
+        }
     }
 
 
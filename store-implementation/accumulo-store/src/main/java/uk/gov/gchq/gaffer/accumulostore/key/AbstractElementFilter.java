@@ -25,15 +25,14 @@ import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.ElementFilterException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsCache;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.store.ElementValidator;
-import uk.gov.gchq.gaffer.store.schema.Schema;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Map;
 
 /**
@@ -79,20 +78,11 @@ public abstract class AbstractElementFilter extends Filter {
 
         validator = getElementValidator(options);
 
-        final Schema schema;
         try {
-            schema = Schema.fromJson(options.get(AccumuloStoreConstants.SCHEMA).getBytes(CommonConstants.UTF_8));
-        } catch (final UnsupportedEncodingException e) {
-            throw new SchemaException("Unable to deserialise the schema from JSON", e);
-        }
-
-        try {
-            final Class<?> elementConverterClass = Class
-                    .forName(options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS));
-            elementConverter = (AccumuloElementConverter) elementConverterClass.getConstructor(Schema.class)
-                    .newInstance(schema);
-        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException | NoSuchMethodException | SecurityException e) {
+            elementConverter = IteratorOptionsCache.getElementConverter(
+                    options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS),
+                    options.get(AccumuloStoreConstants.SCHEMA));
+        } catch (ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
             throw new ElementFilterException("Failed to load element converter from class name provided : "
                     + options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS), e);
         }
@@ -25,6 +25,7 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * The Accumulo ElementConverter Interface details the methods necessary to
@@ -101,6 +102,34 @@ public interface AccumuloElementConverter {
      */
     Properties getPropertiesFromValue(final String group, final Value value) throws AccumuloElementConversionException;
 
+    /**
+     * Deserialises the properties in an Accumulo {@link org.apache.accumulo.core.data.Value} and
+     * adds them to the provided {@link uk.gov.gchq.gaffer.data.element.Properties}.
+     * This allows callers to reuse a single Properties object for many values.
+     *
+     * @param group      the element group
+     * @param value      the Value containing the serialised properties
+     * @param properties the properties to add the deserialised properties to
+     * @throws AccumuloElementConversionException If conversion fails
+     */
+    void addPropertiesFromValue(final String group, final Value value, final Properties properties)
+            throws AccumuloElementConversionException;
+
+    /**
+     * Deserialises the requested properties in an Accumulo {@link org.apache.accumulo.core.data.Value} and
+     * adds them to the provided {@link uk.gov.gchq.gaffer.data.element.Properties}.
+     * The other properties in the value are skipped without being deserialised.
+     *
+     * @param group               the element group
+     * @param value               the Value containing the serialised properties
+     * @param properties          the properties to add the deserialised properties to
+     * @param propertiesToInclude the names of the properties to deserialise, or null to deserialise all properties
+     * @throws AccumuloElementConversionException If conversion fails
+     */
+    void addPropertiesFromValue(final String group, final Value value, final Properties properties,
+                                final Set<String> propertiesToInclude)
+            throws AccumuloElementConversionException;
+
     /**
      * Gets a new {@link Element} from an Accumulo {@link Key}.
      *
@@ -186,6 +215,18 @@ public interface AccumuloElementConverter {
     Properties getPropertiesFromColumnQualifier(final String group, final byte[] columnQualifier)
             throws AccumuloElementConversionException;
 
+    /**
+     * Adds the {@link uk.gov.gchq.gaffer.data.element.Properties} that are stored
+     * in the column qualifier to the provided properties.
+     *
+     * @param group           the element group
+     * @param columnQualifier the element column qualifier properties serialised into bytes
+     * @param properties      the properties to add the deserialised properties to
+     * @throws AccumuloElementConversionException If conversion fails
+     */
+    void addPropertiesFromColumnQualifier(final String group, final byte[] columnQualifier, final Properties properties)
+            throws AccumuloElementConversionException;
+
     /**
      * Truncates the provided columnQualifier, returning the byte representation of the serialised version of the specified
      * properties.
@@ -242,6 +283,18 @@ public interface AccumuloElementConverter {
     Properties getPropertiesFromColumnVisibility(final String group, final byte[] columnVisibility)
             throws AccumuloElementConversionException;
 
+    /**
+     * Adds the {@link uk.gov.gchq.gaffer.data.element.Properties} that are stored
+     * in the column visibility to the provided properties.
+     *
+     * @param group            the element group
+     * @param columnVisibility the element visibility property serialised into bytes
+     * @param properties       the properties to add the deserialised properties to
+     * @throws AccumuloElementConversionException If conversion fails
+     */
+    void addPropertiesFromColumnVisibility(final String group, final byte[] columnVisibility, final Properties properties)
+            throws AccumuloElementConversionException;
+
     /**
      * Creates a timestamp based on the provided {@link Properties}
      * will return a default value if properties do not have a valid timestamp value
@@ -267,4 +320,17 @@ public interface AccumuloElementConverter {
     Properties getPropertiesFromTimestamp(final String group, final long timestamp)
             throws AccumuloElementConversionException;
 
+    /**
+     * Adds the timestamp property to the provided properties, if the group
+     * contains a timestamp property.
+     *
+     * @param group      the group of the element - used to determine if the
+     *                   timestamp property should be added.
+     * @param timestamp  the timestamp
+     * @param properties the properties to add the timestamp property to
+     * @throws AccumuloElementConversionException if timestamp extraction fails.
+     */
+    void addPropertiesFromTimestamp(final String group, final long timestamp, final Properties properties)
+            throws AccumuloElementConversionException;
+
 }
@@ -17,7 +17,7 @@
 package uk.gov.gchq.gaffer.accumulostore.key;
 
 import org.apache.accumulo.core.client.IteratorSetting;
-import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
@@ -36,14 +36,14 @@ public interface IteratorSettingFactory {
      * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
      * can be used to apply an iterator that will filter elements based on their
      * vertices membership in a given
-     * {@link org.apache.hadoop.util.bloom.BloomFilter} to a
+     * bloom filter to a
      * {@link org.apache.accumulo.core.client.Scanner}.
      *
      * @param filter the bloom filter
-     * @return A new {@link IteratorSetting} for an Iterator capable of filtering elements based on checking its serialised form for membership in a {@link BloomFilter}
+     * @return A new {@link IteratorSetting} for an Iterator capable of filtering elements based on checking its serialised form for membership in a bloom {@link Filter}
      * @throws IteratorSettingException if an iterator setting could not be created
      */
-    IteratorSetting getBloomFilterIteratorSetting(final BloomFilter filter) throws IteratorSettingException;
+    IteratorSetting getBloomFilterIteratorSetting(final Filter filter) throws IteratorSettingException;
 
     /**
      * Returns an {@link org.apache.accumulo.core.client.IteratorSetting} that
@@ -140,6 +140,15 @@ public interface IteratorSettingFactory {
      */
     IteratorSetting getElementPropertyRangeQueryFilter(final GetElementsOperation<?, ?> operation);
 
+    /**
+     * Returns an Iterator that counts the elements in each group instead of
+     * returning them. It must be applied after all other scan iterators.
+     *
+     * @param limit the maximum number of elements to count, or null to count all elements
+     * @return A new {@link IteratorSetting} for an Iterator that will count the elements in each group
+     */
+    IteratorSetting getGroupCountIteratorSetting(final Integer limit);
+
     /**
      * Returns the iterator settings for a given iterator name. Allowed iterator
      * names are: Aggregator, Validator and Bloom_Filter.
@@ -37,9 +37,9 @@ import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public abstract class AbstractCoreKeyAccumuloElementConverter implements AccumuloElementConverter {
@@ -140,8 +140,22 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     public Properties getPropertiesFromValue(final String group, final Value value)
             throws AccumuloElementConversionException {
         final Properties properties = new Properties();
+        addPropertiesFromValue(group, value, properties);
+        return properties;
+    }
+
+    @Override
+    public void addPropertiesFromValue(final String group, final Value value, final Properties properties)
+            throws AccumuloElementConversionException {
+        addPropertiesFromValue(group, value, properties, null);
+    }
+
+    @Override
+    public void addPropertiesFromValue(final String group, final Value value, final Properties properties,
+                                       final Set<String> propertiesToInclude)
+            throws AccumuloElementConversionException {
         if (value == null || value.getSize() == 0) {
-            return properties;
+            return;
         }
         final byte[] bytes = value.get();
         int lastDelimiter = 0;
@@ -159,17 +173,18 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
                 final Serialisation<?> serialiser = (typeDefinition != null) ? typeDefinition.getSerialiser() : null;
                 if (null != serialiser) {
                     final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[lastDelimiter]);
-                    final byte[] length = new byte[numBytesForLength];
-                    System.arraycopy(bytes, lastDelimiter, length, 0, numBytesForLength);
                     try {
-                        currentPropLength = CompactRawSerialisationUtils.readLong(length);
+                        currentPropLength = CompactRawSerialisationUtils.readLong(bytes, lastDelimiter);
                     } catch (final SerialisationException e) {
                         throw new AccumuloElementConversionException("Exception reading length of property", e);
                     }
                     lastDelimiter += numBytesForLength;
-                    if (currentPropLength > 0) {
+                    if (null != propertiesToInclude && !propertiesToInclude.contains(propertyName)) {
+                        lastDelimiter += currentPropLength;
+                    } else if (currentPropLength > 0) {
                         try {
-                            properties.put(propertyName, serialiser.deserialise(Arrays.copyOfRange(bytes, lastDelimiter, lastDelimiter += currentPropLength)));
+                            properties.put(propertyName, serialiser.deserialise(bytes, lastDelimiter, (int) currentPropLength));
+                            lastDelimiter += currentPropLength;
                         } catch (SerialisationException e) {
                             throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
                         }
@@ -184,7 +199,6 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
             }
         }
 
-        return properties;
     }
 
     @Override
@@ -263,7 +277,13 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     public Properties getPropertiesFromColumnVisibility(final String group, final byte[] columnVisibility)
             throws AccumuloElementConversionException {
         final Properties properties = new Properties();
+        addPropertiesFromColumnVisibility(group, columnVisibility, properties);
+        return properties;
+    }
 
+    @Override
+    public void addPropertiesFromColumnVisibility(final String group, final byte[] columnVisibility, final Properties properties)
+            throws AccumuloElementConversionException {
         final SchemaElementDefinition elementDefinition = schema.getElement(group);
         if (null == elementDefinition) {
             throw new AccumuloElementConversionException("No SchemaElementDefinition found for group " + group + ", is this group in your schema or do your table iterators need updating?");
@@ -288,8 +308,6 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
                 }
             }
         }
-
-        return properties;
     }
 
     @Override
@@ -329,14 +347,21 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @Override
     public Properties getPropertiesFromColumnQualifier(final String group, final byte[] bytes)
             throws AccumuloElementConversionException {
+        final Properties properties = new Properties();
+        addPropertiesFromColumnQualifier(group, bytes, properties);
+        return properties;
+    }
+
+    @Override
+    public void addPropertiesFromColumnQualifier(final String group, final byte[] bytes, final Properties properties)
+            throws AccumuloElementConversionException {
         final SchemaElementDefinition elementDefinition = schema.getElement(group);
         if (null == elementDefinition) {
             throw new AccumuloElementConversionException("No SchemaElementDefinition found for group " + group + ", is this group in your schema or do your table iterators need updating?");
         }
 
-        final Properties properties = new Properties();
         if (bytes == null || bytes.length == 0) {
-            return properties;
+            return;
         }
 
         int lastDelimiter = 0;
@@ -349,25 +374,22 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
             final Serialisation<?> serialiser = (typeDefinition != null) ? typeDefinition.getSerialiser() : null;
             if (null != serialiser) {
                 final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[lastDelimiter]);
-                final byte[] length = new byte[numBytesForLength];
-                System.arraycopy(bytes, lastDelimiter, length, 0, numBytesForLength);
                 try {
-                    currentPropLength = CompactRawSerialisationUtils.readLong(length);
+                    currentPropLength = CompactRawSerialisationUtils.readLong(bytes, lastDelimiter);
                 } catch (final SerialisationException e) {
                     throw new AccumuloElementConversionException("Exception reading length of property", e);
                 }
                 lastDelimiter += numBytesForLength;
                 if (currentPropLength > 0) {
                     try {
-                        properties.put(propertyName, serialiser.deserialise(Arrays.copyOfRange(bytes, lastDelimiter, lastDelimiter += currentPropLength)));
+                        properties.put(propertyName, serialiser.deserialise(bytes, lastDelimiter, (int) currentPropLength));
+                        lastDelimiter += currentPropLength;
                     } catch (SerialisationException e) {
                         throw new AccumuloElementConversionException("Failed to deserialise property " + propertyName, e);
                     }
                 }
             }
         }
-
-        return properties;
     }
 
     @Override
@@ -389,10 +411,8 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
         int propIndex = 0;
         while (propIndex < numProps && lastDelimiter < arrayLength) {
             final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[lastDelimiter]);
-            final byte[] length = new byte[numBytesForLength];
-            System.arraycopy(bytes, lastDelimiter, length, 0, numBytesForLength);
             try {
-                currentPropLength = CompactRawSerialisationUtils.readLong(length);
+                currentPropLength = CompactRawSerialisationUtils.readLong(bytes, lastDelimiter);
             } catch (final SerialisationException e) {
                 throw new AccumuloElementConversionException("Exception reading length of property", e);
             }
@@ -436,17 +456,23 @@ public abstract class AbstractCoreKeyAccumuloElementConverter implements Accumul
     @Override
     public Properties getPropertiesFromTimestamp(final String group, final long timestamp)
             throws AccumuloElementConversionException {
+        final Properties properties = new Properties();
+        addPropertiesFromTimestamp(group, timestamp, properties);
+        return properties;
+    }
+
+    @Override
+    public void addPropertiesFromTimestamp(final String group, final long timestamp, final Properties properties)
+            throws AccumuloElementConversionException {
         final SchemaElementDefinition elementDefinition = schema.getElement(group);
         if (null == elementDefinition) {
             throw new AccumuloElementConversionException("No SchemaElementDefinition found for group " + group + ", is this group in your schema or do your table iterators need updating?");
         }
 
-        final Properties properties = new Properties();
         // If the element group requires a timestamp property then add it.
         if (null != schema.getTimestampProperty() && elementDefinition.containsProperty(schema.getTimestampProperty())) {
             properties.put(schema.getTimestampProperty(), timestamp);
         }
-        return properties;
     }
 
     @Override
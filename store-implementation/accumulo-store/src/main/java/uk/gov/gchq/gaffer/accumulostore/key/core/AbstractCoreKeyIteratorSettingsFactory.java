@@ -17,7 +17,7 @@
 package uk.gov.gchq.gaffer.accumulostore.key.core;
 
 import org.apache.accumulo.core.client.IteratorSetting;
-import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.core.impl.CoreKeyBloomFilterIterator;
@@ -26,6 +26,7 @@ import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.AggregatorIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPostAggregationFilter;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ElementPreAggregationFilter;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.GroupCountIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.RowIDAggregator;
 import uk.gov.gchq.gaffer.accumulostore.key.impl.ValidatorFilter;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
@@ -39,7 +40,7 @@ import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
 public abstract class AbstractCoreKeyIteratorSettingsFactory implements IteratorSettingFactory {
 
     @Override
-    public IteratorSetting getBloomFilterIteratorSetting(final BloomFilter filter) throws IteratorSettingException {
+    public IteratorSetting getBloomFilterIteratorSetting(final Filter filter) throws IteratorSettingException {
         return new IteratorSettingBuilder(AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_PRIORITY,
                 AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_NAME, CoreKeyBloomFilterIterator.class).bloomFilter(filter).build();
     }
@@ -144,6 +145,16 @@ public abstract class AbstractCoreKeyIteratorSettingsFactory implements Iterator
         return false;
     }
 
+    @Override
+    public IteratorSetting getGroupCountIteratorSetting(final Integer limit) {
+        final IteratorSettingBuilder builder = new IteratorSettingBuilder(AccumuloStoreConstants.GROUP_COUNT_ITERATOR_PRIORITY,
+                AccumuloStoreConstants.GROUP_COUNT_ITERATOR_NAME, GroupCountIterator.class);
+        if (null != limit) {
+            builder.option(AccumuloStoreConstants.GROUP_COUNT_LIMIT, limit.toString());
+        }
+        return builder.build();
+    }
+
     @Override
     public IteratorSetting getIteratorSetting(final AccumuloStore store, final String iteratorName) throws IteratorSettingException {
         switch (iteratorName) {
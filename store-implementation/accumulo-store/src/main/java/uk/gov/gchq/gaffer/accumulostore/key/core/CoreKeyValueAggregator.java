@@ -0,0 +1,319 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.core;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.accumulo.core.data.Value;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.function.AggregateFunction;
+import uk.gov.gchq.gaffer.function.aggregate.Max;
+import uk.gov.gchq.gaffer.function.aggregate.Min;
+import uk.gov.gchq.gaffer.function.aggregate.NumericAggregateFunction;
+import uk.gov.gchq.gaffer.function.aggregate.NumericAggregateFunction.NumberType;
+import uk.gov.gchq.gaffer.function.aggregate.Sum;
+import uk.gov.gchq.gaffer.function.context.PassThroughFunctionContext;
+import uk.gov.gchq.gaffer.serialisation.Serialisation;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawIntegerSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawSerialisationUtils;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A <code>CoreKeyValueAggregator</code> aggregates the {@link Value}s of a single group
+ * that were created by an {@link AbstractCoreKeyAccumuloElementConverter}.
+ * <p>
+ * The group's {@link ElementAggregator} and the serialisers of the properties stored in the
+ * value are resolved once, when the aggregator is created, and the same
+ * {@link Properties} are reused for every value, so no maps are created per value.
+ * If every property in the value is aggregated by a function that can work on the
+ * serialised form, for example a {@link Sum} of properties serialised with the
+ * {@link CompactRawLongSerialiser}, then the values are merged directly from the
+ * serialised bytes and the properties are never deserialised.
+ * <p>
+ * A <code>CoreKeyValueAggregator</code> is not thread safe, so each iterator should
+ * create its own.
+ */
+public class CoreKeyValueAggregator {
+    private final String group;
+    private final AbstractCoreKeyAccumuloElementConverter elementConverter;
+    private final ElementAggregator aggregator;
+    private final Properties properties = new Properties();
+    private final SerialisedProperty[] serialisedProperties;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    public CoreKeyValueAggregator(final String group, final AbstractCoreKeyAccumuloElementConverter elementConverter)
+            throws AccumuloElementConversionException {
+        this.group = group;
+        this.elementConverter = elementConverter;
+
+        final Schema schema = elementConverter.schema;
+        final SchemaElementDefinition elementDefinition = schema.getElement(group);
+        if (null == elementDefinition) {
+            throw new AccumuloElementConversionException("No SchemaElementDefinition found for group " + group + ", is this group in your schema or do your table iterators need updating?");
+        }
+
+        aggregator = elementDefinition.getAggregator();
+        serialisedProperties = createSerialisedProperties(elementDefinition, aggregator);
+    }
+
+    /**
+     * @return true if the values are merged directly from the serialised bytes
+     */
+    public boolean isSerialisedAggregation() {
+        return null != serialisedProperties;
+    }
+
+    /**
+     * Initialises the aggregator, ready to aggregate the values of a new key.
+     */
+    public void init() {
+        if (null != serialisedProperties) {
+            for (final SerialisedProperty property : serialisedProperties) {
+                property.init();
+            }
+        } else {
+            aggregator.initFunctions();
+        }
+    }
+
+    /**
+     * Aggregates a value.
+     *
+     * @param value the value to aggregate
+     * @throws AccumuloElementConversionException if the value could not be converted
+     */
+    public void aggregate(final Value value) throws AccumuloElementConversionException {
+        if (null == serialisedProperties) {
+            properties.clear();
+            elementConverter.addPropertiesFromValue(group, value, properties);
+            aggregator.aggregate(properties);
+            return;
+        }
+
+        if (null == value || value.getSize() == 0) {
+            return;
+        }
+
+        // Values are written as a sequence of length prefixed properties
+        final byte[] bytes = value.get();
+        int lastDelimiter = 0;
+        try {
+            for (int i = 0; i < serialisedProperties.length && lastDelimiter < bytes.length; i++) {
+                final int numBytesForLength = CompactRawSerialisationUtils.decodeVIntSize(bytes[lastDelimiter]);
+                final int propLength = (int) CompactRawSerialisationUtils.readLong(bytes, lastDelimiter);
+                lastDelimiter += numBytesForLength;
+                if (propLength > 0) {
+                    serialisedProperties[i].aggregate(CompactRawSerialisationUtils.readLong(bytes, lastDelimiter));
+                    lastDelimiter += propLength;
+                }
+            }
+        } catch (final SerialisationException e) {
+            throw new AccumuloElementConversionException("Failed to aggregate serialised properties for group " + group, e);
+        }
+    }
+
+    /**
+     * @return a new value containing the aggregated properties
+     * @throws AccumuloElementConversionException if the aggregated properties could not be serialised
+     */
+    public Value state() throws AccumuloElementConversionException {
+        if (null == serialisedProperties) {
+            properties.clear();
+            aggregator.state(properties);
+            final Value value = elementConverter.getValueFromProperties(group, properties);
+            properties.clear();
+            return value;
+        }
+
+        out.reset();
+        try {
+            for (final SerialisedProperty property : serialisedProperties) {
+                final byte[] bytes = property.state();
+                CompactRawSerialisationUtils.write(bytes.length, out);
+                out.write(bytes, 0, bytes.length);
+            }
+        } catch (final SerialisationException e) {
+            throw new AccumuloElementConversionException("Failed to write aggregated properties for group " + group, e);
+        }
+
+        return new Value(out.toByteArray());
+    }
+
+    @SuppressFBWarnings(value = "PZLA_PREFER_ZERO_LENGTH_ARRAYS", justification = "An empty array is valid, null means the properties must be deserialised")
+    private SerialisedProperty[] createSerialisedProperties(final SchemaElementDefinition elementDefinition,
+                                                            final ElementAggregator aggregator) {
+        if (null == aggregator.getFunctions()) {
+            return null;
+        }
+
+        final Map<String, AggregateFunction> functions = new HashMap<>();
+        for (final PassThroughFunctionContext<String, AggregateFunction> functionContext : aggregator.getFunctions()) {
+            final List<String> selection = functionContext.getSelection();
+            if (null == selection || 1 != selection.size()
+                    || null != functions.put(selection.get(0), functionContext.getFunction())) {
+                return null;
+            }
+        }
+
+        final List<SerialisedProperty> serialisedProps = new ArrayList<>();
+        for (final String propertyName : elementDefinition.getProperties()) {
+            if (elementConverter.isStoredInValue(propertyName, elementDefinition)) {
+                final SerialisedProperty serialisedProperty = createSerialisedProperty(
+                        elementDefinition.getPropertyTypeDef(propertyName), functions.remove(propertyName));
+                if (null == serialisedProperty) {
+                    return null;
+                }
+                serialisedProps.add(serialisedProperty);
+            }
+        }
+
+        // Functions on properties that are not in the value can only be applied to deserialised properties
+        if (!functions.isEmpty()) {
+            return null;
+        }
+
+        return serialisedProps.toArray(new SerialisedProperty[serialisedProps.size()]);
+    }
+
+    private static SerialisedProperty createSerialisedProperty(final TypeDefinition typeDefinition,
+                                                               final AggregateFunction function) {
+        if (null == typeDefinition || null == function) {
+            return null;
+        }
+
+        final Serialisation serialiser = typeDefinition.getSerialiser();
+        if (null == serialiser) {
+            return null;
+        }
+
+        final NumberType numberType;
+        if (CompactRawLongSerialiser.class.equals(serialiser.getClass())) {
+            numberType = NumberType.LONG;
+        } else if (CompactRawIntegerSerialiser.class.equals(serialiser.getClass())) {
+            numberType = NumberType.INT;
+        } else {
+            return null;
+        }
+
+        if (!(function instanceof NumericAggregateFunction)) {
+            return null;
+        }
+
+        final NumberType mode = ((NumericAggregateFunction) function).getMode();
+        if (NumberType.AUTO != mode && numberType != mode) {
+            return null;
+        }
+
+        if (Sum.class.equals(function.getClass())) {
+            return NumberType.INT == numberType ? new IntSum(serialiser) : new LongSum(serialiser);
+        }
+        if (Max.class.equals(function.getClass())) {
+            return new LongMax(serialiser);
+        }
+        if (Min.class.equals(function.getClass())) {
+            return new LongMin(serialiser);
+        }
+
+        return null;
+    }
+
+    /**
+     * A value property aggregated directly from its compact raw serialised form.
+     */
+    private abstract static class SerialisedProperty {
+        private final Serialisation serialiser;
+        private boolean hasValue;
+        private long aggregate;
+
+        SerialisedProperty(final Serialisation serialiser) {
+            this.serialiser = serialiser;
+        }
+
+        void init() {
+            hasValue = false;
+        }
+
+        void aggregate(final long value) {
+            if (hasValue) {
+                aggregate = aggregate(aggregate, value);
+            } else {
+                aggregate = value;
+                hasValue = true;
+            }
+        }
+
+        byte[] state() {
+            return hasValue ? CompactRawSerialisationUtils.writeLong(aggregate) : serialiser.serialiseNull();
+        }
+
+        protected abstract long aggregate(final long aggregate, final long value);
+    }
+
+    private static final class LongSum extends SerialisedProperty {
+        LongSum(final Serialisation serialiser) {
+            super(serialiser);
+        }
+
+        @Override
+        protected long aggregate(final long aggregate, final long value) {
+            return aggregate + value;
+        }
+    }
+
+    private static final class IntSum extends SerialisedProperty {
+        IntSum(final Serialisation serialiser) {
+            super(serialiser);
+        }
+
+        @Override
+        protected long aggregate(final long aggregate, final long value) {
+            // Overflow in the same way as summing Integers
+            return (int) aggregate + (int) value;
+        }
+    }
+
+    private static final class LongMax extends SerialisedProperty {
+        LongMax(final Serialisation serialiser) {
+            super(serialiser);
+        }
+
+        @Override
+        protected long aggregate(final long aggregate, final long value) {
+            return Math.max(aggregate, value);
+        }
+    }
+
+    private static final class LongMin extends SerialisedProperty {
+        LongMin(final Serialisation serialiser) {
+            super(serialiser);
+        }
+
+        @Override
+        protected long aggregate(final long aggregate, final long value) {
+            return Math.min(aggregate, value);
+        }
+    }
+}
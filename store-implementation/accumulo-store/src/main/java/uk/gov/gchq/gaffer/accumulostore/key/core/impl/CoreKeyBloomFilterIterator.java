@@ -24,6 +24,7 @@ import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 import org.apache.hadoop.util.bloom.BloomFilter;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.BloomFilterIteratorException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.BlockedBloomFilter;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
 import uk.gov.gchq.gaffer.commonutil.ByteArrayEscapeUtils;
 import java.io.ByteArrayInputStream;
@@ -36,11 +37,14 @@ import java.util.Map;
 
 /**
  * The BloomFilterIterator should filter out Edges based on their non searched for vertex's membership
- * of the provided bloomFilter.
+ * of the provided bloomFilter. The filter is a {@link BloomFilter} unless the
+ * {@link AccumuloStoreConstants#BLOOM_FILTER_CLASS} option names another
+ * {@link org.apache.hadoop.util.bloom.Filter} implementation.
  */
 public class CoreKeyBloomFilterIterator extends Filter {
 
-    protected BloomFilter filter;
+    protected org.apache.hadoop.util.bloom.Filter filter;
+    private BlockedBloomFilter blockedFilter;
 
     @Override
     public boolean accept(final Key key, final Value value) {
@@ -55,6 +59,9 @@ public class CoreKeyBloomFilterIterator extends Filter {
         if (pos == -1) {
             return true;
         }
+        if (null != blockedFilter) {
+            return blockedFilter.membershipTest(vertices, pos + 1, vertices.length - 2 - (pos + 1));
+        }
         return filter.membershipTest(new org.apache.hadoop.util.bloom.Key(Arrays.copyOfRange(vertices, pos + 1, vertices.length - 2)));
     }
 
@@ -74,7 +81,7 @@ public class CoreKeyBloomFilterIterator extends Filter {
         if (!options.containsKey(AccumuloStoreConstants.BLOOM_FILTER)) {
             throw new BloomFilterIteratorException("Must set the " + AccumuloStoreConstants.BLOOM_FILTER + " option");
         }
-        filter = new BloomFilter();
+        filter = createFilter(options.get(AccumuloStoreConstants.BLOOM_FILTER_CLASS));
         final byte[] bytes;
         try {
             bytes = options.get(AccumuloStoreConstants.BLOOM_FILTER).getBytes(AccumuloStoreConstants.BLOOM_FILTER_CHARSET);
@@ -88,14 +95,28 @@ public class CoreKeyBloomFilterIterator extends Filter {
         } catch (final IOException e) {
             throw new BloomFilterIteratorException("Failed to re-create serialised bloom filter", e);
         }
+        blockedFilter = filter instanceof BlockedBloomFilter ? (BlockedBloomFilter) filter : null;
         return true;
     }
 
+    private org.apache.hadoop.util.bloom.Filter createFilter(final String filterClass) {
+        if (null == filterClass) {
+            return new BloomFilter();
+        }
+        try {
+            return Class.forName(filterClass).asSubclass(org.apache.hadoop.util.bloom.Filter.class).newInstance();
+        } catch (final ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e) {
+            throw new BloomFilterIteratorException("Failed to create bloom filter of class " + filterClass, e);
+        }
+    }
+
     @Override
     public IteratorOptions describeOptions() {
         return new IteratorOptionsBuilder(AccumuloStoreConstants.BLOOM_FILTER_ITERATOR_NAME, "Bloom Filter")
                 .addNamedOption(AccumuloStoreConstants.BLOOM_FILTER,
                         "Required: The serialised form of the bloom filter that keys will be tested against")
+                .addNamedOption(AccumuloStoreConstants.BLOOM_FILTER_CLASS,
+                        "Optional: The class of the bloom filter, defaults to " + BloomFilter.class.getName())
                 .build();
     }
 
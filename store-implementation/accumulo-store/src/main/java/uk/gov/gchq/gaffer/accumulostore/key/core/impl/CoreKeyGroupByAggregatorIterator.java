@@ -19,19 +19,19 @@ import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.IteratorEnvironment;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
-import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AggregationException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsCache;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
-import uk.gov.gchq.gaffer.store.schema.Schema;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
 public class CoreKeyGroupByAggregatorIterator extends CoreKeyGroupByCombiner {
+    private final Map<String, ElementAggregator> aggregators = new HashMap<>();
 
     @Override
     public Properties reduce(final String group, final Key key, final Iterator<Properties> iter) {
@@ -44,7 +44,8 @@ public class CoreKeyGroupByAggregatorIterator extends CoreKeyGroupByCombiner {
             return properties;
         }
 
-        final ElementAggregator aggregator = schema.getElement(group).getAggregator();
+        final ElementAggregator aggregator = getAggregator(group);
+        aggregator.initFunctions();
         aggregator.aggregate(properties);
         while (iter.hasNext()) {
             aggregator.aggregate(iter.next());
@@ -68,20 +69,30 @@ public class CoreKeyGroupByAggregatorIterator extends CoreKeyGroupByCombiner {
         if (!super.validateOptions(options)) {
             return false;
         }
+        aggregators.clear();
 
         try {
-            final Class<?> elementConverterClass = Class
-                    .forName(options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS));
-            elementConverter = (AccumuloElementConverter) elementConverterClass.getConstructor(Schema.class)
-                    .newInstance(schema);
-        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException | NoSuchMethodException | SecurityException e) {
+            elementConverter = IteratorOptionsCache.getElementConverter(
+                    options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS),
+                    options.get(AccumuloStoreConstants.SCHEMA));
+        } catch (ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
             throw new AggregationException("Failed to load element converter from class name provided : "
                     + options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS), e);
         }
         return true;
     }
 
+    private ElementAggregator getAggregator(final String group) {
+        // The aggregators are reused for each key in the group, initFunctions resets them
+        ElementAggregator aggregator = aggregators.get(group);
+        if (null == aggregator) {
+            aggregator = schema.getElement(group).getAggregator();
+            aggregators.put(group, aggregator);
+        }
+
+        return aggregator;
+    }
+
     @Override
     public IteratorOptions describeOptions() {
         return new IteratorOptionsBuilder(super.describeOptions())
@@ -31,13 +31,11 @@ import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionE
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.accumulostore.utils.ByteUtils;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
-import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsCache;
 import uk.gov.gchq.gaffer.data.element.Properties;
-import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
@@ -64,6 +62,9 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
     /**
      * A Java Iterator that iterates over the properties for a given row Key
      * and column family from a source {@link SortedKeyValueIterator}.
+     * <p>
+     * The same {@link Properties} object is returned from every call to
+     * {@link #next()}, so it must be used before the next call.
      */
     public static class KeyValueIterator implements Iterator<Properties> {
         private final Key topKey;
@@ -72,6 +73,7 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
         private final AccumuloElementConverter elementConverter;
         private final Set<String> groupBy;
         private final Set<String> schemaGroupBy;
+        private final Properties properties = new Properties();
         private boolean hasNext;
 
         /**
@@ -123,7 +125,7 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
         }
 
         /**
-         * @return the next Value
+         * @return the properties of the next Value, this is the same object each time
          * @see java.util.Iterator#next()
          */
         @Override
@@ -132,25 +134,14 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
                 throw new NoSuchElementException();
             }
 
-            final byte[] topColumnQualifier = source.getTopKey().getColumnQualifierData().getBackingArray();
-            final byte[] topColumnVisibility = source.getTopKey().getColumnVisibilityData().getBackingArray();
-            final long topTimestamp = source.getTopKey().getTimestamp();
-            final Value topValue = new Value(source.getTopValue());
-
+            // Read the properties before moving the source on, as the source may reuse the key and value.
+            properties.clear();
             try {
-                source.next();
-                hasNext = _hasNext();
-            } catch (final IOException e) {
-                throw new RuntimeException(e); // Looks like a bad idea, but
-                // this is what the in-built Combiner iterator does
-            }
-
-            final Properties properties = new Properties();
-            try {
-                properties.putAll(elementConverter.getPropertiesFromColumnQualifier(group, topColumnQualifier));
-                properties.putAll(elementConverter.getPropertiesFromColumnVisibility(group, topColumnVisibility));
-                properties.putAll(elementConverter.getPropertiesFromValue(group, topValue));
-                properties.putAll(elementConverter.getPropertiesFromTimestamp(group, topTimestamp));
+                final Key top = source.getTopKey();
+                elementConverter.addPropertiesFromColumnQualifier(group, top.getColumnQualifierData().getBackingArray(), properties);
+                elementConverter.addPropertiesFromColumnVisibility(group, top.getColumnVisibilityData().getBackingArray(), properties);
+                elementConverter.addPropertiesFromValue(group, source.getTopValue(), properties);
+                elementConverter.addPropertiesFromTimestamp(group, top.getTimestamp(), properties);
                 if (null == groupBy) {
                     if (null != schemaGroupBy) {
                         properties.remove(schemaGroupBy);
@@ -162,6 +153,14 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
                 throw new RuntimeException(e);
             }
 
+            try {
+                source.next();
+                hasNext = _hasNext();
+            } catch (final IOException e) {
+                throw new RuntimeException(e); // Looks like a bad idea, but
+                // this is what the in-built Combiner iterator does
+            }
+
             return properties;
         }
 
@@ -279,8 +278,9 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
             }
 
             try {
-                final Properties properties = elementConverter.getPropertiesFromColumnQualifier(group, workKey.getColumnQualifierData().getBackingArray());
-                properties.putAll(elementConverter.getPropertiesFromColumnVisibility(group, workKey.getColumnVisibilityData().getBackingArray()));
+                final Properties properties = new Properties();
+                elementConverter.addPropertiesFromColumnQualifier(group, workKey.getColumnQualifierData().getBackingArray(), properties);
+                elementConverter.addPropertiesFromColumnVisibility(group, workKey.getColumnVisibilityData().getBackingArray(), properties);
                 properties.putAll(aggregatedProperties);
                 topValue = elementConverter.getValueFromProperties(group, properties);
                 topKey = new Key(workKey.getRowData().getBackingArray(), columnFamily,
@@ -327,6 +327,8 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
      * @param group the schema group taken from the key
      * @param key   The most recent version of the Key being reduced.
      * @param iter  An iterator over all {@link Properties} for different versions of the key.
+     *              The iterator reuses a single Properties object, so each Properties must be
+     *              consumed before the next is requested.
      * @return The combined {@link Properties}.
      */
     public abstract Properties reduce(final String group, final Key key, final Iterator<Properties> iter);
@@ -354,20 +356,13 @@ public abstract class CoreKeyGroupByCombiner extends WrappingIterator
         if (!options.containsKey(AccumuloStoreConstants.SCHEMA)) {
             throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.SCHEMA);
         }
-        try {
-            schema = Schema.fromJson(options.get(AccumuloStoreConstants.SCHEMA).getBytes(CommonConstants.UTF_8));
-        } catch (final UnsupportedEncodingException e) {
-            throw new SchemaException("Unable to deserialise the schema", e);
-        }
+        schema = IteratorOptionsCache.getSchema(options.get(AccumuloStoreConstants.SCHEMA));
 
         if (!options.containsKey(AccumuloStoreConstants.VIEW)) {
             throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.VIEW);
         }
-        try {
-            view = View.fromJson(options.get(AccumuloStoreConstants.VIEW).getBytes(CommonConstants.UTF_8));
-        } catch (final UnsupportedEncodingException e) {
-            throw new SchemaException("Unable to deserialise the view", e);
-        }
+        // The view is only used to look up the group by properties so the cached instance can be shared
+        view = IteratorOptionsCache.getView(options.get(AccumuloStoreConstants.VIEW));
 
         return true;
     }
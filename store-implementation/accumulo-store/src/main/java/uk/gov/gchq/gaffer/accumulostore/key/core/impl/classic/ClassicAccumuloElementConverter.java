@@ -26,7 +26,6 @@ import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
-import java.util.Arrays;
 import java.util.Map;
 
 public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElementConverter {
@@ -182,12 +181,13 @@ public class ClassicAccumuloElementConverter extends AbstractCoreKeyAccumuloElem
 
     private byte[] getDestBytes(final byte[] rowKey, final int[] positionsOfDelimiters) {
         return ByteArrayEscapeUtils
-                .unEscape(Arrays.copyOfRange(rowKey, positionsOfDelimiters[0] + 1, positionsOfDelimiters[1]));
+                .unEscape(rowKey, positionsOfDelimiters[0] + 1,
+                        positionsOfDelimiters[1] - positionsOfDelimiters[0] - 1);
     }
 
     private byte[] getSourceBytes(final byte[] rowKey, final int[] positionsOfDelimiters) {
         return ByteArrayEscapeUtils
-                .unEscape(Arrays.copyOfRange(rowKey, 0, positionsOfDelimiters[0]));
+                .unEscape(rowKey, 0, positionsOfDelimiters[0]);
     }
 
     private boolean matchEdgeSource(final Map<String, String> options) {
@@ -22,18 +22,20 @@ import org.apache.accumulo.core.iterators.Combiner;
 import org.apache.accumulo.core.iterators.IteratorEnvironment;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.AbstractCoreKeyAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.CoreKeyValueAggregator;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AggregationException;
 import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
 import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsCache;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.data.element.function.ElementAggregator;
-import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -46,6 +48,7 @@ import java.util.Map;
 public class AggregatorIterator extends Combiner {
     private Schema schema;
     private AccumuloElementConverter elementConverter;
+    private final Map<String, CoreKeyValueAggregator> valueAggregators = new HashMap<>();
 
     @Override
     public Value reduce(final Key key, final Iterator<Value> iter) {
@@ -62,6 +65,10 @@ public class AggregatorIterator extends Combiner {
             throw new AggregationException("Failed to recreate a graph element from a key and value", e);
         }
 
+        if (elementConverter instanceof AbstractCoreKeyAccumuloElementConverter) {
+            return reduceSerialised(group, value, iter);
+        }
+
         Properties properties;
         final ElementAggregator aggregator;
         try {
@@ -89,6 +96,25 @@ public class AggregatorIterator extends Combiner {
         }
     }
 
+    private Value reduceSerialised(final String group, final Value first, final Iterator<Value> iter) {
+        try {
+            CoreKeyValueAggregator valueAggregator = valueAggregators.get(group);
+            if (null == valueAggregator) {
+                valueAggregator = new CoreKeyValueAggregator(group, (AbstractCoreKeyAccumuloElementConverter) elementConverter);
+                valueAggregators.put(group, valueAggregator);
+            }
+
+            valueAggregator.init();
+            valueAggregator.aggregate(first);
+            while (iter.hasNext()) {
+                valueAggregator.aggregate(iter.next());
+            }
+            return valueAggregator.state();
+        } catch (final AccumuloElementConversionException e) {
+            throw new AggregationException("Failed to aggregate the values for group " + group, e);
+        }
+    }
+
     @Override
     public void init(final SortedKeyValueIterator<Key, Value> source, final Map<String, String> options,
                      final IteratorEnvironment env) throws IOException {
@@ -108,22 +134,17 @@ public class AggregatorIterator extends Combiner {
             throw new IllegalArgumentException("Must specify the " + AccumuloStoreConstants.SCHEMA);
         }
 
-        try {
-            schema = Schema.fromJson(options.get(AccumuloStoreConstants.SCHEMA).getBytes(CommonConstants.UTF_8));
-        } catch (final UnsupportedEncodingException e) {
-            throw new SchemaException("Unable to deserialise the schema from json", e);
-        }
+        schema = IteratorOptionsCache.getSchema(options.get(AccumuloStoreConstants.SCHEMA));
 
         try {
-            final Class<?> elementConverterClass = Class
-                    .forName(options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS));
-            elementConverter = (AccumuloElementConverter) elementConverterClass.getConstructor(Schema.class)
-                    .newInstance(schema);
-        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException | NoSuchMethodException | SecurityException e) {
+            elementConverter = IteratorOptionsCache.getElementConverter(
+                    options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS),
+                    options.get(AccumuloStoreConstants.SCHEMA));
+        } catch (ReflectiveOperationException | IllegalArgumentException | SecurityException e) {
             throw new AggregationException("Failed to load element converter from class name provided : "
                     + options.get(AccumuloStoreConstants.ACCUMULO_ELEMENT_CONVERTER_CLASS), e);
         }
+        valueAggregators.clear();
         return true;
     }
 
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.impl;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.OptionDescriber;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloStoreConstants;
+import uk.gov.gchq.gaffer.accumulostore.utils.IteratorOptionsBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The GroupCountIterator counts the key value pairs returned by the
+ * iterators below it for each column family, i.e. for each group, and
+ * returns a single key value pair containing the counts instead of the
+ * elements. It should be applied after all other scan iterators.
+ * <p>
+ * When a batch scanner is used the counts are partial counts for each tablet,
+ * which should be combined using {@link #getGroupCounts(Value, AccumuloElementConverter)}.
+ * If the {@link AccumuloStoreConstants#GROUP_COUNT_LIMIT} option is set then
+ * counting stops once the count for the tablet exceeds the limit.
+ */
+public class GroupCountIterator implements SortedKeyValueIterator<Key, Value>, OptionDescriber {
+    private SortedKeyValueIterator<Key, Value> source;
+    private long limit = -1;
+    private Key topKey;
+    private Value topValue;
+
+    @Override
+    public IteratorOptions describeOptions() {
+        return new IteratorOptionsBuilder(AccumuloStoreConstants.GROUP_COUNT_ITERATOR_NAME,
+                "Returns the number of key value pairs in each column family instead of the key value pairs")
+                .addNamedOption(AccumuloStoreConstants.GROUP_COUNT_LIMIT,
+                        "Optional limit on the number of key value pairs to count")
+                .build();
+    }
+
+    @Override
+    public boolean validateOptions(final Map<String, String> options) {
+        final String limitOption = options.get(AccumuloStoreConstants.GROUP_COUNT_LIMIT);
+        if (null != limitOption) {
+            try {
+                limit = Long.parseLong(limitOption);
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException("The " + AccumuloStoreConstants.GROUP_COUNT_LIMIT + " option must be a number", e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void init(final SortedKeyValueIterator<Key, Value> source, final Map<String, String> options,
+                     final IteratorEnvironment env) throws IOException {
+        this.source = source;
+        validateOptions(options);
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(final IteratorEnvironment env) {
+        final GroupCountIterator copy = new GroupCountIterator();
+        copy.source = source.deepCopy(env);
+        copy.limit = limit;
+        return copy;
+    }
+
+    @Override
+    public void seek(final Range range, final Collection<ByteSequence> columnFamilies, final boolean inclusive) throws IOException {
+        source.seek(range, columnFamilies, inclusive);
+        count();
+    }
+
+    @Override
+    public void next() throws IOException {
+        // All the key value pairs in the range are counted when the iterator is seeked
+        topKey = null;
+        topValue = null;
+    }
+
+    @Override
+    public boolean hasTop() {
+        return null != topKey;
+    }
+
+    @Override
+    public Key getTopKey() {
+        return topKey;
+    }
+
+    @Override
+    public Value getTopValue() {
+        return topValue;
+    }
+
+    /**
+     * Decodes the counts returned by this iterator.
+     *
+     * @param value            the value returned by this iterator
+     * @param elementConverter the element converter used to convert column families into groups
+     * @return the counts, keyed on group, in the order the groups were counted
+     * @throws AccumuloElementConversionException if the value cannot be decoded
+     */
+    public static Map<String, Long> getGroupCounts(final Value value, final AccumuloElementConverter elementConverter)
+            throws AccumuloElementConversionException {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(value.get()))) {
+            final int numGroups = input.readInt();
+            for (int i = 0; i < numGroups; i++) {
+                final byte[] columnFamily = new byte[input.readInt()];
+                input.readFully(columnFamily);
+                counts.merge(elementConverter.getGroupFromColumnFamily(columnFamily), input.readLong(), Long::sum);
+            }
+        } catch (final IOException e) {
+            throw new AccumuloElementConversionException("Unable to decode group counts", e);
+        }
+        return counts;
+    }
+
+    private void count() throws IOException {
+        topKey = null;
+        topValue = null;
+
+        final Map<ByteSequence, long[]> counts = new LinkedHashMap<>();
+        long total = 0;
+        final Key lastKey = new Key();
+        while (source.hasTop() && (limit < 0 || total <= limit)) {
+            final Key key = source.getTopKey();
+            final ByteSequence columnFamily = key.getColumnFamilyData();
+            final long[] count = counts.get(columnFamily);
+            if (null == count) {
+                counts.put(new ArrayByteSequence(columnFamily.toArray()), new long[]{1});
+            } else {
+                count[0]++;
+            }
+            total++;
+            lastKey.set(key);
+            source.next();
+        }
+
+        if (total > 0) {
+            // The last key counted is returned so that, if the scan is re-seeked
+            // after this key, the key value pairs that were counted are not counted again.
+            topKey = lastKey;
+            topValue = encode(counts);
+        }
+    }
+
+    private static Value encode(final Map<ByteSequence, long[]> counts) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(counts.size());
+            for (final Map.Entry<ByteSequence, long[]> entry : counts.entrySet()) {
+                final byte[] columnFamily = entry.getKey().toArray();
+                output.writeInt(columnFamily.length);
+                output.write(columnFamily);
+                output.writeLong(entry.getValue()[0]);
+            }
+        }
+        return new Value(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
+import uk.gov.gchq.gaffer.accumulostore.retriever.impl.AccumuloAllElementsRetriever;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
+
+/**
+ * Counts the groups of the elements returned by a GetAllElements operation
+ * on the tablet servers, so that the elements are not sent to the client.
+ * Any other input, or a view with transformers or post transform filters,
+ * is counted one element at a time.
+ */
+public class AccumuloCountGroupsHandler extends CountGroupsHandler {
+    @Override
+    public GroupCounts doOperation(final CountGroups operation, final Context context, final Store store)
+            throws OperationException {
+        if (!(operation.getElements() instanceof AccumuloAllElementsRetriever)
+                || !((AccumuloAllElementsRetriever) operation.getElements()).canCountOnTabletServers()) {
+            return super.doOperation(operation, context, store);
+        }
+
+        try {
+            return createGroupCounts(
+                    ((AccumuloAllElementsRetriever) operation.getElements()).countGroups(operation.getLimit()),
+                    store.getSchema(), operation.getLimit());
+        } catch (final RetrieverException e) {
+            throw new OperationException("Failed to count groups", e);
+        }
+    }
+}
@@ -34,11 +34,18 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.operation.GetElementsOperation;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public abstract class AccumuloItemRetriever<OP_TYPE extends GetElementsOperation<? extends SEED_TYPE, ?>, SEED_TYPE>
         extends AccumuloRetriever<OP_TYPE> {
@@ -72,89 +79,82 @@ public abstract class AccumuloItemRetriever<OP_TYPE extends GetElementsOperation
 
     protected abstract void addToRanges(final SEED_TYPE seed, final Set<Range> ranges) throws RangeFactoryException;
 
+    /**
+     * Iterates over the elements for the seeds, reading the seeds in batches of up to
+     * {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getMaxEntriesForBatchScanner()} and querying each
+     * batch with a {@link BatchScanner}. While a batch is being read, the ranges for up to
+     * {@link uk.gov.gchq.gaffer.accumulostore.AccumuloProperties#getMaxBatchesInFlightForQuery()} following batches
+     * are built and their scanners are started on the store's query executor, so the tablet servers can scan the
+     * next batches while the current batch is being converted.
+     * <p>
+     * The seeds are only ever read on the calling thread. They may be the lazy output of another retriever that
+     * waits on tasks in the same executor, so the tasks on the executor only start scanners and never wait for
+     * other tasks.
+     */
     protected class ElementIterator implements CloseableIterator<Element> {
         private final Iterator<? extends SEED_TYPE> idsIterator;
-        private int count;
-        private BatchScanner scanner;
-        private Iterator<Entry<Key, Value>> scannerIterator;
+        private final int maxBatchesInFlight;
+        private final ExecutorService batchExecutor;
+        private final Deque<CompletableFuture<Batch>> pendingBatches = new ArrayDeque<>();
+        private final Integer resultLimit = getResultLimit();
+        private volatile boolean closed;
+        private Batch batch;
         private Element nextElm;
+        private int numReturned;
 
         protected ElementIterator(final Iterator<? extends SEED_TYPE> idIterator) throws RetrieverException {
             idsIterator = idIterator;
-            count = 0;
-            final Set<Range> ranges = new HashSet<>();
-            while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                count++;
-                try {
-                    addToRanges(idsIterator.next(), ranges);
-                } catch (final RangeFactoryException e) {
-                    LOGGER.error("Failed to create a range from given seed pair", e);
-                }
-            }
-
-            // Create BatchScanner, appropriately configured (i.e. ranges,
-            // iterators, etc).
-            try {
-                scanner = getScanner(ranges);
-            } catch (TableNotFoundException | StoreException e) {
-                throw new RetrieverException(e);
+            maxBatchesInFlight = store.getProperties().getMaxBatchesInFlightForQuery();
+            batch = createBatch(nextRanges());
+            if (maxBatchesInFlight > 0 && idsIterator.hasNext()) {
+                batchExecutor = store.getQueryExecutor();
+                submitBatches();
+            } else {
+                batchExecutor = null;
             }
-            scannerIterator = scanner.iterator();
         }
 
         @Override
         public boolean hasNext() {
-            // If current scanner has next then return true.
             if (null != nextElm) {
                 return true;
             }
-            while (scannerIterator.hasNext()) {
-                final Entry<Key, Value> entry = scannerIterator.next();
-                try {
-                    nextElm = elementConverter.getFullElement(entry.getKey(), entry.getValue(),
-                            operation.getOptions());
-                } catch (final AccumuloElementConversionException e) {
-                    LOGGER.error("Failed to re-create an element from a key value entry set returning next element as null",
-                            e);
-                    continue;
-                }
-                doTransformation(nextElm);
-                if (doPostFilter(nextElm)) {
-                    return true;
-                } else {
-                    nextElm = null;
-                }
+            if (null != resultLimit && numReturned >= resultLimit) {
+                // Stop the scans, including the batches in flight, as soon as the result limit is reached
+                close();
+                return false;
             }
-            // If current scanner is spent then go back to the iterator
-            // through the provided entities, and see if there are more.
-            // If so create the next scanner, if there are no more entities
-            // then return false.
-            while (idsIterator.hasNext() && !scannerIterator.hasNext()) {
-                count = 0;
-                final Set<Range> ranges = new HashSet<>();
-                while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
-                    count++;
+            while (null != batch) {
+                while (batch.iterator.hasNext()) {
+                    final Entry<Key, Value> entry = batch.iterator.next();
                     try {
-                        addToRanges(idsIterator.next(), ranges);
-                    } catch (final RangeFactoryException e) {
-                        LOGGER.error("Failed to create a range from given seed", e);
+                        nextElm = getElement(entry);
+                    } catch (final AccumuloElementConversionException e) {
+                        LOGGER.error("Failed to re-create an element from a key value entry set returning next element as null",
+                                e);
+                        continue;
+                    }
+                    doTransformation(nextElm);
+                    if (doPostFilter(nextElm)) {
+                        return true;
+                    } else {
+                        nextElm = null;
                     }
                 }
-                scanner.close();
+
+                // The current batch is spent so move on to the next batch of seeds, if there is one.
+                batch.close();
                 try {
-                    scanner = getScanner(ranges);
-                } catch (TableNotFoundException | StoreException e) {
+                    batch = nextBatch();
+                } catch (final RetrieverException e) {
                     LOGGER.error(e.getMessage() + " returning iterator doesn't have any more elements", e);
+                    close();
                     return false;
                 }
-                scannerIterator = scanner.iterator();
-            }
-            if (!scannerIterator.hasNext()) {
-                scanner.close();
-                return false;
-            } else {
-                return hasNext();
             }
+
+            close();
+            return false;
         }
 
         @Override
@@ -166,6 +166,7 @@ public abstract class AccumuloItemRetriever<OP_TYPE extends GetElementsOperation
             }
             Element nextReturn = nextElm;
             nextElm = null;
+            numReturned++;
             return nextReturn;
         }
 
@@ -176,9 +177,112 @@ public abstract class AccumuloItemRetriever<OP_TYPE extends GetElementsOperation
 
         @Override
         public void close() {
-            if (scanner != null) {
-                scanner.close();
+            if (null != batch) {
+                batch.close();
+                batch = null;
+            }
+            if (null != batchExecutor) {
+                // Batches that have not started will not be created, the others are closed once they are created.
+                closed = true;
+                for (final CompletableFuture<Batch> pendingBatch : pendingBatches) {
+                    pendingBatch.thenAccept(createdBatch -> {
+                        if (null != createdBatch) {
+                            createdBatch.close();
+                        }
+                    });
+                }
+                pendingBatches.clear();
+            }
+        }
+
+        private Batch nextBatch() throws RetrieverException {
+            if (null == batchExecutor) {
+                return idsIterator.hasNext() ? createBatch(nextRanges()) : null;
             }
+
+            final Future<Batch> nextBatch = pendingBatches.poll();
+            if (null == nextBatch) {
+                return null;
+            }
+            submitBatches();
+            try {
+                return nextBatch.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RetrieverException(e);
+            } catch (final ExecutionException e) {
+                throw new RetrieverException(e.getCause());
+            }
+        }
+
+        private void submitBatches() {
+            while (idsIterator.hasNext() && pendingBatches.size() < maxBatchesInFlight) {
+                final Set<Range> ranges = nextRanges();
+                pendingBatches.add(CompletableFuture.supplyAsync(() -> createBackgroundBatch(ranges), batchExecutor));
+            }
+        }
+
+        private Batch createBackgroundBatch(final Set<Range> ranges) {
+            if (closed) {
+                return null;
+            }
+            try {
+                return createBatch(ranges);
+            } catch (final RetrieverException e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        /**
+         * Reads the next batch of seeds and builds their ranges. This must only be called on the thread that is
+         * iterating, as the ids iterator may not be thread safe.
+         *
+         * @return the ranges for the next batch of seeds
+         */
+        private Set<Range> nextRanges() {
+            int count = 0;
+            final Set<Range> ranges = new HashSet<>();
+            while (idsIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
+                count++;
+                try {
+                    addToRanges(idsIterator.next(), ranges);
+                } catch (final RangeFactoryException e) {
+                    LOGGER.error("Failed to create a range from given seed", e);
+                }
+            }
+            return ranges;
+        }
+
+        /**
+         * Creates a {@link BatchScanner}, appropriately configured (i.e. ranges, iterators, etc), for the ranges.
+         * Creating the iterator starts the scan.
+         *
+         * @param ranges the ranges to scan
+         * @return the batch
+         * @throws RetrieverException if the scanner could not be created
+         */
+        private Batch createBatch(final Set<Range> ranges) throws RetrieverException {
+            final BatchScanner scanner;
+            try {
+                scanner = getScanner(ranges);
+            } catch (TableNotFoundException | StoreException e) {
+                throw new RetrieverException(e);
+            }
+            return new Batch(scanner, scanner.iterator());
+        }
+    }
+
+    private static final class Batch {
+        private final BatchScanner scanner;
+        private final Iterator<Entry<Key, Value>> iterator;
+
+        private Batch(final BatchScanner scanner, final Iterator<Entry<Key, Value>> iterator) {
+            this.scanner = scanner;
+            this.iterator = iterator;
+        }
+
+        private void close() {
+            scanner.close();
         }
     }
 }
@@ -19,23 +19,29 @@ package uk.gov.gchq.gaffer.accumulostore.retriever;
 import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.io.Text;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.IteratorSettingFactory;
 import uk.gov.gchq.gaffer.accumulostore.key.RangeFactory;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
 import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.operation.GetElementsOperation;
+import uk.gov.gchq.gaffer.operation.GetIterableOperation;
 import uk.gov.gchq.gaffer.operation.GetOperation.IncludeEdgeType;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
+import java.util.Map.Entry;
 import java.util.Set;
 
 public abstract class AccumuloRetriever<OP_TYPE extends GetElementsOperation<?, ?>> implements CloseableIterable<Element> {
@@ -48,6 +54,7 @@ public abstract class AccumuloRetriever<OP_TYPE extends GetElementsOperation<?,
     protected final OP_TYPE operation;
     protected final AccumuloElementConverter elementConverter;
     protected final IteratorSetting[] iteratorSettings;
+    private final boolean propertiesRequired;
 
     protected AccumuloRetriever(final AccumuloStore store, final OP_TYPE operation,
                                 final User user, final IteratorSetting... iteratorSettings)
@@ -65,6 +72,52 @@ public abstract class AccumuloRetriever<OP_TYPE extends GetElementsOperation<?,
         } else {
             this.authorisations = new Authorizations();
         }
+        this.propertiesRequired = operation.isPopulateProperties() || hasClientSideFunctions();
+    }
+
+    /**
+     * Checks whether any group in the view has a transformer or post transform
+     * filter. These are only applied on the client, so the elements must be
+     * returned to the client with their properties.
+     *
+     * @return true if the view has functions that are applied on the client
+     */
+    public boolean hasClientSideFunctions() {
+        final View view = operation.getView();
+        if (null == view) {
+            return false;
+        }
+        for (final String group : view.getGroups()) {
+            final ViewElementDefinition viewDef = view.getElement(group);
+            if (null != viewDef && (null != viewDef.getTransformer() || null != viewDef.getPostTransformFilter())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the maximum number of elements the operation should return, or
+     * null if the results are not limited
+     */
+    protected Integer getResultLimit() {
+        return operation instanceof GetIterableOperation ? ((GetIterableOperation<?, ?>) operation).getResultLimit() : null;
+    }
+
+    /**
+     * Converts a key value entry into an element. If the operation does not
+     * populate properties and the view does not need the properties on the
+     * client, only the key is converted so the value is not deserialised.
+     *
+     * @param entry the key value entry
+     * @return the element
+     * @throws AccumuloElementConversionException if the entry could not be converted
+     */
+    protected Element getElement(final Entry<Key, Value> entry) throws AccumuloElementConversionException {
+        if (propertiesRequired) {
+            return elementConverter.getFullElement(entry.getKey(), entry.getValue(), operation.getOptions());
+        }
+        return elementConverter.getElementFromKey(entry.getKey(), operation.getOptions());
     }
 
     /**
@@ -121,6 +174,10 @@ public abstract class AccumuloRetriever<OP_TYPE extends GetElementsOperation<?,
             }
         }
         scanner.setRanges(ranges);
+        if (null != store.getMetrics()) {
+            store.getMetrics().incrementCounter(AccumuloStore.BATCH_SCANNERS_METRIC);
+            store.getMetrics().incrementCounter(AccumuloStore.SCANNED_RANGES_METRIC, ranges.size());
+        }
 
         // Currently hard links element class to column family position.
         if (IncludeEdgeType.NONE != operation.getIncludeEdges()) {
@@ -16,13 +16,14 @@
 
 package uk.gov.gchq.gaffer.accumulostore.retriever;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
-import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
@@ -40,9 +41,11 @@ import uk.gov.gchq.gaffer.operation.GetElementsOperation;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -120,32 +123,32 @@ public abstract class AccumuloSetRetriever extends AccumuloRetriever<GetElements
         return vertices;
     }
 
-    protected void addToBloomFilter(final Iterable<Object> vertices, final BloomFilter filter)
+    protected void addToBloomFilter(final Iterable<Object> vertices, final Filter filter)
             throws RetrieverException {
         addToBloomFilter(vertices.iterator(), filter);
     }
 
-    protected void addToBloomFilter(final Iterator<Object> vertices, final BloomFilter filter)
+    protected void addToBloomFilter(final Iterator<Object> vertices, final Filter filter)
             throws RetrieverException {
         while (vertices.hasNext()) {
             addToBloomFilter(vertices.next(), filter);
         }
     }
 
-    protected void addToBloomFilter(final Iterator<EntitySeed> seeds, final BloomFilter filter1,
-                                    final BloomFilter filter2) throws RetrieverException {
+    protected void addToBloomFilter(final Iterator<EntitySeed> seeds, final Filter filter1,
+                                    final Filter filter2) throws RetrieverException {
         while (seeds.hasNext()) {
             addToBloomFilter(seeds.next(), filter1, filter2);
         }
     }
 
-    protected void addToBloomFilter(final EntitySeed seed, final BloomFilter filter1, final BloomFilter filter2)
+    protected void addToBloomFilter(final EntitySeed seed, final Filter filter1, final Filter filter2)
             throws RetrieverException {
         addToBloomFilter(seed.getVertex(), filter1);
         addToBloomFilter(seed.getVertex(), filter2);
     }
 
-    private void addToBloomFilter(final Object vertex, final BloomFilter filter) throws RetrieverException {
+    private void addToBloomFilter(final Object vertex, final Filter filter) throws RetrieverException {
         try {
             filter.add(new org.apache.hadoop.util.bloom.Key(elementConverter.serialiseVertex(vertex)));
         } catch (final AccumuloElementConversionException e) {
@@ -153,12 +156,25 @@ public abstract class AccumuloSetRetriever extends AccumuloRetriever<GetElements
         }
     }
 
+    /**
+     * Creates a bloom filter, of the type configured in the store properties,
+     * to be passed to the iterators and sized for the given number of items.
+     *
+     * @param numItemsToBeAdded the number of items that will be added to the filter
+     * @return a new bloom filter
+     */
+    protected Filter createBloomFilter(final int numItemsToBeAdded) {
+        return BloomFilterUtils.getBloomFilter(store.getProperties().getBloomFilterType(),
+                store.getProperties().getFalsePositiveRate(), numItemsToBeAdded,
+                store.getProperties().getMaxBloomFilterToPassToAnIterator());
+    }
+
     protected abstract class AbstractElementIteratorReadIntoMemory implements CloseableIterator<Element> {
         private AccumuloRetriever<?> parentRetriever;
         private Iterator<Element> iterator;
         private Element nextElm;
 
-        protected void initialise(final BloomFilter filter) throws RetrieverException {
+        protected void initialise(final Filter filter) throws RetrieverException {
             IteratorSetting bloomFilter = null;
             IteratorSetting[] iteratorSettings1 = Arrays.copyOf(iteratorSettings, iteratorSettings.length + 1);
             try {
@@ -245,28 +261,40 @@ public abstract class AccumuloSetRetriever extends AccumuloRetriever<GetElements
 
     }
 
+    @SuppressFBWarnings(value = "UWF_FIELD_NOT_INITIALIZED_IN_CONSTRUCTOR",
+            justification = "The filters and scanner are created by updateScanner, which subclass constructors call")
     protected abstract class AbstractElementIteratorFromBatches implements CloseableIterator<Element> {
         protected Iterator<EntitySeed> idsAIterator;
         // The Bloom filter that is maintained client-side
         // as a secondary defeat of false positives.
-        protected BloomFilter clientSideFilter;
+        protected Filter clientSideFilter;
         protected Set<Object> currentSeeds;
         protected BatchScanner scanner;
-        protected BloomFilter filter;
+        protected Filter filter;
         private Iterator<Entry<Key, Value>> scannerIterator;
         private Element nextElm;
         private int count;
 
         public AbstractElementIteratorFromBatches() {
-            // Set up client side filter
-            clientSideFilter = BloomFilterUtils.getBloomFilter(store.getProperties().getClientSideBloomFilterSize());
-            // Create Bloom filter to be passed to iterators.
-            filter = BloomFilterUtils.getBloomFilter(store.getProperties().getFalsePositiveRate(),
-                    store.getProperties().getMaxEntriesForBatchScanner(),
-                    store.getProperties().getMaxBloomFilterToPassToAnIterator());
             currentSeeds = new HashSet<>();
         }
 
+        /**
+         * Creates the bloom filter to be passed to the iterators and the client
+         * side filter, each sized for the given number of items up to their
+         * maximum sizes, so small sets of seeds give small filters that are
+         * quick to build, serialise and query.
+         *
+         * @param numIteratorItems   the number of items that will be added to the filter passed to the iterators
+         * @param numClientSideItems the number of items that will be added to the client side filter
+         */
+        protected void createBloomFilters(final int numIteratorItems, final int numClientSideItems) {
+            filter = createBloomFilter(numIteratorItems);
+            clientSideFilter = BloomFilterUtils.getClientSideBloomFilter(store.getProperties().getBloomFilterType(),
+                    store.getProperties().getFalsePositiveRate(), numClientSideItems,
+                    store.getProperties().getClientSideBloomFilterSize());
+        }
+
         @Override
         public boolean hasNext() {
             if (null != nextElm) {
@@ -276,8 +304,7 @@ public abstract class AccumuloSetRetriever extends AccumuloRetriever<GetElements
                 while (_hasNext()) {
                     final Entry<Key, Value> entry = scannerIterator.next();
                     try {
-                        nextElm = elementConverter.getFullElement(entry.getKey(), entry.getValue(),
-                                operation.getOptions());
+                        nextElm = getElement(entry);
                     } catch (final AccumuloElementConversionException e) {
                         LOGGER.error("Failed to create next element from key and value entry set", e);
                         continue;
@@ -331,15 +358,31 @@ public abstract class AccumuloSetRetriever extends AccumuloRetriever<GetElements
             // and add them to a set.
             count = 0;
             final Set<Range> ranges = new HashSet<>();
+            final List<EntitySeed> batch = new ArrayList<>();
             while (idsAIterator.hasNext() && count < store.getProperties().getMaxEntriesForBatchScanner()) {
                 final EntitySeed seed = idsAIterator.next();
                 currentSeeds.add(seed.getVertex());
+                batch.add(seed);
                 count++;
                 try {
                     ranges.addAll(rangeFactory.getRange(seed, operation));
                 } catch (final RangeFactoryException e) {
                     LOGGER.error("Failed to create a range from given seed", e);
                 }
+            }
+
+            // If the filters have not been created yet then size them for this
+            // batch if it is the only one. Otherwise the number of seeds is not
+            // known, so size the iterator filter for a full batch and use the
+            // maximum size for the client side filter.
+            if (null == filter) {
+                if (idsAIterator.hasNext()) {
+                    createBloomFilters(store.getProperties().getMaxEntriesForBatchScanner(), Integer.MAX_VALUE);
+                } else {
+                    createBloomFilters(count, count);
+                }
+            }
+            for (final EntitySeed seed : batch) {
                 updateBloomFilterIfRequired(seed);
             }
 
@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
+import uk.gov.gchq.gaffer.accumulostore.key.impl.GroupCountIterator;
 import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.EmptyCloseableIterator;
@@ -35,8 +36,11 @@ import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.user.User;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -85,9 +89,70 @@ public class AccumuloAllElementsRetriever extends AccumuloSingleIDRetriever {
         return iterator;
     }
 
+    /**
+     * Checks whether the elements can be counted on the tablet servers. The
+     * view's transformers and post transform filters are only applied on the
+     * client, so if any group in the view has either of them the elements
+     * must be returned to the client to be counted.
+     *
+     * @return true if {@link #countGroups(Integer)} returns the same counts as counting the elements from {@link #iterator()}
+     */
+    public boolean canCountOnTabletServers() {
+        return !hasClientSideFunctions();
+    }
+
+    /**
+     * Counts the elements in each group using a {@link GroupCountIterator} on
+     * the tablet servers, so the elements themselves are not returned.
+     * If a limit is provided each tablet stops counting once it has counted
+     * more elements than the limit, so the counts returned may be partial.
+     *
+     * @param limit the maximum number of elements to count on each tablet, or null to count all elements
+     * @return a map of group to the number of elements in that group
+     * @throws RetrieverException if the counts could not be retrieved
+     */
+    public Map<String, Long> countGroups(final Integer limit) throws RetrieverException {
+        final Map<String, Long> groupCounts = new HashMap<>();
+        BatchScanner scanner = null;
+        try {
+            scanner = getScanner(Sets.newHashSet(new Range()));
+            scanner.addScanIterator(iteratorSettingFactory.getGroupCountIteratorSetting(limit));
+            for (final Entry<Key, Value> entry : scanner) {
+                for (final Entry<String, Long> groupCount : GroupCountIterator.getGroupCounts(entry.getValue(), elementConverter).entrySet()) {
+                    groupCounts.merge(groupCount.getKey(), groupCount.getValue(), Long::sum);
+                }
+            }
+        } catch (final TableNotFoundException | StoreException | AccumuloElementConversionException e) {
+            throw new RetrieverException("Failed to count elements", e);
+        } finally {
+            if (null != scanner) {
+                scanner.close();
+            }
+        }
+
+        return groupCounts;
+    }
+
+    /**
+     * Counts all the elements on the tablet servers.
+     *
+     * @return the number of elements
+     * @throws RetrieverException if the count could not be retrieved
+     */
+    public long count() throws RetrieverException {
+        long count = 0;
+        for (final Long groupCount : countGroups(null).values()) {
+            count += groupCount;
+        }
+        return count;
+    }
+
     protected class AllElementsIterator implements CloseableIterator<Element> {
+        private final Integer resultLimit = getResultLimit();
         private BatchScanner scanner;
         private Iterator<Entry<Key, Value>> scannerIterator;
+        private Element nextElm;
+        private int numReturned;
 
         protected AllElementsIterator() throws RetrieverException {
             final Set<Range> ranges = Sets.newHashSet(new Range());
@@ -101,27 +166,45 @@ public class AccumuloAllElementsRetriever extends AccumuloSingleIDRetriever {
 
         @Override
         public boolean hasNext() {
-            final boolean scannerHasNext = scannerIterator.hasNext();
-            if (!scannerHasNext) {
-                scanner.close();
+            if (null != nextElm) {
+                return true;
+            }
+            if (null != resultLimit && numReturned >= resultLimit) {
+                // Stop the scan as soon as the result limit is reached
+                close();
+                return false;
+            }
+            while (scannerIterator.hasNext()) {
+                final Entry<Key, Value> entry = scannerIterator.next();
+                try {
+                    nextElm = getElement(entry);
+                } catch (final AccumuloElementConversionException e) {
+                    LOGGER.error("Failed to re-create an element from a key value entry set, skipping it", e);
+                    continue;
+                }
+                doTransformation(nextElm);
+                if (doPostFilter(nextElm)) {
+                    return true;
+                } else {
+                    nextElm = null;
+                }
             }
 
-            return scannerHasNext;
+            scanner.close();
+            return false;
         }
 
         @Override
         public Element next() {
-            final Entry<Key, Value> entry = scannerIterator.next();
-            try {
-                final Element elm = elementConverter.getFullElement(entry.getKey(), entry.getValue(),
-                        operation.getOptions());
-                doTransformation(elm);
-                return elm;
-            } catch (final AccumuloElementConversionException e) {
-                LOGGER.error("Failed to re-create an element from a key value entry set returning next element as null",
-                        e);
-                return null;
+            if (null == nextElm) {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
             }
+            final Element nextReturn = nextElm;
+            nextElm = null;
+            numReturned++;
+            return nextReturn;
         }
 
         @Override
@@ -17,14 +17,13 @@
 package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
 
 import org.apache.accumulo.core.client.IteratorSetting;
-import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import org.apache.hadoop.util.bloom.Key;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
 import uk.gov.gchq.gaffer.accumulostore.operation.AbstractAccumuloTwoSetSeededOperation;
 import uk.gov.gchq.gaffer.accumulostore.retriever.AccumuloSetRetriever;
 import uk.gov.gchq.gaffer.accumulostore.retriever.RetrieverException;
-import uk.gov.gchq.gaffer.accumulostore.utils.BloomFilterUtils;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
@@ -42,28 +41,28 @@ import java.util.Set;
  * {@link uk.gov.gchq.gaffer.operation.data.EntitySeed}s in set A.
  * <p>
  * This is done by querying for set A, and uses a
- * {@link org.apache.hadoop.util.bloom.BloomFilter}s in a filtering iterator to
+ * Bloom filters in a filtering iterator to
  * identify edges that are likely to be between a member of set A and a member
  * of set B. Only these edges are returned to the client, and this reduces the
  * amount of data sent to the client.
  * <p>
  * This operates in two modes. In the first mode the seeds from both sets A and
  * B are loaded into memory (client-side). The seeds from set B are loaded into
- * a {@link org.apache.hadoop.util.bloom.BloomFilter}. This is passed to the
+ * a Bloom filter. This is passed to the
  * iterators to filter out all edges for which the non-query end is definitely
  * not in set B. A secondary check is done within this class to check that the
  * edge is definitely between elements of the set (this defeats any false
  * positives, i.e. edges that passed the
- * {@link org.apache.hadoop.util.bloom.BloomFilter} check in the iterators).
+ * Bloom filter check in the iterators).
  * This secondary check uses the in memory set of seeds (and hence there are
  * guaranteed to be no false positives returned to the user).
  * <p>
  * In the second mode, where there are too many seeds to be loaded into memory,
  * the seeds in set A are queried for in batches. The seeds in set B are loaded
- * into two {@link org.apache.hadoop.util.bloom.BloomFilter}s. The first of
+ * into two Bloom filters. The first of
  * these is relatively small and is passed to the filtering iterator to filter
  * out edges that are definitely not to set B. The second, larger,
- * {@link org.apache.hadoop.util.bloom.BloomFilter} is used client-side to
+ * Bloom filter is used client-side to
  * further reduce the chances of false positives making it to the user.
  */
 public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever {
@@ -121,8 +120,7 @@ public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever {
 
             // Create Bloom filter, read through set of entities B and add them
             // to Bloom filter
-            final BloomFilter filter = BloomFilterUtils.getBloomFilter(store.getProperties().getFalsePositiveRate(),
-                    verticesB.size(), store.getProperties().getMaxBloomFilterToPassToAnIterator());
+            final Filter filter = createBloomFilter(verticesB.size());
             addToBloomFilter(verticesB, filter);
             initialise(filter);
         }
@@ -141,7 +139,11 @@ public class AccumuloIDBetweenSetsRetriever extends AccumuloSetRetriever {
 
     private class ElementIteratorFromBatches extends AbstractElementIteratorFromBatches {
         ElementIteratorFromBatches() throws RetrieverException {
-            addToBloomFilter(seedSetBIter, filter, clientSideFilter);
+            // Size both filters for set B, which is added to them up front
+            final Set<Object> verticesB = extractVertices(seedSetBIter);
+            createBloomFilters(verticesB.size(), verticesB.size());
+            addToBloomFilter(verticesB, filter);
+            addToBloomFilter(verticesB, clientSideFilter);
             idsAIterator = seedSetAIter;
             updateScanner();
         }
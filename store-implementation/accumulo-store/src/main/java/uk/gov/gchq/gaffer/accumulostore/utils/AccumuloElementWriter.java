@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.ConstraintViolationSummary;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converts {@link Element}s into {@link Mutation}s and adds them to a {@link BatchWriter}.
+ * <p>
+ * Elements are grouped into batches and each batch is converted into one {@link Mutation} per row. If an
+ * {@link ExecutorService} is provided the batches are converted in parallel, with at most maxBatchesInFlight batches
+ * waiting to be written at any time, and the calling thread adds the converted batches to the {@link BatchWriter}
+ * in the order the elements were provided. Without an {@link ExecutorService} the batches are converted on the
+ * calling thread.
+ * <p>
+ * Parsed {@link ColumnVisibility}s are cached, as most graphs only contain a small number of distinct visibilities.
+ * <p>
+ * If {@link StoreMetrics} are provided, the number of elements written, mutations written, elements that failed
+ * conversion and rejected mutations are added to the store's counters once the elements have been written.
+ */
+public class AccumuloElementWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccumuloElementWriter.class);
+    private static final int MAX_CACHED_VISIBILITIES = 1000;
+
+    private final AccumuloElementConverter converter;
+    private final BatchWriter writer;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxBatchesInFlight;
+    private final StoreMetrics metrics;
+    private final Map<ByteSequence, ColumnVisibility> visibilityCache = new ConcurrentHashMap<>();
+
+    private final AtomicLong numElements = new AtomicLong();
+    private final AtomicLong numFailedConversions = new AtomicLong();
+    private long numMutations;
+    private long numRejectedMutations;
+
+    public AccumuloElementWriter(final AccumuloElementConverter converter, final BatchWriter writer,
+                                 final ExecutorService executor, final int batchSize, final int maxBatchesInFlight,
+                                 final StoreMetrics metrics) {
+        this.converter = converter;
+        this.writer = writer;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxBatchesInFlight = maxBatchesInFlight;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Converts the elements and adds them to the {@link BatchWriter}, then closes the {@link BatchWriter}.
+     *
+     * @param elements the elements to write
+     * @throws StoreException if an element could not be converted due to an unexpected error
+     */
+    public void write(final Iterable<Element> elements) throws StoreException {
+        final long startTime = System.currentTimeMillis();
+        final Deque<Future<Collection<Mutation>>> inFlight = new ArrayDeque<>();
+        try {
+            List<Element> batch = new ArrayList<>(batchSize);
+            for (final Element element : elements) {
+                batch.add(element);
+                if (batch.size() == batchSize) {
+                    submit(batch, inFlight);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, inFlight);
+            }
+            while (!inFlight.isEmpty()) {
+                addMutations(getResult(inFlight.poll()));
+            }
+        } finally {
+            for (final Future<Collection<Mutation>> future : inFlight) {
+                future.cancel(true);
+            }
+            close();
+            recordMetrics();
+        }
+        final long duration = Math.max(1, System.currentTimeMillis() - startTime);
+        LOGGER.info("Added {} elements as {} mutations in {}ms ({} elements/s). {} elements failed conversion, {} mutations were rejected",
+                numElements.get(), numMutations, duration, numElements.get() * 1000 / duration,
+                numFailedConversions.get(), numRejectedMutations);
+    }
+
+    public long getNumElements() {
+        return numElements.get();
+    }
+
+    public long getNumFailedConversions() {
+        return numFailedConversions.get();
+    }
+
+    public long getNumMutations() {
+        return numMutations;
+    }
+
+    public long getNumRejectedMutations() {
+        return numRejectedMutations;
+    }
+
+    private void submit(final List<Element> batch, final Deque<Future<Collection<Mutation>>> inFlight)
+            throws StoreException {
+        if (null == executor) {
+            addMutations(convert(batch));
+            return;
+        }
+        if (inFlight.size() >= maxBatchesInFlight) {
+            addMutations(getResult(inFlight.poll()));
+        }
+        inFlight.add(executor.submit(() -> convert(batch)));
+    }
+
+    private Collection<Mutation> getResult(final Future<Collection<Mutation>> future) throws StoreException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreException("Interrupted whilst converting elements to mutations", e);
+        } catch (final ExecutionException e) {
+            throw new StoreException("Failed to convert elements to mutations", e.getCause());
+        }
+    }
+
+    private Collection<Mutation> convert(final List<Element> batch) {
+        final List<Mutation> mutations = new ArrayList<>();
+        // Group the updates by row so elements in the same row are sent together
+        final Map<ByteSequence, Mutation> rowToMutation = new HashMap<>();
+        final Set<Key> keys = new HashSet<>();
+        for (final Element element : batch) {
+            final Pair<Key> elementKeys;
+            final Value value;
+            try {
+                elementKeys = converter.getKeysFromElement(element);
+                value = converter.getValueFromElement(element);
+            } catch (final AccumuloElementConversionException e) {
+                LOGGER.error("Failed to create an accumulo key or value from element of type " + element.getGroup()
+                        + " when trying to insert elements");
+                numFailedConversions.incrementAndGet();
+                continue;
+            }
+            numElements.incrementAndGet();
+            put(elementKeys.getFirst(), value, rowToMutation, keys, mutations);
+            // If the GraphElement is a Vertex then there will only be 1 key,
+            // and the second will be null.
+            // If the GraphElement is an Edge then there will be 2 keys.
+            if (null != elementKeys.getSecond()) {
+                put(elementKeys.getSecond(), value, rowToMutation, keys, mutations);
+            }
+        }
+        return mutations;
+    }
+
+    private void put(final Key key, final Value value, final Map<ByteSequence, Mutation> rowToMutation,
+                     final Set<Key> keys, final List<Mutation> mutations) {
+        final ByteSequence row = key.getRowData();
+        Mutation mutation;
+        if (!keys.add(key)) {
+            // Updates to the same key within a single mutation are not kept separately by Accumulo, so
+            // a duplicate key is sent in its own mutation to avoid it being lost if the group is not aggregated.
+            mutation = new Mutation(row.getBackingArray(), row.offset(), row.length());
+            mutations.add(mutation);
+        } else {
+            mutation = rowToMutation.get(row);
+            if (null == mutation) {
+                mutation = new Mutation(row.getBackingArray(), row.offset(), row.length());
+                rowToMutation.put(row, mutation);
+                mutations.add(mutation);
+            }
+        }
+        mutation.put(key.getColumnFamilyData().toArray(), key.getColumnQualifierData().toArray(),
+                getVisibility(key.getColumnVisibilityData()), key.getTimestamp(), value.get());
+    }
+
+    private ColumnVisibility getVisibility(final ByteSequence visibility) {
+        ColumnVisibility columnVisibility = visibilityCache.get(visibility);
+        if (null == columnVisibility) {
+            columnVisibility = new ColumnVisibility(visibility.toArray());
+            if (visibilityCache.size() < MAX_CACHED_VISIBILITIES) {
+                visibilityCache.put(visibility, columnVisibility);
+            }
+        }
+        return columnVisibility;
+    }
+
+    private void addMutations(final Collection<Mutation> mutations) {
+        try {
+            writer.addMutations(mutations);
+            numMutations += mutations.size();
+        } catch (final MutationsRejectedException e) {
+            LOGGER.error("Failed to add accumulo mutations", e);
+            numRejectedMutations += getNumRejectedMutations(e);
+        }
+    }
+
+    private void close() {
+        try {
+            writer.close();
+        } catch (final MutationsRejectedException e) {
+            LOGGER.warn("Accumulo batch writer failed to close", e);
+            numRejectedMutations += getNumRejectedMutations(e);
+        }
+    }
+
+    private void recordMetrics() {
+        if (null != metrics) {
+            metrics.incrementCounter(AccumuloStore.ELEMENTS_WRITTEN_METRIC, numElements.get());
+            metrics.incrementCounter(AccumuloStore.MUTATIONS_WRITTEN_METRIC, numMutations);
+            metrics.incrementCounter(AccumuloStore.FAILED_CONVERSIONS_METRIC, numFailedConversions.get());
+            metrics.incrementCounter(AccumuloStore.REJECTED_MUTATIONS_METRIC, numRejectedMutations);
+        }
+    }
+
+    private static long getNumRejectedMutations(final MutationsRejectedException e) {
+        long numRejected = e.getUnknownExceptions() + e.getSecurityErrorCodes().size();
+        for (final ConstraintViolationSummary summary : e.getConstraintViolationSummaries()) {
+            numRejected += summary.getNumberOfViolatingMutations();
+        }
+        return numRejected;
+    }
+}
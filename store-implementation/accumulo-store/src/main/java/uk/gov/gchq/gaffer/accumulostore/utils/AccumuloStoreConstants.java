@@ -28,6 +28,7 @@ public final class AccumuloStoreConstants {
     public static final String COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_NAME = "Column_Qualifier_Aggregator";
     public static final String ROW_ID_AGGREGATOR_ITERATOR_NAME = "Row_ID_Aggregator";
     public static final String RANGE_ELEMENT_PROPERTY_FILTER_ITERATOR_NAME = "Range_Element_Property_Filter";
+    public static final String GROUP_COUNT_ITERATOR_NAME = "Group_Count";
 
     // Converter class to be used in iterators must be on classpath of all
     // iterators
@@ -46,7 +47,9 @@ public final class AccumuloStoreConstants {
     public static final String DEDUPLICATE_UNDIRECTED_EDGES = "Deduplicate_Undirected_Edges";
     public static final String BLOOM_FILTER = "Bloom_Filter";
     public static final String BLOOM_FILTER_CHARSET = "ISO-8859-1";
+    public static final String BLOOM_FILTER_CLASS = "Bloom_Filter_Class";
     public static final String COLUMN_FAMILY = "columnFamily";
+    public static final String GROUP_COUNT_LIMIT = "groupCountLimit";
 
     // Iterator priorities
     // Applied during major compactions, minor compactions  and scans.
@@ -67,6 +70,8 @@ public final class AccumuloStoreConstants {
     public static final int COLUMN_QUALIFIER_AGGREGATOR_ITERATOR_PRIORITY = 36;
     // Applied only during scans.
     public static final int ELEMENT_POST_AGGREGATION_FILTER_ITERATOR_PRIORITY = 37;
+    // Applied only during scans, after all other iterators.
+    public static final int GROUP_COUNT_ITERATOR_PRIORITY = 50;
 
     // Operations options
     public static final String OPERATION_HDFS_USE_ACCUMULO_PARTITIONER = "accumulostore.operation.hdfs.use_accumulo_partitioner";
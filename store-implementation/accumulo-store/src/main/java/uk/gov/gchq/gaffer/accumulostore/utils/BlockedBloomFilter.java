@@ -0,0 +1,273 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.hadoop.io.WritableUtils;
+import org.apache.hadoop.util.bloom.Filter;
+import org.apache.hadoop.util.bloom.Key;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A <code>BlockedBloomFilter</code> is a split block Bloom filter. The bit
+ * vector is divided into 256 bit blocks of eight 32 bit words. Each item is
+ * hashed once, the hash selects a block and sets one bit in each word of that
+ * block, so adding or testing an item touches a single cache line rather than
+ * one random location per hash function.
+ * <p>
+ * For the same number of bits the false positive rate is slightly higher than
+ * a {@link org.apache.hadoop.util.bloom.BloomFilter}, but items are added and
+ * tested much faster and the serialised form is smaller as it does not need
+ * to record the number of hashes or hash type.
+ */
+public class BlockedBloomFilter extends Filter {
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Integer.SIZE;
+    private static final int[] SALT = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+    };
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private int numBlocks;
+    private int[] words;
+    private long seed;
+
+    /**
+     * Creates an empty filter, to be populated by {@link #readFields(DataInput)}.
+     */
+    public BlockedBloomFilter() {
+        this(BITS_PER_BLOCK);
+    }
+
+    /**
+     * @param numBits the number of bits in the filter, rounded up to a whole
+     *                number of 256 bit blocks
+     */
+    public BlockedBloomFilter(final int numBits) {
+        this(numBits, 0);
+    }
+
+    /**
+     * @param numBits the number of bits in the filter, rounded up to a whole
+     *                number of 256 bit blocks
+     * @param seed    the hash seed, filters with different seeds give
+     *                independent false positives
+     */
+    public BlockedBloomFilter(final int numBits, final long seed) {
+        super();
+        this.seed = seed;
+        numBlocks = Math.max(1, (int) ((numBits + (long) BITS_PER_BLOCK - 1) / BITS_PER_BLOCK));
+        words = new int[numBlocks * WORDS_PER_BLOCK];
+    }
+
+    public int getNumBits() {
+        return numBlocks * BITS_PER_BLOCK;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public void add(final Key key) {
+        if (null == key) {
+            throw new NullPointerException("key cannot be null");
+        }
+        add(key.getBytes());
+    }
+
+    public void add(final byte[] bytes) {
+        add(bytes, 0, bytes.length);
+    }
+
+    public void add(final byte[] bytes, final int offset, final int length) {
+        final long hash = hash(seed, bytes, offset, length);
+        final int start = getBlock(hash) * WORDS_PER_BLOCK;
+        final int lowHash = (int) hash;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            words[start + i] |= 1 << ((lowHash * SALT[i]) >>> 27);
+        }
+    }
+
+    @Override
+    public boolean membershipTest(final Key key) {
+        if (null == key) {
+            throw new NullPointerException("key cannot be null");
+        }
+        return membershipTest(key.getBytes());
+    }
+
+    public boolean membershipTest(final byte[] bytes) {
+        return membershipTest(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Tests whether a range of a byte array is in the filter, without copying it.
+     *
+     * @param bytes  the array containing the item
+     * @param offset the start of the item in the array
+     * @param length the length of the item
+     * @return false if the item is definitely not in the filter, true if it may be
+     */
+    public boolean membershipTest(final byte[] bytes, final int offset, final int length) {
+        final long hash = hash(seed, bytes, offset, length);
+        final int start = getBlock(hash) * WORDS_PER_BLOCK;
+        final int lowHash = (int) hash;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            final int mask = 1 << ((lowHash * SALT[i]) >>> 27);
+            if (0 == (words[start + i] & mask)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void and(final Filter filter) {
+        final int[] otherWords = checkCompatible(filter);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= otherWords[i];
+        }
+    }
+
+    @Override
+    public void or(final Filter filter) {
+        final int[] otherWords = checkCompatible(filter);
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= otherWords[i];
+        }
+    }
+
+    @Override
+    public void xor(final Filter filter) {
+        final int[] otherWords = checkCompatible(filter);
+        for (int i = 0; i < words.length; i++) {
+            words[i] ^= otherWords[i];
+        }
+    }
+
+    @Override
+    public void not() {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = ~words[i];
+        }
+    }
+
+    @Override
+    public void write(final DataOutput out) throws IOException {
+        WritableUtils.writeVInt(out, numBlocks);
+        WritableUtils.writeVLong(out, seed);
+        for (final int word : words) {
+            out.writeInt(word);
+        }
+    }
+
+    @Override
+    public void readFields(final DataInput in) throws IOException {
+        numBlocks = WritableUtils.readVInt(in);
+        if (numBlocks < 1) {
+            throw new IOException("Invalid number of blocks in serialised filter: " + numBlocks);
+        }
+        seed = WritableUtils.readVLong(in);
+        words = new int[numBlocks * WORDS_PER_BLOCK];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readInt();
+        }
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (null == obj || getClass() != obj.getClass()) {
+            return false;
+        }
+        final BlockedBloomFilter other = (BlockedBloomFilter) obj;
+        return seed == other.seed && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(seed) + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockedBloomFilter[numBits=" + getNumBits() + "]";
+    }
+
+    private int[] checkCompatible(final Filter filter) {
+        if (!(filter instanceof BlockedBloomFilter)
+                || ((BlockedBloomFilter) filter).numBlocks != numBlocks
+                || ((BlockedBloomFilter) filter).seed != seed) {
+            throw new IllegalArgumentException("Filters cannot be combined unless they are both "
+                    + getClass().getSimpleName() + "s of the same size and seed");
+        }
+        return ((BlockedBloomFilter) filter).words;
+    }
+
+    // Maps the upper 32 bits of the hash onto [0, numBlocks) with a multiply
+    // and shift, avoiding a modulus.
+    private int getBlock(final long hash) {
+        return (int) (((hash >>> 32) * numBlocks) >>> 32);
+    }
+
+    // A 64 bit hash of the bytes, using the MurmurHash3 mixing functions.
+    static long hash(final long seed, final byte[] bytes, final int offset, final int length) {
+        long h = seed ^ length * C1;
+        final int end = offset + length;
+        int i = offset;
+        for (; i + 8 <= end; i += 8) {
+            long k = (bytes[i] & 0xffL)
+                    | (bytes[i + 1] & 0xffL) << 8
+                    | (bytes[i + 2] & 0xffL) << 16
+                    | (bytes[i + 3] & 0xffL) << 24
+                    | (bytes[i + 4] & 0xffL) << 32
+                    | (bytes[i + 5] & 0xffL) << 40
+                    | (bytes[i + 6] & 0xffL) << 48
+                    | (bytes[i + 7] & 0xffL) << 56;
+            h ^= mixK(k);
+            h = Long.rotateLeft(h, 27) * 5 + 0x52dce729;
+        }
+
+        long k = 0;
+        for (int shift = 0; i < end; i++, shift += 8) {
+            k |= (bytes[i] & 0xffL) << shift;
+        }
+        h ^= mixK(k);
+        return fmix(h ^ length);
+    }
+
+    private static long mixK(final long k) {
+        return Long.rotateLeft(k * C1, 31) * C2;
+    }
+
+    private static long fmix(final long h) {
+        long f = h;
+        f ^= f >>> 33;
+        f *= 0xff51afd7ed558ccdL;
+        f ^= f >>> 33;
+        f *= 0xc4ceb9fe1a85ec53L;
+        f ^= f >>> 33;
+        return f;
+    }
+}
@@ -18,12 +18,25 @@ package uk.gov.gchq.gaffer.accumulostore.utils;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import org.apache.hadoop.util.hash.Hash;
 
 /**
  * Utilities for the creation of Bloom Filters
  */
 public final class BloomFilterUtils {
+    /**
+     * Bloom filter type for {@link BlockedBloomFilter}s.
+     */
+    public static final String BLOCKED = "blocked";
+
+    /**
+     * Bloom filter type for {@link BloomFilter}s.
+     */
+    public static final String HADOOP = "hadoop";
+
+    private static final long CLIENT_SIDE_SEED = 0x9e3779b97f4a7c15L;
+
     private BloomFilterUtils() {
         // private to prevent this class being instantiated.
         // All methods are static and should be called directly.
@@ -89,4 +102,56 @@ public final class BloomFilterUtils {
     public static BloomFilter getBloomFilter(final int size) {
         return new BloomFilter(size, 13, Hash.MURMUR_HASH);
     }
+
+    /**
+     * Returns a bloom filter of the given type, either {@link #BLOCKED} or
+     * {@link #HADOOP}, sized to achieve the given false positive rate for the
+     * number of items to be added, subject to the given maximum size.
+     *
+     * @param type              the type of bloom filter
+     * @param falsePositiveRate the false positive rate
+     * @param numItemsToBeAdded the number of items to be added
+     * @param maximumSize       the maximum size
+     * @return A new bloom filter with the desired settings
+     */
+    public static Filter getBloomFilter(final String type, final double falsePositiveRate,
+                                        final int numItemsToBeAdded, final int maximumSize) {
+        final int numItems = Math.max(1, numItemsToBeAdded);
+        if (HADOOP.equalsIgnoreCase(type)) {
+            return getBloomFilter(falsePositiveRate, numItems, maximumSize);
+        }
+        checkType(type);
+        return new BlockedBloomFilter(calculateBloomFilterSize(falsePositiveRate, numItems, maximumSize));
+    }
+
+    /**
+     * Returns a bloom filter of the given type to be used client side as a
+     * secondary check of elements that passed a filter created by
+     * {@link #getBloomFilter(String, double, int, int)}. Blocked filters are
+     * sized in the same way but hashed with a different seed, so the two
+     * filters do not share false positives. Hadoop filters are always created
+     * with the maximum size, so they differ from the iterator filter.
+     *
+     * @param type              the type of bloom filter
+     * @param falsePositiveRate the false positive rate
+     * @param numItemsToBeAdded the number of items to be added
+     * @param maximumSize       the maximum size
+     * @return A new bloom filter with the desired settings
+     */
+    public static Filter getClientSideBloomFilter(final String type, final double falsePositiveRate,
+                                                  final int numItemsToBeAdded, final int maximumSize) {
+        if (HADOOP.equalsIgnoreCase(type)) {
+            return getBloomFilter(maximumSize);
+        }
+        checkType(type);
+        return new BlockedBloomFilter(calculateBloomFilterSize(falsePositiveRate, Math.max(1, numItemsToBeAdded), maximumSize),
+                CLIENT_SIDE_SEED);
+    }
+
+    private static void checkType(final String type) {
+        if (null != type && !BLOCKED.equalsIgnoreCase(type)) {
+            throw new IllegalArgumentException("Unknown bloom filter type: " + type
+                    + ", expected " + BLOCKED + " or " + HADOOP);
+        }
+    }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.data.elementdefinition.exception.SchemaException;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A JVM wide cache of the {@link Schema}s, {@link View}s and {@link AccumuloElementConverter}s
+ * deserialised from iterator options.
+ * <p>
+ * Accumulo initialises a new iterator stack for every scan session and for every
+ * deepCopy, and the options are the same serialised schema and view each time. Caching the
+ * deserialised objects, keyed on the option strings, avoids parsing the JSON and creating
+ * the converter by reflection every time an iterator is initialised.
+ * <p>
+ * Each cache holds at most {@link #MAX_ENTRIES} entries and evicts the least recently used.
+ * The cached objects are shared between iterators that may run concurrently, so they must
+ * only be read. In particular, a cached {@link View} must not be used to filter or transform
+ * elements, as the view's functions hold state whilst they are executed.
+ */
+public final class IteratorOptionsCache {
+    public static final int MAX_ENTRIES = 50;
+
+    private static final Map<String, Schema> SCHEMAS = new LruMap<>();
+    private static final Map<String, View> VIEWS = new LruMap<>();
+    private static final Map<String, AccumuloElementConverter> ELEMENT_CONVERTERS = new LruMap<>();
+
+    private IteratorOptionsCache() {
+        // private to prevent this class being instantiated.
+        // All methods are static and should be called directly.
+    }
+
+    /**
+     * Gets the {@link Schema} for the given schema JSON, deserialising it if it is not already cached.
+     *
+     * @param schemaJson the schema JSON from the iterator options
+     * @return the schema
+     */
+    public static Schema getSchema(final String schemaJson) {
+        synchronized (SCHEMAS) {
+            final Schema schema = SCHEMAS.get(schemaJson);
+            if (null != schema) {
+                return schema;
+            }
+        }
+
+        final Schema schema;
+        try {
+            schema = Schema.fromJson(schemaJson.getBytes(CommonConstants.UTF_8));
+        } catch (final UnsupportedEncodingException e) {
+            throw new SchemaException("Unable to deserialise the schema from JSON", e);
+        }
+
+        synchronized (SCHEMAS) {
+            SCHEMAS.put(schemaJson, schema);
+        }
+        return schema;
+    }
+
+    /**
+     * Gets the {@link View} for the given view JSON, deserialising it if it is not already cached.
+     * The view is shared so it must only be read, for example to get the group by properties.
+     * It must not be used to filter or transform elements.
+     *
+     * @param viewJson the view JSON from the iterator options
+     * @return the view
+     */
+    public static View getView(final String viewJson) {
+        synchronized (VIEWS) {
+            final View view = VIEWS.get(viewJson);
+            if (null != view) {
+                return view;
+            }
+        }
+
+        final View view;
+        try {
+            view = View.fromJson(viewJson.getBytes(CommonConstants.UTF_8));
+        } catch (final UnsupportedEncodingException e) {
+            throw new SchemaException("Unable to deserialise the view from JSON", e);
+        }
+
+        synchronized (VIEWS) {
+            VIEWS.put(viewJson, view);
+        }
+        return view;
+    }
+
+    /**
+     * Gets an {@link AccumuloElementConverter} of the given class for the schema, creating it if one is
+     * not already cached.
+     *
+     * @param converterClassName the element converter class name from the iterator options
+     * @param schemaJson         the schema JSON from the iterator options
+     * @return the element converter
+     * @throws ReflectiveOperationException if the element converter could not be created
+     */
+    public static AccumuloElementConverter getElementConverter(final String converterClassName,
+                                                               final String schemaJson)
+            throws ReflectiveOperationException {
+        final String key = converterClassName + ':' + schemaJson;
+        synchronized (ELEMENT_CONVERTERS) {
+            final AccumuloElementConverter converter = ELEMENT_CONVERTERS.get(key);
+            if (null != converter) {
+                return converter;
+            }
+        }
+
+        final AccumuloElementConverter converter = Class.forName(converterClassName)
+                .asSubclass(AccumuloElementConverter.class)
+                .getConstructor(Schema.class)
+                .newInstance(getSchema(schemaJson));
+
+        synchronized (ELEMENT_CONVERTERS) {
+            ELEMENT_CONVERTERS.put(key, converter);
+        }
+        return converter;
+    }
+
+    /**
+     * Removes all cached schemas, views and element converters.
+     */
+    public static void clear() {
+        synchronized (SCHEMAS) {
+            SCHEMAS.clear();
+        }
+        synchronized (VIEWS) {
+            VIEWS.clear();
+        }
+        synchronized (ELEMENT_CONVERTERS) {
+            ELEMENT_CONVERTERS.clear();
+        }
+    }
+
+    private static final class LruMap<V> extends LinkedHashMap<String, V> {
+        private static final long serialVersionUID = 3046735349431532410L;
+
+        private LruMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, V> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    }
+}
@@ -20,7 +20,7 @@ import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
-import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
 import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
@@ -64,7 +64,7 @@ public class IteratorSettingBuilder {
         return this;
     }
 
-    public IteratorSettingBuilder bloomFilter(final BloomFilter filter) throws IteratorSettingException {
+    public IteratorSettingBuilder bloomFilter(final Filter filter) throws IteratorSettingException {
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
         try {
             filter.write(new DataOutputStream(baos));
@@ -77,6 +77,7 @@ public class IteratorSettingBuilder {
         } catch (final UnsupportedEncodingException e) {
             throw new IteratorSettingException("Failed to encode the bloom filter to a string", e);
         }
+        setting.addOption(AccumuloStoreConstants.BLOOM_FILTER_CLASS, filter.getClass().getName());
 
         return this;
     }
@@ -44,6 +44,7 @@ import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
 import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
@@ -57,6 +58,7 @@ import uk.gov.gchq.gaffer.operation.impl.Validate;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.generate.GenerateElements;
 import uk.gov.gchq.gaffer.operation.impl.generate.GenerateObjects;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.StoreTrait;
@@ -182,6 +184,50 @@ public class AccumuloStoreTest {
         assertEquals(0, Iterables.size(relatedResults));
     }
 
+    @Test
+    public void shouldInsertAndAggregateElementsUsingMultipleIngestThreads() throws StoreException, OperationException {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setTable("parallelIngestTable");
+        properties.setNumThreadsForIngest("4");
+        properties.setBatchSizeForIngest("10");
+        properties.setMaxBatchesInFlightForIngest("2");
+        final SingleUseMockAccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise(schema, properties);
+
+        final int numVertices = 500;
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < numVertices; i++) {
+            final Entity entity = new Entity(TestGroups.ENTITY, "vertex" + i);
+            entity.putProperty(TestPropertyNames.COUNT, 1);
+            elements.add(entity);
+            final Edge edge = new Edge(TestGroups.EDGE, "vertex" + i, "vertex" + (i + 1), true);
+            edge.putProperty(TestPropertyNames.COUNT, 1);
+            elements.add(edge);
+        }
+        final AddElements add = new AddElements.Builder()
+                .elements(elements)
+                .build();
+
+        // When
+        store.execute(add, new User());
+        store.execute(add, new User());
+
+        // Then
+        final CloseableIterable<Element> results = store.execute(new GetAllElements.Builder<>()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build(), new User());
+        int numResults = 0;
+        for (final Element result : results) {
+            assertEquals(2, result.getProperty(TestPropertyNames.COUNT));
+            numResults++;
+        }
+        assertEquals(2 * numVertices, numResults);
+    }
+
     @Test
     public void testStoreReturnsHandlersForRegisteredOperationsGaffer1() throws OperationException, StoreException {
         testStoreReturnsHandlersForRegisteredOperations(gaffer1KeyStore);
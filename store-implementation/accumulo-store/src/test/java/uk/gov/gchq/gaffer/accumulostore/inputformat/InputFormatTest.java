@@ -44,6 +44,7 @@ import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.store.StoreException;
@@ -169,6 +170,40 @@ public class InputFormatTest {
                 expectedResults);
     }
 
+    @Test
+    public void shouldReturnOnlyRequiredPropertiesToMapReduceJobWithViewProperties() throws Exception {
+        final Schema schema = getSchema();
+        final View view = new View.Builder()
+                .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                        .properties("property2")
+                        .build())
+                .build();
+        final Set<String> expectedResults = new HashSet<>();
+        for (final Element element : DATA) {
+            if (element.getGroup().equals(TestGroups.EDGE)) {
+                final Element expectedElement = element.emptyClone();
+                if (null != element.getProperty("property2")) {
+                    expectedElement.putProperty("property2", element.getProperty("property2"));
+                }
+                expectedResults.add(expectedElement.toString());
+            }
+        }
+        shouldReturnCorrectDataToMapReduceJob(schema,
+                KeyPackage.BYTE_ENTITY_KEY_PACKAGE,
+                DATA,
+                view,
+                new User(),
+                "instance9",
+                expectedResults);
+        shouldReturnCorrectDataToMapReduceJob(schema,
+                KeyPackage.CLASSIC_KEY_PACKAGE,
+                DATA,
+                view,
+                new User(),
+                "instance10",
+                expectedResults);
+    }
+
     @Test
     public void shouldReturnCorrectDataToMapReduceJobRespectingAuthorizations() throws Exception {
         final Schema schema = getSchemaWithVisibilities();
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.key.core;
+
+import org.apache.accumulo.core.data.Value;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.TestPropertyNames;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.function.AggregateFunction;
+import uk.gov.gchq.gaffer.function.aggregate.FreqMapAggregator;
+import uk.gov.gchq.gaffer.function.aggregate.Max;
+import uk.gov.gchq.gaffer.function.aggregate.Min;
+import uk.gov.gchq.gaffer.function.aggregate.Sum;
+import uk.gov.gchq.gaffer.serialisation.FreqMapSerialiser;
+import uk.gov.gchq.gaffer.serialisation.Serialisation;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawIntegerSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.raw.CompactRawLongSerialiser;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.types.FreqMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CoreKeyValueAggregatorTest {
+
+    @Test
+    public void shouldAggregateSerialisedSumMaxAndMinProperties() throws Exception {
+        // Given
+        final AbstractCoreKeyAccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(TestPropertyNames.PROP_1, "long.sum")
+                        .property(TestPropertyNames.PROP_2, "int.sum")
+                        .property(TestPropertyNames.PROP_3, "long.max")
+                        .property(TestPropertyNames.PROP_4, "long.min")
+                        .build())
+                .type("string", String.class)
+                .type("long.sum", createType(Long.class, new Sum(), new CompactRawLongSerialiser()))
+                .type("int.sum", createType(Integer.class, new Sum(), new CompactRawIntegerSerialiser()))
+                .type("long.max", createType(Long.class, new Max(), new CompactRawLongSerialiser()))
+                .type("long.min", createType(Long.class, new Min(), new CompactRawLongSerialiser()))
+                .build());
+
+        final CoreKeyValueAggregator aggregator = new CoreKeyValueAggregator(TestGroups.ENTITY, converter);
+
+        // When
+        aggregator.init();
+        aggregator.aggregate(createValue(converter, 1L, 10, 5L, -5L));
+        aggregator.aggregate(createValue(converter, 1000L, Integer.MAX_VALUE, null, 200L));
+        aggregator.aggregate(createValue(converter, -3L, 1, 7L, null));
+        final Value value = aggregator.state();
+
+        // Then
+        assertTrue(aggregator.isSerialisedAggregation());
+        final Properties properties = converter.getPropertiesFromValue(TestGroups.ENTITY, value);
+        assertEquals(998L, properties.get(TestPropertyNames.PROP_1));
+        assertEquals(10 + Integer.MAX_VALUE + 1, properties.get(TestPropertyNames.PROP_2));
+        assertEquals(7L, properties.get(TestPropertyNames.PROP_3));
+        assertEquals(-5L, properties.get(TestPropertyNames.PROP_4));
+    }
+
+    @Test
+    public void shouldReturnNullPropertiesWhenAllSerialisedValuesAreNull() throws Exception {
+        // Given
+        final AbstractCoreKeyAccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(TestPropertyNames.PROP_1, "long.sum")
+                        .build())
+                .type("string", String.class)
+                .type("long.sum", createType(Long.class, new Sum(), new CompactRawLongSerialiser()))
+                .build());
+        final CoreKeyValueAggregator aggregator = new CoreKeyValueAggregator(TestGroups.ENTITY, converter);
+        final Properties nullProperties = new Properties();
+
+        // When
+        aggregator.init();
+        aggregator.aggregate(converter.getValueFromProperties(TestGroups.ENTITY, nullProperties));
+        aggregator.aggregate(converter.getValueFromProperties(TestGroups.ENTITY, nullProperties));
+        final Value value = aggregator.state();
+
+        // Then
+        assertTrue(aggregator.isSerialisedAggregation());
+        assertArrayEquals(converter.getValueFromProperties(TestGroups.ENTITY, nullProperties).get(), value.get());
+    }
+
+    @Test
+    public void shouldResetAggregatedPropertiesOnInit() throws Exception {
+        // Given
+        final AbstractCoreKeyAccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(TestPropertyNames.PROP_1, "long.sum")
+                        .build())
+                .type("string", String.class)
+                .type("long.sum", createType(Long.class, new Sum(), new CompactRawLongSerialiser()))
+                .build());
+        final CoreKeyValueAggregator aggregator = new CoreKeyValueAggregator(TestGroups.ENTITY, converter);
+        aggregator.init();
+        aggregator.aggregate(createValue(converter, 5L));
+        aggregator.state();
+
+        // When
+        aggregator.init();
+        aggregator.aggregate(createValue(converter, 2L));
+        aggregator.aggregate(createValue(converter, 3L));
+        final Value value = aggregator.state();
+
+        // Then
+        assertEquals(5L, converter.getPropertiesFromValue(TestGroups.ENTITY, value).get(TestPropertyNames.PROP_1));
+    }
+
+    @Test
+    public void shouldAggregateDeserialisedPropertiesWhenFunctionCannotUseSerialisedValues() throws Exception {
+        // Given
+        final AbstractCoreKeyAccumuloElementConverter converter = new ByteEntityAccumuloElementConverter(new Schema.Builder()
+                .entity(TestGroups.ENTITY, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(TestPropertyNames.PROP_1, "long.sum")
+                        .property(TestPropertyNames.PROP_2, "map")
+                        .build())
+                .type("string", String.class)
+                .type("long.sum", createType(Long.class, new Sum(), new CompactRawLongSerialiser()))
+                .type("map", createType(FreqMap.class, new FreqMapAggregator(), new FreqMapSerialiser()))
+                .build());
+        final CoreKeyValueAggregator aggregator = new CoreKeyValueAggregator(TestGroups.ENTITY, converter);
+
+        final FreqMap freqMap1 = new FreqMap();
+        freqMap1.upsert("a", 1L);
+        final FreqMap freqMap2 = new FreqMap();
+        freqMap2.upsert("a", 2L);
+        freqMap2.upsert("b", 3L);
+
+        // When
+        aggregator.init();
+        aggregator.aggregate(createValue(converter, 1L, freqMap1));
+        aggregator.aggregate(createValue(converter, 2L, freqMap2));
+        final Value value = aggregator.state();
+
+        // Then
+        assertFalse(aggregator.isSerialisedAggregation());
+        final Properties properties = converter.getPropertiesFromValue(TestGroups.ENTITY, value);
+        assertEquals(3L, properties.get(TestPropertyNames.PROP_1));
+        final FreqMap expectedFreqMap = new FreqMap();
+        expectedFreqMap.upsert("a", 3L);
+        expectedFreqMap.upsert("b", 3L);
+        assertEquals(expectedFreqMap, properties.get(TestPropertyNames.PROP_2));
+    }
+
+    private TypeDefinition createType(final Class<?> clazz, final AggregateFunction function,
+                                      final Serialisation serialiser) {
+        return new TypeDefinition.Builder()
+                .clazz(clazz)
+                .aggregateFunction(function)
+                .serialiser(serialiser)
+                .build();
+    }
+
+    private Value createValue(final AbstractCoreKeyAccumuloElementConverter converter, final Object... propertyValues)
+            throws Exception {
+        final String[] propertyNames = {TestPropertyNames.PROP_1, TestPropertyNames.PROP_2,
+                TestPropertyNames.PROP_3, TestPropertyNames.PROP_4};
+        final Properties properties = new Properties();
+        for (int i = 0; i < propertyValues.length; i++) {
+            if (null != propertyValues[i]) {
+                properties.put(propertyNames[i], propertyValues[i]);
+            }
+        }
+        return converter.getValueFromProperties(TestGroups.ENTITY, properties);
+    }
+}
@@ -39,7 +39,9 @@ import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
 import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
 import uk.gov.gchq.gaffer.types.FreqMap;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
@@ -245,6 +247,24 @@ public abstract class AbstractAccumuloElementConverterTest {
         assertEquals(8, deSerialisedProperties.get(AccumuloPropertyNames.COUNT));
     }
 
+    @Test
+    public void shouldDeserialiseOnlyIncludedPropertiesFromValue() throws AccumuloElementConversionException {
+        Properties properties = new Properties();
+        properties.put(AccumuloPropertyNames.PROP_1, 60);
+        properties.put(AccumuloPropertyNames.PROP_2, 166);
+        properties.put(AccumuloPropertyNames.PROP_3, 299);
+        properties.put(AccumuloPropertyNames.PROP_4, 10);
+        properties.put(AccumuloPropertyNames.COUNT, 8);
+
+        final Value value = converter.getValueFromProperties(TestGroups.EDGE, properties);
+        final Properties deSerialisedProperties = new Properties();
+        converter.addPropertiesFromValue(TestGroups.EDGE, value, deSerialisedProperties,
+                new HashSet<>(Arrays.asList(AccumuloPropertyNames.PROP_2, AccumuloPropertyNames.COUNT)));
+        assertEquals(2, deSerialisedProperties.size());
+        assertEquals(166, deSerialisedProperties.get(AccumuloPropertyNames.PROP_2));
+        assertEquals(8, deSerialisedProperties.get(AccumuloPropertyNames.COUNT));
+    }
+
     @Test
     public void shouldSerialiseAndDeSerialiseBetweenPropertyAndValueMissingMiddleProperty() throws AccumuloElementConversionException {
         Properties properties = new Properties();
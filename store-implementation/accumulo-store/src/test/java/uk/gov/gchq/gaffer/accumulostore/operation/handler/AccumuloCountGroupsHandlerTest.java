@@ -0,0 +1,230 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.operation.handler;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.SingleUseMockAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.function.filter.IsMoreThan;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AccumuloCountGroupsHandlerTest {
+    private static final int NUM_ELEMENTS = 5;
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(AccumuloCountGroupsHandlerTest.class));
+    private static final AccumuloProperties PROPERTIES = AccumuloProperties.loadStoreProperties(StreamUtil
+            .storeProps(AccumuloCountGroupsHandlerTest.class));
+    private static final AccumuloProperties CLASSIC_PROPERTIES = AccumuloProperties
+            .loadStoreProperties(StreamUtil.openStream(AccumuloCountGroupsHandlerTest.class, "/accumuloStoreClassicKeys.properties"));
+    private static AccumuloStore byteEntityStore;
+    private static AccumuloStore gaffer1KeyStore;
+
+    @BeforeClass
+    public static void setup() throws StoreException {
+        byteEntityStore = new SingleUseMockAccumuloStore();
+        gaffer1KeyStore = new SingleUseMockAccumuloStore();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        byteEntityStore = null;
+        gaffer1KeyStore = null;
+    }
+
+    @Before
+    public void reInitialise() throws StoreException, OperationException {
+        byteEntityStore.initialise(SCHEMA, PROPERTIES);
+        gaffer1KeyStore.initialise(SCHEMA, CLASSIC_PROPERTIES);
+        byteEntityStore.execute(new AddElements(getElements()), new User());
+        gaffer1KeyStore.execute(new AddElements(getElements()), new User());
+    }
+
+    @Test
+    public void shouldCountGroupsOfAllElements() throws OperationException {
+        shouldCountGroupsOfAllElements(byteEntityStore);
+        shouldCountGroupsOfAllElements(gaffer1KeyStore);
+    }
+
+    @Test
+    public void shouldCountGroupsWithPreAggregationFilter() throws OperationException {
+        shouldCountGroupsWithPreAggregationFilter(byteEntityStore);
+        shouldCountGroupsWithPreAggregationFilter(gaffer1KeyStore);
+    }
+
+    @Test
+    public void shouldCountGroupsWithPostTransformFilter() throws OperationException {
+        shouldCountGroupsWithPostTransformFilter(byteEntityStore);
+        shouldCountGroupsWithPostTransformFilter(gaffer1KeyStore);
+    }
+
+    @Test
+    public void shouldCountGroupsUpToLimit() throws OperationException {
+        shouldCountGroupsUpToLimit(byteEntityStore);
+        shouldCountGroupsUpToLimit(gaffer1KeyStore);
+    }
+
+    @Test
+    public void shouldCountAllElements() throws OperationException {
+        shouldCountAllElements(byteEntityStore);
+        shouldCountAllElements(gaffer1KeyStore);
+    }
+
+    private void shouldCountGroupsOfAllElements(final AccumuloStore store) throws OperationException {
+        // When
+        final GroupCounts groupCounts = countGroups(store, getAllElementsWithDefaultView(), null);
+
+        // Then
+        assertEquals(Collections.singletonMap(TestGroups.ENTITY, NUM_ELEMENTS), groupCounts.getEntityGroups());
+        assertEquals(Collections.singletonMap(TestGroups.EDGE, NUM_ELEMENTS), groupCounts.getEdgeGroups());
+        assertFalse(groupCounts.isLimitHit());
+    }
+
+    private void shouldCountGroupsWithPreAggregationFilter(final AccumuloStore store) throws OperationException {
+        // Given
+        final GetAllElements<Element> getAllElements = new GetAllElements.Builder<>()
+                .view(new View.Builder()
+                        .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                                .preAggregationFilter(new ElementFilter.Builder()
+                                        .select(AccumuloPropertyNames.COUNT)
+                                        .execute(new IsMoreThan(2))
+                                        .build())
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final GroupCounts groupCounts = countGroups(store, getAllElements, null);
+
+        // Then
+        assertTrue(groupCounts.getEntityGroups().isEmpty());
+        assertEquals(Collections.singletonMap(TestGroups.EDGE, 2), groupCounts.getEdgeGroups());
+    }
+
+    private void shouldCountGroupsWithPostTransformFilter(final AccumuloStore store) throws OperationException {
+        // Given
+        final GetAllElements<Element> getAllElements = new GetAllElements.Builder<>()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE, new ViewElementDefinition.Builder()
+                                .postTransformFilter(new ElementFilter.Builder()
+                                        .select(AccumuloPropertyNames.COUNT)
+                                        .execute(new IsMoreThan(2))
+                                        .build())
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final GroupCounts groupCounts = countGroups(store, getAllElements, null);
+        final Long count = store.execute(new OperationChain.Builder()
+                .first(getAllElements)
+                .then(new Count<>())
+                .build(), new User());
+
+        // Then
+        assertEquals(Collections.singletonMap(TestGroups.ENTITY, NUM_ELEMENTS), groupCounts.getEntityGroups());
+        assertEquals(Collections.singletonMap(TestGroups.EDGE, 2), groupCounts.getEdgeGroups());
+        assertEquals(NUM_ELEMENTS + 2, (long) count);
+    }
+
+    private void shouldCountGroupsUpToLimit(final AccumuloStore store) throws OperationException {
+        // When
+        final GroupCounts groupCounts = countGroups(store, getAllElementsWithDefaultView(), NUM_ELEMENTS + 2);
+
+        // Then
+        int total = 0;
+        for (final Integer count : groupCounts.getEntityGroups().values()) {
+            total += count;
+        }
+        for (final Integer count : groupCounts.getEdgeGroups().values()) {
+            total += count;
+        }
+        assertEquals(NUM_ELEMENTS + 2, total);
+        assertTrue(groupCounts.isLimitHit());
+    }
+
+    private void shouldCountAllElements(final AccumuloStore store) throws OperationException {
+        // When
+        final Long count = store.execute(new OperationChain.Builder()
+                .first(getAllElementsWithDefaultView())
+                .then(new Count<>())
+                .build(), new User());
+
+        // Then
+        assertEquals(2 * NUM_ELEMENTS, (long) count);
+    }
+
+    private GroupCounts countGroups(final AccumuloStore store, final GetAllElements<Element> getAllElements, final Integer limit)
+            throws OperationException {
+        return store.execute(new OperationChain.Builder()
+                .first(getAllElements)
+                .then(new CountGroups.Builder()
+                        .limit(limit)
+                        .build())
+                .build(), new User());
+    }
+
+    private static GetAllElements<Element> getAllElementsWithDefaultView() {
+        return new GetAllElements.Builder<>()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .edge(TestGroups.EDGE)
+                        .build())
+                .build();
+    }
+
+    private static List<Element> getElements() {
+        final List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            final Entity entity = new Entity(TestGroups.ENTITY, "A" + i);
+            entity.putProperty(AccumuloPropertyNames.COUNT, i);
+            elements.add(entity);
+
+            final Edge edge = new Edge(TestGroups.EDGE, "A" + i, "B" + i, true);
+            edge.putProperty(AccumuloPropertyNames.COUNT, i);
+            elements.add(edge);
+        }
+        return elements;
+    }
+}
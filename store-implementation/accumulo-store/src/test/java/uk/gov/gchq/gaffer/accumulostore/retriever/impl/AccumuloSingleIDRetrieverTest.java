@@ -17,6 +17,7 @@
 package uk.gov.gchq.gaffer.accumulostore.retriever.impl;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import org.apache.accumulo.core.client.AccumuloException;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -25,9 +26,11 @@ import org.junit.Test;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloProperties;
 import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
 import uk.gov.gchq.gaffer.accumulostore.SingleUseMockAccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.utils.AccumuloPropertyNames;
 import uk.gov.gchq.gaffer.accumulostore.key.exception.IteratorSettingException;
 import uk.gov.gchq.gaffer.commonutil.StreamUtil;
 import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
@@ -45,11 +48,16 @@ import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.user.User;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class AccumuloSingleIDRetrieverTest {
@@ -114,6 +122,158 @@ public class AccumuloSingleIDRetrieverTest {
         //Should find both i-B and i-C edges and entities i
     }
 
+    @Test
+    public void shouldRetrieveElementsForSeedsInPipelinedBatches() throws StoreException, IteratorSettingException {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setMaxEntriesForBatchScanner("7");
+        properties.setMaxBatchesInFlightForQuery("3");
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise(schema, properties);
+        setupGraph(store, numEntries);
+        final Set<ElementSeed> ids = new HashSet<>();
+        for (int i = 0; i < numEntries; i++) {
+            ids.add(new EntitySeed("" + i));
+        }
+        final View view = new View.Builder().edge(TestGroups.EDGE).entity(TestGroups.ENTITY).build();
+        final GetElements<ElementSeed, ?> operation = new GetElements<>(view, ids);
+
+        // When
+        final AccumuloSingleIDRetriever retriever = new AccumuloSingleIDRetriever(store, operation, new User());
+
+        // Then
+        assertEquals(numEntries * 3, Iterables.size(retriever));
+    }
+
+    @Test
+    public void shouldCloseRetrieverBeforeAllPipelinedBatchesHaveBeenRead() throws StoreException, IteratorSettingException {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setMaxEntriesForBatchScanner("7");
+        properties.setMaxBatchesInFlightForQuery("3");
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise(schema, properties);
+        setupGraph(store, numEntries);
+        final Set<ElementSeed> ids = new HashSet<>();
+        for (int i = 0; i < numEntries; i++) {
+            ids.add(new EntitySeed("" + i));
+        }
+        final GetElements<ElementSeed, ?> operation = new GetElements<>(new View.Builder().entity(TestGroups.ENTITY).build(), ids);
+        final AccumuloSingleIDRetriever retriever = new AccumuloSingleIDRetriever(store, operation, new User());
+        final CloseableIterator<Element> iterator = retriever.iterator();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            iterator.next();
+        }
+        retriever.close();
+
+        // Then
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void shouldShareQueryExecutorBetweenRetrieversAndShutItDownWhenStoreIsClosed() throws StoreException, IteratorSettingException {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setMaxEntriesForBatchScanner("7");
+        properties.setMaxBatchesInFlightForQuery("3");
+        properties.setNumThreadsForQuery("1");
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise(schema, properties);
+        setupGraph(store, numEntries);
+        final Set<ElementSeed> ids = new HashSet<>();
+        for (int i = 0; i < numEntries; i++) {
+            ids.add(new EntitySeed("" + i));
+        }
+        final GetElements<ElementSeed, ?> operation = new GetElements<>(new View.Builder().entity(TestGroups.ENTITY).build(), ids);
+        final CloseableIterator<Element> iterator1 = new AccumuloSingleIDRetriever(store, operation, new User()).iterator();
+        final CloseableIterator<Element> iterator2 = new AccumuloSingleIDRetriever(store, operation, new User()).iterator();
+        final ExecutorService queryExecutor = store.getQueryExecutor();
+
+        // When
+        final int count1 = Iterators.size(iterator1);
+        final int count2 = Iterators.size(iterator2);
+        store.close();
+
+        // Then
+        assertEquals(numEntries, count1);
+        assertEquals(numEntries, count2);
+        assertTrue(queryExecutor.isShutdown());
+    }
+
+    @Test(timeout = 60000)
+    public void shouldNotDeadlockWhenSeedsAreLazilyRetrievedWithTheSameQueryExecutor() throws StoreException, IteratorSettingException {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setMaxEntriesForBatchScanner("7");
+        properties.setMaxBatchesInFlightForQuery("3");
+        properties.setNumThreadsForQuery("1");
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise(schema, properties);
+        setupGraph(store, numEntries);
+        final Set<ElementSeed> ids = new HashSet<>();
+        // Only a quarter of the seeds exist, so the retriever needs several batches of lazy seeds for each of its batches
+        for (int i = 0; i < numEntries * 4; i++) {
+            ids.add(new EntitySeed("" + i));
+        }
+        final View view = new View.Builder().entity(TestGroups.ENTITY).build();
+        final AccumuloSingleIDRetriever seedRetriever = new AccumuloSingleIDRetriever(store, new GetElements<>(view, ids), new User());
+        final Iterable<ElementSeed> lazySeeds = Iterables.transform(seedRetriever, element -> new EntitySeed(((Entity) element).getVertex()));
+
+        // When
+        final AccumuloSingleIDRetriever retriever = new AccumuloSingleIDRetriever(store, new GetElements<>(view, lazySeeds), new User());
+
+        // Then
+        assertEquals(numEntries, Iterables.size(retriever));
+    }
+
+    @Test
+    public void shouldStopRetrievingElementsOnceResultLimitIsReached() throws StoreException, IteratorSettingException {
+        // Given
+        final AccumuloProperties properties = PROPERTIES.clone();
+        properties.setMaxEntriesForBatchScanner("7");
+        properties.setMaxBatchesInFlightForQuery("3");
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise(schema, properties);
+        setupGraph(store, numEntries);
+        final Set<ElementSeed> ids = new HashSet<>();
+        for (int i = 0; i < numEntries; i++) {
+            ids.add(new EntitySeed("" + i));
+        }
+        final GetElements<ElementSeed, ?> operation = new GetElements<>(new View.Builder().entity(TestGroups.ENTITY).build(), ids);
+        operation.setResultLimit(10);
+
+        // When
+        final AccumuloSingleIDRetriever retriever = new AccumuloSingleIDRetriever(store, operation, new User());
+
+        // Then
+        assertEquals(10, Iterables.size(retriever));
+    }
+
+    @Test
+    public void shouldNotReturnPropertiesWhenPropertiesAreNotPopulated() throws StoreException, IteratorSettingException, OperationException {
+        // Given
+        final AccumuloStore store = new SingleUseMockAccumuloStore();
+        store.initialise(schema, PROPERTIES);
+        final Entity entity = new Entity(TestGroups.ENTITY, "A");
+        entity.putProperty(AccumuloPropertyNames.PROP_1, 5);
+        store.execute(new AddElements(Collections.singletonList(entity)), new User());
+        final View view = new View.Builder().entity(TestGroups.ENTITY).build();
+        final GetElements<ElementSeed, ?> withProperties = new GetElements<>(view, Collections.singleton(new EntitySeed("A")));
+        final GetElements<ElementSeed, ?> withoutProperties = new GetElements<>(view, Collections.singleton(new EntitySeed("A")));
+        withoutProperties.setPopulateProperties(false);
+
+        // When
+        final Element elementWithProperties = Iterables.getOnlyElement(new AccumuloSingleIDRetriever(store, withProperties, new User()));
+        final Element elementWithoutProperties = Iterables.getOnlyElement(new AccumuloSingleIDRetriever(store, withoutProperties, new User()));
+
+        // Then
+        assertEquals(5, elementWithProperties.getProperty(AccumuloPropertyNames.PROP_1));
+        assertEquals(new Entity(TestGroups.ENTITY, "A"), elementWithoutProperties);
+        assertNull(elementWithoutProperties.getProperty(AccumuloPropertyNames.PROP_1));
+    }
+
     @Test
     public void testEntitySeedQueryEdgesOnly() throws AccumuloException, StoreException {
         testEntitySeedQueryEdgesOnly(byteEntityStore);
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.Instance;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.client.security.SecurityErrorCode;
+import org.apache.accumulo.core.data.ConstraintViolationSummary;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.TabletId;
+import org.apache.accumulo.core.data.Value;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.AccumuloStore;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.exception.AccumuloElementConversionException;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+public class AccumuloElementWriterTest {
+    private static final Value VALUE = new Value(new byte[0]);
+
+    @Test
+    public void shouldRecordElementsWrittenAndFailedConversionsInStoreMetrics() throws Exception {
+        // Given
+        final Entity entity = new Entity(TestGroups.ENTITY, "A");
+        final Edge edge = new Edge(TestGroups.EDGE, "A", "B", true);
+        final Entity invalidEntity = new Entity(TestGroups.ENTITY, "invalid");
+        final AccumuloElementConverter converter = mock(AccumuloElementConverter.class);
+        given(converter.getKeysFromElement(entity)).willReturn(new Pair<>(new Key("A", "entity"), null));
+        given(converter.getKeysFromElement(edge)).willReturn(new Pair<>(new Key("A", "edge"), new Key("B", "edge")));
+        given(converter.getKeysFromElement(invalidEntity)).willThrow(new AccumuloElementConversionException("invalid"));
+        given(converter.getValueFromElement(entity)).willReturn(VALUE);
+        given(converter.getValueFromElement(edge)).willReturn(VALUE);
+        final StoreMetrics metrics = new StoreMetrics();
+        final AccumuloElementWriter elementWriter = new AccumuloElementWriter(converter, mock(BatchWriter.class), null, 10, 1, metrics);
+
+        // When
+        elementWriter.write(Arrays.<Element>asList(entity, edge, invalidEntity));
+
+        // Then
+        assertEquals(2, metrics.getCounter(AccumuloStore.ELEMENTS_WRITTEN_METRIC));
+        assertEquals(2, metrics.getCounter(AccumuloStore.MUTATIONS_WRITTEN_METRIC));
+        assertEquals(1, metrics.getCounter(AccumuloStore.FAILED_CONVERSIONS_METRIC));
+        assertEquals(0, metrics.getCounter(AccumuloStore.REJECTED_MUTATIONS_METRIC));
+    }
+
+    @Test
+    public void shouldRecordRejectedMutationsInStoreMetrics() throws Exception {
+        // Given
+        final Entity entity = new Entity(TestGroups.ENTITY, "A");
+        final AccumuloElementConverter converter = mock(AccumuloElementConverter.class);
+        given(converter.getKeysFromElement(entity)).willReturn(new Pair<>(new Key("A", "entity"), null));
+        given(converter.getValueFromElement(entity)).willReturn(VALUE);
+        final BatchWriter writer = mock(BatchWriter.class);
+        final MutationsRejectedException rejected = new MutationsRejectedException((Instance) null,
+                Collections.singletonList(new ConstraintViolationSummary("constraint", (short) 1, "violation", 2)),
+                Collections.<TabletId, Set<SecurityErrorCode>>emptyMap(), Collections.<String>emptyList(), 1, null);
+        doThrow(rejected).when(writer).addMutations(anyCollectionOf(Mutation.class));
+        final StoreMetrics metrics = new StoreMetrics();
+        final AccumuloElementWriter elementWriter = new AccumuloElementWriter(converter, writer, null, 10, 1, metrics);
+
+        // When
+        elementWriter.write(Collections.<Element>singletonList(entity));
+
+        // Then
+        assertEquals(3, elementWriter.getNumRejectedMutations());
+        assertEquals(3, metrics.getCounter(AccumuloStore.REJECTED_MUTATIONS_METRIC));
+        assertEquals(0, metrics.getCounter(AccumuloStore.MUTATIONS_WRITTEN_METRIC));
+    }
+
+    @Test
+    public void shouldWriteElementsWithoutStoreMetrics() throws StoreException, AccumuloElementConversionException {
+        // Given
+        final Entity entity = new Entity(TestGroups.ENTITY, "A");
+        final AccumuloElementConverter converter = mock(AccumuloElementConverter.class);
+        given(converter.getKeysFromElement(entity)).willReturn(new Pair<>(new Key("A", "entity"), null));
+        given(converter.getValueFromElement(entity)).willReturn(VALUE);
+        final AccumuloElementWriter elementWriter = new AccumuloElementWriter(converter, mock(BatchWriter.class), null, 10, 1, null);
+
+        // When
+        elementWriter.write(Collections.<Element>singletonList(entity));
+
+        // Then
+        assertEquals(1, elementWriter.getNumElements());
+        assertEquals(1, elementWriter.getNumMutations());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.apache.hadoop.util.bloom.BloomFilter;
+import org.apache.hadoop.util.bloom.Filter;
+import org.apache.hadoop.util.bloom.Key;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlockedBloomFilterTest {
+
+    @Test
+    public void shouldContainAllAddedItems() {
+        // Given
+        final BlockedBloomFilter filter = new BlockedBloomFilter(BloomFilterUtils.calculateBloomFilterSize(0.001, 1000, Integer.MAX_VALUE));
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            filter.add(new Key(("item" + i).getBytes()));
+        }
+
+        // Then
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.membershipTest(new Key(("item" + i).getBytes())));
+        }
+    }
+
+    @Test
+    public void shouldHaveLowFalsePositiveRate() {
+        // Given
+        final BlockedBloomFilter filter = new BlockedBloomFilter(BloomFilterUtils.calculateBloomFilterSize(0.001, 1000, Integer.MAX_VALUE));
+        for (int i = 0; i < 1000; i++) {
+            filter.add(("item" + i).getBytes());
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.membershipTest(("other" + i).getBytes())) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue("Too many false positives: " + falsePositives, falsePositives < 500);
+    }
+
+    @Test
+    public void shouldTestRangeOfArrayWithoutCopying() {
+        // Given
+        final BlockedBloomFilter filter = new BlockedBloomFilter(1024);
+        filter.add("ABC".getBytes());
+
+        // Then
+        assertTrue(filter.membershipTest("xxABCyy".getBytes(), 2, 3));
+        assertFalse(filter.membershipTest("xxABDyy".getBytes(), 2, 3));
+    }
+
+    @Test
+    public void shouldWriteAndReadFilter() throws IOException {
+        // Given
+        final BlockedBloomFilter filter = new BlockedBloomFilter(1000, 5L);
+        filter.add(new Key("ABC".getBytes()));
+        filter.add(new Key("DEF".getBytes()));
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        filter.write(new DataOutputStream(baos));
+        final String serialised = new String(baos.toByteArray(), AccumuloStoreConstants.BLOOM_FILTER_CHARSET);
+
+        // When
+        final BlockedBloomFilter read = new BlockedBloomFilter();
+        read.readFields(new DataInputStream(new ByteArrayInputStream(serialised.getBytes(AccumuloStoreConstants.BLOOM_FILTER_CHARSET))));
+
+        // Then
+        assertEquals(filter, read);
+        assertEquals(5L, read.getSeed());
+        assertTrue(read.membershipTest(new Key("ABC".getBytes())));
+        assertTrue(read.membershipTest(new Key("DEF".getBytes())));
+        assertFalse(read.membershipTest(new Key("lkjhgfdsa".getBytes())));
+    }
+
+    @Test
+    public void shouldOrFiltersOfSameSize() {
+        // Given
+        final BlockedBloomFilter filter1 = new BlockedBloomFilter(1024);
+        final BlockedBloomFilter filter2 = new BlockedBloomFilter(1024);
+        filter1.add("ABC".getBytes());
+        filter2.add("DEF".getBytes());
+
+        // When
+        filter1.or(filter2);
+
+        // Then
+        assertTrue(filter1.membershipTest("ABC".getBytes()));
+        assertTrue(filter1.membershipTest("DEF".getBytes()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCombineFiltersOfDifferentSizes() {
+        new BlockedBloomFilter(1024).or(new BlockedBloomFilter(2048));
+    }
+
+    @Test
+    public void shouldCreateFilterOfConfiguredType() {
+        // When
+        final Filter blocked = BloomFilterUtils.getBloomFilter(BloomFilterUtils.BLOCKED, 0.0002, 100, 8388608);
+        final Filter hadoop = BloomFilterUtils.getBloomFilter(BloomFilterUtils.HADOOP, 0.0002, 100, 8388608);
+        final Filter clientSide = BloomFilterUtils.getClientSideBloomFilter(BloomFilterUtils.BLOCKED, 0.0002, 100, 8388608);
+
+        // Then
+        assertTrue(blocked instanceof BlockedBloomFilter);
+        assertTrue(hadoop instanceof BloomFilter);
+        assertTrue(((BlockedBloomFilter) blocked).getNumBits() < 2048);
+        assertFalse(((BlockedBloomFilter) blocked).getSeed() == ((BlockedBloomFilter) clientSide).getSeed());
+    }
+}
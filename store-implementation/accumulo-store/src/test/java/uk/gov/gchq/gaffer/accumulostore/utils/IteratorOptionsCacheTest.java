@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.accumulostore.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.accumulostore.key.AccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.byteEntity.ByteEntityAccumuloElementConverter;
+import uk.gov.gchq.gaffer.accumulostore.key.core.impl.classic.ClassicAccumuloElementConverter;
+import uk.gov.gchq.gaffer.commonutil.CommonConstants;
+import uk.gov.gchq.gaffer.commonutil.StreamUtil;
+import uk.gov.gchq.gaffer.commonutil.TestGroups;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IteratorOptionsCacheTest {
+    private static final Schema SCHEMA = Schema.fromJson(StreamUtil.schemas(IteratorOptionsCacheTest.class));
+
+    @Before
+    public void setUp() {
+        IteratorOptionsCache.clear();
+    }
+
+    @Test
+    public void shouldReturnSameSchemaForSameJson() throws Exception {
+        // Given
+        final String schemaJson = new String(SCHEMA.toCompactJson(), CommonConstants.UTF_8);
+
+        // When
+        final Schema schema1 = IteratorOptionsCache.getSchema(schemaJson);
+        final Schema schema2 = IteratorOptionsCache.getSchema(schemaJson);
+
+        // Then
+        assertSame(schema1, schema2);
+        assertEquals(SCHEMA.getGroups(), schema1.getGroups());
+    }
+
+    @Test
+    public void shouldReturnSameViewForSameJson() throws Exception {
+        // Given
+        final String viewJson = new String(new View.Builder()
+                .edge(TestGroups.EDGE)
+                .build()
+                .toCompactJson(), CommonConstants.UTF_8);
+
+        // When
+        final View view1 = IteratorOptionsCache.getView(viewJson);
+        final View view2 = IteratorOptionsCache.getView(viewJson);
+
+        // Then
+        assertSame(view1, view2);
+        assertTrue(view1.getEdgeGroups().contains(TestGroups.EDGE));
+    }
+
+    @Test
+    public void shouldReturnSameElementConverterForSameClassAndSchema() throws Exception {
+        // Given
+        final String schemaJson = new String(SCHEMA.toCompactJson(), CommonConstants.UTF_8);
+
+        // When
+        final AccumuloElementConverter converter1 = IteratorOptionsCache.getElementConverter(
+                ByteEntityAccumuloElementConverter.class.getName(), schemaJson);
+        final AccumuloElementConverter converter2 = IteratorOptionsCache.getElementConverter(
+                ByteEntityAccumuloElementConverter.class.getName(), schemaJson);
+        final AccumuloElementConverter classicConverter = IteratorOptionsCache.getElementConverter(
+                ClassicAccumuloElementConverter.class.getName(), schemaJson);
+
+        // Then
+        assertSame(converter1, converter2);
+        assertTrue(converter1 instanceof ByteEntityAccumuloElementConverter);
+        assertTrue(classicConverter instanceof ClassicAccumuloElementConverter);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedSchemaWhenFull() throws Exception {
+        // Given
+        final String schemaJson = new String(SCHEMA.toCompactJson(), CommonConstants.UTF_8);
+        final Schema schema = IteratorOptionsCache.getSchema(schemaJson);
+
+        // When
+        for (int i = 0; i < IteratorOptionsCache.MAX_ENTRIES; i++) {
+            IteratorOptionsCache.getSchema(getSchemaJsonWithExtraType("type" + i));
+        }
+
+        // Then
+        assertNotSame(schema, IteratorOptionsCache.getSchema(schemaJson));
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void shouldThrowExceptionForUnknownElementConverterClass() throws Exception {
+        // Given
+        final String schemaJson = new String(SCHEMA.toCompactJson(), CommonConstants.UTF_8);
+
+        // When / Then
+        IteratorOptionsCache.getElementConverter("unknown.ElementConverter", schemaJson);
+    }
+
+    private String getSchemaJsonWithExtraType(final String typeName) throws Exception {
+        return new String(new Schema.Builder()
+                .merge(SCHEMA)
+                .type(typeName, String.class)
+                .build()
+                .toCompactJson(), CommonConstants.UTF_8);
+    }
+}
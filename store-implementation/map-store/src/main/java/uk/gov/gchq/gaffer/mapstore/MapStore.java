@@ -25,14 +25,22 @@ import uk.gov.gchq.gaffer.mapstore.impl.GetAdjacentEntitySeedsHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.GetElementsHandler;
 import uk.gov.gchq.gaffer.mapstore.impl.MapImpl;
+import uk.gov.gchq.gaffer.mapstore.impl.MapStoreCountGroupsHandler;
+import uk.gov.gchq.gaffer.mapstore.impl.MapStoreCountHandler;
+import uk.gov.gchq.gaffer.mapstore.impl.MapStoreTraverseHopsHandler;
+import uk.gov.gchq.gaffer.mapstore.impl.WriteSnapshotHandler;
 import uk.gov.gchq.gaffer.mapstore.operation.CountAllElementsDefaultView;
+import uk.gov.gchq.gaffer.mapstore.operation.WriteSnapshot;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.data.ElementSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAdjacentEntitySeeds;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.operation.impl.get.TraverseHops;
 import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.Store;
 import uk.gov.gchq.gaffer.store.StoreException;
@@ -54,6 +62,8 @@ import java.util.Set;
  * <p>
  * <p>Indices can optionally be maintained to allow quick look-up of {@link Element}s based on {@link EntitySeed}s
  * or {@link uk.gov.gchq.gaffer.operation.data.EdgeSeed}s.
+ * <p>
+ * <p>The maps can optionally be persisted to a snapshot and delta log, see {@link MapStoreProperties#PERSISTENCE_DIRECTORY}.
  */
 public class MapStore extends Store {
     private static final Logger LOGGER = LoggerFactory.getLogger(MapStore.class);
@@ -63,6 +73,12 @@ public class MapStore extends Store {
             StoreTrait.POST_AGGREGATION_FILTERING,
             StoreTrait.TRANSFORMATION,
             StoreTrait.POST_TRANSFORMATION_FILTERING));
+    /**
+     * The names of the counters recorded in the store metrics for the number
+     * of seeds looked up in the indices and the number that matched elements.
+     */
+    public static final String INDEX_LOOKUPS_METRIC = "mapstore.index.lookups";
+    public static final String INDEX_HITS_METRIC = "mapstore.index.hits";
     private MapImpl mapImpl;
 
     @Override
@@ -74,7 +90,7 @@ public class MapStore extends Store {
         final MapStoreProperties mapStoreProperties = (MapStoreProperties) storeProperties;
         super.initialise(schema, mapStoreProperties);
         // Initialise maps
-        mapImpl = new MapImpl(schema, mapStoreProperties);
+        mapImpl = new MapImpl(getSchema(), mapStoreProperties, getMetrics());
         LOGGER.info("Initialised MapStore");
     }
 
@@ -95,6 +111,10 @@ public class MapStore extends Store {
     @Override
     protected void addAdditionalOperationHandlers() {
         addOperationHandler(CountAllElementsDefaultView.class, new CountAllElementsDefaultViewHandler());
+        addOperationHandler(WriteSnapshot.class, new WriteSnapshotHandler());
+        addOperationHandler(Count.class, new MapStoreCountHandler());
+        addOperationHandler(CountGroups.class, new MapStoreCountGroupsHandler());
+        addOperationHandler(TraverseHops.class, new MapStoreTraverseHopsHandler());
     }
 
     @Override
@@ -26,6 +26,9 @@ import java.nio.file.Path;
 public class MapStoreProperties extends StoreProperties {
     public static final String MAP_CLASS = "gaffer.store.mapstore.map.class";
     public static final String CREATE_INDEX = "gaffer.store.mapstore.createIndex";
+    public static final String CONCURRENT = "gaffer.store.mapstore.concurrent";
+    public static final String COMPACT_INDEX = "gaffer.store.mapstore.compactIndex";
+    public static final String PERSISTENCE_DIRECTORY = "gaffer.store.mapstore.persistence.directory";
 
     public MapStoreProperties() {
         super();
@@ -49,8 +52,13 @@ public class MapStoreProperties extends StoreProperties {
         set(MAP_CLASS, mapClass);
     }
 
+    /**
+     * @return the class of map to use. If no map class has been set then a
+     * {@link java.util.concurrent.ConcurrentHashMap} is used when the store is
+     * concurrent, otherwise a {@link java.util.HashMap} is used.
+     */
     public String getMapClass() {
-        return get(MAP_CLASS, "java.util.HashMap");
+        return get(MAP_CLASS, getConcurrent() ? "java.util.concurrent.ConcurrentHashMap" : "java.util.HashMap");
     }
 
     public void setCreateIndex(final String createIndex) {
@@ -61,4 +69,39 @@ public class MapStoreProperties extends StoreProperties {
         return Boolean.parseBoolean(get(CREATE_INDEX, "true"));
     }
 
+    public void setCompactIndex(final String compactIndex) {
+        set(COMPACT_INDEX, compactIndex);
+    }
+
+    /**
+     * @return true if the index from vertices to elements should intern the vertices and elements to int ids and
+     * store the adjacency of each vertex in an int array, rather than using a map of sets of elements.
+     */
+    public boolean getCompactIndex() {
+        return Boolean.parseBoolean(get(COMPACT_INDEX, "false"));
+    }
+
+    public void setPersistenceDirectory(final String persistenceDirectory) {
+        set(PERSISTENCE_DIRECTORY, persistenceDirectory);
+    }
+
+    /**
+     * @return the directory to write snapshots and the delta log to, or null if the store should not be persisted.
+     */
+    public String getPersistenceDirectory() {
+        return get(PERSISTENCE_DIRECTORY);
+    }
+
+    public void setConcurrent(final String concurrent) {
+        set(CONCURRENT, concurrent);
+    }
+
+    /**
+     * @return true if the store should support concurrent operations, e.g. {@link uk.gov.gchq.gaffer.operation.impl.add.AddElements}
+     * and {@link uk.gov.gchq.gaffer.operation.impl.get.GetElements} being executed at the same time from different threads.
+     */
+    public boolean getConcurrent() {
+        return Boolean.parseBoolean(get(CONCURRENT, "false"));
+    }
+
 }
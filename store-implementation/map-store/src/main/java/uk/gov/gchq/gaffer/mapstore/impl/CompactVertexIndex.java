@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A {@link VertexIndex} that interns each vertex and element key to an int id and stores the adjacency of each vertex
+ * as an array of element ids. This avoids creating an {@link uk.gov.gchq.gaffer.operation.data.EntitySeed} and a
+ * {@link java.util.HashSet} for every vertex, which dominates the memory used by the index on large graphs.
+ * <p>
+ * The vertices and elements are held in arrays indexed by their ids, and are looked up by an open addressing hash table
+ * of ids, so no boxed Integer or map entry is created for each vertex or element.
+ * <p>
+ * Updates are synchronised. Lookups only hold the lock while taking a snapshot of the adjacency array and its size,
+ * the element ids are then walked without the lock. This is safe as the arrays are only ever appended to, and are
+ * replaced rather than modified when they grow.
+ */
+class CompactVertexIndex implements VertexIndex {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_ADJACENCY_CAPACITY = 2;
+
+    private final IdTable vertexIds = new IdTable(INITIAL_CAPACITY);
+    private final IdTable elementIds = new IdTable(INITIAL_CAPACITY);
+    private Object[] vertices = new Object[INITIAL_CAPACITY];
+    private Element[] elements = new Element[INITIAL_CAPACITY];
+    private int numElements;
+    private int[][] adjacency = new int[INITIAL_CAPACITY][];
+    private int[] adjacencySizes = new int[INITIAL_CAPACITY];
+    private int numVertices;
+
+    @Override
+    public synchronized void addElement(final Element element) {
+        if (IdTable.NO_ID != elementIds.get(element, elements)) {
+            // The element's vertices have already been indexed
+            return;
+        }
+        final int elementId = internElement(element);
+        if (element instanceof Entity) {
+            addAdjacency(internVertex(((Entity) element).getVertex()), elementId);
+        } else if (element instanceof Edge) {
+            final Edge edge = (Edge) element;
+            final int sourceId = internVertex(edge.getSource());
+            final int destinationId = internVertex(edge.getDestination());
+            addAdjacency(sourceId, elementId);
+            if (destinationId != sourceId) {
+                addAdjacency(destinationId, elementId);
+            }
+        }
+    }
+
+    @Override
+    public void forEach(final Object vertex, final Consumer<Element> consumer) {
+        final int[] elementIds;
+        final int size;
+        final Element[] elementsSnapshot;
+        synchronized (this) {
+            final int vertexId = vertexIds.get(vertex, vertices);
+            if (IdTable.NO_ID == vertexId) {
+                return;
+            }
+            elementIds = adjacency[vertexId];
+            size = adjacencySizes[vertexId];
+            elementsSnapshot = elements;
+        }
+        for (int i = 0; i < size; i++) {
+            consumer.accept(elementsSnapshot[elementIds[i]]);
+        }
+    }
+
+    private int internElement(final Element element) {
+        final int elementId = numElements++;
+        if (elementId == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        elements[elementId] = element;
+        elementIds.add(element, elementId, elements);
+        return elementId;
+    }
+
+    private int internVertex(final Object vertex) {
+        final int existingId = vertexIds.get(vertex, vertices);
+        if (IdTable.NO_ID != existingId) {
+            return existingId;
+        }
+        final int vertexId = numVertices++;
+        if (vertexId == adjacency.length) {
+            vertices = Arrays.copyOf(vertices, vertices.length * 2);
+            adjacency = Arrays.copyOf(adjacency, adjacency.length * 2);
+            adjacencySizes = Arrays.copyOf(adjacencySizes, adjacencySizes.length * 2);
+        }
+        vertices[vertexId] = vertex;
+        adjacency[vertexId] = new int[INITIAL_ADJACENCY_CAPACITY];
+        vertexIds.add(vertex, vertexId, vertices);
+        return vertexId;
+    }
+
+    private void addAdjacency(final int vertexId, final int elementId) {
+        final int size = adjacencySizes[vertexId];
+        if (size == adjacency[vertexId].length) {
+            adjacency[vertexId] = Arrays.copyOf(adjacency[vertexId], size * 2);
+        }
+        adjacency[vertexId][size] = elementId;
+        adjacencySizes[vertexId] = size + 1;
+    }
+
+    /**
+     * An open addressing hash table, with linear probing, from a key to its id. Only the ids are stored in the table,
+     * the keys are read from the array of keys indexed by id. The table is not thread safe.
+     */
+    private static final class IdTable {
+        private static final int NO_ID = -1;
+
+        private int[] slots;
+        private int size;
+
+        private IdTable(final int capacity) {
+            slots = new int[capacity];
+            Arrays.fill(slots, NO_ID);
+        }
+
+        private int get(final Object key, final Object[] keys) {
+            final int mask = slots.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                final int id = slots[i];
+                if (NO_ID == id || Objects.equals(key, keys[id])) {
+                    return id;
+                }
+            }
+        }
+
+        private void add(final Object key, final int id, final Object[] keys) {
+            // Keep the load factor below 0.75 so probe sequences stay short
+            if (4 * (size + 1) > 3 * slots.length) {
+                resize(keys);
+            }
+            insert(hash(key), id);
+            size++;
+        }
+
+        private void resize(final Object[] keys) {
+            final int[] oldSlots = slots;
+            slots = new int[oldSlots.length * 2];
+            Arrays.fill(slots, NO_ID);
+            for (final int id : oldSlots) {
+                if (NO_ID != id) {
+                    insert(hash(keys[id]), id);
+                }
+            }
+        }
+
+        private void insert(final int hash, final int id) {
+            final int mask = slots.length - 1;
+            int i = hash & mask;
+            while (NO_ID != slots[i]) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = id;
+        }
+
+        private static int hash(final Object key) {
+            final int hash = Objects.hashCode(key);
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -25,7 +25,6 @@ import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
 import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Entity;
-import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
 import uk.gov.gchq.gaffer.mapstore.utils.Pair;
 import uk.gov.gchq.gaffer.operation.OperationException;
@@ -100,16 +99,7 @@ public class GetAdjacentEntitySeedsHandler implements
                         final Set<Element> elementsWithProperties = new HashSet<>();
                         pair.getSecond()
                                 .stream()
-                                .map(element -> {
-                                    final Element clone = element.emptyClone();
-                                    clone.copyProperties(element.getProperties());
-                                    return clone;
-                                })
-                                .map(element -> {
-                                    final Properties properties = mapImpl.elementToProperties.get(element);
-                                    element.copyProperties(properties);
-                                    return element;
-                                })
+                                .map(element -> mapImpl.copyElement(element, mapImpl.elementToProperties.get(element)))
                                 .forEach(elementsWithProperties::add);
                         return new Pair<>(pair.getFirst(), elementsWithProperties);
                     });
@@ -118,7 +108,7 @@ public class GetAdjacentEntitySeedsHandler implements
                     entitySeedRelevantFullElementsStream
                             .map(pair -> {
                                 final Stream<Element> elementsAfterView = GetElementsHandler
-                                        .applyView(pair.getSecond().stream(), mapImpl.schema,
+                                        .applyView(pair.getSecond().stream(), mapImpl,
                                                 getAdjacentEntitySeeds.getView());
                                 return new Pair<>(pair.getFirst(), elementsAfterView);
                             });
@@ -147,7 +137,8 @@ public class GetAdjacentEntitySeedsHandler implements
                     .flatMap(Function.identity())
                     .filter(entitySeed -> null != entitySeed);
 
-            return new WrappedCloseableIterator<>(adjacentSeedsStream.iterator());
+            return new WrappedCloseableIterator<>(GetElementsHandler
+                    .applyResultLimit(adjacentSeedsStream, getAdjacentEntitySeeds.getResultLimit()).iterator());
         }
     }
 }
@@ -19,10 +19,13 @@ import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterator;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterable;
 import uk.gov.gchq.gaffer.commonutil.iterable.WrappedCloseableIterator;
+import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
 import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
-import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
+import uk.gov.gchq.gaffer.operation.GetOperation.IncludeEdgeType;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.store.Context;
@@ -31,7 +34,9 @@ import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -53,7 +58,7 @@ public class GetAllElementsHandler implements OperationHandler<GetAllElements<El
         return new AllElementsIterable(mapStore.getMapImpl(), operation);
     }
 
-    private static class AllElementsIterable extends WrappedCloseableIterable<Element> {
+    static class AllElementsIterable extends WrappedCloseableIterable<Element> {
         private final MapImpl mapImpl;
         private final GetAllElements getAllElements;
 
@@ -73,25 +78,65 @@ public class GetAllElementsHandler implements OperationHandler<GetAllElements<El
                         if (mapImpl.groupsWithNoAggregation.contains(x.getKey().getGroup())) {
                             final int count = (int) properties.get(COUNT);
                             List<Element> duplicateElements = new ArrayList<>(count);
-                            IntStream.range(0, count).forEach(i -> duplicateElements.add(element));
+                            IntStream.range(0, count).forEach(i -> duplicateElements.add(mapImpl.copyElement(element, null)));
                             return duplicateElements;
                         } else {
-                            element.copyProperties(properties);
-                            return Collections.singletonList(element);
+                            return Collections.singletonList(mapImpl.copyElement(element, properties));
                         }
                     })
                     .flatMap(x -> x.stream());
             final Stream<Element> elementsAfterIncludeEntitiesEdgesOption = GetElementsHandler.
                     applyIncludeEntitiesEdgesOptions(elements, getAllElements.isIncludeEntities(),
                             getAllElements.getIncludeEdges());
-            final Stream<Element> afterView = GetElementsHandler
-                    .applyView(elementsAfterIncludeEntitiesEdgesOption, mapImpl.schema, getAllElements.getView());
-            final Stream<Element> clonedElements = afterView.map(element -> ElementCloner.cloneElement(element, mapImpl.schema));
+            final Stream<Element> afterView = GetElementsHandler.applyResultLimit(GetElementsHandler
+                    .applyView(elementsAfterIncludeEntitiesEdgesOption, mapImpl, getAllElements.getView()),
+                    getAllElements.getResultLimit());
             if (!getAllElements.isPopulateProperties()) {
                 // If populateProperties option is false then remove all properties
-                return new WrappedCloseableIterator<>(clonedElements.map(e -> e.emptyClone()).iterator());
+                return new WrappedCloseableIterator<>(afterView.map(e -> e.emptyClone()).iterator());
             }
-            return new WrappedCloseableIterator<>(clonedElements.iterator());
+            return new WrappedCloseableIterator<>(afterView.iterator());
+        }
+
+        /**
+         * Counts the elements in each group that would be returned, without
+         * copying the elements unless the view needs to be applied to them.
+         *
+         * @return a map of group to the number of elements in that group
+         */
+        Map<String, Long> countGroups() {
+            final View view = getAllElements.getView();
+            final Map<String, Long> groupCounts = new HashMap<>();
+            for (final Map.Entry<Element, Properties> entry : mapImpl.elementToProperties.entrySet()) {
+                final Element element = entry.getKey();
+                final String group = element.getGroup();
+                if (!view.getGroups().contains(group) || !isIncluded(element)) {
+                    continue;
+                }
+
+                final boolean noAggregation = mapImpl.groupsWithNoAggregation.contains(group);
+                if (GetElementsHandler.hasFunctions(view.getElement(group))) {
+                    final Element copy = mapImpl.copyElement(element, noAggregation ? null : entry.getValue());
+                    if (!GetElementsHandler.applyView(Stream.of(copy), mapImpl, view).findAny().isPresent()) {
+                        continue;
+                    }
+                }
+
+                final long count = noAggregation ? (int) entry.getValue().get(COUNT) : 1L;
+                groupCounts.merge(group, count, Long::sum);
+            }
+            return groupCounts;
+        }
+
+        private boolean isIncluded(final Element element) {
+            if (element instanceof Entity) {
+                return getAllElements.isIncludeEntities();
+            }
+
+            final IncludeEdgeType includeEdges = getAllElements.getIncludeEdges();
+            return IncludeEdgeType.ALL == includeEdges
+                    || (IncludeEdgeType.DIRECTED == includeEdges && ((Edge) element).isDirected())
+                    || (IncludeEdgeType.UNDIRECTED == includeEdges && !((Edge) element).isDirected());
         }
     }
 }
@@ -28,7 +28,6 @@ import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
-import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
 import uk.gov.gchq.gaffer.operation.GetOperation;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
@@ -45,6 +44,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -99,79 +99,76 @@ public class GetElementsHandler
                         if (mapImpl.groupsWithNoAggregation.contains(element.getGroup())) {
                             final int count = (int) mapImpl.elementToProperties.get(element).get(COUNT);
                             List<Element> duplicateElements = new ArrayList<>(count);
-                            IntStream.range(0, count).forEach(i -> duplicateElements.add(element));
+                            IntStream.range(0, count).forEach(i -> duplicateElements.add(mapImpl.copyElement(element, null)));
                             return duplicateElements;
                         } else {
                             final Properties properties = mapImpl.elementToProperties.get(element);
-                            element.copyProperties(properties);
-                            return Collections.singletonList(element);
+                            return Collections.singletonList(mapImpl.copyElement(element, properties));
                         }
                     })
                     .flatMap(x -> x.stream());
-            final Stream<Element> afterView = applyView(elementsWithProperties, mapImpl.schema, getElements.getView());
-            final Stream<Element> clonedElements = afterView.map(element -> ElementCloner.cloneElement(element, mapImpl.schema));
+            final Stream<Element> afterView = applyResultLimit(
+                    applyView(elementsWithProperties, mapImpl, getElements.getView()), getElements.getResultLimit());
             if (!getElements.isPopulateProperties()) {
                 // If populateProperties option is false then remove all properties
-                return new WrappedCloseableIterator<>(clonedElements.map(e -> e.emptyClone()).iterator());
+                return new WrappedCloseableIterator<>(afterView.map(e -> e.emptyClone()).iterator());
             }
-            return new WrappedCloseableIterator<>(clonedElements.iterator());
+            return new WrappedCloseableIterator<>(afterView.iterator());
         }
     }
 
     static Set<Element> getRelevantElements(final MapImpl mapImpl,
                                             final ElementSeed elementSeed,
                                             final GetElements<ElementSeed, Element> getElements) {
+        final Set<Element> relevantElements = new HashSet<>();
         if (elementSeed instanceof EntitySeed) {
-            final Set<Element> relevantElements = new HashSet<>();
-            if (null != mapImpl.entitySeedToElements.get(elementSeed)) {
-                relevantElements.addAll(mapImpl.entitySeedToElements.get(elementSeed));
-            }
-            if (relevantElements.isEmpty()) {
-                return Collections.emptySet();
-            }
-            // Apply inOutType options
-            // If option is BOTH then nothing to do
-            if (getElements.getIncludeIncomingOutGoing() == GetOperation.IncludeIncomingOutgoingType.INCOMING) {
-                relevantElements.removeIf(e -> e instanceof Edge
-                        && ((Edge) e).isDirected()
-                        && ((Edge) e).getSource().equals(((EntitySeed) elementSeed).getVertex()));
-            }
-            if (getElements.getIncludeIncomingOutGoing() == GetOperation.IncludeIncomingOutgoingType.OUTGOING) {
-                relevantElements.removeIf(e -> e instanceof Edge
-                        && ((Edge) e).isDirected()
-                        && ((Edge) e).getDestination().equals(((EntitySeed) elementSeed).getVertex()));
-            }
-            // Apply seedMatching option
-            // If option is RELATED then nothing to do
-            if (getElements.getSeedMatching() == GetOperation.SeedMatchingType.EQUAL) {
-                relevantElements.removeIf(e -> e instanceof Edge);
-            }
-            return relevantElements;
+            final Object vertex = ((EntitySeed) elementSeed).getVertex();
+            final GetOperation.IncludeIncomingOutgoingType inOutType = getElements.getIncludeIncomingOutGoing();
+            // If seedMatching option is RELATED then all elements are relevant, if EQUAL then only entities are
+            final boolean includeEdges = getElements.getSeedMatching() != GetOperation.SeedMatchingType.EQUAL;
+            mapImpl.vertexIndex.forEach(vertex, element -> {
+                if (element instanceof Entity) {
+                    relevantElements.add(element);
+                } else if (includeEdges && isRelevantEdge((Edge) element, vertex, inOutType)) {
+                    relevantElements.add(element);
+                }
+            });
         } else {
             final EdgeSeed edgeSeed = (EdgeSeed) elementSeed;
-            final Set<Element> relevantElements = new HashSet<>();
             if (mapImpl.edgeSeedToElements.get(edgeSeed) != null) {
                 relevantElements.addAll(mapImpl.edgeSeedToElements.get(edgeSeed));
             }
-            if (mapImpl.entitySeedToElements.get(new EntitySeed(edgeSeed.getSource())) != null) {
-                final Set<Element> related = new HashSet<>();
-                related.addAll(mapImpl.entitySeedToElements.get(new EntitySeed(edgeSeed.getSource())));
-                related.removeIf(e -> e instanceof Edge);
-                relevantElements.addAll(related);
-            }
-            if (mapImpl.entitySeedToElements.get(new EntitySeed(edgeSeed.getDestination())) != null) {
-                final Set<Element> related = new HashSet<>();
-                related.addAll(mapImpl.entitySeedToElements.get(new EntitySeed(edgeSeed.getDestination())));
-                related.removeIf(e -> e instanceof Edge);
-                relevantElements.addAll(related);
-            }
             // Apply seedMatching option
-            // If option is RELATED then nothing to do
-            if (getElements.getSeedMatching() == GetOperation.SeedMatchingType.EQUAL) {
-                relevantElements.removeIf(e -> e instanceof Entity);
+            // If option is RELATED then add the entities for the source and destination
+            if (getElements.getSeedMatching() != GetOperation.SeedMatchingType.EQUAL) {
+                final Consumer<Element> addEntity = element -> {
+                    if (element instanceof Entity) {
+                        relevantElements.add(element);
+                    }
+                };
+                mapImpl.vertexIndex.forEach(edgeSeed.getSource(), addEntity);
+                mapImpl.vertexIndex.forEach(edgeSeed.getDestination(), addEntity);
             }
-            return relevantElements;
         }
+        mapImpl.recordIndexLookup(!relevantElements.isEmpty());
+        return relevantElements;
+    }
+
+    static boolean isRelevantEdge(final Edge edge,
+                                  final Object vertex,
+                                  final GetOperation.IncludeIncomingOutgoingType inOutType) {
+        // Apply inOutType options
+        // If option is BOTH then nothing to do
+        if (!edge.isDirected()) {
+            return true;
+        }
+        if (inOutType == GetOperation.IncludeIncomingOutgoingType.INCOMING) {
+            return !edge.getSource().equals(vertex);
+        }
+        if (inOutType == GetOperation.IncludeIncomingOutgoingType.OUTGOING) {
+            return !edge.getDestination().equals(vertex);
+        }
+        return true;
     }
 
     static Stream<Element> applyIncludeEntitiesEdgesOptions(final Stream<Element> elements,
@@ -210,7 +207,15 @@ public class GetElementsHandler
         return elementsAfterIncludeEdgesOption;
     }
 
-    static Stream<Element> applyView(final Stream<Element> elementStream, final Schema schema, final View view) {
+    static boolean hasFunctions(final ViewElementDefinition viewDef) {
+        return null != viewDef.getPreAggregationFilter()
+                || null != viewDef.getPostAggregationFilter()
+                || null != viewDef.getTransformer()
+                || null != viewDef.getPostTransformFilter();
+    }
+
+    static Stream<Element> applyView(final Stream<Element> elementStream, final MapImpl mapImpl, final View view) {
+        final Schema schema = mapImpl.schema;
         final Set<String> viewGroups = view.getGroups();
         Stream<Element> stream = elementStream;
         // Check group is valid
@@ -231,6 +236,9 @@ public class GetElementsHandler
             return ved.getPostAggregationFilter() == null || ved.getPostAggregationFilter().filter(e);
         });
 
+        // Only the elements that pass the filters are cloned, before they can be transformed or returned
+        stream = stream.map(mapImpl::cloneMutableProperties);
+
         // Apply transform
         stream = stream.map(e -> {
             final ViewElementDefinition ved = view.getElement(e.getGroup());
@@ -249,4 +257,17 @@ public class GetElementsHandler
 
         return stream;
     }
+
+    /**
+     * Limits the stream to the result limit of the operation, so no more
+     * elements are copied and transformed once enough have been returned.
+     *
+     * @param stream      the stream to limit
+     * @param resultLimit the result limit of the operation, or null if the results are not limited
+     * @param <T>         the type of the stream
+     * @return the limited stream
+     */
+    static <T> Stream<T> applyResultLimit(final Stream<T> stream, final Integer resultLimit) {
+        return null != resultLimit ? stream.limit(resultLimit) : stream;
+    }
 }
@@ -15,24 +15,34 @@
  */
 package uk.gov.gchq.gaffer.mapstore.impl;
 
+import uk.gov.gchq.gaffer.data.element.Edge;
 import uk.gov.gchq.gaffer.data.element.Element;
 import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.mapstore.MapStore;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.utils.ElementCloner;
 import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
-import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The internal variables of this class are package-private. This allows operation handlers for the
  * {@link uk.gov.gchq.gaffer.mapstore.MapStore} to be placed in the same package and get access to the maps, without
  * exposing the internal state of the MapStore to classes outside of this package.
+ * <p>
+ * If the store is concurrent then the maps must be {@link ConcurrentMap}s and the sets of elements in the indices are
+ * concurrent sets, so that elements can be added and retrieved from multiple threads at the same time.
  */
 public class MapImpl {
 
@@ -41,30 +51,130 @@ public class MapImpl {
     // elementToProperties maps from an Element containing the group-by properties to a Properties object without the
     // group-by properties
     Map<Element, Properties> elementToProperties;
-    // entitySeedToElements is a map from an EntitySeed to the element key from elementToProperties
-    Map<EntitySeed, Set<Element>> entitySeedToElements;
+    // vertexIndex is an index from a vertex to the element keys from elementToProperties
+    VertexIndex vertexIndex;
     // edgeSeedToElements is a map from an EdgeSeed to the element key from elementToProperties
     Map<EdgeSeed, Set<Element>> edgeSeedToElements;
     final boolean maintainIndex;
+    final boolean concurrent;
+    // snapshotManager persists the maps, it is null if persistence is not enabled
+    final SnapshotManager snapshotManager;
     final Map<String, Set<String>> groupToGroupByProperties = new HashMap<>();
     final Map<String, Set<String>> groupToNonGroupByProperties = new HashMap<>();
     final Set<String> groupsWithNoAggregation = new HashSet<>();
     final Schema schema;
+    // metrics records index lookups, it is null if metrics are not enabled
+    private final StoreMetrics metrics;
 
     public MapImpl(final Schema schema, final MapStoreProperties mapStoreProperties) throws StoreException {
+        this(schema, mapStoreProperties, null);
+    }
+
+    public MapImpl(final Schema schema, final MapStoreProperties mapStoreProperties, final StoreMetrics metrics) throws StoreException {
+        this.metrics = metrics;
         maintainIndex = mapStoreProperties.getCreateIndex();
-        try {
-            elementToProperties = Class.forName(mapStoreProperties.getMapClass()).asSubclass(Map.class).newInstance();
-            if (maintainIndex) {
-                entitySeedToElements = Class.forName(mapStoreProperties.getMapClass()).asSubclass(Map.class).newInstance();
-                edgeSeedToElements = Class.forName(mapStoreProperties.getMapClass()).asSubclass(Map.class).newInstance();
+        concurrent = mapStoreProperties.getConcurrent();
+        elementToProperties = createMap(mapStoreProperties);
+        if (maintainIndex) {
+            if (mapStoreProperties.getCompactIndex()) {
+                vertexIndex = new CompactVertexIndex();
+            } else {
+                vertexIndex = new MapVertexIndex(createMap(mapStoreProperties), this::createElementSet);
             }
-        } catch (final InstantiationException | IllegalAccessException | ClassNotFoundException e) {
-            throw new StoreException("Exception instantiating map of class " + mapStoreProperties.getMapClass(), e);
+            edgeSeedToElements = createMap(mapStoreProperties);
         }
         this.schema = schema;
         schema.getEntityGroups().forEach(g -> addToGroupByMap(this.schema, g));
         schema.getEdgeGroups().forEach(g -> addToGroupByMap(this.schema, g));
+        if (null != mapStoreProperties.getPersistenceDirectory()) {
+            snapshotManager = new SnapshotManager(Paths.get(mapStoreProperties.getPersistenceDirectory()), schema);
+            try {
+                snapshotManager.restore(this, elements -> AddElementsHandler.addElements(elements, this, schema));
+            } catch (final IOException e) {
+                throw new StoreException("Exception restoring MapStore from " + mapStoreProperties.getPersistenceDirectory(), e);
+            }
+        } else {
+            snapshotManager = null;
+        }
+    }
+
+    /**
+     * Records a look up of a seed in the indices.
+     *
+     * @param hit true if the seed matched any elements
+     */
+    void recordIndexLookup(final boolean hit) {
+        if (null != metrics) {
+            metrics.incrementCounter(MapStore.INDEX_LOOKUPS_METRIC);
+            if (hit) {
+                metrics.incrementCounter(MapStore.INDEX_HITS_METRIC);
+            }
+        }
+    }
+
+    /**
+     * Adds an element key from elementToProperties to the indices.
+     *
+     * @param elementWithGroupByProperties the element key from elementToProperties
+     */
+    void updateIndex(final Element elementWithGroupByProperties) {
+        vertexIndex.addElement(elementWithGroupByProperties);
+        if (elementWithGroupByProperties instanceof Edge) {
+            final Edge edge = (Edge) elementWithGroupByProperties;
+            final EdgeSeed edgeSeed = new EdgeSeed(edge.getSource(), edge.getDestination(), edge.isDirected());
+            edgeSeedToElements.computeIfAbsent(edgeSeed, k -> createElementSet()).add(elementWithGroupByProperties);
+        }
+    }
+
+    /**
+     * Creates a new set to hold the elements for a single seed in one of the indices.
+     *
+     * @return a concurrent set if the store is concurrent, otherwise a {@link HashSet}.
+     */
+    Set<Element> createElementSet() {
+        return concurrent ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+    }
+
+    /**
+     * Creates a copy of an element key from elementToProperties with the given properties added. The keys must never
+     * be modified as this would change their hash codes and could affect other threads reading the maps. The property
+     * values are shared with the stored state, so the copy may be filtered but must be passed to
+     * {@link #cloneMutableProperties(Element)} before it is transformed or returned.
+     *
+     * @param elementWithGroupByProperties the element key from elementToProperties
+     * @param properties                   the properties to add to the copy, may be null
+     * @return a new element containing the group-by properties and the provided properties
+     */
+    Element copyElement(final Element elementWithGroupByProperties, final Properties properties) {
+        final Element element = elementWithGroupByProperties.emptyClone();
+        element.copyProperties(elementWithGroupByProperties.getProperties());
+        element.copyProperties(properties);
+        return element;
+    }
+
+    /**
+     * Clones the mutable property values of an element created by {@link #copyElement(Element, Properties)}, so it
+     * can be transformed and returned without affecting the stored state.
+     *
+     * @param element the copied element
+     * @return the element, with its mutable property values cloned
+     */
+    Element cloneMutableProperties(final Element element) {
+        return ElementCloner.cloneMutableProperties(element, schema.getElement(element.getGroup()));
+    }
+
+    private <K, V> Map<K, V> createMap(final MapStoreProperties mapStoreProperties) throws StoreException {
+        final Map<K, V> map;
+        try {
+            map = Class.forName(mapStoreProperties.getMapClass()).asSubclass(Map.class).newInstance();
+        } catch (final InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+            throw new StoreException("Exception instantiating map of class " + mapStoreProperties.getMapClass(), e);
+        }
+        if (concurrent && !(map instanceof ConcurrentMap)) {
+            throw new StoreException("Map class " + mapStoreProperties.getMapClass()
+                    + " must implement " + ConcurrentMap.class.getName() + " when the store is concurrent");
+        }
+        return map;
     }
 
     private void addToGroupByMap(final Schema schema, final String group) {
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.handler.CountGroupsHandler;
+
+/**
+ * A handler for the {@link CountGroups} operation on the MapStore. If the input
+ * is the output of a GetAllElements operation then the groups are counted from the
+ * {@link MapImpl} directly, otherwise the elements are counted one at a time.
+ */
+public class MapStoreCountGroupsHandler extends CountGroupsHandler {
+    @Override
+    public GroupCounts doOperation(final CountGroups operation, final Context context, final Store store)
+            throws OperationException {
+        if (!(operation.getElements() instanceof GetAllElementsHandler.AllElementsIterable)) {
+            return super.doOperation(operation, context, store);
+        }
+
+        return createGroupCounts(((GetAllElementsHandler.AllElementsIterable) operation.getElements()).countGroups(),
+                store.getSchema(), operation.getLimit());
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.handler.CountHandler;
+
+/**
+ * A handler for the {@link Count} operation on the MapStore. If the input
+ * is the output of a GetAllElements operation then the elements are counted from the
+ * {@link MapImpl} directly, otherwise the items are counted one at a time.
+ *
+ * @param <T> the type of items to count
+ */
+public class MapStoreCountHandler<T> extends CountHandler<T> {
+    @Override
+    public Long doOperation(final Count operation, final Context context, final Store store)
+            throws OperationException {
+        if (!(operation.getItems() instanceof GetAllElementsHandler.AllElementsIterable)) {
+            return super.doOperation(operation, context, store);
+        }
+
+        long count = 0;
+        for (final Long groupCount : ((GetAllElementsHandler.AllElementsIterable) operation.getItems()).countGroups().values()) {
+            count += groupCount;
+        }
+        return count;
+    }
+}
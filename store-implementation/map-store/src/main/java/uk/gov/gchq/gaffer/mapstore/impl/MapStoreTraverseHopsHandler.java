@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.mapstore.MapStore;
+import uk.gov.gchq.gaffer.operation.GetOperation.IncludeEdgeType;
+import uk.gov.gchq.gaffer.operation.GetOperation.IncludeIncomingOutgoingType;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.get.TraverseHops;
+import uk.gov.gchq.gaffer.store.Context;
+import uk.gov.gchq.gaffer.store.Store;
+import uk.gov.gchq.gaffer.store.operation.handler.TraverseHopsHandler;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * An {@link uk.gov.gchq.gaffer.store.operation.handler.OperationHandler} for the {@link TraverseHops} operation on the
+ * {@link MapStore}. Each hop looks up the edges of the frontier vertices in the vertex index directly. Edges are only
+ * copied with their properties when the hop view has filters or transforms for their group.
+ */
+public class MapStoreTraverseHopsHandler extends TraverseHopsHandler {
+    @Override
+    public CloseableIterable<EntitySeed> doOperation(final TraverseHops operation, final Context context, final Store store) throws OperationException {
+        if (!((MapStore) store).getMapImpl().maintainIndex) {
+            throw new OperationException("Cannot execute traverseHops if the properties request that an index is not created");
+        }
+        return super.doOperation(operation, context, store);
+    }
+
+    @Override
+    protected void expandHop(final TraverseHops operation, final int hop, final List<EntitySeed> frontier,
+                             final Context context, final Store store, final Consumer<EntitySeed> consumer) {
+        final MapImpl mapImpl = ((MapStore) store).getMapImpl();
+        final View view = operation.getHopView(hop);
+        final IncludeIncomingOutgoingType inOutType = operation.getIncludeIncomingOutGoing();
+        final IncludeEdgeType includeEdges = operation.getIncludeEdges();
+
+        for (final EntitySeed seed : frontier) {
+            final Object vertex = seed.getVertex();
+            final boolean[] hit = {false};
+            mapImpl.vertexIndex.forEach(vertex, element -> {
+                if (!(element instanceof Edge)) {
+                    return;
+                }
+                hit[0] = true;
+                final Edge edge = (Edge) element;
+                if (isIncluded(includeEdges, edge)
+                        && GetElementsHandler.isRelevantEdge(edge, vertex, inOutType)
+                        && isInView(mapImpl, view, edge)) {
+                    consumer.accept(new EntitySeed(getAdjacentVertex(edge, vertex)));
+                }
+            });
+            mapImpl.recordIndexLookup(hit[0]);
+        }
+    }
+
+    private static boolean isInView(final MapImpl mapImpl, final View view, final Edge edge) {
+        final String group = edge.getGroup();
+        if (!view.getEdgeGroups().contains(group)) {
+            return false;
+        }
+        if (!GetElementsHandler.hasFunctions(view.getElement(group))) {
+            return true;
+        }
+
+        final Element copy = mapImpl.copyElement(edge,
+                mapImpl.groupsWithNoAggregation.contains(group) ? null : mapImpl.elementToProperties.get(edge));
+        return GetElementsHandler.applyView(Stream.of(copy), mapImpl, view).findAny().isPresent();
+    }
+
+    private static boolean isIncluded(final IncludeEdgeType includeEdges, final Edge edge) {
+        return IncludeEdgeType.ALL == includeEdges
+                || (IncludeEdgeType.DIRECTED == includeEdges && edge.isDirected())
+                || (IncludeEdgeType.UNDIRECTED == includeEdges && !edge.isDirected());
+    }
+
+    private static Object getAdjacentVertex(final Edge edge, final Object vertex) {
+        return edge.getSource().equals(vertex) ? edge.getDestination() : edge.getSource();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link VertexIndex} backed by a map from {@link EntitySeed} to a set of element keys.
+ */
+class MapVertexIndex implements VertexIndex {
+    private final Map<EntitySeed, Set<Element>> entitySeedToElements;
+    private final Supplier<Set<Element>> setSupplier;
+
+    MapVertexIndex(final Map<EntitySeed, Set<Element>> entitySeedToElements,
+                   final Supplier<Set<Element>> setSupplier) {
+        this.entitySeedToElements = entitySeedToElements;
+        this.setSupplier = setSupplier;
+    }
+
+    @Override
+    public void addElement(final Element element) {
+        if (element instanceof Entity) {
+            add(((Entity) element).getVertex(), element);
+        } else if (element instanceof Edge) {
+            final Edge edge = (Edge) element;
+            add(edge.getSource(), element);
+            add(edge.getDestination(), element);
+        }
+    }
+
+    @Override
+    public void forEach(final Object vertex, final Consumer<Element> consumer) {
+        final Set<Element> elements = entitySeedToElements.get(new EntitySeed(vertex));
+        if (null != elements) {
+            elements.forEach(consumer);
+        }
+    }
+
+    private void add(final Object vertex, final Element element) {
+        entitySeedToElements.computeIfAbsent(new EntitySeed(vertex), k -> setSupplier.get()).add(element);
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import com.google.common.io.CountingInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Properties;
+import uk.gov.gchq.gaffer.exception.SerialisationException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.serialiser.ElementSerialiser;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Persists the contents of a {@link MapImpl} to a directory, so that the
+ * {@link uk.gov.gchq.gaffer.mapstore.MapStore} can be restored without re-adding all of its elements.
+ * <p>
+ * The directory contains a snapshot file, holding each element key from elementToProperties with its properties, and
+ * an append-only delta log holding the elements that have been added since the snapshot was written. Elements are
+ * written to the delta log before they are added to the maps. The indices are not persisted, they are rebuilt from the
+ * element keys when the snapshot is loaded.
+ * <p>
+ * Each call to add elements returns only once its elements have been flushed and synced to the delta log on disk, so
+ * elements that have been added are not lost if the process or the machine crashes. Snapshots are also synced before
+ * they replace the previous snapshot.
+ * <p>
+ * The delta log starts with a generation number and each snapshot records the generation of the delta log it
+ * includes. Writing a snapshot publishes it before deleting the delta log, so if the process crashes in between then
+ * the old delta log is skipped on restore rather than being aggregated into the snapshot a second time.
+ * <p>
+ * Adding elements and writing a snapshot are guarded by a read/write lock, so elements can be added concurrently but
+ * not while a snapshot is being written.
+ */
+class SnapshotManager {
+    static final String SNAPSHOT_FILE = "elements.snapshot";
+    static final String DELTA_LOG_FILE = "elements.delta";
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotManager.class);
+    private static final int MAGIC = 0x47414646;
+    private static final int VERSION = 3;
+    private static final int REPLAY_BATCH_SIZE = 10000;
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+
+    private final Path directory;
+    private final Path snapshotFile;
+    private final Path deltaLogFile;
+    private final ElementSerialiser serialiser;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel deltaLogChannel;
+    private DataOutputStream deltaLog;
+    private long deltaLogGeneration;
+
+    SnapshotManager(final Path directory, final Schema schema) {
+        this.directory = directory;
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        this.deltaLogFile = directory.resolve(DELTA_LOG_FILE);
+        this.serialiser = new ElementSerialiser(schema);
+    }
+
+    /**
+     * Loads the snapshot into the maps, replays the delta log and then opens the delta log for appending.
+     *
+     * @param mapImpl     the empty maps to restore
+     * @param addElements adds a stream of elements to the maps, aggregating them with any existing elements
+     * @throws IOException if the snapshot or delta log cannot be read
+     */
+    void restore(final MapImpl mapImpl, final Consumer<Stream<Element>> addElements) throws IOException {
+        Files.createDirectories(directory);
+        long snapshotGeneration = 0;
+        if (Files.exists(snapshotFile)) {
+            snapshotGeneration = readSnapshot(mapImpl);
+        }
+        deltaLogGeneration = snapshotGeneration + 1;
+        if (Files.exists(deltaLogFile)) {
+            final long generation = readDeltaLogGeneration();
+            if (generation > snapshotGeneration) {
+                replayDeltaLog(addElements);
+                deltaLogGeneration = generation;
+            } else {
+                // Either the snapshot was published but the process stopped before this delta log was deleted, or
+                // the process stopped before the header of a new delta log was written
+                LOGGER.warn("Skipping delta log {} with generation {} as it is already included in the snapshot",
+                        deltaLogFile, generation);
+                Files.delete(deltaLogFile);
+            }
+        }
+        openDeltaLog();
+    }
+
+    /**
+     * Writes each element to the delta log before passing it on to be added to the maps. The delta log is synced to
+     * disk before this returns.
+     *
+     * @param elements    the elements to add
+     * @param addElements adds a stream of elements to the maps
+     * @throws IOException if the elements cannot be written to the delta log
+     */
+    void logAndAdd(final Stream<Element> elements, final Consumer<Stream<Element>> addElements) throws IOException {
+        lock.readLock().lock();
+        try {
+            addElements.accept(elements.peek(this::log));
+            synchronized (this) {
+                deltaLog.flush();
+                deltaLogChannel.force(false);
+            }
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes all the elements in the maps to a new snapshot and then clears the delta log.
+     *
+     * @param mapImpl the maps to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    void writeSnapshot(final MapImpl mapImpl) throws IOException {
+        lock.writeLock().lock();
+        try {
+            final Path tmpFile = snapshotFile.resolveSibling(SNAPSHOT_FILE + ".tmp");
+            try (final FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(deltaLogGeneration);
+                for (final Map.Entry<Element, Properties> entry : mapImpl.elementToProperties.entrySet()) {
+                    final Element element = entry.getKey();
+                    out.writeByte(RECORD);
+                    serialiser.writeElement(element, out);
+                    if (mapImpl.groupsWithNoAggregation.contains(element.getGroup())) {
+                        out.writeInt((int) entry.getValue().get(MapImpl.COUNT));
+                    } else {
+                        serialiser.writeProperties(element.getGroup(), entry.getValue(), out);
+                    }
+                }
+                out.writeByte(END);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tmpFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                deltaLog.close();
+                Files.delete(deltaLogFile);
+                deltaLogGeneration++;
+                openDeltaLog();
+            }
+            LOGGER.info("Written MapStore snapshot with {} elements to {}", mapImpl.elementToProperties.size(), snapshotFile);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void log(final Element element) {
+        try {
+            synchronized (this) {
+                deltaLog.writeByte(RECORD);
+                serialiser.writeElement(element, deltaLog);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long readSnapshot(final MapImpl mapImpl) throws IOException {
+        final long generation;
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (MAGIC != in.readInt() || VERSION != in.readInt()) {
+                throw new SerialisationException("File " + snapshotFile + " is not a MapStore snapshot");
+            }
+            generation = in.readLong();
+            while (RECORD == in.readByte()) {
+                final Element element = serialiser.readElement(in);
+                final Properties properties;
+                if (mapImpl.groupsWithNoAggregation.contains(element.getGroup())) {
+                    properties = new Properties();
+                    properties.put(MapImpl.COUNT, in.readInt());
+                } else {
+                    properties = serialiser.readProperties(element.getGroup(), in);
+                }
+                mapImpl.elementToProperties.put(element, properties);
+                if (mapImpl.maintainIndex) {
+                    mapImpl.updateIndex(element);
+                }
+            }
+        }
+        LOGGER.info("Loaded MapStore snapshot with {} elements from {}", mapImpl.elementToProperties.size(), snapshotFile);
+        return generation;
+    }
+
+    /**
+     * Reads the generation from the header of the delta log. A delta log without a complete header cannot contain any
+     * elements, so it is given generation 0 and is deleted along with delta logs that are already in the snapshot.
+     *
+     * @return the generation of the delta log, or 0 if its header is incomplete
+     * @throws IOException if the delta log cannot be read
+     */
+    private long readDeltaLogGeneration() throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(deltaLogFile)))) {
+            if (MAGIC != in.readInt() || VERSION != in.readInt()) {
+                throw new SerialisationException("File " + deltaLogFile + " is not a MapStore delta log");
+            }
+            return in.readLong();
+        } catch (final EOFException e) {
+            LOGGER.warn("The header of the delta log {} is incomplete", deltaLogFile);
+            return 0;
+        }
+    }
+
+    private void replayDeltaLog(final Consumer<Stream<Element>> addElements) throws IOException {
+        long validLength = 0;
+        long numElements = 0;
+        boolean truncated = false;
+        try (final CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(deltaLogFile)));
+             final DataInputStream in = new DataInputStream(counter)) {
+            // The header has already been checked by readDeltaLogGeneration
+            in.readInt();
+            in.readInt();
+            in.readLong();
+            validLength = counter.getCount();
+            final List<Element> batch = new ArrayList<>(REPLAY_BATCH_SIZE);
+            while (true) {
+                final int marker = in.read();
+                if (-1 == marker) {
+                    break;
+                }
+                if (RECORD != marker) {
+                    throw new SerialisationException("Unexpected marker " + marker + " in delta log " + deltaLogFile);
+                }
+                try {
+                    batch.add(serialiser.readElement(in));
+                } catch (final EOFException e) {
+                    // The last write was incomplete, e.g. the process was stopped part way through writing an element
+                    LOGGER.warn("Ignoring incomplete element at the end of the delta log " + deltaLogFile, e);
+                    truncated = true;
+                    break;
+                }
+                validLength = counter.getCount();
+                numElements++;
+                if (REPLAY_BATCH_SIZE == batch.size()) {
+                    addElements.accept(batch.stream());
+                    batch.clear();
+                }
+            }
+            addElements.accept(batch.stream());
+        }
+        if (truncated) {
+            try (final FileChannel channel = FileChannel.open(deltaLogFile, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        LOGGER.info("Replayed {} elements from the MapStore delta log {}", numElements, deltaLogFile);
+    }
+
+    private synchronized void openDeltaLog() throws IOException {
+        final boolean exists = Files.exists(deltaLogFile);
+        deltaLogChannel = FileChannel.open(deltaLogFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        deltaLog = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(deltaLogChannel)));
+        if (!exists) {
+            deltaLog.writeInt(MAGIC);
+            deltaLog.writeInt(VERSION);
+            deltaLog.writeLong(deltaLogGeneration);
+            deltaLog.flush();
+            deltaLogChannel.force(true);
+        }
+    }
+}
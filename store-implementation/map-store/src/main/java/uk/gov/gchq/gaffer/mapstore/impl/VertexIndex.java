@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import uk.gov.gchq.gaffer.data.element.Element;
+import java.util.function.Consumer;
+
+/**
+ * An index from a vertex to the element keys from {@link MapImpl#elementToProperties} that contain that vertex, i.e.
+ * the {@link uk.gov.gchq.gaffer.data.element.Entity}s with that vertex and the {@link uk.gov.gchq.gaffer.data.element.Edge}s
+ * with that vertex as the source or destination.
+ */
+interface VertexIndex {
+
+    /**
+     * Adds an element key to the index for each of its vertices. Adding an element that is already in the index has
+     * no effect.
+     *
+     * @param element the element key from elementToProperties
+     */
+    void addElement(final Element element);
+
+    /**
+     * Passes each element key in the index for the given vertex to the consumer.
+     *
+     * @param vertex   the vertex to look up
+     * @param consumer the consumer of the element keys
+     */
+    void forEach(final Object vertex, final Consumer<Element> consumer);
+}
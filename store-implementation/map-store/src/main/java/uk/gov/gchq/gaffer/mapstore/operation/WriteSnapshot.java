@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.operation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import uk.gov.gchq.gaffer.operation.AbstractOperation;
+import uk.gov.gchq.gaffer.operation.VoidInput;
+import uk.gov.gchq.gaffer.operation.VoidOutput;
+import uk.gov.gchq.gaffer.operation.serialisation.TypeReferenceImpl;
+
+/**
+ * A <code>WriteSnapshot</code> operation writes all the elements in the {@link uk.gov.gchq.gaffer.mapstore.MapStore}
+ * to a snapshot in the persistence directory and clears the delta log. The store must have been configured with
+ * {@link uk.gov.gchq.gaffer.mapstore.MapStoreProperties#PERSISTENCE_DIRECTORY}.
+ */
+public class WriteSnapshot extends AbstractOperation<Void, Void> implements VoidInput<Void>, VoidOutput<Void> {
+
+    public WriteSnapshot() {
+
+    }
+
+    @Override
+    public void setInput(final Void input) {
+        // Ignore the input
+    }
+
+    @Override
+    protected TypeReference createOutputTypeReference() {
+        return new TypeReferenceImpl.Void();
+    }
+}
@@ -18,39 +18,126 @@ package uk.gov.gchq.gaffer.mapstore.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Properties;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.serialisation.Serialisation;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.store.schema.SchemaElementDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Clones {@link Element}s so that the elements returned by the {@link uk.gov.gchq.gaffer.mapstore.MapStore} do not
+ * share any mutable state with the elements held in the store.
+ * <p>
+ * Property values of immutable types, such as {@link String} and the boxed primitives, are shared rather than cloned.
+ * Arrays of primitives and {@link Date}s hold no nested objects, so they are copied in memory. All other values, e.g.
+ * collections, maps and sketches, may hold mutable nested objects, so they are deep cloned by serialising and
+ * deserialising them with the serialiser from the schema.
+ */
 public final class ElementCloner {
     private static final Logger LOGGER = LoggerFactory.getLogger(ElementCloner.class);
+    private static final Set<Class<?>> IMMUTABLE_CLASSES = new HashSet<>(Arrays.asList(
+            String.class,
+            Boolean.class,
+            Character.class,
+            Byte.class,
+            Short.class,
+            Integer.class,
+            Long.class,
+            Float.class,
+            Double.class,
+            BigInteger.class,
+            BigDecimal.class));
 
     private ElementCloner() {
     }
 
     public static Element cloneElement(final Element element, final Schema schema) {
-        try {
-            final Element clone = element.emptyClone();
-            final SchemaElementDefinition sed = schema.getElement(clone.getGroup());
-            for (final String propertyName : element.getProperties().keySet()) {
-                final Object property = element.getProperty(propertyName);
-                if (null == sed.getPropertyTypeDef(propertyName) || null == sed.getPropertyTypeDef(propertyName).getSerialiser()) {
-                    // This can happen if transient properties are derived - they will not have serialisers.
-                    LOGGER.warn("Can't find Serialisation for " + propertyName + ", returning uncloned property");
-                    clone.putProperty(propertyName, property);
-                } else if (null != property) {
-                    final Serialisation serialisation = sed.getPropertyTypeDef(propertyName).getSerialiser();
-                    final byte[] serialised = serialisation.serialise(property);
-                    final Object deserialised = serialisation.deserialise(serialised);
-                    clone.putProperty(propertyName, deserialised);
-                } else {
-                    clone.putProperty(propertyName, null);
-                }
+        final Element clone = element.emptyClone();
+        copyProperties(clone, element.getProperties(), schema.getElement(clone.getGroup()));
+        return clone;
+    }
+
+    /**
+     * Copies the properties into the element, cloning any property values that are not immutable.
+     *
+     * @param element    the element to copy the properties into
+     * @param properties the properties to copy, may be null
+     * @param sed        the schema definition for the element's group
+     */
+    public static void copyProperties(final Element element, final Properties properties, final SchemaElementDefinition sed) {
+        if (null == properties) {
+            return;
+        }
+        for (final Map.Entry<String, Object> entry : properties.entrySet()) {
+            element.putProperty(entry.getKey(), cloneProperty(entry.getKey(), entry.getValue(), sed));
+        }
+    }
+
+    /**
+     * Replaces any property values of the element that are not immutable with clones of them. This is used on
+     * elements that share their property values with the stored elements, once it is known they will be returned.
+     *
+     * @param element the element to clone the mutable property values of
+     * @param sed     the schema definition for the element's group
+     * @return the element
+     */
+    public static Element cloneMutableProperties(final Element element, final SchemaElementDefinition sed) {
+        final Properties properties = element.getProperties();
+        final List<String> mutablePropertyNames = new ArrayList<>();
+        for (final Map.Entry<String, Object> entry : properties.entrySet()) {
+            if (null != entry.getValue() && !isImmutable(entry.getValue())) {
+                mutablePropertyNames.add(entry.getKey());
             }
-            return clone;
+        }
+        for (final String propertyName : mutablePropertyNames) {
+            properties.put(propertyName, cloneProperty(propertyName, properties.get(propertyName), sed));
+        }
+        return element;
+    }
+
+    private static Object cloneProperty(final String propertyName, final Object property, final SchemaElementDefinition sed) {
+        if (null == property || isImmutable(property)) {
+            return property;
+        }
+        if (property.getClass().isArray() && property.getClass().getComponentType().isPrimitive()) {
+            final int length = Array.getLength(property);
+            final Object copy = Array.newInstance(property.getClass().getComponentType(), length);
+            System.arraycopy(property, 0, copy, 0, length);
+            return copy;
+        }
+        if (Date.class == property.getClass()) {
+            return ((Date) property).clone();
+        }
+        return serialiseProperty(propertyName, property, sed);
+    }
+
+    private static Object serialiseProperty(final String propertyName, final Object property, final SchemaElementDefinition sed) {
+        final TypeDefinition typeDef = sed.getPropertyTypeDef(propertyName);
+        if (null == typeDef || null == typeDef.getSerialiser()) {
+            // This can happen if transient properties are derived - they will not have serialisers.
+            LOGGER.warn("Can't find Serialisation for " + propertyName + ", returning uncloned property");
+            return property;
+        }
+        final Serialisation serialisation = typeDef.getSerialiser();
+        try {
+            return serialisation.deserialise(serialisation.serialise(property));
         } catch (final SerialisationException e) {
             throw new RuntimeException("SerialisationException converting elements", e);
         }
     }
+
+    private static boolean isImmutable(final Object property) {
+        return IMMUTABLE_CLASSES.contains(property.getClass()) || property instanceof Enum;
+    }
 }
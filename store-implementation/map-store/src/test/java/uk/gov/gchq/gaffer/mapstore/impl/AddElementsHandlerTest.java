@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
+import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+
+public class AddElementsHandlerTest {
+    private static final int NUM_THREADS = 8;
+    private static final int NUM_BATCHES = 50;
+
+    @Test
+    public void shouldAggregateElementsAddedConcurrently() throws Exception {
+        // Given
+        final Graph graph = getConcurrentGraph();
+        final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+
+        // When
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < NUM_BATCHES; j++) {
+                    graph.execute(new AddElements.Builder()
+                            .elements(GetAllElementsHandlerTest.getElements())
+                            .build(), new User());
+                    // Read while other threads are writing
+                    final CloseableIterable<Element> results = graph.execute(new GetElements.Builder<>()
+                            .addSeed(new EntitySeed("A"))
+                            .build(), new User());
+                    StreamSupport.stream(results.spliterator(), false).count();
+                }
+                return null;
+            }));
+        }
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        final CloseableIterable<Element> results = graph.execute(new GetAllElements.Builder<>().build(), new User());
+        final Set<Element> resultsSet = new HashSet<>();
+        StreamSupport.stream(results.spliterator(), false).forEach(resultsSet::add);
+        final int multiplier = NUM_THREADS * NUM_BATCHES;
+        final Set<Element> expectedResults = new HashSet<>();
+        for (final Element element : GetAllElementsHandlerTest.getElements()) {
+            final Element expected = element instanceof Entity
+                    ? new Entity(element.getGroup(), ((Entity) element).getVertex())
+                    : new Edge(element.getGroup(), ((Edge) element).getSource(), ((Edge) element).getDestination(), ((Edge) element).isDirected());
+            expected.copyProperties(element.getProperties());
+            expected.putProperty(GetAllElementsHandlerTest.COUNT,
+                    multiplier * (int) element.getProperty(GetAllElementsHandlerTest.COUNT));
+            expectedResults.add(expected);
+        }
+        assertEquals(expectedResults, resultsSet);
+    }
+
+    @Test(expected = StoreException.class)
+    public void shouldNotAllowNonConcurrentMapWhenConcurrent() throws StoreException {
+        // Given
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setConcurrent("true");
+        storeProperties.setMapClass("java.util.HashMap");
+
+        // When / Then
+        new MapImpl(GetAllElementsHandlerTest.getSchema(), storeProperties);
+    }
+
+    private static Graph getConcurrentGraph() throws OperationException {
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setConcurrent("true");
+        return new Graph.Builder()
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(storeProperties)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class CompactVertexIndexTest {
+
+    @Test
+    public void shouldReturnElementsForEachVertex() {
+        // Given
+        final CompactVertexIndex index = new CompactVertexIndex();
+        final Entity entity = new Entity(GetAllElementsHandlerTest.BASIC_ENTITY, "A");
+        final Edge edge = new Edge(GetAllElementsHandlerTest.BASIC_EDGE1, "A", "B", true);
+        final Edge selfEdge = new Edge(GetAllElementsHandlerTest.BASIC_EDGE1, "B", "B", true);
+
+        // When
+        index.addElement(entity);
+        index.addElement(edge);
+        index.addElement(selfEdge);
+
+        // Then
+        assertEquals(Arrays.asList(entity, edge), getElements(index, "A"));
+        assertEquals(Arrays.asList(edge, selfEdge), getElements(index, "B"));
+        assertEquals(Collections.emptyList(), getElements(index, "C"));
+    }
+
+    @Test
+    public void shouldNotIndexTheSameElementTwice() {
+        // Given
+        final CompactVertexIndex index = new CompactVertexIndex();
+        final Edge edge = new Edge(GetAllElementsHandlerTest.BASIC_EDGE1, "A", "B", true);
+        edge.putProperty(GetAllElementsHandlerTest.PROPERTY1, "q");
+        final Edge equalEdge = new Edge(GetAllElementsHandlerTest.BASIC_EDGE1, "A", "B", true);
+        equalEdge.putProperty(GetAllElementsHandlerTest.PROPERTY1, "q");
+
+        // When
+        index.addElement(edge);
+        index.addElement(equalEdge);
+
+        // Then
+        assertEquals(Collections.singletonList(edge), getElements(index, "A"));
+        assertEquals(Collections.singletonList(edge), getElements(index, "B"));
+    }
+
+    @Test
+    public void shouldGrowBeyondInitialCapacity() {
+        // Given
+        final CompactVertexIndex index = new CompactVertexIndex();
+        final List<Element> edges = new ArrayList<>();
+        IntStream.range(0, 1000).forEach(i -> edges.add(new Edge(GetAllElementsHandlerTest.BASIC_EDGE1, "A", "B" + i, true)));
+
+        // When
+        edges.forEach(index::addElement);
+
+        // Then
+        assertEquals(edges, getElements(index, "A"));
+        assertEquals(new HashSet<>(Collections.singletonList(edges.get(999))), new HashSet<>(getElements(index, "B999")));
+    }
+
+    private static List<Element> getElements(final VertexIndex index, final Object vertex) {
+        final List<Element> elements = new ArrayList<>();
+        index.forEach(vertex, elements::add);
+        return elements;
+    }
+}
@@ -26,11 +26,13 @@ import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
 import uk.gov.gchq.gaffer.function.filter.IsMoreThan;
 import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.mapstore.MapStore;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.operation.GetOperation;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.store.Context;
 import uk.gov.gchq.gaffer.store.StoreException;
 import uk.gov.gchq.gaffer.store.schema.Schema;
 import uk.gov.gchq.gaffer.user.User;
@@ -417,6 +419,32 @@ public class GetAllElementsHandlerTest {
         assertEquals(2, resultsSet.size());
     }
 
+    @Test
+    public void shouldLimitResultsInHandlerWithoutLimitOperation() throws OperationException, StoreException {
+        // Given
+        final MapStore mapStore = new MapStore();
+        mapStore.initialise(getSchema(), new MapStoreProperties());
+        final AddElements addElements = new AddElements.Builder()
+                .elements(getElements())
+                .build();
+        new AddElementsHandler().doOperation(addElements, new Context(new User()), mapStore);
+        final GetAllElements<Element> getAllElements = new GetAllElements.Builder<>()
+                .view(new View.Builder()
+                        .entity(BASIC_ENTITY)
+                        .edge(BASIC_EDGE1)
+                        .edge(BASIC_EDGE2)
+                        .build())
+                .limitResults(3)
+                .build();
+
+        // When
+        final CloseableIterable<Element> results = new GetAllElementsHandler()
+                .doOperation(getAllElements, new Context(new User()), mapStore);
+
+        // Then
+        assertEquals(3, StreamSupport.stream(results.spliterator(), false).count());
+    }
+
     public static Graph getGraph() {
         final MapStoreProperties storeProperties = new MapStoreProperties();
         return new Graph.Builder()
@@ -32,13 +32,17 @@ import uk.gov.gchq.gaffer.function.annotation.Inputs;
 import uk.gov.gchq.gaffer.function.annotation.Outputs;
 import uk.gov.gchq.gaffer.function.filter.IsMoreThan;
 import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.mapstore.MapStore;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
 import uk.gov.gchq.gaffer.operation.GetOperation;
 import uk.gov.gchq.gaffer.operation.OperationException;
 import uk.gov.gchq.gaffer.operation.data.EdgeSeed;
+import uk.gov.gchq.gaffer.operation.data.ElementSeed;
 import uk.gov.gchq.gaffer.operation.data.EntitySeed;
 import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.metrics.StoreMetrics;
 import uk.gov.gchq.gaffer.user.User;
 
 import java.util.*;
@@ -47,6 +51,7 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class GetElementsHandlerTest {
     private final static int NUM_LOOPS = 10;
@@ -173,6 +178,36 @@ public class GetElementsHandlerTest {
         assertEquals(expectedResults, resultsSet);
     }
 
+    @Test
+    public void testGetElementsRecordsIndexLookupMetrics() throws OperationException {
+        // Given
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setMetricsEnabled("true");
+        final Graph graph = new Graph.Builder()
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(storeProperties)
+                .build();
+        final AddElements addElements = new AddElements.Builder()
+                .elements(getElements())
+                .build();
+        graph.execute(addElements, new User());
+
+        // When
+        final GetElements<EntitySeed, Element> getElements = new GetElements.Builder<EntitySeed, Element>()
+                .addSeed(new EntitySeed("A"))
+                .addSeed(new EntitySeed("NOT_PRESENT"))
+                .build();
+        final CloseableIterable<Element> results = graph.execute(getElements, new User());
+        final long numResults = StreamSupport.stream(results.spliterator(), false).count();
+
+        // Then
+        final StoreMetrics metrics = graph.getMetrics();
+        assertEquals(2, metrics.getCounter(MapStore.INDEX_LOOKUPS_METRIC));
+        assertEquals(1, metrics.getCounter(MapStore.INDEX_HITS_METRIC));
+        assertEquals(numResults, metrics.getOutputThroughput().get(GetElements.class.getName()).getElements());
+        assertEquals(1, metrics.getOperationChainLatencies().get("GetElements").getCount());
+    }
+
     @Test
     public void testGetElementsByEdgeSeed() throws OperationException {
         // Given
@@ -1285,6 +1320,45 @@ public class GetElementsHandlerTest {
         final CloseableIterable<Element> results = graph.execute(getElements, new User());
     }
 
+    @Test
+    public void testGetElementsWithCompactIndexMatchesDefaultIndex() throws OperationException {
+        // Given
+        final Graph graph = GetAllElementsHandlerTest.getGraph();
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setCompactIndex("true");
+        final Graph compactGraph = new Graph.Builder()
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(storeProperties)
+                .build();
+        final AddElements addElements = new AddElements.Builder()
+                .elements(getElements())
+                .build();
+        graph.execute(addElements, new User());
+        compactGraph.execute(addElements, new User());
+
+        for (final GetOperation.IncludeIncomingOutgoingType inOutType : GetOperation.IncludeIncomingOutgoingType.values()) {
+            for (final GetOperation.SeedMatchingType seedMatching : GetOperation.SeedMatchingType.values()) {
+                // When
+                final GetElements<ElementSeed, Element> getElements = new GetElements.Builder<>()
+                        .addSeed(new EntitySeed("A"))
+                        .addSeed(new EntitySeed("X"))
+                        .addSeed(new EdgeSeed("A", "B1", true))
+                        .addSeed(new EdgeSeed("X", "Y2", false))
+                        .inOutType(inOutType)
+                        .seedMatching(seedMatching)
+                        .build();
+                final Set<Element> results = new HashSet<>();
+                graph.execute(getElements, new User()).forEach(results::add);
+                final Set<Element> compactResults = new HashSet<>();
+                compactGraph.execute(getElements, new User()).forEach(compactResults::add);
+
+                // Then
+                assertFalse(results.isEmpty());
+                assertEquals(results, compactResults);
+            }
+        }
+    }
+
     @Test
     public void testElementsAreClonedBeforeBeingReturned() throws OperationException {
         // Given
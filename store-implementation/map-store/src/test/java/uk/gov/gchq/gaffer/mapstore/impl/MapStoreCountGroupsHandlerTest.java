@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import org.junit.Test;
+import uk.gov.gchq.gaffer.data.GroupCounts;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.function.filter.IsMoreThan;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.GetOperation;
+import uk.gov.gchq.gaffer.operation.OperationChain;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.Count;
+import uk.gov.gchq.gaffer.operation.impl.CountGroups;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.BASIC_EDGE1;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.BASIC_EDGE2;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.BASIC_ENTITY;
+import static uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest.COUNT;
+
+public class MapStoreCountGroupsHandlerTest {
+
+    @Test
+    public void testCountGroupsOfAllElements() throws OperationException {
+        // Given
+        final Graph graph = getGraphWithElements(GetAllElementsHandlerTest.getGraph());
+
+        // When
+        final GroupCounts groupCounts = countGroups(graph, new GetAllElements<>(), null);
+
+        // Then
+        assertEquals(Collections.singletonMap(BASIC_ENTITY, 10), groupCounts.getEntityGroups());
+        final Map<String, Integer> expectedEdgeGroups = new HashMap<>();
+        expectedEdgeGroups.put(BASIC_EDGE1, 10);
+        expectedEdgeGroups.put(BASIC_EDGE2, 10);
+        assertEquals(expectedEdgeGroups, groupCounts.getEdgeGroups());
+        assertFalse(groupCounts.isLimitHit());
+    }
+
+    @Test
+    public void testCountGroupsWithViewRestrictedByGroupAndAPreAggregationFilter() throws OperationException {
+        // Given
+        final Graph graph = getGraphWithElements(GetAllElementsHandlerTest.getGraph());
+        final GetAllElements<Element> getAllElements = new GetAllElements.Builder<>()
+                .view(new View.Builder()
+                        .edge(BASIC_EDGE1, new ViewElementDefinition.Builder()
+                                .preAggregationFilter(new ElementFilter.Builder()
+                                        .select(COUNT)
+                                        .execute(new IsMoreThan(5))
+                                        .build())
+                                .build())
+                        .build())
+                .build();
+
+        // When
+        final GroupCounts groupCounts = countGroups(graph, getAllElements, null);
+
+        // Then
+        assertTrue(groupCounts.getEntityGroups().isEmpty());
+        assertEquals(Collections.singletonMap(BASIC_EDGE1, 4), groupCounts.getEdgeGroups());
+    }
+
+    @Test
+    public void testCountGroupsIncludeEntitiesAndEdgesOptions() throws OperationException {
+        // Given
+        final Graph graph = getGraphWithElements(GetAllElementsHandlerTest.getGraph());
+        final GetAllElements<Element> getAllElements = new GetAllElements.Builder<>()
+                .includeEntities(false)
+                .includeEdges(GetOperation.IncludeEdgeType.UNDIRECTED)
+                .build();
+
+        // When
+        final GroupCounts groupCounts = countGroups(graph, getAllElements, null);
+
+        // Then
+        assertTrue(groupCounts.getEntityGroups().isEmpty());
+        assertEquals(Collections.singletonMap(BASIC_EDGE2, 10), groupCounts.getEdgeGroups());
+    }
+
+    @Test
+    public void testCountGroupsWithLimit() throws OperationException {
+        // Given
+        final Graph graph = getGraphWithElements(GetAllElementsHandlerTest.getGraph());
+
+        // When
+        final GroupCounts groupCounts = countGroups(graph, new GetAllElements<>(), 15);
+
+        // Then
+        int total = 0;
+        for (final Integer count : groupCounts.getEntityGroups().values()) {
+            total += count;
+        }
+        for (final Integer count : groupCounts.getEdgeGroups().values()) {
+            total += count;
+        }
+        assertEquals(15, total);
+        assertTrue(groupCounts.isLimitHit());
+    }
+
+    @Test
+    public void testCountGroupsWithLimitNotReached() throws OperationException {
+        // Given
+        final Graph graph = getGraphWithElements(GetAllElementsHandlerTest.getGraph());
+
+        // When
+        final GroupCounts groupCounts = countGroups(graph, new GetAllElements<>(), 30);
+
+        // Then
+        assertEquals(Collections.singletonMap(BASIC_ENTITY, 10), groupCounts.getEntityGroups());
+        assertFalse(groupCounts.isLimitHit());
+    }
+
+    @Test
+    public void testCountAllElementsNoAggregationAndDuplicateElements() throws OperationException {
+        // Given
+        final Graph graph = GetAllElementsHandlerTest.getGraphNoAggregation();
+        graph.execute(new AddElements.Builder()
+                .elements(GetAllElementsHandlerTest.getDuplicateElements())
+                .build(), new User());
+
+        // When
+        final Long count = graph.execute(new OperationChain.Builder()
+                .first(new GetAllElements<>())
+                .then(new Count<>())
+                .build(), new User());
+        final GroupCounts groupCounts = countGroups(graph, new GetAllElements<>(), null);
+
+        // Then
+        assertEquals((long) GetAllElementsHandlerTest.getDuplicateElements().size(), (long) count);
+        assertEquals(Collections.singletonMap(BASIC_ENTITY, 10), groupCounts.getEntityGroups());
+    }
+
+    private static Graph getGraphWithElements(final Graph graph) throws OperationException {
+        graph.execute(new AddElements.Builder()
+                .elements(GetAllElementsHandlerTest.getElements())
+                .build(), new User());
+        return graph;
+    }
+
+    private static GroupCounts countGroups(final Graph graph, final GetAllElements<Element> getAllElements, final Integer limit)
+            throws OperationException {
+        return graph.execute(new OperationChain.Builder()
+                .first(getAllElements)
+                .then(new CountGroups.Builder()
+                        .limit(limit)
+                        .build())
+                .build(), new User());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.function.ElementFilter;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.function.filter.IsMoreThan;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.operation.GetOperation.IncludeEdgeType;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.data.EntitySeed;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.TraverseHops;
+import uk.gov.gchq.gaffer.user.User;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class MapStoreTraverseHopsHandlerTest {
+    private Graph graph;
+
+    @Before
+    public void setUp() throws OperationException {
+        graph = GetAllElementsHandlerTest.getGraph();
+        graph.execute(new AddElements.Builder()
+                .elements(GetAllElementsHandlerTest.getElements())
+                .build(), new User());
+    }
+
+    @Test
+    public void shouldReturnVerticesFirstReachedOnLastHop() throws OperationException {
+        // When
+        final TraverseHops traverseHops = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("B1"))
+                .hops(2)
+                .build();
+        final Set<EntitySeed> results = toSet(graph.execute(traverseHops, new User()));
+
+        // Then
+        final Set<EntitySeed> expectedResults = getSeeds("B", 0, 10);
+        expectedResults.remove(new EntitySeed("B1"));
+        assertEquals(expectedResults, results);
+    }
+
+    @Test
+    public void shouldRevisitVerticesWhenNotExcludingVisited() throws OperationException {
+        // When
+        final TraverseHops traverseHops = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("B1"))
+                .hops(2)
+                .excludeVisited(false)
+                .build();
+        final Set<EntitySeed> results = toSet(graph.execute(traverseHops, new User()));
+
+        // Then
+        assertEquals(getSeeds("B", 0, 10), results);
+    }
+
+    @Test
+    public void shouldApplyHopViews() throws OperationException {
+        // When
+        final TraverseHops traverseHops = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("B1"))
+                .hopView(null)
+                .hopView(new View.Builder()
+                        .edge(GetAllElementsHandlerTest.BASIC_EDGE1, new ViewElementDefinition.Builder()
+                                .preAggregationFilter(new ElementFilter.Builder()
+                                        .select(GetAllElementsHandlerTest.COUNT)
+                                        .execute(new IsMoreThan(5))
+                                        .build())
+                                .build())
+                        .build())
+                .build();
+        final Set<EntitySeed> results = toSet(graph.execute(traverseHops, new User()));
+
+        // Then
+        assertEquals(getSeeds("B", 6, 10), results);
+    }
+
+    @Test
+    public void shouldStopWhenFrontierIsEmpty() throws OperationException {
+        // When
+        final TraverseHops traverseHops = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("Y1"))
+                .hops(3)
+                .hopView(new View.Builder()
+                        .edge(GetAllElementsHandlerTest.BASIC_EDGE1)
+                        .build())
+                .build();
+        final Set<EntitySeed> results = toSet(graph.execute(traverseHops, new User()));
+
+        // Then
+        assertEquals(Collections.emptySet(), results);
+    }
+
+    @Test
+    public void shouldReturnNoVerticesWhenEdgesAreNotIncluded() throws OperationException {
+        // When
+        final TraverseHops traverseHops = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("B1"))
+                .hops(2)
+                .includeEdges(IncludeEdgeType.NONE)
+                .build();
+        final Set<EntitySeed> results = toSet(graph.execute(traverseHops, new User()));
+
+        // Then
+        assertEquals(Collections.emptySet(), results);
+    }
+
+    @Test(expected = OperationException.class)
+    public void shouldThrowExceptionIfIndexIsNotCreated() throws OperationException {
+        // Given
+        final Graph graphNoIndices = GetAllElementsHandlerTest.getGraphNoIndices();
+        final TraverseHops traverseHops = new TraverseHops.Builder()
+                .addSeed(new EntitySeed("B1"))
+                .build();
+
+        // When
+        graphNoIndices.execute(traverseHops, new User());
+    }
+
+    private static Set<EntitySeed> getSeeds(final String prefix, final int start, final int end) {
+        final Set<EntitySeed> seeds = new HashSet<>();
+        for (int i = start; i < end; i++) {
+            seeds.add(new EntitySeed(prefix + i));
+        }
+        return seeds;
+    }
+
+    private static Set<EntitySeed> toSet(final CloseableIterable<EntitySeed> results) {
+        final Set<EntitySeed> resultsSet = new HashSet<>();
+        results.forEach(resultsSet::add);
+        return resultsSet;
+    }
+}
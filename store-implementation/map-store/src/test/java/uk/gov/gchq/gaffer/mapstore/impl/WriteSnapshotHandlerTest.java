@@ -0,0 +1,208 @@
+/*
+ * Copyright 2017 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.gaffer.mapstore.impl;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Edge;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.graph.Graph;
+import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.mapstore.operation.WriteSnapshot;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.user.User;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+
+public class WriteSnapshotHandlerTest {
+    @Rule
+    public final TemporaryFolder testFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRestoreElementsFromSnapshotAndDeltaLog() throws Exception {
+        // Given
+        final File directory = testFolder.newFolder();
+        final Graph graph = getGraph(directory);
+        addElements(graph);
+        graph.execute(new WriteSnapshot(), new User());
+        addElements(graph);
+
+        // When
+        final Graph restoredGraph = getGraph(directory);
+
+        // Then
+        assertEquals(getExpectedResults(2), getAllElements(restoredGraph));
+    }
+
+    @Test
+    public void shouldRestoreElementsFromDeltaLogOnly() throws Exception {
+        // Given
+        final File directory = testFolder.newFolder();
+        final Graph graph = getGraph(directory);
+        addElements(graph);
+
+        // When
+        final Graph restoredGraph = getGraph(directory);
+
+        // Then
+        assertEquals(getExpectedResults(1), getAllElements(restoredGraph));
+    }
+
+    @Test
+    public void shouldNotReplayDeltaLogAlreadyIncludedInSnapshot() throws Exception {
+        // Given - simulate a crash after the snapshot was published but before the delta log was deleted
+        final File directory = testFolder.newFolder();
+        final Graph graph = getGraph(directory);
+        addElements(graph);
+        final Path deltaLog = new File(directory, SnapshotManager.DELTA_LOG_FILE).toPath();
+        final byte[] oldDeltaLog = Files.readAllBytes(deltaLog);
+        graph.execute(new WriteSnapshot(), new User());
+        Files.write(deltaLog, oldDeltaLog);
+
+        // When
+        final Graph restoredGraph = getGraph(directory);
+        addElements(restoredGraph);
+
+        // Then
+        assertEquals(getExpectedResults(2), getAllElements(restoredGraph));
+        assertEquals(getExpectedResults(2), getAllElements(getGraph(directory)));
+    }
+
+    @Test
+    public void shouldIgnoreTruncatedRecordAtEndOfDeltaLog() throws Exception {
+        // Given
+        final File directory = testFolder.newFolder();
+        final Graph graph = getGraph(directory);
+        addElements(graph);
+        graph.execute(new WriteSnapshot(), new User());
+        addElements(graph);
+        truncateDeltaLog(directory, 3);
+
+        // When
+        final Graph restoredGraph = getGraph(directory);
+        addElements(restoredGraph);
+
+        // Then - only the truncated record, the last element of the second batch, is lost
+        final List<Element> secondBatch = GetAllElementsHandlerTest.getElements();
+        secondBatch.remove(secondBatch.size() - 1);
+        final Graph expectedGraph = new Graph.Builder()
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(new MapStoreProperties())
+                .build();
+        addElements(expectedGraph);
+        expectedGraph.execute(new AddElements.Builder().elements(secondBatch).build(), new User());
+        addElements(expectedGraph);
+        final Set<Element> results = getAllElements(restoredGraph);
+        assertEquals(getAllElements(expectedGraph), results);
+        assertEquals(results, getAllElements(getGraph(directory)));
+    }
+
+    @Test
+    public void shouldRestoreEmptyStringProperties() throws Exception {
+        // Given
+        final File directory = testFolder.newFolder();
+        final Graph graph = getGraph(directory);
+        final Entity entity = new Entity(GetAllElementsHandlerTest.BASIC_ENTITY, "A");
+        entity.putProperty(GetAllElementsHandlerTest.PROPERTY1, "");
+        entity.putProperty(GetAllElementsHandlerTest.COUNT, 1);
+        final Edge edge = new Edge(GetAllElementsHandlerTest.BASIC_EDGE1, "A", "B", true);
+        edge.putProperty(GetAllElementsHandlerTest.PROPERTY1, "");
+        edge.putProperty(GetAllElementsHandlerTest.COUNT, 1);
+        graph.execute(new AddElements.Builder().elements(entity).build(), new User());
+        graph.execute(new WriteSnapshot(), new User());
+        graph.execute(new AddElements.Builder().elements(edge).build(), new User());
+
+        // When
+        final Set<Element> results = getAllElements(getGraph(directory));
+
+        // Then
+        final Set<Element> expectedResults = new HashSet<>();
+        expectedResults.add(entity);
+        expectedResults.add(edge);
+        assertEquals(expectedResults, results);
+        for (final Element result : results) {
+            assertEquals("", result.getProperty(GetAllElementsHandlerTest.PROPERTY1));
+        }
+    }
+
+    @Test(expected = OperationException.class)
+    public void shouldThrowExceptionIfNoPersistenceDirectory() throws OperationException {
+        // Given
+        final Graph graph = new Graph.Builder()
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(new MapStoreProperties())
+                .build();
+
+        // When / Then
+        graph.execute(new WriteSnapshot(), new User());
+    }
+
+    private static Graph getGraph(final File directory) {
+        final MapStoreProperties storeProperties = new MapStoreProperties();
+        storeProperties.setPersistenceDirectory(directory.getAbsolutePath());
+        return new Graph.Builder()
+                .addSchema(GetAllElementsHandlerTest.getSchema())
+                .storeProperties(storeProperties)
+                .build();
+    }
+
+    private static void addElements(final Graph graph) throws OperationException {
+        graph.execute(new AddElements.Builder()
+                .elements(GetAllElementsHandlerTest.getElements())
+                .build(), new User());
+    }
+
+    private static Set<Element> getAllElements(final Graph graph) throws OperationException {
+        final CloseableIterable<Element> results = graph.execute(new GetAllElements.Builder<>().build(), new User());
+        final Set<Element> resultsSet = new HashSet<>();
+        StreamSupport.stream(results.spliterator(), false).forEach(resultsSet::add);
+        return resultsSet;
+    }
+
+    private static Set<Element> getExpectedResults(final int multiplier) {
+        final Set<Element> expectedResults = new HashSet<>();
+        for (final Element element : GetAllElementsHandlerTest.getElements()) {
+            final Element expected = element instanceof Entity
+                    ? new Entity(element.getGroup(), ((Entity) element).getVertex())
+                    : new Edge(element.getGroup(), ((Edge) element).getSource(), ((Edge) element).getDestination(), ((Edge) element).isDirected());
+            expected.copyProperties(element.getProperties());
+            expected.putProperty(GetAllElementsHandlerTest.COUNT,
+                    multiplier * (int) element.getProperty(GetAllElementsHandlerTest.COUNT));
+            expectedResults.add(expected);
+        }
+        return expectedResults;
+    }
+
+    private static void truncateDeltaLog(final File directory, final int numBytes) throws IOException {
+        try (final RandomAccessFile file = new RandomAccessFile(new File(directory, SnapshotManager.DELTA_LOG_FILE), "rw")) {
+            file.setLength(file.length() - numBytes);
+        }
+    }
+}
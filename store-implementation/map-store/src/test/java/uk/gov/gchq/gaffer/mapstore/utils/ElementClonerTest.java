@@ -16,16 +16,55 @@
 package uk.gov.gchq.gaffer.mapstore.utils;
 
 import org.junit.Test;
+import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
+import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.element.Entity;
+import uk.gov.gchq.gaffer.data.element.function.ElementTransformer;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.ViewElementDefinition;
+import uk.gov.gchq.gaffer.function.SimpleTransformFunction;
+import uk.gov.gchq.gaffer.function.TransformFunction;
+import uk.gov.gchq.gaffer.function.annotation.Inputs;
+import uk.gov.gchq.gaffer.function.annotation.Outputs;
+import uk.gov.gchq.gaffer.graph.Graph;
 import uk.gov.gchq.gaffer.mapstore.impl.GetAllElementsHandlerTest;
 import uk.gov.gchq.gaffer.mapstore.MapStore;
 import uk.gov.gchq.gaffer.mapstore.MapStoreProperties;
+import uk.gov.gchq.gaffer.operation.OperationException;
+import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
+import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
+import uk.gov.gchq.gaffer.serialisation.implementation.JavaSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.StringSerialiser;
+import uk.gov.gchq.gaffer.serialisation.implementation.TreeSetStringSerialiser;
 import uk.gov.gchq.gaffer.store.StoreException;
+import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.schema.SchemaEntityDefinition;
+import uk.gov.gchq.gaffer.store.schema.TypeDefinition;
+import uk.gov.gchq.gaffer.user.User;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.stream.StreamSupport;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class ElementClonerTest {
+    private static final String ENTITY_GROUP = "BasicEntity";
+    private static final String STRING_PROPERTY = "stringProperty";
+    private static final String SET_PROPERTY = "setProperty";
+    private static final String DATE_PROPERTY = "dateProperty";
+    private static final String BYTES_PROPERTY = "bytesProperty";
+    private static final String MAP_PROPERTY = "mapProperty";
 
     @Test
     public void testElementCloner() throws StoreException {
@@ -38,4 +77,133 @@ public class ElementClonerTest {
                 .map(element -> new Pair<>(element, ElementCloner.cloneElement(element, mapStore.getSchema())))
                 .forEach(pair -> assertEquals(pair.getFirst(), pair.getSecond()));
     }
+
+    @Test
+    public void shouldShareImmutablePropertiesAndCloneMutableProperties() {
+        // Given
+        final Schema schema = new Schema.Builder()
+                .entity(ENTITY_GROUP, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(STRING_PROPERTY, "string")
+                        .property(SET_PROPERTY, "treeSet")
+                        .build())
+                .type("string", new TypeDefinition.Builder()
+                        .clazz(String.class)
+                        .serialiser(new StringSerialiser())
+                        .build())
+                .type("treeSet", new TypeDefinition.Builder()
+                        .clazz(TreeSet.class)
+                        .serialiser(new TreeSetStringSerialiser())
+                        .build())
+                .build();
+        final Entity entity = new Entity(ENTITY_GROUP, "A");
+        entity.putProperty(STRING_PROPERTY, "p");
+        entity.putProperty(SET_PROPERTY, new TreeSet<>(Arrays.asList("a", "b")));
+
+        // When
+        final Element clone = ElementCloner.cloneElement(entity, schema);
+
+        // Then
+        assertEquals(entity, clone);
+        assertSame(entity.getProperty(STRING_PROPERTY), clone.getProperty(STRING_PROPERTY));
+        assertNotSame(entity.getProperty(SET_PROPERTY), clone.getProperty(SET_PROPERTY));
+    }
+
+    @Test
+    public void shouldCloneArraysAndDatesInMemoryAndOtherMutablePropertiesWithTheirSerialisers() {
+        // Given
+        final Schema schema = new Schema.Builder()
+                .entity(ENTITY_GROUP, new SchemaEntityDefinition.Builder()
+                        .vertex("string")
+                        .property(STRING_PROPERTY, "string")
+                        .property(SET_PROPERTY, "hashSet")
+                        .property(DATE_PROPERTY, "date")
+                        .property(BYTES_PROPERTY, "bytes")
+                        .build())
+                .type("string", String.class)
+                .type("hashSet", new TypeDefinition.Builder()
+                        .clazz(HashSet.class)
+                        .serialiser(new JavaSerialiser())
+                        .build())
+                .type("date", Date.class)
+                .type("bytes", byte[].class)
+                .build();
+        final Entity entity = new Entity(ENTITY_GROUP, "A");
+        entity.putProperty(STRING_PROPERTY, "p");
+        entity.putProperty(SET_PROPERTY, new HashSet<>(Arrays.asList("a", "b")));
+        entity.putProperty(DATE_PROPERTY, new Date(1000L));
+        entity.putProperty(BYTES_PROPERTY, new byte[]{1, 2, 3});
+        final Entity copy = new Entity(ENTITY_GROUP, "A");
+        copy.copyProperties(entity.getProperties());
+
+        // When
+        final Element clone = ElementCloner.cloneMutableProperties(copy, schema.getElement(ENTITY_GROUP));
+
+        // Then
+        assertSame(copy, clone);
+        assertSame(entity.getProperty(STRING_PROPERTY), clone.getProperty(STRING_PROPERTY));
+        assertEquals(entity.getProperty(SET_PROPERTY), clone.getProperty(SET_PROPERTY));
+        assertNotSame(entity.getProperty(SET_PROPERTY), clone.getProperty(SET_PROPERTY));
+        assertEquals(entity.getProperty(DATE_PROPERTY), clone.getProperty(DATE_PROPERTY));
+        assertNotSame(entity.getProperty(DATE_PROPERTY), clone.getProperty(DATE_PROPERTY));
+        assertArrayEquals((byte[]) entity.getProperty(BYTES_PROPERTY), (byte[]) clone.getProperty(BYTES_PROPERTY));
+        assertNotSame(entity.getProperty(BYTES_PROPERTY), clone.getProperty(BYTES_PROPERTY));
+    }
+
+    @Test
+    public void shouldNotChangeNestedValuesOfStoredElementsWhenReturnedElementsAreTransformed() throws OperationException {
+        // Given
+        final Graph graph = new Graph.Builder()
+                .addSchema(new Schema.Builder()
+                        .entity(ENTITY_GROUP, new SchemaEntityDefinition.Builder()
+                                .vertex("string")
+                                .property(MAP_PROPERTY, "map")
+                                .build())
+                        .type("string", String.class)
+                        .type("map", HashMap.class)
+                        .build())
+                .storeProperties(new MapStoreProperties())
+                .build();
+        final HashMap<String, ArrayList<String>> map = new HashMap<>();
+        map.put("key", new ArrayList<>(Collections.singletonList("a")));
+        final Entity entity = new Entity(ENTITY_GROUP, "A");
+        entity.putProperty(MAP_PROPERTY, map);
+        graph.execute(new AddElements.Builder()
+                .elements(Collections.singletonList(entity))
+                .build(), new User());
+
+        // When
+        final CloseableIterable<Element> transformed = graph.execute(new GetAllElements.Builder<>()
+                .view(new View.Builder()
+                        .entity(ENTITY_GROUP, new ViewElementDefinition.Builder()
+                                .transformer(new ElementTransformer.Builder()
+                                        .select(MAP_PROPERTY)
+                                        .execute(new AddToNestedLists())
+                                        .project(MAP_PROPERTY)
+                                        .build())
+                                .build())
+                        .build())
+                .build(), new User());
+        final CloseableIterable<Element> stored = graph.execute(new GetAllElements.Builder<>().build(), new User());
+
+        // Then
+        assertEquals(Arrays.asList("a", "b"), ((Map) transformed.iterator().next().getProperty(MAP_PROPERTY)).get("key"));
+        assertEquals(map, stored.iterator().next().getProperty(MAP_PROPERTY));
+        assertEquals(Collections.singletonList("a"), map.get("key"));
+    }
+
+    @Inputs(Map.class)
+    @Outputs(Map.class)
+    public static class AddToNestedLists extends SimpleTransformFunction<Map<String, List<String>>> {
+        @Override
+        protected Map<String, List<String>> _transform(final Map<String, List<String>> input) {
+            input.values().forEach(list -> list.add("b"));
+            return input;
+        }
+
+        @Override
+        public TransformFunction statelessClone() {
+            return new AddToNestedLists();
+        }
+    }
 }
@@ -32,6 +32,10 @@ public class ProxyProperties extends StoreProperties {
     public static final String CONNECT_TIMEOUT = "gaffer.connect-timeout";
     public static final String READ_TIMEOUT = "gaffer.read-timeout";
     public static final String JSON_SERIALISER_CLASS = "gaffer.jsonserialiser.class";
+    public static final String BINARY_ELEMENTS = "gaffer.binary-elements";
+    public static final String COMPRESS_REQUESTS = "gaffer.compress-requests";
+    public static final String MAX_CONCURRENT_REQUESTS = "gaffer.max-concurrent-requests";
+    public static final String ASYNC_REQUEST_TIMEOUT = "gaffer.async-request-timeout";
 
     public static final String DEFAULT_GAFFER_HOST = "localhost";
     public static final String DEFAULT_GAFFER_CONTEXT_ROOT = "/rest/v1";
@@ -39,6 +43,10 @@ public class ProxyProperties extends StoreProperties {
     public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
     public static final int DEFAULT_READ_TIMEOUT = 10000;
     public static final String DEFAULT_JSON_SERIALISER_CLASS = JSONSerialiser.class.getName();
+    public static final boolean DEFAULT_BINARY_ELEMENTS = false;
+    public static final boolean DEFAULT_COMPRESS_REQUESTS = false;
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 10;
+    public static final int DEFAULT_ASYNC_REQUEST_TIMEOUT = 0;
 
     public ProxyProperties() {
     }
@@ -118,6 +126,74 @@ public class ProxyProperties extends StoreProperties {
         set(JSON_SERIALISER_CLASS, jsonSerialiserClass);
     }
 
+    /**
+     * If true, elements returned by the delegate REST API are requested in a compact
+     * binary format and streamed back to the caller as they are read. The returned
+     * elements can then only be iterated once.
+     *
+     * @return true if elements should be returned in the binary format
+     */
+    public boolean isBinaryElements() {
+        return Boolean.parseBoolean(get(BINARY_ELEMENTS, String.valueOf(DEFAULT_BINARY_ELEMENTS)));
+    }
+
+    public void setBinaryElements(final boolean binaryElements) {
+        set(BINARY_ELEMENTS, String.valueOf(binaryElements));
+    }
+
+    /**
+     * If true, requests sent to the delegate REST API are compressed with gzip.
+     * The delegate REST API must support gzip encoded requests.
+     *
+     * @return true if requests should be compressed
+     */
+    public boolean isCompressRequests() {
+        return Boolean.parseBoolean(get(COMPRESS_REQUESTS, String.valueOf(DEFAULT_COMPRESS_REQUESTS)));
+    }
+
+    public void setCompressRequests(final boolean compressRequests) {
+        set(COMPRESS_REQUESTS, String.valueOf(compressRequests));
+    }
+
+    /**
+     * The maximum number of asynchronous requests that can be sent to the delegate
+     * REST API at the same time. Further requests wait until a request has completed.
+     *
+     * @return the maximum number of concurrent asynchronous requests
+     */
+    public int getMaxConcurrentRequests() {
+        final String maxRequests = get(MAX_CONCURRENT_REQUESTS, null);
+        try {
+            return null == maxRequests ? DEFAULT_MAX_CONCURRENT_REQUESTS : Integer.parseInt(maxRequests);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Unable to convert gaffer max concurrent requests into an integer", e);
+        }
+    }
+
+    public void setMaxConcurrentRequests(final int maxConcurrentRequests) {
+        set(MAX_CONCURRENT_REQUESTS, String.valueOf(maxConcurrentRequests));
+    }
+
+    /**
+     * The time in milliseconds an asynchronous request can take, including the time
+     * spent waiting to be sent. A value of 0 means the request is only limited by the
+     * connect and read timeouts.
+     *
+     * @return the asynchronous request timeout in milliseconds
+     */
+    public int getAsyncRequestTimeout() {
+        final String timeout = get(ASYNC_REQUEST_TIMEOUT, null);
+        try {
+            return null == timeout ? DEFAULT_ASYNC_REQUEST_TIMEOUT : Integer.parseInt(timeout);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Unable to convert gaffer timeout into an integer", e);
+        }
+    }
+
+    public void setAsyncRequestTimeout(final int timeout) {
+        set(ASYNC_REQUEST_TIMEOUT, String.valueOf(timeout));
+    }
+
     public URL getGafferUrl() {
         return getGafferUrl(null);
     }
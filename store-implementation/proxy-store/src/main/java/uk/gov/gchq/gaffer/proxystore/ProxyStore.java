@@ -19,14 +19,18 @@ package uk.gov.gchq.gaffer.proxystore;
 import com.fasterxml.jackson.core.type.TypeReference;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.filter.EncodingFilter;
+import org.glassfish.jersey.message.GZipEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.gov.gchq.gaffer.commonutil.CommonConstants;
 import uk.gov.gchq.gaffer.commonutil.iterable.CloseableIterable;
 import uk.gov.gchq.gaffer.data.element.Element;
+import uk.gov.gchq.gaffer.data.elementdefinition.view.View;
 import uk.gov.gchq.gaffer.exception.SerialisationException;
 import uk.gov.gchq.gaffer.jobtracker.JobDetail;
 import uk.gov.gchq.gaffer.jsonserialisation.JSONSerialiser;
+import uk.gov.gchq.gaffer.operation.GetElementsOperation;
 import uk.gov.gchq.gaffer.operation.Operation;
 import uk.gov.gchq.gaffer.operation.OperationChain;
 import uk.gov.gchq.gaffer.operation.OperationException;
@@ -45,24 +49,34 @@ import uk.gov.gchq.gaffer.store.StoreTrait;
 import uk.gov.gchq.gaffer.store.TypeReferenceStoreImpl;
 import uk.gov.gchq.gaffer.store.operation.handler.OperationHandler;
 import uk.gov.gchq.gaffer.store.schema.Schema;
+import uk.gov.gchq.gaffer.store.serialiser.ElementStreamSerialiser;
 import uk.gov.gchq.gaffer.user.User;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.Invocation.Builder;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 
 public class ProxyStore extends Store {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProxyStore.class);
+    private static final MediaType ELEMENT_STREAM_TYPE = MediaType.valueOf(ElementStreamSerialiser.MEDIA_TYPE);
     private JSONSerialiser jsonSerialiser;
     private Client client;
     private Set<StoreTrait> traits;
@@ -140,24 +154,144 @@ public class ProxyStore extends Store {
         return executeOpChainViaUrl(operationChain, context);
     }
 
+    @Override
+    protected <OUTPUT> CompletableFuture<OUTPUT> _executeAsync(
+            final OperationChain<OUTPUT> operationChain, final Context context) {
+        return executeOpChainViaUrlAsync(prepareOperationChain(operationChain, context), context);
+    }
+
     protected <OUTPUT> OUTPUT executeOpChainViaUrl(
             final OperationChain<OUTPUT> operationChain, final Context context)
             throws OperationException {
-        final String opChainJson;
+        final byte[] opChainJson = serialiseOpChain(operationChain);
+        final URL url = getProperties().getGafferUrl("graph/doOperation");
+        final Response response;
         try {
-            opChainJson = new String(jsonSerialiser.serialise(operationChain), CommonConstants.UTF_8);
-        } catch (final UnsupportedEncodingException | SerialisationException e) {
-            throw new OperationException("Unable to serialise operation chain into JSON.", e);
+            response = createOpChainRequest(operationChain, url, context).post(Entity.json(opChainJson));
+        } catch (final Exception e) {
+            throw new OperationException("Failed to execute post via " +
+                    "the Gaffer URL " + url.toExternalForm(), e);
         }
 
-        final URL url = getProperties().getGafferUrl("graph/doOperation");
         try {
-            return doPost(url, opChainJson, operationChain.getOutputTypeReference(), context);
+            return handleResponse(response, operationChain.getOutputTypeReference());
         } catch (final StoreException e) {
             throw new OperationException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Posts the operation chain to the delegate REST API without blocking the calling thread.
+     * The number of requests sent at the same time is limited by
+     * {@link ProxyProperties#getMaxConcurrentRequests()} and each request is failed if it
+     * takes longer than {@link ProxyProperties#getAsyncRequestTimeout()}.
+     *
+     * @param operationChain the operation chain to execute
+     * @param context        the operation chain context
+     * @param <OUTPUT>       the output type of the operation chain
+     * @return a future for the result of the operation chain
+     */
+    protected <OUTPUT> CompletableFuture<OUTPUT> executeOpChainViaUrlAsync(
+            final OperationChain<OUTPUT> operationChain, final Context context) {
+        final CompletableFuture<OUTPUT> result = new CompletableFuture<>();
+        final byte[] opChainJson;
+        try {
+            opChainJson = serialiseOpChain(operationChain);
+        } catch (final OperationException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        final URL url = getProperties().getGafferUrl("graph/doOperation");
+        final Future<Response> responseFuture = createOpChainRequest(operationChain, url, context)
+                .async()
+                .post(Entity.json(opChainJson), new InvocationCallback<Response>() {
+                    @Override
+                    public void completed(final Response response) {
+                        if (result.isDone()) {
+                            // The request has timed out so release the connection
+                            response.close();
+                            return;
+                        }
+
+                        try {
+                            result.complete(handleResponse(response, operationChain.getOutputTypeReference()));
+                        } catch (final StoreException | RuntimeException e) {
+                            result.completeExceptionally(new OperationException(e.getMessage(), e));
+                        }
+                    }
+
+                    @Override
+                    public void failed(final Throwable throwable) {
+                        result.completeExceptionally(new OperationException("Failed to execute post via " +
+                                "the Gaffer URL " + url.toExternalForm(), throwable));
+                    }
+                });
+
+        final int timeout = getProperties().getAsyncRequestTimeout();
+        if (timeout > 0) {
+            final ScheduledFuture<?> timeoutTask = TimeoutSchedulerHolder.SCHEDULER.schedule(() -> {
+                if (result.completeExceptionally(new OperationException("Request via the Gaffer URL "
+                        + url.toExternalForm() + " did not complete within " + timeout + "ms"))) {
+                    responseFuture.cancel(true);
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+            result.whenComplete((output, throwable) -> timeoutTask.cancel(false));
+        }
+
+        return result;
+    }
+
+    protected byte[] serialiseOpChain(final OperationChain<?> operationChain) throws OperationException {
+        try {
+            return jsonSerialiser.serialise(operationChain);
+        } catch (final SerialisationException e) {
+            throw new OperationException("Unable to serialise operation chain into JSON.", e);
+        }
+    }
+
+    protected Builder createOpChainRequest(final OperationChain<?> operationChain, final URL url, final Context context) {
+        final Invocation.Builder request = createRequest(null, url, context);
+        if (isBinaryElementsSupported(operationChain)) {
+            // Fall back to json if the delegate REST API does not support the binary format
+            request.accept(ElementStreamSerialiser.MEDIA_TYPE, MediaType.APPLICATION_JSON + ";q=0.5");
+        }
+        return request;
+    }
+
+    /**
+     * Elements can only be returned in the binary format if they are the output of the
+     * operation chain and all of their properties can be serialised using the schema.
+     *
+     * @param operationChain the operation chain to be executed
+     * @return true if the elements can be requested in the binary format
+     */
+    protected boolean isBinaryElementsSupported(final OperationChain<?> operationChain) {
+        if (!getProperties().isBinaryElements() || operationChain.getOperations().isEmpty()) {
+            return false;
+        }
+
+        final Operation<?, ?> lastOp = operationChain.getOperations().get(operationChain.getOperations().size() - 1);
+        if (!(lastOp instanceof GetElementsOperation)
+                || !(lastOp.getOutputTypeReference() instanceof TypeReferenceImpl.CloseableIterableElement)) {
+            return false;
+        }
+
+        for (final Operation<?, ?> op : operationChain.getOperations()) {
+            final View view = op.getView();
+            if (null != view) {
+                for (final String group : view.getGroups()) {
+                    // Transient properties do not have a serialiser in the schema
+                    if (!view.getElement(group).getTransientProperties().isEmpty()) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
     protected <OUTPUT> OUTPUT doPost(final URL url, final Object body,
                                      final TypeReference<OUTPUT> outputType,
                                      final Context context) throws StoreException {
@@ -203,23 +337,31 @@ public class ProxyStore extends Store {
     protected <OUTPUT> OUTPUT handleResponse(final Response response,
                                              final TypeReference<OUTPUT> outputTypeReference)
             throws StoreException {
-        final String outputJson = response.hasEntity() ? response.readEntity(String.class) : null;
         if (200 != response.getStatus() && 204 != response.getStatus()) {
+            final String outputJson = response.hasEntity() ? response.readEntity(String.class) : null;
             LOGGER.warn("Gaffer bad status " + response.getStatus());
             LOGGER.warn("Detail: " + outputJson);
             throw new StoreException("Delegate Gaffer store returned status: " + response.getStatus() + ". Response content was: " + outputJson);
         }
 
-        OUTPUT output = null;
-        if (null != outputJson) {
-            try {
-                output = deserialise(outputJson, outputTypeReference);
-            } catch (final SerialisationException e) {
-                throw new StoreException(e.getMessage(), e);
-            }
+        if (!response.hasEntity()) {
+            // Release the connection so it can be reused
+            response.close();
+            return null;
+        }
+
+        final InputStream outputStream = response.readEntity(InputStream.class);
+        if (ELEMENT_STREAM_TYPE.isCompatible(response.getMediaType())) {
+            // The response is closed when the elements have been read or the iterable is closed.
+            // The optimised schema holds the same default serialisers that the delegate store uses.
+            return (OUTPUT) new ElementStreamSerialiser(super.getSchema()).deserialise(outputStream);
         }
 
-        return output;
+        try {
+            return jsonSerialiser.deserialise(outputStream, outputTypeReference);
+        } catch (final SerialisationException e) {
+            throw new StoreException(e.getMessage(), e);
+        }
     }
 
     protected Builder createRequest(final String body, final URL url, final Context context) {
@@ -301,6 +443,28 @@ public class ProxyStore extends Store {
         final Client client = ClientBuilder.newClient();
         client.property(ClientProperties.CONNECT_TIMEOUT, proxyProps.getConnectTimeout());
         client.property(ClientProperties.READ_TIMEOUT, proxyProps.getReadTimeout());
+        client.property(ClientProperties.ASYNC_THREADPOOL_SIZE, proxyProps.getMaxConcurrentRequests());
+
+        // Accept gzip compressed responses and optionally compress requests
+        client.register(GZipEncoder.class);
+        client.register(EncodingFilter.class);
+        if (proxyProps.isCompressRequests()) {
+            client.property(ClientProperties.USE_ENCODING, "gzip");
+        }
         return client;
     }
+
+    private static final class TimeoutSchedulerHolder {
+        private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+        private static ScheduledExecutorService createScheduler() {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                final Thread thread = new Thread(runnable, "gaffer-proxy-store-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
 }
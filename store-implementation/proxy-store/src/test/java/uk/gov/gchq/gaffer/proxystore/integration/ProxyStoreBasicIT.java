@@ -17,6 +17,7 @@
 package uk.gov.gchq.gaffer.proxystore.integration;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -43,12 +44,17 @@ import uk.gov.gchq.gaffer.operation.impl.add.AddElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetAllElements;
 import uk.gov.gchq.gaffer.operation.impl.get.GetElements;
 import uk.gov.gchq.gaffer.operation.impl.job.GetJobDetails;
+import uk.gov.gchq.gaffer.proxystore.ProxyProperties;
 import uk.gov.gchq.gaffer.rest.RestApiTestUtil;
+import uk.gov.gchq.gaffer.rest.SystemProperty;
+import uk.gov.gchq.gaffer.store.StoreProperties;
 import uk.gov.gchq.gaffer.store.StoreTrait;
 import uk.gov.gchq.gaffer.user.User;
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
@@ -97,12 +103,15 @@ public class ProxyStoreBasicIT {
 
     @BeforeClass
     public static void beforeClass() throws Exception {
+        // Compressed requests are only decoded when gzip is enabled in the REST API
+        System.setProperty(SystemProperty.GZIP_ENABLED, "true");
         RestApiTestUtil.startServer();
     }
 
     @AfterClass
     public static void afterClass() {
         RestApiTestUtil.stopServer();
+        System.clearProperty(SystemProperty.GZIP_ENABLED);
     }
 
     @Before
@@ -149,6 +158,63 @@ public class ProxyStoreBasicIT {
         assertThat(results, hasItem(DEFAULT_ELEMENTS[2]));
     }
 
+    @Test
+    public void shouldAddElementsAndGetRelatedElementsUsingBinaryElementsAndCompression() throws Exception {
+        // Given
+        final ProxyProperties properties = (ProxyProperties) StoreProperties.loadStoreProperties(
+                StreamUtil.openStream(ProxyStoreBasicIT.class, "proxy-store.properties"));
+        properties.setBinaryElements(true);
+        properties.setCompressRequests(true);
+        graph = new Graph.Builder()
+                .storeProperties(properties)
+                .build();
+        addDefaultElements();
+
+        // When
+        final GetElements<EntitySeed, Element> getElements = new GetElements.Builder<EntitySeed, Element>()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .build())
+                .addSeed(new EntitySeed("1"))
+                .build();
+        final List<Element> results = Lists.newArrayList(graph.execute(getElements, USER));
+
+        // Then
+        assertEquals(2, results.size());
+        assertThat(results, hasItem(DEFAULT_ELEMENTS[0]));
+        assertThat(results, hasItem(DEFAULT_ELEMENTS[2]));
+    }
+
+    @Test
+    public void shouldAddElementsAndGetRelatedElementsAsynchronously() throws Exception {
+        // Given
+        addDefaultElements();
+        final GetElements<EntitySeed, Element> getElements1 = new GetElements.Builder<EntitySeed, Element>()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .build())
+                .addSeed(new EntitySeed("1"))
+                .build();
+        final GetElements<EntitySeed, Element> getElements2 = new GetElements.Builder<EntitySeed, Element>()
+                .view(new View.Builder()
+                        .entity(TestGroups.ENTITY)
+                        .build())
+                .addSeed(new EntitySeed("2"))
+                .build();
+
+        // When
+        final CompletableFuture<CloseableIterable<Element>> results1 = graph.executeAsync(new OperationChain<>(getElements1), USER);
+        final CompletableFuture<CloseableIterable<Element>> results2 = graph.executeAsync(new OperationChain<>(getElements2), USER);
+
+        // Then
+        assertEquals(2, Iterables.size(results1.get()));
+        assertThat(results1.get(), hasItem(DEFAULT_ELEMENTS[0]));
+        assertThat(results1.get(), hasItem(DEFAULT_ELEMENTS[2]));
+        assertEquals(2, Iterables.size(results2.get()));
+        assertThat(results2.get(), hasItem(DEFAULT_ELEMENTS[1]));
+        assertThat(results2.get(), hasItem(DEFAULT_ELEMENTS[2]));
+    }
+
     @Test
     public void shouldAddElementsViaAJob() throws Exception {
         // Add elements
@@ -158,7 +224,7 @@ public class ProxyStoreBasicIT {
         JobDetail jobDetail = graph.executeJob(new OperationChain<>(add), USER);
 
         // Wait until the job status is not RUNNING
-        while (JobStatus.RUNNING.equals(jobDetail.getStatus())) {
+        while (JobStatus.QUEUED.equals(jobDetail.getStatus()) || JobStatus.RUNNING.equals(jobDetail.getStatus())) {
             jobDetail = graph.execute(new GetJobDetails.Builder()
                     .jobId(jobDetail.getJobId())
                     .build(), USER);